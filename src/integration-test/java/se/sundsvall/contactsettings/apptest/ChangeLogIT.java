@@ -0,0 +1,202 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.CONTACT_SETTING;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.DELEGATE;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.DELEGATE_FILTER;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.UPDATED;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.Change;
+import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
+import se.sundsvall.contactsettings.api.model.ContactSettingUpdateRequest;
+import se.sundsvall.contactsettings.api.model.DelegateCreateRequest;
+import se.sundsvall.contactsettings.api.model.Filter;
+import se.sundsvall.contactsettings.service.ChangeLogService;
+import se.sundsvall.contactsettings.service.ContactSettingsService;
+import se.sundsvall.contactsettings.service.DelegateFilterService;
+import se.sundsvall.contactsettings.service.DelegateService;
+import se.sundsvall.contactsettings.service.changelog.ChangeLogRelay;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+/**
+ * Verifies that the changes made through the services are recorded in the change log, in the order they are made, that
+ * the sequence numbers are assigned in commit order, and that the change log can be read one page at a time. The relay
+ * is run by the tests (the scheduled runs are postponed), so that the changes can be read as soon as they are relayed.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"contactsettings.change-log.relay.fixed-delay=PT1H"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class ChangeLogIT {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String OTHER_MUNICIPALITY_ID = "1984";
+
+	@Autowired
+	private ChangeLogService changeLogService;
+
+	@Autowired
+	private ChangeLogRelay changeLogRelay;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ContactSettingsService contactSettingsService;
+
+	@Autowired
+	private DelegateService delegateService;
+
+	@Autowired
+	private DelegateFilterService delegateFilterService;
+
+	@Test
+	void changesAreRecordedInOrder() {
+		final var principalId = createContactSetting(MUNICIPALITY_ID);
+		final var agentId = createContactSetting(MUNICIPALITY_ID);
+		contactSettingsService.updateContactSetting(MUNICIPALITY_ID, principalId, ContactSettingUpdateRequest.create().withAlias("Updated"));
+		final var delegateId = delegateService.create(MUNICIPALITY_ID, DelegateCreateRequest.create()
+			.withPrincipalId(principalId)
+			.withAgentId(agentId)
+			.withFilters(List.of(Filter.create().withAlias("Summer house").withRules(List.of())))).getId();
+		final var filterId = delegateFilterService.create(delegateId, Filter.create().withAlias("Winter house").withRules(List.of())).getId();
+		delegateFilterService.update(delegateId, filterId, Filter.create().withAlias("Winter cottage").withRules(List.of()));
+		delegateFilterService.delete(delegateId, filterId);
+		delegateService.delete(MUNICIPALITY_ID, delegateId);
+		contactSettingsService.deleteContactSetting(MUNICIPALITY_ID, agentId);
+		createContactSetting(OTHER_MUNICIPALITY_ID);
+		changeLogRelay.relay();
+
+		final var changes = changeLogService.readChanges(MUNICIPALITY_ID, 0, 100);
+
+		assertThat(changes)
+			.extracting(Change::getEntityType, Change::getEntityId, Change::getDelegateId, Change::getOperation)
+			.containsExactly(
+				tuple(CONTACT_SETTING, principalId, null, CREATED),
+				tuple(CONTACT_SETTING, agentId, null, CREATED),
+				tuple(CONTACT_SETTING, principalId, null, UPDATED),
+				tuple(DELEGATE, delegateId, null, CREATED),
+				tuple(DELEGATE_FILTER, filterId, delegateId, CREATED),
+				tuple(DELEGATE_FILTER, filterId, delegateId, UPDATED),
+				tuple(DELEGATE_FILTER, filterId, delegateId, DELETED),
+				tuple(DELEGATE, delegateId, null, DELETED),
+				tuple(CONTACT_SETTING, agentId, null, DELETED));
+		assertThat(changes).extracting(Change::getSequence).isSorted().doesNotHaveDuplicates();
+		assertThat(changes).allSatisfy(change -> assertThat(change.getCreated()).isNotNull());
+	}
+
+	@Test
+	void delegatesOfDeletedContactSettingsAreRecorded() {
+		final var principalId = createContactSetting(MUNICIPALITY_ID);
+		final var agentId = createContactSetting(MUNICIPALITY_ID);
+		final var delegateId = delegateService.create(MUNICIPALITY_ID, DelegateCreateRequest.create()
+			.withPrincipalId(principalId)
+			.withAgentId(agentId)
+			.withFilters(List.of(Filter.create().withAlias("Summer house").withRules(List.of())))).getId();
+		changeLogRelay.relay();
+		final var since = changeLogService.readChanges(MUNICIPALITY_ID, 0, 100).getLast().getSequence();
+
+		contactSettingsService.deleteContactSetting(MUNICIPALITY_ID, agentId);
+		changeLogRelay.relay();
+
+		// The delegate is recorded as deleted (which implies its filters), before the contact setting.
+		assertThat(changeLogService.readChanges(MUNICIPALITY_ID, since, 100))
+			.extracting(Change::getEntityType, Change::getEntityId, Change::getOperation)
+			.containsExactly(
+				tuple(DELEGATE, delegateId, DELETED),
+				tuple(CONTACT_SETTING, agentId, DELETED));
+	}
+
+	@Test
+	void changesAreReadOnePageAtATime() {
+		final var ids = List.of(createContactSetting(MUNICIPALITY_ID), createContactSetting(MUNICIPALITY_ID), createContactSetting(MUNICIPALITY_ID));
+		changeLogRelay.relay();
+
+		final var firstPage = changeLogService.readChanges(MUNICIPALITY_ID, 0, 2);
+		final var secondPage = changeLogService.readChanges(MUNICIPALITY_ID, firstPage.getLast().getSequence(), 2);
+		final var thirdPage = changeLogService.readChanges(MUNICIPALITY_ID, secondPage.getLast().getSequence(), 2);
+
+		assertThat(firstPage).extracting(Change::getEntityId).containsExactlyElementsOf(ids.subList(0, 2));
+		assertThat(secondPage).extracting(Change::getEntityId).containsExactlyElementsOf(ids.subList(2, 3));
+		assertThat(thirdPage).isEmpty();
+	}
+
+	@Test
+	void failedChangesAreNotRecorded() {
+		final var principalId = createContactSetting(MUNICIPALITY_ID);
+		final var delegateId = delegateService.create(MUNICIPALITY_ID, DelegateCreateRequest.create()
+			.withPrincipalId(principalId)
+			.withAgentId(createContactSetting(MUNICIPALITY_ID))).getId();
+		changeLogRelay.relay();
+		final var since = changeLogService.readChanges(MUNICIPALITY_ID, 0, 100).getLast().getSequence();
+
+		// The deletion is recorded before the delegate is found not to exist in the municipality, and is rolled back.
+		assertThrows(ThrowableProblem.class, () -> delegateService.delete(OTHER_MUNICIPALITY_ID, delegateId));
+		changeLogRelay.relay();
+
+		assertThat(changeLogService.readChanges(MUNICIPALITY_ID, since, 100)).isEmpty();
+		assertThat(changeLogService.readChanges(OTHER_MUNICIPALITY_ID, 0, 100)).isEmpty();
+	}
+
+	@Test
+	void changesAreSequencedInCommitOrder() throws Exception {
+		final var inserted = new CountDownLatch(1);
+		final var commit = new CountDownLatch(1);
+
+		// A change that is made first, but committed last.
+		final var slow = CompletableFuture.supplyAsync(() -> new TransactionTemplate(transactionManager).execute(status -> {
+			final var id = createContactSetting(MUNICIPALITY_ID);
+			inserted.countDown();
+			await(commit);
+			return id;
+		}));
+		inserted.await();
+		final var fast = createContactSetting(MUNICIPALITY_ID);
+		changeLogRelay.relay();
+		final var firstRead = changeLogService.readChanges(MUNICIPALITY_ID, 0, 100);
+
+		commit.countDown();
+		final var slowId = slow.get();
+		changeLogRelay.relay();
+		final var secondRead = changeLogService.readChanges(MUNICIPALITY_ID, firstRead.getLast().getSequence(), 100);
+
+		// The uncommitted change is not skipped, but is read after the change that was committed before it.
+		assertThat(firstRead).extracting(Change::getEntityId).containsExactly(fast);
+		assertThat(secondRead).extracting(Change::getEntityId).containsExactly(slowId);
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private String createContactSetting(final String municipalityId) {
+		return contactSettingsService.createContactSetting(municipalityId, ContactSettingCreateRequest.create().withPartyId(randomUUID().toString()));
+	}
+}
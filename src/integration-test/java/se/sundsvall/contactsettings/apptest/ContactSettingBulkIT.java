@@ -0,0 +1,106 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.CONFLICT;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.UPDATED;
+import static se.sundsvall.contactsettings.api.model.enums.ContactMethod.EMAIL;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.ContactChannel;
+import se.sundsvall.contactsettings.api.model.ContactSettingBulkResult;
+import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.service.ContactSettingsBulkService;
+
+/**
+ * Verifies, with Hibernate statistics, that bulk created contact settings (and their channels) are inserted with JDBC
+ * batching, i.e. with a number of statements that does not grow with each contact setting.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class ContactSettingBulkIT {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final int CONTACT_SETTINGS = 250;
+
+	@Autowired
+	private ContactSettingsBulkService contactSettingsBulkService;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void bulkCreateIsBatched() {
+		final var requests = createRequests();
+
+		statistics.clear();
+		final var results = contactSettingsBulkService.createContactSettings(MUNICIPALITY_ID, requests, false);
+
+		assertThat(results).hasSize(CONTACT_SETTINGS).extracting(ContactSettingBulkResult::getOutcome).containsOnly(CREATED);
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(CONTACT_SETTINGS);
+		// One select, and one statement per batch of contact settings and of channels.
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(7);
+		assertThat(contactSettingRepository.findWithChannelsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, requests.stream().map(ContactSettingCreateRequest::getPartyId).toList()))
+			.hasSize(CONTACT_SETTINGS)
+			.allSatisfy(entity -> assertThat(entity.getChannels()).hasSize(1));
+	}
+
+	@Test
+	void bulkCreateExisting() {
+		final var requests = createRequests();
+		contactSettingsBulkService.createContactSettings(MUNICIPALITY_ID, requests, false);
+
+		assertThat(contactSettingsBulkService.createContactSettings(MUNICIPALITY_ID, requests, false))
+			.extracting(ContactSettingBulkResult::getOutcome).containsOnly(CONFLICT);
+
+		final var upserts = requests.stream().map(request -> request.withAlias("updated")).toList();
+		assertThat(contactSettingsBulkService.createContactSettings(MUNICIPALITY_ID, upserts, true))
+			.extracting(ContactSettingBulkResult::getOutcome).containsOnly(UPDATED);
+		assertThat(contactSettingRepository.findWithChannelsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, requests.stream().map(ContactSettingCreateRequest::getPartyId).toList()))
+			.hasSize(CONTACT_SETTINGS)
+			.allSatisfy(entity -> assertThat(entity.getAlias()).isEqualTo("updated"));
+	}
+
+	private static List<ContactSettingCreateRequest> createRequests() {
+		return IntStream.range(0, CONTACT_SETTINGS)
+			.mapToObj(i -> ContactSettingCreateRequest.create()
+				.withPartyId(randomUUID().toString())
+				.withAlias("alias-" + i)
+				.withContactChannels(List.of(ContactChannel.create()
+					.withContactMethod(EMAIL)
+					.withDestination("person" + i + "@example.com")
+					.withAlias("email"))))
+			.toList();
+	}
+}
@@ -0,0 +1,84 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.countStatements;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.createContactSettingEntity;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.ContactSettingUpdateRequest;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.service.ContactSettingsService;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+/**
+ * Verifies that the contact setting cache serves warm reads without querying the database, and that it is invalidated
+ * by the entity listener when a contact setting is updated or removed.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"contactsettings.contact-setting-cache.enabled=true"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class ContactSettingCacheIT {
+
+	// Each contact setting has its own id and partyId, as truncating the tables does not invalidate the cache.
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private ContactSettingsService contactSettingsService;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void warmReadsDoNotQueryTheDatabase() {
+		final var contactSetting = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+
+		final var coldStatementCount = countStatements(entityManagerFactory, () -> contactSettingsService.readContactSetting(MUNICIPALITY_ID, contactSetting.getId()));
+		final var warmStatementCount = countStatements(entityManagerFactory, () -> contactSettingsService.readContactSetting(MUNICIPALITY_ID, contactSetting.getId()));
+
+		assertThat(coldStatementCount).isPositive();
+		assertThat(warmStatementCount).isZero();
+	}
+
+	@Test
+	void cacheIsInvalidatedWhenContactSettingIsUpdated() {
+		final var contactSetting = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID).withAlias("before"));
+
+		assertThat(contactSettingsService.readContactSetting(MUNICIPALITY_ID, contactSetting.getId()).getAlias()).isEqualTo("before");
+
+		contactSettingsService.updateContactSetting(MUNICIPALITY_ID, contactSetting.getId(), ContactSettingUpdateRequest.create().withAlias("after"));
+
+		assertThat(contactSettingsService.readContactSetting(MUNICIPALITY_ID, contactSetting.getId()).getAlias()).isEqualTo("after");
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, contactSetting.getPartyId(), null).getFirst().getAlias()).isEqualTo("after");
+	}
+
+	@Test
+	void cacheIsInvalidatedWhenContactSettingIsDeleted() {
+		final var contactSetting = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+
+		assertThat(contactSettingsService.readContactSetting(MUNICIPALITY_ID, contactSetting.getId())).isNotNull();
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, contactSetting.getPartyId(), null)).hasSize(1);
+
+		contactSettingsService.deleteContactSetting(MUNICIPALITY_ID, contactSetting.getId());
+
+		assertThrows(ThrowableProblem.class, () -> contactSettingsService.readContactSetting(MUNICIPALITY_ID, contactSetting.getId()));
+		assertThrows(ThrowableProblem.class, () -> contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, contactSetting.getPartyId(), null));
+	}
+}
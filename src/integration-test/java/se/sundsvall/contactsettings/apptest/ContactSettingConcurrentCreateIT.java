@@ -0,0 +1,84 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.service.ContactSettingsService;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+/**
+ * Verifies that concurrent creates of a contact setting for the same party result in exactly one contact setting, and
+ * that all other creates are rejected with 409 Conflict.
+ */
+@SpringBootTest(classes = Application.class, properties = "spring.main.banner-mode=off")
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class ContactSettingConcurrentCreateIT {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final int PARALLEL_CREATES = 8;
+
+	@Autowired
+	private ContactSettingsService contactSettingsService;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Test
+	void concurrentCreatesForSameParty() throws Exception {
+		final var partyId = randomUUID().toString();
+		final var request = ContactSettingCreateRequest.create().withPartyId(partyId).withAlias("alias");
+
+		// Release all creates at once.
+		final var start = new CountDownLatch(1);
+		final var results = new ArrayList<Future<String>>();
+		try (final var executor = Executors.newFixedThreadPool(PARALLEL_CREATES)) {
+			for (var i = 0; i < PARALLEL_CREATES; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return contactSettingsService.createContactSetting(MUNICIPALITY_ID, request);
+				}));
+			}
+			start.countDown();
+		}
+
+		final var createdIds = new ArrayList<String>();
+		final var conflicts = new ArrayList<ThrowableProblem>();
+		for (final var result : results) {
+			try {
+				createdIds.add(result.get());
+			} catch (final ExecutionException e) {
+				assertThat(e.getCause()).isInstanceOf(ThrowableProblem.class);
+				conflicts.add((ThrowableProblem) e.getCause());
+			}
+		}
+
+		assertThat(createdIds).hasSize(1);
+		assertThat(conflicts).hasSize(PARALLEL_CREATES - 1)
+			.allSatisfy(problem -> {
+				assertThat(problem.getStatus()).isEqualTo(CONFLICT);
+				assertThat(problem.getDetail()).isEqualTo(ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS.formatted(partyId));
+			});
+		assertThat(contactSettingRepository.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, partyId))
+			.hasValueSatisfying(entity -> assertThat(entity.getId()).isEqualTo(createdIds.getFirst()));
+		assertThat(contactSettingRepository.findWithChannelsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, List.of(partyId))).hasSize(1);
+	}
+}
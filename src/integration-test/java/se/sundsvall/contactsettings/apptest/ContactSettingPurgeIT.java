@@ -0,0 +1,93 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.createContactSettingEntity;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.service.ContactSettingsService;
+import se.sundsvall.contactsettings.service.purge.ContactSettingPurger;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+/**
+ * Verifies that a contact setting deleted with the purger enabled is excluded from reads and chain traversal at once,
+ * and that the purger removes it, its virtual children and their delegates in bounded batches. The scheduled runs are
+ * delayed beyond the test, so that the purger is only run by the test.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"contactsettings.contact-setting-purge.enabled=true",
+		"contactsettings.contact-setting-purge.fixed-delay=PT1H",
+		"contactsettings.contact-setting-purge.batch-size=2",
+		"contactsettings.contact-setting-purge.delegate-batch-size=2"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class ContactSettingPurgeIT {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private ContactSettingsService contactSettingsService;
+
+	@Autowired
+	private ContactSettingPurger contactSettingPurger;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Autowired
+	private DelegateRepository delegateRepository;
+
+	@Test
+	void deletedContactSettingIsExcludedAndPurged() {
+		final var root = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+		final var parent = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+		final var children = IntStream.range(0, 3)
+			.mapToObj(i -> contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID).withPartyId(null).withCreatedById(parent.getId())))
+			.toList();
+		final var agent = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(root).withAgent(parent));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(parent).withAgent(agent));
+		children.forEach(child -> delegateRepository.save(DelegateEntity.create().withPrincipal(child).withAgent(agent)));
+
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, root.getPartyId(), null))
+			.extracting(ContactSetting::getId)
+			.containsExactly(root.getId(), parent.getId(), agent.getId());
+
+		// Delete (tombstone) the parent and its virtual children.
+		assertThat(contactSettingsService.deleteContactSetting(MUNICIPALITY_ID, parent.getId())).isFalse();
+
+		assertThrows(ThrowableProblem.class, () -> contactSettingsService.readContactSetting(MUNICIPALITY_ID, parent.getId()));
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, root.getPartyId(), null))
+			.extracting(ContactSetting::getId)
+			.containsExactly(root.getId());
+		assertThat(delegateRepository.findSummariesByPrincipalId(root.getId())).isEmpty();
+		assertThat(delegateRepository.findSummariesByAgentId(agent.getId())).isEmpty();
+		assertThat(contactSettingRepository.countTombstoned()).isEqualTo(4);
+
+		// Purge, two contact settings per run.
+		assertThat(contactSettingPurger.purge()).isEqualTo(2);
+		assertThat(contactSettingPurger.purge()).isEqualTo(2);
+		assertThat(contactSettingPurger.purge()).isZero();
+
+		assertThat(contactSettingRepository.countTombstoned()).isZero();
+		assertThat(delegateRepository.count()).isZero();
+		assertThat(contactSettingRepository.existsById(root.getId())).isTrue();
+		assertThat(contactSettingRepository.existsById(agent.getId())).isTrue();
+	}
+}
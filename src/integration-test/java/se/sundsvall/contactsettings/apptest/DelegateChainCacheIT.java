@@ -0,0 +1,100 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.countStatements;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.createContactSettingEntity;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.api.model.ContactSettingUpdateRequest;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.service.ContactSettingsService;
+
+/**
+ * Verifies that the delegate chain cache serves warm reads without querying the database, and that a cached chain is
+ * evicted when a contact setting or delegate it depends on changes.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"contactsettings.delegate-chain-cache.enabled=true"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class DelegateChainCacheIT {
+
+	// Each contact setting has its own id and partyId, as truncating the tables does not invalidate the cache.
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private ContactSettingsService contactSettingsService;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Autowired
+	private DelegateRepository delegateRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void warmReadsDoNotQueryTheDatabase() {
+		final var root = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+		final var agent = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(root).withAgent(agent));
+
+		final var coldStatementCount = countStatements(entityManagerFactory, () -> contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, root.getPartyId(), Map.of("key", List.of("value"))));
+		final var warmStatementCount = countStatements(entityManagerFactory, () -> contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, root.getPartyId(), Map.of("key", List.of("VALUE"))));
+
+		assertThat(coldStatementCount).isPositive();
+		assertThat(warmStatementCount).isZero();
+	}
+
+	@Test
+	void chainIsEvictedWhenDependencyChanges() {
+		final var root = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+		final var agent1 = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+		final var agent2 = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(root).withAgent(agent1));
+
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, root.getPartyId(), null))
+			.extracting(ContactSetting::getId)
+			.containsExactly(root.getId(), agent1.getId());
+
+		// Add a delegate to a contact setting in the chain.
+		final var delegate = delegateRepository.save(DelegateEntity.create().withPrincipal(agent1).withAgent(agent2));
+
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, root.getPartyId(), null))
+			.extracting(ContactSetting::getId)
+			.containsExactly(root.getId(), agent1.getId(), agent2.getId());
+
+		// Update a contact setting in the chain.
+		contactSettingsService.updateContactSetting(MUNICIPALITY_ID, agent2.getId(), ContactSettingUpdateRequest.create().withAlias("updated"));
+
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, root.getPartyId(), null))
+			.extracting(ContactSetting::getAlias)
+			.containsExactly(null, null, "updated");
+
+		// Remove the delegate again.
+		delegateRepository.delete(delegate);
+
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, root.getPartyId(), null))
+			.extracting(ContactSetting::getId)
+			.containsExactly(root.getId(), agent1.getId());
+	}
+}
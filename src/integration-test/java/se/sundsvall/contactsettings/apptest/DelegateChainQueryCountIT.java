@@ -0,0 +1,98 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.createContactSettingEntity;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.util.LinkedMultiValueMap;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.contactsettings.service.ContactSettingsService;
+
+/**
+ * Verifies that the number of SQL statements needed to resolve a delegate chain does not grow with the depth of the
+ * chain.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class DelegateChainQueryCountIT {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private ContactSettingsService contactSettingsService;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Autowired
+	private DelegateRepository delegateRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void statementCountIsConstantRegardlessOfChainDepth() {
+		final var statementsForDepth1 = countStatementsForChainOfDepth(1);
+		final var statementsForDepth5 = countStatementsForChainOfDepth(5);
+		final var statementsForDepth20 = countStatementsForChainOfDepth(20);
+
+		assertThat(statementsForDepth5).isEqualTo(statementsForDepth1);
+		assertThat(statementsForDepth20).isEqualTo(statementsForDepth1);
+	}
+
+	private long countStatementsForChainOfDepth(final int depth) {
+		final var root = createChain(depth);
+		final var query = new LinkedMultiValueMap<>(Map.of("key", List.of("value")));
+		final var statistics = statistics(entityManagerFactory);
+
+		statistics.clear();
+		final var result = contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, root.getPartyId(), query);
+		final var statementCount = statistics.getPrepareStatementCount();
+
+		assertThat(result).hasSize(depth + 1);
+		return statementCount;
+	}
+
+	private ContactSettingEntity createChain(final int depth) {
+		final var root = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+
+		var principal = root;
+		for (var i = 0; i < depth; i++) {
+			final var agent = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+			delegateRepository.save(DelegateEntity.create()
+				.withPrincipal(principal)
+				.withAgent(agent)
+				.withFilters(List.of(DelegateFilterEntity.create()
+					.withFilterRules(List.of(DelegateFilterRule.create()
+						.withAttributeName("key")
+						.withOperator(EQUALS.toString())
+						.withAttributeValue("value"))))));
+			principal = agent;
+		}
+
+		return root;
+	}
+}
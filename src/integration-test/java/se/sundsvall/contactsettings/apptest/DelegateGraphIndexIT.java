@@ -0,0 +1,90 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.countStatements;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.createContactSettingEntity;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.service.ContactSettingsService;
+
+/**
+ * Verifies that the delegate graph index serves warm reads without querying the delegate graph, and that it is
+ * invalidated by the entity listeners when the graph changes.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"contactsettings.delegate-graph-index.enabled=true"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class DelegateGraphIndexIT {
+
+	// Each test uses its own municipality, as truncating the tables does not invalidate the index.
+	private static final String MUNICIPALITY_ID_1 = "2281";
+	private static final String MUNICIPALITY_ID_2 = "2262";
+
+	@Autowired
+	private ContactSettingsService contactSettingsService;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Autowired
+	private DelegateRepository delegateRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void warmReadsDoNotQueryTheDelegateGraph() {
+		final var root = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID_1));
+		final var agent = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID_1));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(root).withAgent(agent));
+
+		final var coldStatementCount = countStatements(entityManagerFactory, () -> contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID_1, root.getPartyId(), null));
+		final var warmStatementCount = countStatements(entityManagerFactory, () -> contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID_1, root.getPartyId(), null));
+
+		assertThat(warmStatementCount).isEqualTo(coldStatementCount - 1);
+	}
+
+	@Test
+	void indexIsInvalidatedWhenDelegateGraphChanges() {
+		final var root = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID_2));
+		final var agent1 = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID_2));
+		final var agent2 = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID_2));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(root).withAgent(agent1));
+
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID_2, root.getPartyId(), null))
+			.extracting(ContactSetting::getId)
+			.containsExactly(root.getId(), agent1.getId());
+
+		// Add a delegate.
+		final var delegate = delegateRepository.save(DelegateEntity.create().withPrincipal(agent1).withAgent(agent2));
+
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID_2, root.getPartyId(), null))
+			.extracting(ContactSetting::getId)
+			.containsExactly(root.getId(), agent1.getId(), agent2.getId());
+
+		// Remove the delegate again.
+		delegateRepository.delete(delegate);
+
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID_2, root.getPartyId(), null))
+			.extracting(ContactSetting::getId)
+			.containsExactly(root.getId(), agent1.getId());
+	}
+}
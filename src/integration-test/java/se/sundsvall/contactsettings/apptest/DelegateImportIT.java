@@ -0,0 +1,100 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.DUPLICATE;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.IMPORTED;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.UNRESOLVED;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.Delegate;
+import se.sundsvall.contactsettings.api.model.FindDelegatesParameters;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.service.DelegateService;
+import se.sundsvall.contactsettings.service.importer.DelegateImportJob;
+
+/**
+ * Verifies that delegates (with filters and rules) are imported from a CSV file, that the principals and agents are
+ * resolved by partyId and by id, and that a completed file is not imported again. The scheduled runs are delayed
+ * beyond the test, so that the job is only run by the test.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"contactsettings.delegate-import.enabled=true",
+		"contactsettings.delegate-import.fixed-delay=PT1H",
+		"contactsettings.delegate-import.batch-size=2",
+		"contactsettings.delegate-import.municipality-id=2281",
+		"contactsettings.delegate-import.file=${java.io.tmpdir}/contactsettings-delegate-import-it.csv"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class DelegateImportIT {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private DelegateImportJob delegateImportJob;
+
+	@Autowired
+	private DelegateService delegateService;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Value("${contactsettings.delegate-import.file}")
+	private Path file;
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".checkpoint"));
+	}
+
+	@Test
+	void importDelegates() throws IOException {
+		final var principal = contactSettingRepository.save(ContactSettingEntity.create().withMunicipalityId(MUNICIPALITY_ID).withPartyId(randomUUID().toString()));
+		final var agent = contactSettingRepository.save(ContactSettingEntity.create().withMunicipalityId(MUNICIPALITY_ID).withPartyId(randomUUID().toString()));
+		final var virtualAgent = contactSettingRepository.save(ContactSettingEntity.create().withMunicipalityId(MUNICIPALITY_ID).withCreatedById(principal.getId()));
+
+		Files.writeString(file, """
+			principalPartyId,agentPartyId,agentId,filterAlias,filterChannel,attributeName,operator,attributeValue
+			%1$s,%2$s,,Summer house,Energy,facilityId,EQUALS,123
+			%1$s,%2$s,,Summer house,Energy,type,NOT_EQUALS,heating
+			%1$s,%2$s,,Winter house,Energy,facilityId,EQUALS,456
+			%1$s,,%3$s,,,facilityId,EQUALS,789
+			%1$s,%2$s,,,,facilityId,EQUALS,999
+			%4$s,%2$s,,,,facilityId,EQUALS,999
+			""".formatted(principal.getPartyId(), agent.getPartyId(), virtualAgent.getId(), randomUUID()));
+
+		final var result = delegateImportJob.run();
+
+		assertThat(result).isEqualTo(Map.of(IMPORTED, 2L, DUPLICATE, 1L, UNRESOLVED, 1L));
+		assertThat(delegateService.find(MUNICIPALITY_ID, FindDelegatesParameters.create().withPrincipalId(principal.getId())))
+			.extracting(Delegate::getAgentId)
+			.containsExactlyInAnyOrder(agent.getId(), virtualAgent.getId());
+		assertThat(delegateService.find(MUNICIPALITY_ID, FindDelegatesParameters.create().withPrincipalId(principal.getId()).withAgentId(agent.getId())))
+			.singleElement()
+			.satisfies(delegate -> assertThat(delegate.getFilters())
+				.hasSize(2)
+				.anySatisfy(filter -> assertThat(filter.getRules()).hasSize(2)));
+
+		// The file is completed, and is not imported again.
+		assertThat(delegateImportJob.run()).isEmpty();
+	}
+}
@@ -0,0 +1,115 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.CONTACT_SETTING;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.DELEGATE;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.ExportRecord;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.Channel;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.contactsettings.service.ExportService;
+
+/**
+ * Verifies, with Hibernate statistics, that the export of a municipality reads all contact settings (with channels)
+ * and all delegates (with filters and rules) with one query each, i.e. with a number of statements that does not grow
+ * with the size of the municipality.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class ExportIT {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String OTHER_MUNICIPALITY_ID = "1984";
+	private static final int CONTACT_SETTINGS = 100;
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Autowired
+	private DelegateRepository delegateRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void export() {
+		final var contactSettings = contactSettingRepository.saveAll(IntStream.range(0, CONTACT_SETTINGS)
+			.mapToObj(i -> contactSettingEntity(MUNICIPALITY_ID))
+			.toList());
+		// Each contact setting delegates to the next one, with two filters of two rules each.
+		IntStream.range(1, CONTACT_SETTINGS).forEach(i -> delegateRepository.save(DelegateEntity.create()
+			.withPrincipal(contactSettings.get(i - 1))
+			.withAgent(contactSettings.get(i))
+			.withFilters(List.of(delegateFilterEntity("Summer house"), delegateFilterEntity("Winter house")))));
+		final var outside = contactSettingRepository.save(contactSettingEntity(OTHER_MUNICIPALITY_ID));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(outside).withAgent(contactSettingRepository.save(contactSettingEntity(OTHER_MUNICIPALITY_ID))));
+
+		final var statistics = statistics();
+		final var records = new ArrayList<ExportRecord>();
+		exportService.export(MUNICIPALITY_ID, records::add);
+
+		assertThat(records).filteredOn(exportRecord -> exportRecord.getType() == CONTACT_SETTING)
+			.hasSize(CONTACT_SETTINGS)
+			.allSatisfy(exportRecord -> assertThat(exportRecord.getContactSetting().getContactChannels()).hasSize(1));
+		assertThat(records).filteredOn(exportRecord -> exportRecord.getType() == DELEGATE)
+			.hasSize(CONTACT_SETTINGS - 1)
+			.allSatisfy(exportRecord -> assertThat(exportRecord.getDelegate().getFilters())
+				.hasSize(2)
+				.allSatisfy(filter -> assertThat(filter.getRules()).hasSize(2)));
+		// The contact settings come first.
+		assertThat(records.subList(0, CONTACT_SETTINGS)).allSatisfy(exportRecord -> assertThat(exportRecord.getType()).isEqualTo(CONTACT_SETTING));
+		// One query for the contact settings, and one for the delegates.
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	private Statistics statistics() {
+		final var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+
+	private static ContactSettingEntity contactSettingEntity(final String municipalityId) {
+		return ContactSettingEntity.create()
+			.withMunicipalityId(municipalityId)
+			.withPartyId(randomUUID().toString())
+			.withAlias("alias")
+			.withChannels(List.of(Channel.create().withAlias("Email").withContactMethod("EMAIL").withDestination("john.doe@example.com")));
+	}
+
+	private static DelegateFilterEntity delegateFilterEntity(final String alias) {
+		return DelegateFilterEntity.create()
+			.withAlias(alias)
+			.withFilterRules(List.of(
+				DelegateFilterRule.create().withAttributeName("facilityId").withOperator("EQUALS").withAttributeValue("123"),
+				DelegateFilterRule.create().withAttributeName("type").withOperator("NOT_EQUALS").withAttributeValue("heating")));
+	}
+}
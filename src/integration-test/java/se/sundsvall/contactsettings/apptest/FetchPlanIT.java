@@ -0,0 +1,250 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.createContactSettingEntity;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
+import se.sundsvall.contactsettings.api.model.Filter;
+import se.sundsvall.contactsettings.api.model.FindDelegatesParameters;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateFilterRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.contactsettings.service.ContactSettingsService;
+import se.sundsvall.contactsettings.service.DelegateFilterService;
+import se.sundsvall.contactsettings.service.DelegateService;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+/**
+ * Verifies, with Hibernate statistics, that each service path only loads the entities and collections it maps to the
+ * API. The second-level cache is disabled (also the default), so that every load reaches the database.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class FetchPlanIT {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String CHANNELS_ROLE = ContactSettingEntity.class.getName() + ".channels";
+
+	@Autowired
+	private ContactSettingsService contactSettingsService;
+
+	@Autowired
+	private DelegateService delegateService;
+
+	@Autowired
+	private DelegateFilterService delegateFilterService;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Autowired
+	private DelegateRepository delegateRepository;
+
+	@Autowired
+	private DelegateFilterRepository delegateFilterRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = statistics(entityManagerFactory);
+	}
+
+	@Test
+	void readDelegateLoadsFiltersButNoContactSettings() {
+		final var delegate = createDelegate(contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID)), 2);
+
+		statistics.clear();
+		final var result = delegateService.read(MUNICIPALITY_ID, delegate.getId());
+
+		assertThat(result.getFilters()).hasSize(2).allSatisfy(filter -> assertThat(filter.getRules()).hasSize(1));
+		assertThat(entityLoadCount(ContactSettingEntity.class)).isZero();
+		assertThat(collectionLoadCount(CHANNELS_ROLE)).isZero();
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void findDelegatesLoadsSummariesAndFiltersButNoEntities() {
+		final var statementsFor1Delegate = countStatementsForFindByPrincipal(1);
+		final var statementsFor10Delegates = countStatementsForFindByPrincipal(10);
+
+		assertThat(entityLoadCount(ContactSettingEntity.class)).isZero();
+		assertThat(entityLoadCount(DelegateEntity.class)).isZero();
+		assertThat(collectionLoadCount(CHANNELS_ROLE)).isZero();
+		assertThat(statementsFor10Delegates).isEqualTo(statementsFor1Delegate);
+	}
+
+	@Test
+	void deleteDelegateIsOneStatementBesidesTheChangeLog() {
+		final var delegate = createDelegate(contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID)), 2);
+
+		statistics.clear();
+		delegateService.delete(MUNICIPALITY_ID, delegate.getId());
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2); // The change log entry and the delete.
+		assertThat(delegateRepository.existsById(delegate.getId())).isFalse();
+		assertThat(delegateFilterRepository.findAllById(delegate.getFilters().stream().map(DelegateFilterEntity::getId).toList())).isEmpty();
+	}
+
+	@Test
+	void deleteDelegateInOtherMunicipalityIsNotFound() {
+		final var delegate = createDelegate(contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID)), 1);
+
+		assertThrows(ThrowableProblem.class, () -> delegateService.delete("1984", delegate.getId()));
+		assertThrows(ThrowableProblem.class, () -> delegateService.read("1984", delegate.getId()));
+
+		assertThat(delegateRepository.existsById(delegate.getId())).isTrue();
+	}
+
+	@Test
+	void readFilterLoadsRulesInTheSameStatement() {
+		final var delegate = createDelegate(contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID)), 2);
+		final var filterId = delegate.getFilters().getFirst().getId();
+
+		statistics.clear();
+		final var result = delegateFilterService.read(delegate.getId(), filterId);
+
+		assertThat(result.getRules()).hasSize(1);
+		assertThat(entityLoadCount(ContactSettingEntity.class)).isZero();
+		assertThat(entityLoadCount(DelegateEntity.class)).isZero();
+		assertThat(statistics.getPrepareStatementCount()).isOne();
+	}
+
+	@Test
+	void createFilterLoadsNoContactSettings() {
+		final var delegate = createDelegate(contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID)), 2);
+
+		statistics.clear();
+		delegateFilterService.create(delegate.getId(), Filter.create().withAlias("new filter").withRules(List.of()));
+
+		assertThat(entityLoadCount(ContactSettingEntity.class)).isZero();
+		assertThat(collectionLoadCount(CHANNELS_ROLE)).isZero();
+	}
+
+	@Test
+	void deleteFilterLoadsNoContactSettings() {
+		final var delegate = createDelegate(contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID)), 2);
+		final var filterId = delegate.getFilters().getFirst().getId();
+
+		statistics.clear();
+		delegateFilterService.delete(delegate.getId(), filterId);
+
+		assertThat(entityLoadCount(ContactSettingEntity.class)).isZero();
+		assertThat(collectionLoadCount(CHANNELS_ROLE)).isZero();
+		assertThat(delegateRepository.findWithFiltersById(delegate.getId()).orElseThrow().getFilters()).hasSize(1);
+	}
+
+	@Test
+	void createContactSettingDoesNotLoadExistingContactSetting() {
+		final var existing = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+
+		statistics.clear();
+		contactSettingsService.createContactSetting(MUNICIPALITY_ID, ContactSettingCreateRequest.create().withPartyId(randomUUID().toString()));
+
+		assertThat(entityLoadCount(ContactSettingEntity.class)).isZero();
+		assertThat(collectionLoadCount(CHANNELS_ROLE)).isZero();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2); // The insert and the change log entry.
+		assertThat(contactSettingRepository.existsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, existing.getPartyId())).isTrue();
+	}
+
+	@Test
+	void readContactSettingLoadsChannelsInTheSameStatement() {
+		final var contactSetting = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+
+		statistics.clear();
+		final var result = contactSettingsService.readContactSetting(MUNICIPALITY_ID, contactSetting.getId());
+
+		assertThat(result.getContactChannels()).hasSize(1);
+		assertThat(statistics.getPrepareStatementCount()).isOne();
+	}
+
+	@Test
+	void deleteContactSettingIsConstantInTheNumberOfVirtualChildren() {
+		final var statementsFor1Child = countStatementsForDeleteContactSetting(1);
+		final var statementsFor20Children = countStatementsForDeleteContactSetting(20);
+
+		assertThat(entityLoadCount(DelegateEntity.class)).isZero();
+		assertThat(statementsFor20Children).isEqualTo(statementsFor1Child);
+	}
+
+	private long countStatementsForDeleteContactSetting(final int childCount) {
+		final var parent = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+		final var children = IntStream.range(0, childCount)
+			.mapToObj(i -> contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID).withPartyId(null).withCreatedById(parent.getId())))
+			.toList();
+		children.forEach(child -> createDelegate(child, 1));
+
+		statistics.clear();
+		contactSettingsService.deleteContactSetting(MUNICIPALITY_ID, parent.getId());
+		final var statements = statistics.getPrepareStatementCount();
+
+		assertThat(contactSettingRepository.existsById(parent.getId())).isFalse();
+		assertThat(children).noneMatch(child -> contactSettingRepository.existsById(child.getId()));
+		assertThat(delegateRepository.findSummariesByPrincipalId(children.getFirst().getId())).isEmpty();
+		return statements;
+	}
+
+	private long countStatementsForFindByPrincipal(final int delegateCount) {
+		final var principal = contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID));
+		IntStream.range(0, delegateCount).forEach(i -> createDelegate(principal, 1));
+
+		statistics.clear();
+		final var result = delegateService.find(MUNICIPALITY_ID, FindDelegatesParameters.create().withPrincipalId(principal.getId()));
+
+		assertThat(result).hasSize(delegateCount).allSatisfy(delegate -> assertThat(delegate.getFilters()).hasSize(1));
+		return statistics.getPrepareStatementCount();
+	}
+
+	private DelegateEntity createDelegate(final ContactSettingEntity principal, final int filterCount) {
+		return delegateRepository.save(DelegateEntity.create()
+			.withPrincipal(principal)
+			.withAgent(contactSettingRepository.save(createContactSettingEntity(MUNICIPALITY_ID)))
+			.withFilters(IntStream.range(0, filterCount)
+				.mapToObj(i -> DelegateFilterEntity.create()
+					.withAlias("filter" + i)
+					.withFilterRules(List.of(DelegateFilterRule.create()
+						.withAttributeName("key")
+						.withOperator(EQUALS.toString())
+						.withAttributeValue("value" + i))))
+				.toList()));
+	}
+
+	private long entityLoadCount(final Class<?> entityClass) {
+		return statistics.getEntityStatistics(entityClass.getName()).getLoadCount();
+	}
+
+	private long collectionLoadCount(final String role) {
+		return statistics.getCollectionStatistics(role).getLoadCount();
+	}
+}
@@ -0,0 +1,61 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static java.util.UUID.randomUUID;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import se.sundsvall.contactsettings.integration.db.model.Channel;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+
+/**
+ * Entities and Hibernate statistics helpers shared by the integration tests that work directly against the
+ * repositories and count the statements of the service paths.
+ */
+final class IntegrationTestSupport {
+
+	private IntegrationTestSupport() {}
+
+	/**
+	 * Creates a (not yet persisted) contact setting with a random party id and one email channel.
+	 *
+	 * @param  municipalityId the municipality of the contact setting.
+	 * @return                the contact setting.
+	 */
+	static ContactSettingEntity createContactSettingEntity(final String municipalityId) {
+		return ContactSettingEntity.create()
+			.withMunicipalityId(municipalityId)
+			.withPartyId(randomUUID().toString())
+			.withChannels(List.of(Channel.create()
+				.withContactMethod("EMAIL")
+				.withDestination("someone@example.com")));
+	}
+
+	/**
+	 * Returns the Hibernate statistics, which are only collected when 'hibernate.generate_statistics' is enabled.
+	 *
+	 * @param  entityManagerFactory the entity manager factory of the application.
+	 * @return                      the statistics.
+	 */
+	static Statistics statistics(final EntityManagerFactory entityManagerFactory) {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	/**
+	 * Counts the statements prepared while the scenario runs.
+	 *
+	 * @param  entityManagerFactory the entity manager factory of the application.
+	 * @param  scenario             the scenario to count the statements of.
+	 * @return                      the number of prepared statements.
+	 */
+	static long countStatements(final EntityManagerFactory entityManagerFactory, final Runnable scenario) {
+		final var statistics = statistics(entityManagerFactory);
+
+		statistics.clear();
+		scenario.run();
+		return statistics.getPrepareStatementCount();
+	}
+}
@@ -0,0 +1,196 @@
+package se.sundsvall.contactsettings.apptest;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static se.sundsvall.contactsettings.api.model.enums.ContactMethod.EMAIL;
+import static se.sundsvall.contactsettings.api.model.enums.ContactMethod.SMS;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.countStatements;
+import static se.sundsvall.contactsettings.apptest.IntegrationTestSupport.statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.ContactChannel;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
+import se.sundsvall.contactsettings.api.model.ContactSettingUpdateRequest;
+import se.sundsvall.contactsettings.api.model.DelegateCreateRequest;
+import se.sundsvall.contactsettings.api.model.Filter;
+import se.sundsvall.contactsettings.api.model.FindDelegatesParameters;
+import se.sundsvall.contactsettings.api.model.Rule;
+import se.sundsvall.contactsettings.service.ContactSettingsService;
+import se.sundsvall.contactsettings.service.DelegateFilterService;
+import se.sundsvall.contactsettings.service.DelegateService;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+/**
+ * Verifies that the Hibernate second-level cache stays coherent when contact settings, delegates and filters are
+ * created, updated and deleted through the services, and reports the number of statements of the IT read scenarios with
+ * a cold (before) and a warm (after) second-level cache. The second-level cache is disabled by default, and is enabled
+ * here.
+ */
+@SpringBootTest(
+	classes = Application.class,
+	properties = {
+		"spring.main.banner-mode=off",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=true"
+	})
+@ActiveProfiles("it")
+@Sql("/db/scripts/truncate.sql")
+class SecondLevelCacheIT {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SecondLevelCacheIT.class);
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private ContactSettingsService contactSettingsService;
+
+	@Autowired
+	private DelegateService delegateService;
+
+	@Autowired
+	private DelegateFilterService delegateFilterService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+		// Truncating the tables does not evict the second-level cache.
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	void contactSettingIsCoherentAcrossCreateUpdateAndDelete() {
+		final var id = contactSettingsService.createContactSetting(MUNICIPALITY_ID, createContactSettingCreateRequest());
+
+		// Warm the cache, and verify that the second read is served from it.
+		contactSettingsService.readContactSetting(MUNICIPALITY_ID, id);
+		statistics(entityManagerFactory).clear();
+		assertThat(contactSettingsService.readContactSetting(MUNICIPALITY_ID, id).getContactChannels())
+			.extracting(ContactChannel::getDestination)
+			.containsExactly("someone@example.com");
+		assertThat(statistics(entityManagerFactory).getSecondLevelCacheHitCount()).isPositive();
+
+		// Update the alias and replace the channels.
+		contactSettingsService.updateContactSetting(MUNICIPALITY_ID, id, ContactSettingUpdateRequest.create()
+			.withAlias("updated")
+			.withContactChannels(List.of(ContactChannel.create().withContactMethod(SMS).withDestination("0701234567"))));
+
+		final var updated = contactSettingsService.readContactSetting(MUNICIPALITY_ID, id);
+		assertThat(updated.getAlias()).isEqualTo("updated");
+		assertThat(updated.getContactChannels()).extracting(ContactChannel::getDestination).containsExactly("0701234567");
+
+		// Delete.
+		contactSettingsService.deleteContactSetting(MUNICIPALITY_ID, id);
+
+		assertThrows(ThrowableProblem.class, () -> contactSettingsService.readContactSetting(MUNICIPALITY_ID, id));
+	}
+
+	@Test
+	void delegateAndFiltersAreCoherentAcrossCreateUpdateAndDelete() {
+		final var principalId = contactSettingsService.createContactSetting(MUNICIPALITY_ID, createContactSettingCreateRequest());
+		final var agentId = contactSettingsService.createContactSetting(MUNICIPALITY_ID, createContactSettingCreateRequest());
+		final var delegate = delegateService.create(MUNICIPALITY_ID, DelegateCreateRequest.create()
+			.withPrincipalId(principalId)
+			.withAgentId(agentId)
+			.withFilters(List.of(createFilter("filter1", "value1"))));
+
+		// Warm the cache.
+		assertThat(delegateService.read(MUNICIPALITY_ID, delegate.getId()).getFilters()).extracting(Filter::getAlias).containsExactly("filter1");
+
+		// Add a filter.
+		final var filter2 = delegateFilterService.create(delegate.getId(), createFilter("filter2", "value2"));
+
+		assertThat(delegateService.read(MUNICIPALITY_ID, delegate.getId()).getFilters()).extracting(Filter::getAlias).containsExactlyInAnyOrder("filter1", "filter2");
+
+		// Update the rules of the filter.
+		delegateFilterService.update(delegate.getId(), filter2.getId(), createFilter("filter2", "updated"));
+
+		assertThat(delegateService.read(MUNICIPALITY_ID, delegate.getId()).getFilters())
+			.filteredOn(filter -> "filter2".equals(filter.getAlias()))
+			.flatExtracting(Filter::getRules)
+			.extracting(Rule::getAttributeValue)
+			.containsExactly("updated");
+
+		// Delete the filter.
+		delegateFilterService.delete(delegate.getId(), filter2.getId());
+
+		assertThat(delegateService.read(MUNICIPALITY_ID, delegate.getId()).getFilters()).extracting(Filter::getAlias).containsExactly("filter1");
+		assertThat(contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, contactSettingsService.readContactSetting(MUNICIPALITY_ID, principalId).getPartyId(),
+			Map.of("key", List.of("value1"))))
+			.extracting(ContactSetting::getId)
+			.containsExactly(principalId, agentId);
+
+		// Delete the delegate.
+		delegateService.delete(MUNICIPALITY_ID, delegate.getId());
+
+		assertThrows(ThrowableProblem.class, () -> delegateService.read(MUNICIPALITY_ID, delegate.getId()));
+		assertThat(delegateService.find(MUNICIPALITY_ID, FindDelegatesParameters.create().withPrincipalId(principalId))).isEmpty();
+	}
+
+	@Test
+	void statementCountReport() {
+		final var principalId = contactSettingsService.createContactSetting(MUNICIPALITY_ID, createContactSettingCreateRequest());
+		final var principalPartyId = contactSettingsService.readContactSetting(MUNICIPALITY_ID, principalId).getPartyId();
+		final var agentIds = List.of(
+			contactSettingsService.createContactSetting(MUNICIPALITY_ID, createContactSettingCreateRequest()),
+			contactSettingsService.createContactSetting(MUNICIPALITY_ID, createContactSettingCreateRequest()),
+			contactSettingsService.createContactSetting(MUNICIPALITY_ID, createContactSettingCreateRequest()));
+		final var delegateIds = agentIds.stream()
+			.map(agentId -> delegateService.create(MUNICIPALITY_ID, DelegateCreateRequest.create()
+				.withPrincipalId(principalId)
+				.withAgentId(agentId)
+				.withFilters(List.of(createFilter("filter", "value")))).getId())
+			.toList();
+
+		final var scenarios = new LinkedHashMap<String, Runnable>();
+		scenarios.put("read contact setting", () -> contactSettingsService.readContactSetting(MUNICIPALITY_ID, principalId));
+		scenarios.put("read delegate", () -> delegateService.read(MUNICIPALITY_ID, delegateIds.getFirst()));
+		scenarios.put("find delegates by principal", () -> delegateService.find(MUNICIPALITY_ID, FindDelegatesParameters.create().withPrincipalId(principalId)));
+		scenarios.put("find by partyId and query", () -> contactSettingsService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, principalPartyId, Map.of("key", List.of("value"))));
+
+		final var report = new StringBuilder("Statements per scenario (cold second-level cache -> warm second-level cache):");
+		scenarios.forEach((name, scenario) -> {
+			entityManagerFactory.getCache().evictAll();
+			final var cold = countStatements(entityManagerFactory, scenario);
+			final var warm = countStatements(entityManagerFactory, scenario);
+			report.append("%n  %-30s %3d -> %3d".formatted(name, cold, warm));
+
+			assertThat(warm).as(name).isLessThanOrEqualTo(cold);
+		});
+		LOGGER.info(report.toString());
+	}
+
+	private static ContactSettingCreateRequest createContactSettingCreateRequest() {
+		return ContactSettingCreateRequest.create()
+			.withPartyId(randomUUID().toString())
+			.withContactChannels(List.of(ContactChannel.create()
+				.withContactMethod(EMAIL)
+				.withDestination("someone@example.com")));
+	}
+
+	private static Filter createFilter(final String alias, final String value) {
+		return Filter.create()
+			.withAlias(alias)
+			.withRules(List.of(Rule.create()
+				.withAttributeName("key")
+				.withOperator(EQUALS)
+				.withAttributeValue(value)));
+	}
+}
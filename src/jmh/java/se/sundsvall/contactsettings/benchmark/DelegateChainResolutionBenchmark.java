@@ -0,0 +1,104 @@
+package se.sundsvall.contactsettings.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.LinkedMultiValueMap;
+import se.sundsvall.contactsettings.service.chain.DelegateChainResolver;
+import se.sundsvall.contactsettings.service.chain.DelegateGraphIndex;
+
+import static se.sundsvall.contactsettings.benchmark.SyntheticDelegateGraph.MUNICIPALITY_ID;
+import static se.sundsvall.contactsettings.benchmark.SyntheticDelegateGraph.ROOT_ID;
+
+/**
+ * Measures delegate chain resolution over a synthetic in-memory DelegateRepository, i.e. the cost of mapping rows,
+ * compiling filters and walking the chain, without any database round-trips.
+ *
+ * <ul>
+ * <li>recursiveQuery: all rows of the chain are fetched at once (default strategy).</li>
+ * <li>levelBatched: rows are fetched one level at a time.</li>
+ * <li>graphIndex: rows are read from a warm DelegateGraphIndex.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+	"-Xms1g", "-Xmx1g"
+})
+public class DelegateChainResolutionBenchmark {
+
+	@Param({
+		"2", "4"
+	})
+	private int fanOut;
+
+	@Param({
+		"3", "6"
+	})
+	private int depth;
+
+	@Param({
+		"1", "3"
+	})
+	private int filtersPerDelegate;
+
+	@Param({
+		"1", "5"
+	})
+	private int rulesPerFilter;
+
+	private LinkedMultiValueMap<String, String> query;
+	private DelegateChainResolver recursiveQueryResolver;
+	private DelegateChainResolver levelBatchedResolver;
+	private DelegateChainResolver graphIndexResolver;
+
+	@Setup
+	public void setUp() {
+		final var graph = new SyntheticDelegateGraph(fanOut, depth, filtersPerDelegate, rulesPerFilter);
+		final var repository = graph.repository();
+		final var graphIndex = new DelegateGraphIndex(repository, new SimpleMeterRegistry());
+
+		query = graph.matchingQuery();
+		recursiveQueryResolver = new DelegateChainResolver(repository, Optional.empty(), true);
+		levelBatchedResolver = new DelegateChainResolver(repository, Optional.empty(), false);
+		graphIndexResolver = new DelegateChainResolver(repository, Optional.of(graphIndex), true);
+
+		// Verify the setup, and warm the graph index.
+		for (final var resolver : List.of(recursiveQueryResolver, levelBatchedResolver, graphIndexResolver)) {
+			final var resolved = resolver.resolve(MUNICIPALITY_ID, ROOT_ID, query).size();
+			if (resolved != graph.nodeCount()) {
+				throw new IllegalStateException("Expected %s resolved contact settings, got %s".formatted(graph.nodeCount(), resolved));
+			}
+		}
+	}
+
+	@Benchmark
+	public List<String> recursiveQuery() {
+		return recursiveQueryResolver.resolve(MUNICIPALITY_ID, ROOT_ID, query);
+	}
+
+	@Benchmark
+	public List<String> levelBatched() {
+		return levelBatchedResolver.resolve(MUNICIPALITY_ID, ROOT_ID, query);
+	}
+
+	@Benchmark
+	public List<String> graphIndex() {
+		return graphIndexResolver.resolve(MUNICIPALITY_ID, ROOT_ID, query);
+	}
+}
@@ -0,0 +1,151 @@
+package se.sundsvall.contactsettings.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.LinkedMultiValueMap;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.contactsettings.service.util.CompiledDelegateFilters;
+import se.sundsvall.contactsettings.service.util.FilterEvaluationUtils;
+import se.sundsvall.contactsettings.service.util.NormalizedQuery;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.toEnum;
+
+/**
+ * Compares filter evaluation of a delegate chain, where the same input query is evaluated against the filters of every
+ * delegate in the chain.
+ *
+ * <ul>
+ * <li>legacy: the implementation before filters were compiled and queries normalised (kept below as a baseline).</li>
+ * <li>listFilters: FilterEvaluationUtils.evaluate(Map, List), which normalises and compiles on every call.</li>
+ * <li>compiledFilters: filters compiled once, query normalised once per chain (the chain resolver path).</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+	"-Xms1g", "-Xmx1g"
+})
+public class FilterEvaluationBenchmark {
+
+	private static final int DELEGATE_COUNT = 50;
+	private static final int VALUES_PER_PARAMETER = 3;
+
+	@Param({
+		"1", "10", "100"
+	})
+	private int queryParameterCount;
+
+	private LinkedMultiValueMap<String, String> inputQuery;
+	private List<List<DelegateFilterEntity>> delegateFilters;
+	private List<CompiledDelegateFilters> compiledDelegateFilters;
+
+	@Setup
+	public void setUp() {
+		inputQuery = new LinkedMultiValueMap<>();
+		IntStream.range(0, queryParameterCount).forEach(parameter -> inputQuery.put("key" + parameter, IntStream.range(0, VALUES_PER_PARAMETER)
+			.mapToObj(value -> "Value-" + parameter + "-" + value)
+			.toList()));
+
+		// Every other delegate matches the query. Rules refer to the last parameter and value, the worst case for a linear scan.
+		delegateFilters = new ArrayList<>();
+		IntStream.range(0, DELEGATE_COUNT).forEach(delegate -> {
+			final var parameter = queryParameterCount - 1;
+			final var value = delegate % 2 == 0 ? "value-" + parameter + "-" + (VALUES_PER_PARAMETER - 1) : "no-match";
+			delegateFilters.add(List.of(DelegateFilterEntity.create().withFilterRules(List.of(
+				DelegateFilterRule.create().withAttributeName("key" + parameter).withOperator(EQUALS.toString()).withAttributeValue(value),
+				DelegateFilterRule.create().withAttributeName("key0").withOperator("NOT_EQUALS").withAttributeValue("forbidden")))));
+		});
+
+		compiledDelegateFilters = delegateFilters.stream().map(CompiledDelegateFilters::compile).toList();
+	}
+
+	@Benchmark
+	public void legacy(final Blackhole blackhole) {
+		for (final var filters : delegateFilters) {
+			blackhole.consume(LegacyFilterEvaluation.evaluate(inputQuery, filters));
+		}
+	}
+
+	@Benchmark
+	public void listFilters(final Blackhole blackhole) {
+		for (final var filters : delegateFilters) {
+			blackhole.consume(FilterEvaluationUtils.evaluate(inputQuery, filters));
+		}
+	}
+
+	@Benchmark
+	public void compiledFilters(final Blackhole blackhole) {
+		final var query = NormalizedQuery.of(inputQuery);
+		for (final var filters : compiledDelegateFilters) {
+			blackhole.consume(FilterEvaluationUtils.evaluate(query, filters));
+		}
+	}
+
+	/**
+	 * The filter evaluation as it was implemented before filters were compiled and queries normalised.
+	 */
+	static final class LegacyFilterEvaluation {
+
+		private static final DelegateFilterRule MATCH_ALL_RULE = DelegateFilterRule.create()
+			.withAttributeName("*")
+			.withAttributeValue("*")
+			.withOperator(EQUALS.toString());
+
+		private LegacyFilterEvaluation() {}
+
+		static boolean evaluate(final Map<String, List<String>> inputQuery, final List<DelegateFilterEntity> delegateFilterEntityList) {
+			if (isEmpty(delegateFilterEntityList)) {
+				return true;
+			}
+
+			return delegateFilterEntityList.stream()
+				.anyMatch(delegateFilterEntity -> evaluate(Optional.ofNullable(inputQuery).orElse(emptyMap()), delegateFilterEntity));
+		}
+
+		private static boolean evaluate(final Map<String, List<String>> inputQuery, final DelegateFilterEntity delegateFilterEntity) {
+			if (isEmpty(delegateFilterEntity.getFilterRules())) {
+				return false;
+			}
+
+			return Optional.ofNullable(delegateFilterEntity.getFilterRules()).orElse(emptyList()).stream()
+				.allMatch(rule -> switch (toEnum(rule.getOperator()))
+				{
+					case EQUALS -> equalsEvaluation(inputQuery, rule);
+					case NOT_EQUALS -> !equalsEvaluation(inputQuery, rule);
+				});
+		}
+
+		private static boolean equalsEvaluation(final Map<String, List<String>> inputQuery, final DelegateFilterRule rule) {
+			if (MATCH_ALL_RULE.equals(rule)) {
+				return true;
+			}
+			return Optional.ofNullable(inputQuery.get(rule.getAttributeName())).orElse(emptyList()).stream()
+				.anyMatch(queryStringValue -> equalsIgnoreCase(queryStringValue, rule.getAttributeValue()));
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package se.sundsvall.contactsettings.benchmark;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.api.model.Delegate;
+import se.sundsvall.contactsettings.integration.db.model.Channel;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.contactsettings.service.mapper.ContactSettingMapper;
+import se.sundsvall.contactsettings.service.mapper.DelegateMapper;
+
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Measures mapping from DB-model to API-model, for entities of varying size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+	"-Xms1g", "-Xmx1g"
+})
+public class MapperBenchmark {
+
+	private static final OffsetDateTime TIMESTAMP = OffsetDateTime.of(2024, 1, 1, 12, 0, 0, 0, UTC);
+
+	@Param({
+		"1", "10"
+	})
+	private int size;
+
+	private ContactSettingEntity contactSettingEntity;
+	private DelegateEntity delegateEntity;
+
+	@Setup
+	public void setUp() {
+		contactSettingEntity = ContactSettingEntity.create()
+			.withId("contact-setting-id")
+			.withPartyId("party-id")
+			.withMunicipalityId("2281")
+			.withAlias("alias")
+			.withCreatedById("created-by-id")
+			.withCreated(TIMESTAMP)
+			.withModified(TIMESTAMP)
+			.withChannels(IntStream.range(0, size)
+				.mapToObj(channel -> Channel.create()
+					.withAlias("channel-" + channel)
+					.withContactMethod(channel % 2 == 0 ? "EMAIL" : "SMS")
+					.withDestination("destination-" + channel)
+					.withDisabled(false))
+				.toList());
+
+		delegateEntity = DelegateEntity.create()
+			.withId("delegate-id")
+			.withPrincipal(ContactSettingEntity.create().withId("principal-id"))
+			.withAgent(ContactSettingEntity.create().withId("agent-id"))
+			.withCreated(TIMESTAMP)
+			.withModified(TIMESTAMP)
+			.withFilters(IntStream.range(0, size)
+				.mapToObj(filter -> DelegateFilterEntity.create()
+					.withId("filter-" + filter)
+					.withAlias("filter-" + filter)
+					.withChannel("EMAIL")
+					.withCreated(TIMESTAMP)
+					.withModified(TIMESTAMP)
+					.withFilterRules(IntStream.range(0, size)
+						.mapToObj(rule -> DelegateFilterRule.create()
+							.withAttributeName("key" + rule)
+							.withOperator("EQUALS")
+							.withAttributeValue("value" + rule))
+						.toList()))
+				.toList());
+	}
+
+	@Benchmark
+	public ContactSetting toContactSetting() {
+		return ContactSettingMapper.toContactSetting(contactSettingEntity);
+	}
+
+	@Benchmark
+	public Delegate toDelegate() {
+		return DelegateMapper.toDelegate(delegateEntity);
+	}
+}
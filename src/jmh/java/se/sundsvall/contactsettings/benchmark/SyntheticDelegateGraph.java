@@ -0,0 +1,168 @@
+package se.sundsvall.contactsettings.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.springframework.util.LinkedMultiValueMap;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.DelegateChainRow;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * A synthetic, deterministic delegate graph, shaped as a tree from a single root.
+ *
+ * Every contact setting down to the configured depth delegates to 'fanOut' agents. Every delegate has
+ * 'filtersPerDelegate' filters with 'rulesPerFilter' EQUALS-rules each, and the query returned by {@link #matchingQuery()}
+ * matches all of them, so that chain resolution visits the whole graph.
+ */
+final class SyntheticDelegateGraph {
+
+	static final String MUNICIPALITY_ID = "2281";
+	static final String ROOT_ID = "node-0";
+
+	private final Map<String, List<DelegateChainRow>> rowsByPrincipalId = new HashMap<>();
+	private final List<DelegateChainRow> allRows = new ArrayList<>();
+	private final int rulesPerFilter;
+	private final int nodeCount;
+
+	SyntheticDelegateGraph(final int fanOut, final int depth, final int filtersPerDelegate, final int rulesPerFilter) {
+		this.rulesPerFilter = rulesPerFilter;
+
+		var nextNodeId = 1;
+		var nextDelegateId = 0;
+		var level = List.of(ROOT_ID);
+		for (var currentDepth = 0; currentDepth < depth; currentDepth++) {
+			final var nextLevel = new ArrayList<String>();
+			for (final var principalId : level) {
+				for (var agent = 0; agent < fanOut; agent++) {
+					final var agentId = "node-" + nextNodeId++;
+					final var delegateId = "delegate-" + nextDelegateId++;
+					addDelegate(delegateId, principalId, agentId, filtersPerDelegate);
+					nextLevel.add(agentId);
+				}
+			}
+			level = nextLevel;
+		}
+		this.nodeCount = nextNodeId;
+	}
+
+	/**
+	 * @return a query that matches the filters of every delegate in the graph.
+	 */
+	LinkedMultiValueMap<String, String> matchingQuery() {
+		final var query = new LinkedMultiValueMap<String, String>();
+		for (var rule = 0; rule < rulesPerFilter; rule++) {
+			query.put("key" + rule, List.of("other-value", "Value" + rule));
+		}
+		return query;
+	}
+
+	int nodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * @return a DelegateRepository that serves the delegate chain queries from this graph. All other methods throw
+	 *         UnsupportedOperationException.
+	 */
+	DelegateRepository repository() {
+		return (DelegateRepository) Proxy.newProxyInstance(DelegateRepository.class.getClassLoader(), new Class<?>[] {
+			DelegateRepository.class
+		}, (proxy, method, args) -> switch (method.getName()) {
+			case "findDelegateChainByRootPrincipalId" -> reachableRows((String) args[0]);
+			case "findDelegateChainByRootPrincipalIdIn" -> ((Collection<?>) args[0]).stream().flatMap(rootId -> reachableRows((String) rootId).stream()).distinct().toList();
+			case "findDelegateChainByPrincipalIdIn" -> rowsByPrincipalIdIn((Collection<?>) args[0]);
+			case "findDelegateGraphByMunicipalityId" -> MUNICIPALITY_ID.equals(args[0]) ? allRows : emptyList();
+			case "toString" -> "SyntheticDelegateRepository";
+			case "hashCode" -> System.identityHashCode(proxy);
+			case "equals" -> proxy == args[0];
+			default -> throw new UnsupportedOperationException(method.getName());
+		});
+	}
+
+	private void addDelegate(final String delegateId, final String principalId, final String agentId, final int filtersPerDelegate) {
+		final var delegateRows = new ArrayList<DelegateChainRow>();
+		if (filtersPerDelegate == 0) {
+			delegateRows.add(new Row(delegateId, principalId, agentId, null, null, null, null));
+		}
+		for (var filter = 0; filter < filtersPerDelegate; filter++) {
+			final var filterId = delegateId + "-filter-" + filter;
+			if (rulesPerFilter == 0) {
+				delegateRows.add(new Row(delegateId, principalId, agentId, filterId, null, null, null));
+			}
+			for (var rule = 0; rule < rulesPerFilter; rule++) {
+				delegateRows.add(new Row(delegateId, principalId, agentId, filterId, "key" + rule, "value" + rule, "EQUALS"));
+			}
+		}
+
+		rowsByPrincipalId.computeIfAbsent(principalId, key -> new ArrayList<>()).addAll(delegateRows);
+		allRows.addAll(delegateRows);
+	}
+
+	private List<DelegateChainRow> reachableRows(final String rootId) {
+		final var result = new ArrayList<DelegateChainRow>();
+		final var visited = new HashSet<String>();
+		final var queue = new ArrayDeque<String>();
+		queue.add(rootId);
+		visited.add(rootId);
+		while (!queue.isEmpty()) {
+			for (final var row : rowsByPrincipalId.getOrDefault(queue.poll(), emptyList())) {
+				result.add(row);
+				if (visited.add(row.getAgentId())) {
+					queue.add(row.getAgentId());
+				}
+			}
+		}
+		return result;
+	}
+
+	private List<DelegateChainRow> rowsByPrincipalIdIn(final Collection<?> principalIds) {
+		final var result = new ArrayList<DelegateChainRow>();
+		principalIds.forEach(principalId -> result.addAll(rowsByPrincipalId.getOrDefault(principalId, emptyList())));
+		return result;
+	}
+
+	private record Row(String delegateId, String principalId, String agentId, String filterId, String attributeName, String attributeValue, String operator) implements DelegateChainRow {
+
+		@Override
+		public String getDelegateId() {
+			return delegateId;
+		}
+
+		@Override
+		public String getPrincipalId() {
+			return principalId;
+		}
+
+		@Override
+		public String getAgentId() {
+			return agentId;
+		}
+
+		@Override
+		public String getFilterId() {
+			return filterId;
+		}
+
+		@Override
+		public String getAttributeName() {
+			return attributeName;
+		}
+
+		@Override
+		public String getAttributeValue() {
+			return attributeValue;
+		}
+
+		@Override
+		public String getOperator() {
+			return operator;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package se.sundsvall.contactsettings.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.contactsettings.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Generates a synthetic dataset and runs the load profile against the application.
+ *
+ * Runs against a MariaDB Testcontainer by default (the "it" profile). To run against a local MariaDB instead, pass the
+ * datasource properties, e.g. -Dspring.datasource.url=jdbc:mariadb://localhost:3306/contactsettings, and
+ * -Dloadtest.generate=false to reuse a dataset generated in an earlier run. See README for all settings.
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = RANDOM_PORT, properties = {
+	"spring.main.banner-mode=off"
+})
+@ActiveProfiles("it")
+class ContactSettingsLoadTest {
+
+	@Value("${local.server.port}")
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void loadProfile() {
+		final var settings = LoadTestSettings.fromSystemProperties();
+
+		if (settings.generate()) {
+			new DatasetGenerator(jdbcTemplate, settings).generate();
+		}
+		final var dataset = Dataset.sample(jdbcTemplate, settings);
+		final var results = new LoadProfile(URI.create("http://localhost:" + port), dataset, settings).run();
+
+		LoadReport.write(settings, results, Path.of("target", "load-test", "report.csv"));
+		StorageReport.write(jdbcTemplate, Path.of("target", "load-test", "storage.csv"));
+		assertThat(results).allSatisfy(result -> {
+			assertThat(result.requests()).as(result.endpoint()).isPositive();
+			assertThat(result.errors()).as(result.endpoint()).isZero();
+		});
+	}
+}
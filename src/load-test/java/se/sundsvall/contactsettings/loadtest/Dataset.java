@@ -0,0 +1,111 @@
+package se.sundsvall.contactsettings.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Keys sampled from the database, used to build the requests of the load profile.
+ *
+ * Sampling is done with SQL (and not by the generator) so that the load profile can be run against a database that
+ * was populated in an earlier run.
+ *
+ * @param chainQueries    party ids of principals, with a query that matches one of the filters of the principal.
+ * @param contactSettings contact settings with a party.
+ * @param parents         contact settings with virtual children.
+ * @param destinations    contact channel destinations.
+ * @param delegates       delegates with one of their filters.
+ */
+record Dataset(
+	List<ChainQuery> chainQueries,
+	List<Key> contactSettings,
+	List<Key> parents,
+	List<Key> destinations,
+	List<DelegateKey> delegates) {
+
+	record Key(String municipalityId, String value) {}
+
+	record ChainQuery(String municipalityId, String partyId, Map<String, List<String>> query) {}
+
+	record DelegateKey(String municipalityId, String delegateId, String principalId, String filterId) {}
+
+	private static final String SAMPLE_CHAIN_QUERIES = """
+		SELECT c.municipality_id, c.party_id, CAST(f.id AS CHAR) AS filter_id
+		FROM contact_setting c
+		JOIN delegate d ON d.principal_id = c.id
+		JOIN delegate_filter f ON f.delegate_id = d.id
+		WHERE c.party_id IS NOT NULL
+		ORDER BY RAND(?) LIMIT ?
+		""";
+	private static final String SELECT_EQUALS_RULES = """
+		SELECT delegate_filter_id, attribute_name, attribute_value
+		FROM delegate_filter_rule
+		WHERE delegate_filter_id IN (:filterIds) AND operator = 'EQUALS' AND attribute_name <> '*'
+		""";
+	private static final String SAMPLE_CONTACT_SETTINGS = """
+		SELECT municipality_id, id
+		FROM contact_setting
+		WHERE party_id IS NOT NULL
+		ORDER BY RAND(?) LIMIT ?
+		""";
+	private static final String SAMPLE_PARENTS = """
+		SELECT DISTINCT p.municipality_id, p.id
+		FROM contact_setting p
+		JOIN contact_setting c ON c.created_by_id = p.id
+		ORDER BY RAND(?) LIMIT ?
+		""";
+	private static final String SAMPLE_DESTINATIONS = """
+		SELECT c.municipality_id, ch.destination
+		FROM contact_setting_channel ch
+		JOIN contact_setting c ON c.id = ch.contact_setting_id
+		ORDER BY RAND(?) LIMIT ?
+		""";
+	private static final String SAMPLE_DELEGATES = """
+		SELECT p.municipality_id, d.id, d.principal_id, CAST(MIN(f.id) AS CHAR) AS filter_id
+		FROM delegate d
+		JOIN contact_setting p ON p.id = d.principal_id
+		JOIN delegate_filter f ON f.delegate_id = d.id
+		GROUP BY p.municipality_id, d.id, d.principal_id
+		ORDER BY RAND(?) LIMIT ?
+		""";
+
+	static Dataset sample(final JdbcTemplate jdbcTemplate, final LoadTestSettings settings) {
+		final var seed = settings.seed();
+		final var size = settings.sampleSize();
+
+		final var dataset = new Dataset(
+			sampleChainQueries(jdbcTemplate, seed, size),
+			jdbcTemplate.query(SAMPLE_CONTACT_SETTINGS, (rs, rowNum) -> new Key(rs.getString(1), rs.getString(2)), seed, size),
+			jdbcTemplate.query(SAMPLE_PARENTS, (rs, rowNum) -> new Key(rs.getString(1), rs.getString(2)), seed, size),
+			jdbcTemplate.query(SAMPLE_DESTINATIONS, (rs, rowNum) -> new Key(rs.getString(1), rs.getString(2)), seed, size),
+			jdbcTemplate.query(SAMPLE_DELEGATES, (rs, rowNum) -> new DelegateKey(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4)), seed, size));
+
+		if (dataset.chainQueries().isEmpty() || dataset.contactSettings().isEmpty() || dataset.destinations().isEmpty() || dataset.delegates().isEmpty()) {
+			throw new IllegalStateException("The database does not contain enough data to run the load profile");
+		}
+		return dataset;
+	}
+
+	private static List<ChainQuery> sampleChainQueries(final JdbcTemplate jdbcTemplate, final long seed, final int size) {
+		final var rows = jdbcTemplate.queryForList(SAMPLE_CHAIN_QUERIES, seed, size);
+		if (rows.isEmpty()) {
+			return emptyList();
+		}
+
+		// A query that matches all EQUALS-rules of the filter (a filter matches when all of its rules match).
+		final var queries = new LinkedHashMap<String, Map<String, List<String>>>();
+		rows.forEach(row -> queries.put((String) row.get("filter_id"), new LinkedHashMap<>()));
+		new NamedParameterJdbcTemplate(jdbcTemplate).query(SELECT_EQUALS_RULES, Map.of("filterIds", queries.keySet()), rs -> {
+			queries.get(rs.getString(1)).computeIfAbsent(rs.getString(2), attributeName -> new ArrayList<>()).add(rs.getString(3));
+		});
+
+		return rows.stream()
+			.map(row -> new ChainQuery((String) row.get("municipality_id"), (String) row.get("party_id"), queries.get((String) row.get("filter_id"))))
+			.toList();
+	}
+}
@@ -0,0 +1,275 @@
+package se.sundsvall.contactsettings.loadtest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Fills the database with a synthetic, but realistically distributed, dataset.
+ *
+ * <ul>
+ * <li>Contact settings are spread over a handful of municipalities with different weights.</li>
+ * <li>Contact settings with a party have one to three channels. A few destinations are shared (e.g. a family
+ * e-mail).</li>
+ * <li>Some contact settings have virtual children (contact settings without party, referring to the parent via
+ * created_by_id).</li>
+ * <li>A share of the contact settings form delegate trees. Most trees are small, a few are deep chains or very wide,
+ * and some agents are shared within a tree (which may create cycles).</li>
+ * <li>Most delegates have a single filter with a single rule, some have many filters with many rules and some use the
+ * match-all rule.</li>
+ * </ul>
+ *
+ * Rows are inserted with JDBC batches, bypassing JPA, to make it feasible to generate millions of rows. The generated
+ * dataset is fully determined by the seed.
+ */
+final class DatasetGenerator {
+
+	private static final int BATCH_SIZE = 5_000;
+	private static final List<String> MUNICIPALITY_IDS = List.of("2281", "2262", "2260", "2280", "2283", "2284");
+	private static final int[] MUNICIPALITY_WEIGHTS = {
+		40, 15, 10, 15, 10, 10
+	};
+	private static final List<String> ATTRIBUTE_NAMES = List.of("facilityId", "contractId", "caseId", "errandId", "propertyDesignation", "category");
+
+	private static final String INSERT_CONTACT_SETTING = "INSERT INTO contact_setting (id, municipality_id, party_id, alias, created_by_id, created, modified) VALUES (?, ?, ?, ?, ?, ?, ?)";
+	private static final String INSERT_CHANNEL = "INSERT INTO contact_setting_channel (contact_setting_id, alias, contact_method, destination, disabled) VALUES (?, ?, ?, ?, ?)";
+	private static final String INSERT_DELEGATE = "INSERT INTO delegate (id, principal_id, agent_id, created, modified) VALUES (?, ?, ?, ?, ?)";
+	private static final String INSERT_DELEGATE_FILTER = "INSERT INTO delegate_filter (id, delegate_id, alias, channel, created, modified) VALUES (?, ?, ?, ?, ?, ?)";
+	private static final String INSERT_DELEGATE_FILTER_RULE = "INSERT INTO delegate_filter_rule (delegate_filter_id, attribute_name, operator, attribute_value) VALUES (?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final LoadTestSettings settings;
+	private final Random random;
+	private final LocalDateTime now = LocalDateTime.now();
+
+	private final List<Object[]> contactSettingRows = new ArrayList<>();
+	private final List<Object[]> channelRows = new ArrayList<>();
+	private final List<Object[]> delegateRows = new ArrayList<>();
+	private final List<Object[]> delegateFilterRows = new ArrayList<>();
+	private final List<Object[]> delegateFilterRuleRows = new ArrayList<>();
+
+	private int contactSettingCount;
+	private int delegateCount;
+	private int delegateFilterCount;
+	private int delegateFilterRuleCount;
+
+	DatasetGenerator(final JdbcTemplate jdbcTemplate, final LoadTestSettings settings) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.settings = settings;
+		this.random = new Random(settings.seed());
+	}
+
+	void generate() {
+		final var started = System.nanoTime();
+
+		final var delegatedContactSettings = (int) (settings.contactSettings() * settings.delegatedShare());
+		while (contactSettingCount < delegatedContactSettings) {
+			generateDelegateTree(municipalityId());
+		}
+		while (contactSettingCount < settings.contactSettings()) {
+			generateContactSetting(municipalityId());
+		}
+		flush();
+
+		System.out.printf("Generated %d contact settings, %d delegates, %d filters and %d rules in %d s%n",
+			contactSettingCount, delegateCount, delegateFilterCount, delegateFilterRuleCount, (System.nanoTime() - started) / 1_000_000_000);
+	}
+
+	private void generateDelegateTree(final String municipalityId) {
+		final var shape = random.nextInt(100);
+		final int depth;
+		final int fanOut;
+		if (shape == 0) {
+			// Deep chain.
+			depth = settings.maxDepth();
+			fanOut = 1;
+		} else if (shape == 1) {
+			// Wide tree.
+			depth = 1;
+			fanOut = settings.maxFanOut();
+		} else {
+			// Small tree, where the depth is geometrically distributed.
+			var randomDepth = 1;
+			while (randomDepth < settings.maxDepth() && random.nextInt(100) < 40) {
+				randomDepth++;
+			}
+			depth = randomDepth;
+			fanOut = 1 + random.nextInt(Math.min(3, settings.maxFanOut()));
+		}
+
+		final var nodes = new ArrayList<String>();
+		var level = List.of(generateContactSetting(municipalityId));
+		nodes.addAll(level);
+		for (var currentDepth = 0; currentDepth < depth; currentDepth++) {
+			final var nextLevel = new ArrayList<String>();
+			for (final var principalId : level) {
+				final var agentIds = new HashSet<String>();
+				for (var agent = 0; agent < fanOut; agent++) {
+					if (random.nextInt(100) < 5) {
+						// Shared agent, i.e. a contact setting that already is part of the tree.
+						final var agentId = nodes.get(random.nextInt(nodes.size()));
+						if (!agentId.equals(principalId) && agentIds.add(agentId)) {
+							generateDelegate(principalId, agentId);
+						}
+						continue;
+					}
+					final var agentId = generateContactSetting(municipalityId);
+					agentIds.add(agentId);
+					nodes.add(agentId);
+					nextLevel.add(agentId);
+					generateDelegate(principalId, agentId);
+				}
+			}
+			level = nextLevel;
+		}
+	}
+
+	private String generateContactSetting(final String municipalityId) {
+		final var id = uuid();
+		final var created = timestamp();
+		contactSettingRows.add(new Object[] {
+			id, municipalityId, uuid(), "Person " + contactSettingCount, null, created, created
+		});
+		contactSettingCount++;
+		generateChannels(id);
+
+		if (random.nextDouble() < settings.virtualChildShare()) {
+			final var children = 1 + random.nextInt(3);
+			for (var child = 0; child < children; child++) {
+				final var childId = uuid();
+				contactSettingRows.add(new Object[] {
+					childId, municipalityId, null, "Virtual child " + contactSettingCount, id, created, created
+				});
+				contactSettingCount++;
+				generateChannels(childId);
+			}
+		}
+
+		flushIfFull();
+		return id;
+	}
+
+	private void generateChannels(final String contactSettingId) {
+		final var channels = random.nextInt(100) < 50 ? 1 : random.nextInt(100) < 80 ? 2 : 3;
+		for (var channel = 0; channel < channels; channel++) {
+			if (channel % 2 == 0) {
+				final var destination = random.nextInt(100) < 5
+					? "family-" + random.nextInt(Math.max(1, settings.contactSettings() / 50)) + "@example.com"
+					: "person-" + contactSettingCount + "-" + channel + "@example.com";
+				channelRows.add(new Object[] {
+					contactSettingId, "Email", "EMAIL", destination, random.nextInt(100) < 5
+				});
+			} else {
+				channelRows.add(new Object[] {
+					contactSettingId, "SMS", "SMS", "4670%07d".formatted(random.nextInt(10_000_000)), random.nextInt(100) < 5
+				});
+			}
+		}
+	}
+
+	private void generateDelegate(final String principalId, final String agentId) {
+		final var id = uuid();
+		final var created = timestamp();
+		delegateRows.add(new Object[] {
+			id, principalId, agentId, created, created
+		});
+		delegateCount++;
+
+		final var filters = skewedCount(settings.maxFiltersPerDelegate());
+		for (var filter = 0; filter < filters; filter++) {
+			generateDelegateFilter(id, created);
+		}
+	}
+
+	private void generateDelegateFilter(final String delegateId, final Timestamp created) {
+		final var id = uuid();
+		delegateFilterRows.add(new Object[] {
+			id, delegateId, "Filter " + delegateFilterCount, random.nextInt(100) < 20 ? "EMAIL" : null, created, created
+		});
+		delegateFilterCount++;
+
+		if (random.nextInt(100) < 10) {
+			delegateFilterRuleRows.add(new Object[] {
+				id, "*", "EQUALS", "*"
+			});
+			delegateFilterRuleCount++;
+			return;
+		}
+
+		final var rules = skewedCount(settings.maxRulesPerFilter());
+		for (var rule = 0; rule < rules; rule++) {
+			final var attributeName = ATTRIBUTE_NAMES.get(random.nextInt(ATTRIBUTE_NAMES.size()));
+			delegateFilterRuleRows.add(random.nextInt(100) < 10
+				? new Object[] {
+					id, attributeName, "NOT_EQUALS", "excluded-" + random.nextInt(10)
+				}
+				: new Object[] {
+					id, attributeName, "EQUALS", String.valueOf(random.nextInt(1_000))
+				});
+			delegateFilterRuleCount++;
+		}
+	}
+
+	/**
+	 * Returns 1 in 70% of the cases, 2 or 3 in 25% of the cases and anything up to max in the rest.
+	 */
+	private int skewedCount(final int max) {
+		final var percentile = random.nextInt(100);
+		if (max <= 1 || percentile < 70) {
+			return 1;
+		}
+		if (percentile < 95) {
+			return Math.min(max, 2 + random.nextInt(2));
+		}
+		return 1 + random.nextInt(max);
+	}
+
+	private String municipalityId() {
+		var value = random.nextInt(100);
+		for (var index = 0; index < MUNICIPALITY_WEIGHTS.length; index++) {
+			value -= MUNICIPALITY_WEIGHTS[index];
+			if (value < 0) {
+				return MUNICIPALITY_IDS.get(index);
+			}
+		}
+		return MUNICIPALITY_IDS.getFirst();
+	}
+
+	private String uuid() {
+		// Random (version 4) UUID, drawn from the seeded random.
+		final var mostSignificantBits = (random.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+		final var leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		return new UUID(mostSignificantBits, leastSignificantBits).toString();
+	}
+
+	private Timestamp timestamp() {
+		return Timestamp.valueOf(now.minusSeconds(random.nextInt(5 * 365 * 24 * 3600)));
+	}
+
+	private void flushIfFull() {
+		if (contactSettingRows.size() >= BATCH_SIZE || delegateFilterRuleRows.size() >= BATCH_SIZE) {
+			flush();
+		}
+	}
+
+	private void flush() {
+		// Parents before children, to satisfy the foreign keys.
+		flush(INSERT_CONTACT_SETTING, contactSettingRows);
+		flush(INSERT_CHANNEL, channelRows);
+		flush(INSERT_DELEGATE, delegateRows);
+		flush(INSERT_DELEGATE_FILTER, delegateFilterRows);
+		flush(INSERT_DELEGATE_FILTER_RULE, delegateFilterRuleRows);
+	}
+
+	private void flush(final String sql, final List<Object[]> rows) {
+		if (!rows.isEmpty()) {
+			jdbcTemplate.batchUpdate(sql, rows);
+			rows.clear();
+		}
+	}
+}
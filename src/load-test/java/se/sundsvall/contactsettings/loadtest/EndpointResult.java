@@ -0,0 +1,40 @@
+package se.sundsvall.contactsettings.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The result of running load against a single endpoint.
+ *
+ * @param endpoint   the endpoint (method and path template).
+ * @param requests   the number of recorded requests.
+ * @param errors     the number of requests that failed or got an unexpected status code.
+ * @param throughput requests per second.
+ * @param p50        the median latency, in milliseconds.
+ * @param p99        the 99th percentile latency, in milliseconds.
+ * @param max        the maximum latency, in milliseconds.
+ */
+record EndpointResult(String endpoint, long requests, long errors, double throughput, double p50, double p99, double max) {
+
+	static EndpointResult of(final String endpoint, final long[] latencyNanos, final long errors, final long elapsedNanos) {
+		final var sorted = latencyNanos.clone();
+		Arrays.sort(sorted);
+		return new EndpointResult(endpoint,
+			sorted.length,
+			errors,
+			elapsedNanos > 0 ? sorted.length * 1_000_000_000d / elapsedNanos : 0,
+			percentile(sorted, 50),
+			percentile(sorted, 99),
+			sorted.length > 0 ? sorted[sorted.length - 1] / 1_000_000d : 0);
+	}
+
+	/**
+	 * Nearest-rank percentile, in milliseconds.
+	 */
+	static double percentile(final long[] sortedLatencyNanos, final int percentile) {
+		if (sortedLatencyNanos.length == 0) {
+			return 0;
+		}
+		final var rank = (int) Math.ceil(percentile / 100d * sortedLatencyNanos.length);
+		return sortedLatencyNanos[Math.max(rank, 1) - 1] / 1_000_000d;
+	}
+}
@@ -0,0 +1,262 @@
+package se.sundsvall.contactsettings.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.LongStream;
+import se.sundsvall.contactsettings.loadtest.Dataset.DelegateKey;
+
+import static java.net.http.HttpRequest.BodyPublishers.ofString;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.UUID.randomUUID;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A repeatable load profile covering every REST endpoint of the service.
+ *
+ * Read endpoints are called by a fixed number of concurrent clients for a fixed duration (after a warmup), cycling
+ * through the keys sampled in the dataset. Write endpoints are called without warmup, until the configured number of
+ * write operations is reached (or the duration has passed), and operate on contact settings, delegates and filters
+ * created by the profile itself. They are run in an order that leaves the dataset as it was.
+ */
+final class LoadProfile {
+
+	private static final String WRITE_MUNICIPALITY_ID = "2281";
+	private static final int BATCH_RESOLVE_SIZE = 100;
+
+	private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+	private final URI baseUri;
+	private final Dataset dataset;
+	private final LoadTestSettings settings;
+
+	private final List<String> createdContactSettingIds = Collections.synchronizedList(new ArrayList<>());
+	private final List<String> createdDelegateIds = Collections.synchronizedList(new ArrayList<>());
+	private final List<DelegateKey> createdDelegateFilters = Collections.synchronizedList(new ArrayList<>());
+
+	LoadProfile(final URI baseUri, final Dataset dataset, final LoadTestSettings settings) {
+		this.baseUri = baseUri;
+		this.dataset = dataset;
+		this.settings = settings;
+	}
+
+	List<EndpointResult> run() {
+		final var results = new ArrayList<EndpointResult>();
+
+		// Read endpoints.
+		results.add(read("GET /{municipalityId}/settings?partyId={partyId}&{query}", sequence -> {
+			final var chainQuery = cycle(dataset.chainQueries(), sequence);
+			final var query = chainQuery.query().entrySet().stream()
+				.flatMap(entry -> entry.getValue().stream().map(value -> encode(entry.getKey()) + "=" + encode(value)))
+				.map(parameter -> "&" + parameter)
+				.collect(joining());
+			return get("/%s/settings?partyId=%s%s".formatted(chainQuery.municipalityId(), chainQuery.partyId(), query));
+		}));
+		results.add(read("GET /{municipalityId}/settings/stream?partyId={partyId}&{query}", sequence -> {
+			final var chainQuery = cycle(dataset.chainQueries(), sequence);
+			final var query = chainQuery.query().entrySet().stream()
+				.flatMap(entry -> entry.getValue().stream().map(value -> encode(entry.getKey()) + "=" + encode(value)))
+				.map(parameter -> "&" + parameter)
+				.collect(joining());
+			return get("/%s/settings/stream?partyId=%s%s".formatted(chainQuery.municipalityId(), chainQuery.partyId(), query));
+		}));
+		results.add(read("POST /{municipalityId}/settings/batch-resolve", sequence -> {
+			final var chainQuery = cycle(dataset.chainQueries(), sequence);
+			final var partyIds = dataset.chainQueries().stream()
+				.filter(candidate -> candidate.municipalityId().equals(chainQuery.municipalityId()))
+				.map(candidate -> "\"" + candidate.partyId() + "\"")
+				.limit(BATCH_RESOLVE_SIZE)
+				.collect(joining(", "));
+			final var query = chainQuery.query().entrySet().stream()
+				.map(entry -> "\"%s\": [%s]".formatted(entry.getKey(), entry.getValue().stream().map(value -> "\"" + value + "\"").collect(joining(", "))))
+				.collect(joining(", "));
+			return post("/%s/settings/batch-resolve".formatted(chainQuery.municipalityId()), """
+				{"partyIds": [%s], "query": {%s}}
+				""".formatted(partyIds, query));
+		}));
+		results.add(read("GET /{municipalityId}/settings/{id}", sequence -> {
+			final var contactSetting = cycle(dataset.contactSettings(), sequence);
+			return get("/%s/settings/%s".formatted(contactSetting.municipalityId(), contactSetting.value()));
+		}));
+		if (!dataset.parents().isEmpty()) {
+			results.add(read("GET /{municipalityId}/settings/{id}/children", sequence -> {
+				final var parent = cycle(dataset.parents(), sequence);
+				return get("/%s/settings/%s/children".formatted(parent.municipalityId(), parent.value()));
+			}));
+			results.add(read("GET /{municipalityId}/settings/{id}/children/stream", sequence -> {
+				final var parent = cycle(dataset.parents(), sequence);
+				return get("/%s/settings/%s/children/stream".formatted(parent.municipalityId(), parent.value()));
+			}));
+		}
+		results.add(read("GET /{municipalityId}/settings/contact-channels?destination={destination}", sequence -> {
+			final var destination = cycle(dataset.destinations(), sequence);
+			return get("/%s/settings/contact-channels?destination=%s".formatted(destination.municipalityId(), encode(destination.value())));
+		}));
+		results.add(read("GET /{municipalityId}/settings/contact-channels/stream?destination={destination}", sequence -> {
+			final var destination = cycle(dataset.destinations(), sequence);
+			return get("/%s/settings/contact-channels/stream?destination=%s".formatted(destination.municipalityId(), encode(destination.value())));
+		}));
+		results.add(read("GET /{municipalityId}/delegates?principalId={principalId}", sequence -> {
+			final var delegate = cycle(dataset.delegates(), sequence);
+			return get("/%s/delegates?principalId=%s".formatted(delegate.municipalityId(), delegate.principalId()));
+		}));
+		results.add(read("GET /{municipalityId}/delegates/{id}", sequence -> {
+			final var delegate = cycle(dataset.delegates(), sequence);
+			return get("/%s/delegates/%s".formatted(delegate.municipalityId(), delegate.delegateId()));
+		}));
+		results.add(read("GET /{municipalityId}/delegates/{id}/filters/{filterId}", sequence -> {
+			final var delegate = cycle(dataset.delegates(), sequence);
+			return get("/%s/delegates/%s/filters/%s".formatted(delegate.municipalityId(), delegate.delegateId(), delegate.filterId()));
+		}));
+
+		// Write endpoints. Each step consumes what the previous steps created.
+		results.add(write("POST /{municipalityId}/settings", 201, sequence -> sequence < settings.writeOperations()
+			? post("/%s/settings".formatted(WRITE_MUNICIPALITY_ID), """
+				{"partyId": "%s", "alias": "Load test", "contactChannels": [{"contactMethod": "EMAIL", "destination": "load-test@example.com", "disabled": false}]}
+				""".formatted(randomUUID()))
+			: null, response -> createdContactSettingIds.add(lastPathSegment(response))));
+		results.add(write("PATCH /{municipalityId}/settings/{id}", 200, sequence -> sequence < createdContactSettingIds.size()
+			? patch("/%s/settings/%s".formatted(WRITE_MUNICIPALITY_ID, createdContactSettingIds.get(sequence)), """
+				{"alias": "Load test (updated)", "contactChannels": [{"contactMethod": "SMS", "destination": "46701234567", "disabled": false}]}
+				""")
+			: null, response -> {}));
+		results.add(write("POST /{municipalityId}/delegates", 201, sequence -> 2 * sequence + 1 < createdContactSettingIds.size()
+			? post("/%s/delegates".formatted(WRITE_MUNICIPALITY_ID), """
+				{"principalId": "%s", "agentId": "%s", "filters": [{"alias": "Load test", "rules": [{"attributeName": "facilityId", "operator": "EQUALS", "attributeValue": "%d"}]}]}
+				""".formatted(createdContactSettingIds.get(2 * sequence), createdContactSettingIds.get(2 * sequence + 1), sequence))
+			: null, response -> createdDelegateIds.add(lastPathSegment(response))));
+		results.add(write("POST /{municipalityId}/delegates/{id}/filters", 201, sequence -> sequence < createdDelegateIds.size()
+			? post("/%s/delegates/%s/filters".formatted(WRITE_MUNICIPALITY_ID, createdDelegateIds.get(sequence)), """
+				{"alias": "Load test", "rules": [{"attributeName": "caseId", "operator": "EQUALS", "attributeValue": "%d"}]}
+				""".formatted(sequence))
+			: null, response -> {
+				final var segments = response.headers().firstValue("Location").orElseThrow().split("/");
+				createdDelegateFilters.add(new DelegateKey(WRITE_MUNICIPALITY_ID, segments[segments.length - 3], null, segments[segments.length - 1]));
+			}));
+		results.add(write("PATCH /{municipalityId}/delegates/{id}/filters/{filterId}", 200, sequence -> {
+			if (sequence >= createdDelegateFilters.size()) {
+				return null;
+			}
+			final var filter = createdDelegateFilters.get(sequence);
+			return patch("/%s/delegates/%s/filters/%s".formatted(WRITE_MUNICIPALITY_ID, filter.delegateId(), filter.filterId()), """
+				{"alias": "Load test (updated)", "rules": [{"attributeName": "caseId", "operator": "NOT_EQUALS", "attributeValue": "%d"}]}
+				""".formatted(sequence));
+		}, response -> {}));
+		results.add(write("DELETE /{municipalityId}/delegates/{id}/filters/{filterId}", 204, sequence -> {
+			if (sequence >= createdDelegateFilters.size()) {
+				return null;
+			}
+			final var filter = createdDelegateFilters.get(sequence);
+			return delete("/%s/delegates/%s/filters/%s".formatted(WRITE_MUNICIPALITY_ID, filter.delegateId(), filter.filterId()));
+		}, response -> {}));
+		results.add(write("DELETE /{municipalityId}/delegates/{id}", 204, sequence -> sequence < createdDelegateIds.size()
+			? delete("/%s/delegates/%s".formatted(WRITE_MUNICIPALITY_ID, createdDelegateIds.get(sequence)))
+			: null, response -> {}));
+		results.add(write("DELETE /{municipalityId}/settings/{id}", 204, sequence -> sequence < createdContactSettingIds.size()
+			? delete("/%s/settings/%s".formatted(WRITE_MUNICIPALITY_ID, createdContactSettingIds.get(sequence)))
+			: null, response -> {}));
+
+		return results;
+	}
+
+	private EndpointResult read(final String endpoint, final IntFunction<HttpRequest> requests) {
+		execute(endpoint, 200, requests, response -> {}, settings.warmup());
+		return execute(endpoint, 200, requests, response -> {}, settings.duration());
+	}
+
+	private EndpointResult write(final String endpoint, final int expectedStatus, final IntFunction<HttpRequest> requests, final Consumer<HttpResponse<String>> onSuccess) {
+		return execute(endpoint, expectedStatus, requests, onSuccess, settings.duration());
+	}
+
+	/**
+	 * Calls the endpoint from concurrent clients until the duration has passed, or there are no more requests to send
+	 * (i.e. the request function returns null).
+	 */
+	private EndpointResult execute(final String endpoint, final int expectedStatus, final IntFunction<HttpRequest> requests, final Consumer<HttpResponse<String>> onSuccess,
+		final Duration duration) {
+
+		final var sequence = new AtomicInteger();
+		final var errors = new AtomicLong();
+		final var latencies = new ConcurrentLinkedQueue<long[]>();
+		final var started = System.nanoTime();
+		final var deadline = started + duration.toNanos();
+
+		try (final var executor = Executors.newFixedThreadPool(settings.concurrency())) {
+			for (var client = 0; client < settings.concurrency(); client++) {
+				executor.execute(() -> {
+					final var clientLatencies = LongStream.builder();
+					while (System.nanoTime() < deadline) {
+						final var request = requests.apply(sequence.getAndIncrement());
+						if (request == null) {
+							break;
+						}
+						final var requestStarted = System.nanoTime();
+						try {
+							final var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+							clientLatencies.add(System.nanoTime() - requestStarted);
+							if (response.statusCode() == expectedStatus) {
+								onSuccess.accept(response);
+							} else {
+								errors.incrementAndGet();
+							}
+						} catch (final IOException e) {
+							errors.incrementAndGet();
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+							break;
+						}
+					}
+					latencies.add(clientLatencies.build().toArray());
+				});
+			}
+		}
+
+		final var elapsed = System.nanoTime() - started;
+		return EndpointResult.of(endpoint, latencies.stream().flatMapToLong(LongStream::of).toArray(), errors.get(), elapsed);
+	}
+
+	private HttpRequest get(final String path) {
+		return request(path).GET().build();
+	}
+
+	private HttpRequest post(final String path, final String body) {
+		return request(path).header("Content-Type", "application/json").POST(ofString(body)).build();
+	}
+
+	private HttpRequest patch(final String path, final String body) {
+		return request(path).header("Content-Type", "application/json").method("PATCH", ofString(body)).build();
+	}
+
+	private HttpRequest delete(final String path) {
+		return request(path).DELETE().build();
+	}
+
+	private HttpRequest.Builder request(final String path) {
+		return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+	}
+
+	private static <T> T cycle(final List<T> list, final int sequence) {
+		return list.get(sequence % list.size());
+	}
+
+	private static String lastPathSegment(final HttpResponse<String> response) {
+		final var location = response.headers().firstValue("Location").orElseThrow();
+		return location.substring(location.lastIndexOf('/') + 1);
+	}
+
+	private static String encode(final String value) {
+		return URLEncoder.encode(value, UTF_8);
+	}
+}
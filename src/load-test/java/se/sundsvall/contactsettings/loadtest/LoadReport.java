@@ -0,0 +1,42 @@
+package se.sundsvall.contactsettings.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Prints the results of a load profile run, and writes them as CSV for comparison between runs.
+ */
+final class LoadReport {
+
+	private static final String HEADER_FORMAT = "%-55s %10s %8s %12s %10s %10s %10s%n";
+	private static final String ROW_FORMAT = "%-55s %10d %8d %12.1f %10.2f %10.2f %10.2f%n";
+	private static final String CSV_HEADER = "endpoint,requests,errors,throughput,p50_ms,p99_ms,max_ms";
+
+	private LoadReport() {}
+
+	static void write(final LoadTestSettings settings, final List<EndpointResult> results, final Path file) {
+		System.out.printf("%nLoad profile: %d contact settings, %d concurrent clients, %d s per endpoint (seed %d)%n%n",
+			settings.contactSettings(), settings.concurrency(), settings.duration().toSeconds(), settings.seed());
+		System.out.printf(HEADER_FORMAT, "Endpoint", "Requests", "Errors", "Req/s", "p50 (ms)", "p99 (ms)", "Max (ms)");
+		results.forEach(result -> System.out.printf(Locale.ROOT, ROW_FORMAT, result.endpoint(), result.requests(), result.errors(),
+			result.throughput(), result.p50(), result.p99(), result.max()));
+
+		final var csv = results.stream()
+			.map(result -> String.format(Locale.ROOT, "\"%s\",%d,%d,%.1f,%.3f,%.3f,%.3f", result.endpoint(), result.requests(), result.errors(),
+				result.throughput(), result.p50(), result.p99(), result.max()))
+			.collect(joining("\n", CSV_HEADER + "\n", "\n"));
+		try {
+			Files.createDirectories(file.getParent());
+			Files.writeString(file, csv);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		System.out.printf("%nResults written to %s%n", file.toAbsolutePath());
+	}
+}
@@ -0,0 +1,59 @@
+package se.sundsvall.contactsettings.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Settings for dataset generation and the load profile, read from system properties (-Dloadtest.xxx=yyy).
+ *
+ * @param seed                  seed for all random choices, i.e. the same seed gives the same dataset and load.
+ * @param generate              if a dataset should be generated before the load profile is run. Set to false to run
+ *                              against an already populated database.
+ * @param contactSettings       the total number of contact settings to generate.
+ * @param delegatedShare        the share of contact settings that are part of a delegate tree.
+ * @param virtualChildShare     the probability that a contact setting with a party has virtual children.
+ * @param maxDepth              the maximum depth of a delegate tree.
+ * @param maxFanOut             the maximum number of agents of a single principal.
+ * @param maxFiltersPerDelegate the maximum number of filters of a delegate.
+ * @param maxRulesPerFilter     the maximum number of rules of a filter.
+ * @param sampleSize            the number of sampled keys (ids, party ids, destinations) per endpoint.
+ * @param concurrency           the number of concurrent clients.
+ * @param warmup                the warmup duration per read endpoint. Requests during warmup are not recorded.
+ * @param duration              the measured duration per endpoint.
+ * @param writeOperations       the maximum number of requests per write endpoint.
+ */
+record LoadTestSettings(
+	long seed,
+	boolean generate,
+	int contactSettings,
+	double delegatedShare,
+	double virtualChildShare,
+	int maxDepth,
+	int maxFanOut,
+	int maxFiltersPerDelegate,
+	int maxRulesPerFilter,
+	int sampleSize,
+	int concurrency,
+	Duration warmup,
+	Duration duration,
+	int writeOperations) {
+
+	private static final String PREFIX = "loadtest.";
+
+	static LoadTestSettings fromSystemProperties() {
+		return new LoadTestSettings(
+			Long.getLong(PREFIX + "seed", 42),
+			Boolean.parseBoolean(System.getProperty(PREFIX + "generate", "true")),
+			Integer.getInteger(PREFIX + "contact-settings", 100_000),
+			Double.parseDouble(System.getProperty(PREFIX + "delegated-share", "0.3")),
+			Double.parseDouble(System.getProperty(PREFIX + "virtual-child-share", "0.1")),
+			Integer.getInteger(PREFIX + "max-depth", 20),
+			Integer.getInteger(PREFIX + "max-fan-out", 50),
+			Integer.getInteger(PREFIX + "max-filters-per-delegate", 10),
+			Integer.getInteger(PREFIX + "max-rules-per-filter", 20),
+			Integer.getInteger(PREFIX + "sample-size", 1_000),
+			Integer.getInteger(PREFIX + "concurrency", 8),
+			Duration.ofSeconds(Long.getLong(PREFIX + "warmup-seconds", 10)),
+			Duration.ofSeconds(Long.getLong(PREFIX + "duration-seconds", 30)),
+			Integer.getInteger(PREFIX + "write-operations", 1_000));
+	}
+}
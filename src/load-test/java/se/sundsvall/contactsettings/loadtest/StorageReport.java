@@ -0,0 +1,56 @@
+package se.sundsvall.contactsettings.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Prints the number of rows, and the size of the data (i.e. the clustered primary key) and of the secondary indexes of
+ * each table, and writes them as CSV for comparison between runs (e.g. before and after a change of the schema).
+ */
+final class StorageReport {
+
+	private static final List<String> TABLES = List.of("contact_setting", "contact_setting_channel", "delegate", "delegate_filter", "delegate_filter_rule");
+	private static final String SELECT_TABLE_SIZES = """
+		SELECT table_name, table_rows, data_length, index_length
+		FROM information_schema.tables
+		WHERE table_schema = DATABASE() AND table_name IN ('contact_setting', 'contact_setting_channel', 'delegate', 'delegate_filter', 'delegate_filter_rule')
+		ORDER BY table_name
+		""";
+	private static final String HEADER_FORMAT = "%-25s %12s %12s %12s%n";
+	private static final String ROW_FORMAT = "%-25s %12d %12.1f %12.1f%n";
+	private static final String CSV_HEADER = "table,rows,data_mb,index_mb";
+	private static final double MEGABYTE = 1024 * 1024;
+
+	private StorageReport() {}
+
+	static void write(final JdbcTemplate jdbcTemplate, final Path file) {
+		// Refresh the statistics, so that the sizes include rows that were just generated.
+		TABLES.forEach(table -> jdbcTemplate.execute("ANALYZE TABLE " + table));
+
+		final var rows = jdbcTemplate.query(SELECT_TABLE_SIZES, (rs, rowNum) -> new TableSize(rs.getString(1), rs.getLong(2), rs.getLong(3) / MEGABYTE, rs.getLong(4) / MEGABYTE));
+
+		System.out.printf("%nStorage:%n%n");
+		System.out.printf(HEADER_FORMAT, "Table", "Rows", "Data (MB)", "Index (MB)");
+		rows.forEach(row -> System.out.printf(Locale.ROOT, ROW_FORMAT, row.table(), row.rows(), row.dataSize(), row.indexSize()));
+
+		final var csv = rows.stream()
+			.map(row -> String.format(Locale.ROOT, "%s,%d,%.3f,%.3f", row.table(), row.rows(), row.dataSize(), row.indexSize()))
+			.collect(joining("\n", CSV_HEADER + "\n", "\n"));
+		try {
+			Files.createDirectories(file.getParent());
+			Files.writeString(file, csv);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		System.out.printf("%nStorage written to %s%n", file.toAbsolutePath());
+	}
+
+	private record TableSize(String table, long rows, double dataSize, double indexSize) {}
+}
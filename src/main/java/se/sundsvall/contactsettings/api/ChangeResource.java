@@ -0,0 +1,60 @@
+package se.sundsvall.contactsettings.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import se.sundsvall.contactsettings.api.model.Change;
+import se.sundsvall.contactsettings.service.ChangeLogService;
+import se.sundsvall.dept44.common.validators.annotation.ValidMunicipalityId;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.problem.violations.ConstraintViolationProblem;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
+import static org.springframework.http.ResponseEntity.ok;
+
+@RestController
+@Validated
+@RequestMapping("/{municipalityId}/changes")
+@Tag(name = "Changes", description = "Change log operations")
+class ChangeResource {
+
+	private static final String DEFAULT_PAGE_SIZE = "100";
+	private static final int MAX_PAGE_SIZE = 1000;
+
+	private final ChangeLogService changeLogService;
+
+	ChangeResource(final ChangeLogService changeLogService) {
+		this.changeLogService = changeLogService;
+	}
+
+	@GetMapping(produces = APPLICATION_JSON_VALUE)
+	@Operation(summary = "Read the changes of contact settings, delegates and delegate filters in the municipality, in sequence order, one page at a time. A page with fewer changes than the limit means that all changes have been read for now.",
+		responses = {
+			@ApiResponse(responseCode = "200", description = "Successful operation", useReturnTypeSchema = true),
+			@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+				Problem.class, ConstraintViolationProblem.class
+			}))),
+			@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+		})
+	ResponseEntity<List<Change>> readChanges(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "since", description = "Sequence number of the last received change, or 0 to read from the start", example = "4711") @Min(0) @RequestParam(name = "since", defaultValue = "0") final long since,
+		@Parameter(name = "limit", description = "Maximum number of changes to return", example = "100") @Min(1) @Max(MAX_PAGE_SIZE) @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE) final int limit) {
+
+		return ok(changeLogService.readChanges(municipalityId, since, limit));
+	}
+}
@@ -7,10 +7,17 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMap;
 import org.springframework.validation.annotation.Validated;
@@ -24,19 +31,29 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.api.model.ContactSettingBulkResult;
 import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
 import se.sundsvall.contactsettings.api.model.ContactSettingUpdateRequest;
+import se.sundsvall.contactsettings.api.model.ContactSettingsBatchResolveRequest;
+import se.sundsvall.contactsettings.api.model.ContactSettingsBulkRequest;
+import se.sundsvall.contactsettings.api.model.PartyContactSettings;
+import se.sundsvall.contactsettings.service.ContactSettingPage;
+import se.sundsvall.contactsettings.service.ContactSettingsBulkService;
 import se.sundsvall.contactsettings.service.ContactSettingsService;
 import se.sundsvall.dept44.common.validators.annotation.ValidMunicipalityId;
 import se.sundsvall.dept44.common.validators.annotation.ValidUuid;
 import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.dept44.problem.violations.ConstraintViolationProblem;
+import tools.jackson.databind.json.JsonMapper;
 
+import static java.util.Objects.isNull;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
 import static org.springframework.http.HttpHeaders.LOCATION;
 import static org.springframework.http.MediaType.ALL_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
+import static org.springframework.http.ResponseEntity.accepted;
 import static org.springframework.http.ResponseEntity.created;
 import static org.springframework.http.ResponseEntity.noContent;
 import static org.springframework.http.ResponseEntity.ok;
@@ -48,10 +65,19 @@ import static org.springframework.web.util.UriComponentsBuilder.fromPath;
 @Tag(name = "ContactSettings", description = "Contact setting operations")
 class ContactSettingsResource {
 
+	static final String CONTINUATION_TOKEN_HEADER = "Continuation-Token";
+	private static final int DEFAULT_PAGE_SIZE = 100;
+	private static final int MAX_PAGE_SIZE = 1000;
+	private static final byte NDJSON_LINE_SEPARATOR = '\n';
+
 	private final ContactSettingsService contactSettingsService;
+	private final ContactSettingsBulkService contactSettingsBulkService;
+	private final JsonMapper jsonMapper;
 
-	ContactSettingsResource(final ContactSettingsService contactSettingsService) {
+	ContactSettingsResource(final ContactSettingsService contactSettingsService, final ContactSettingsBulkService contactSettingsBulkService, final JsonMapper jsonMapper) {
 		this.contactSettingsService = contactSettingsService;
+		this.contactSettingsBulkService = contactSettingsBulkService;
+		this.jsonMapper = jsonMapper;
 	}
 
 	@PostMapping(consumes = APPLICATION_JSON_VALUE)
@@ -91,6 +117,7 @@ class ContactSettingsResource {
 
 	@DeleteMapping(path = "/{id}")
 	@Operation(summary = "Delete contact setting", responses = {
+		@ApiResponse(responseCode = "202", description = "Accepted. The contact setting is removed in the background", useReturnTypeSchema = true),
 		@ApiResponse(responseCode = "204", description = "Successful operation", useReturnTypeSchema = true),
 		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
 			Problem.class, ConstraintViolationProblem.class
@@ -101,9 +128,11 @@ class ContactSettingsResource {
 	ResponseEntity<Void> delete(
 		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
 		@Parameter(name = "id", description = "Contact setting ID", example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @PathVariable(name = "id") final String id) {
-		contactSettingsService.deleteContactSetting(municipalityId, id);
+		if (contactSettingsService.deleteContactSetting(municipalityId, id)) {
+			return noContent().build();
+		}
 
-		return noContent().build();
+		return accepted().build();
 	}
 
 	@GetMapping(path = "/{id}", produces = APPLICATION_JSON_VALUE)
@@ -123,8 +152,9 @@ class ContactSettingsResource {
 	}
 
 	@GetMapping(path = "/{id}/children", produces = APPLICATION_JSON_VALUE)
-	@Operation(summary = "Read virtual contact settings created by the instance idenitifed with the provided ID.", responses = {
-		@ApiResponse(responseCode = "200", description = "Successful operation", useReturnTypeSchema = true),
+	@Operation(summary = "Read virtual contact settings created by the instance idenitifed with the provided ID. One page at a time, when limit or continuationToken is given.", responses = {
+		@ApiResponse(responseCode = "200", headers = @Header(name = CONTINUATION_TOKEN_HEADER, description = "Token to fetch the next page with. Absent on the last page.", schema = @Schema(type = "string")),
+			description = "Successful operation", useReturnTypeSchema = true),
 		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
 			Problem.class, ConstraintViolationProblem.class
 		}))),
@@ -133,9 +163,28 @@ class ContactSettingsResource {
 	})
 	ResponseEntity<List<ContactSetting>> readChildren(
 		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
-		@Parameter(name = "id", description = "Contact setting ID", example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @PathVariable(name = "id") final String id) {
+		@Parameter(name = "id", description = "Contact setting ID", example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @PathVariable(name = "id") final String id,
+		@Parameter(name = "limit", description = "Maximum number of contact settings to return. Defaults to 100 when a continuationToken is given, and to all when neither is given.", example = "100") @Min(1) @Max(MAX_PAGE_SIZE) @RequestParam(name = "limit", required = false) final Integer limit,
+		@Parameter(name = "continuationToken", description = "Token from the Continuation-Token header of the previous page") @RequestParam(name = "continuationToken", required = false) final String continuationToken) {
 
-		return ok(contactSettingsService.readContactSettingChildren(municipalityId, id));
+		return toResponse(contactSettingsService.readContactSettingChildren(municipalityId, id, continuationToken, toLimit(limit, continuationToken)));
+	}
+
+	@GetMapping(path = "/{id}/children/stream", produces = APPLICATION_NDJSON_VALUE)
+	@Operation(summary = "Stream virtual contact settings created by the instance idenitifed with the provided ID, as newline delimited JSON.", responses = {
+		@ApiResponse(responseCode = "200", description = "Successful operation", content = @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ContactSetting.class))),
+		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+			Problem.class, ConstraintViolationProblem.class
+		}))),
+		@ApiResponse(responseCode = "404", description = "Not found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+	})
+	void streamChildren(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "id", description = "Contact setting ID", example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @PathVariable(name = "id") final String id,
+		final HttpServletResponse response) {
+
+		contactSettingsService.streamContactSettingChildren(municipalityId, id, ndjsonWriter(response));
 	}
 
 	@GetMapping(produces = APPLICATION_JSON_VALUE)
@@ -158,19 +207,124 @@ class ContactSettingsResource {
 		return ok(contactSettingsService.findByPartyIdAndQueryFilter(municipalityId, partyId, query));
 	}
 
-	@GetMapping(path = "/contact-channels", produces = APPLICATION_JSON_VALUE)
-	@Operation(summary = "Find contact setting filtered by contactChannel.destination", responses = {
+	@GetMapping(path = "/stream", produces = APPLICATION_NDJSON_VALUE)
+	@Operation(summary = "Stream contact setting chain (including all delegates) as newline delimited JSON. Filter chain by the query-parameter.", responses = {
+		@ApiResponse(responseCode = "200", description = "Successful operation", content = @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ContactSetting.class))),
+		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+			Problem.class, ConstraintViolationProblem.class
+		}))),
+		@ApiResponse(responseCode = "404", description = "Not found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+	})
+	void streamByPartyIdAndQueryFilter(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "partyId", description = "Party-ID", example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @RequestParam("partyId") String partyId,
+		@Parameter(name = "query", description = "Filter query parameters. Only delegates that matches (i.e. has matching delegate filters) the specified query will be included in the result.") @RequestParam final MultiValueMap<String, String> query,
+		final HttpServletResponse response) {
+
+		// "query" contains ALL queryParams, Since "partyId" is also a queryParam it will end up in the filter as well. Remove!
+		Optional.ofNullable(query).ifPresent(map -> map.remove("partyId"));
+
+		contactSettingsService.streamByPartyIdAndQueryFilter(municipalityId, partyId, query, ndjsonWriter(response));
+	}
+
+	@PostMapping(path = "/batch-resolve", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+	@Operation(summary = "Find contact setting chains (including all delegates) for several parties at once. Filter chains by the query of the request.", responses = {
 		@ApiResponse(responseCode = "200", description = "Successful operation", useReturnTypeSchema = true),
 		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
 			Problem.class, ConstraintViolationProblem.class
 		}))),
+		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+	})
+	ResponseEntity<List<PartyContactSettings>> batchResolve(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@NotNull @Valid @RequestBody final ContactSettingsBatchResolveRequest body) {
+
+		return ok(contactSettingsService.findByPartyIdsAndQueryFilter(municipalityId, body.getPartyIds(), body.getQuery()));
+	}
+
+	@PostMapping(path = "/bulk", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+	@Operation(summary = "Create (or upsert) several contact settings at once. The outcome of each contact setting is reported in request order.", responses = {
+		@ApiResponse(responseCode = "200", description = "Successful operation", useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+			Problem.class, ConstraintViolationProblem.class
+		}))),
+		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+	})
+	ResponseEntity<List<ContactSettingBulkResult>> bulkCreate(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@NotNull @Valid @RequestBody final ContactSettingsBulkRequest body) {
+
+		return ok(contactSettingsBulkService.createContactSettings(municipalityId, body.getContactSettings(), body.isUpsert()));
+	}
+
+	@GetMapping(path = "/contact-channels", produces = APPLICATION_JSON_VALUE)
+	@Operation(summary = "Find contact setting filtered by contactChannel.destination. One page at a time, when limit or continuationToken is given.", responses = {
+		@ApiResponse(responseCode = "200", headers = @Header(name = CONTINUATION_TOKEN_HEADER, description = "Token to fetch the next page with. Absent on the last page.", schema = @Schema(type = "string")),
+			description = "Successful operation", useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+			Problem.class, ConstraintViolationProblem.class
+		}))),
 		@ApiResponse(responseCode = "404", description = "Not found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
 		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
 	})
 	ResponseEntity<List<ContactSetting>> findByDestination(
 		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
-		@Parameter(name = "destination", description = "destination of contact channel", example = "0701740605") @RequestParam(name = "destination") final String destination) {
+		@Parameter(name = "destination", description = "destination of contact channel", example = "0701740605") @RequestParam(name = "destination") final String destination,
+		@Parameter(name = "limit", description = "Maximum number of contact settings to return. Defaults to 100 when a continuationToken is given, and to all when neither is given.", example = "100") @Min(1) @Max(MAX_PAGE_SIZE) @RequestParam(name = "limit", required = false) final Integer limit,
+		@Parameter(name = "continuationToken", description = "Token from the Continuation-Token header of the previous page") @RequestParam(name = "continuationToken", required = false) final String continuationToken) {
+
+		return toResponse(contactSettingsService.findByChannelsDestination(municipalityId, destination, continuationToken, toLimit(limit, continuationToken)));
+	}
+
+	@GetMapping(path = "/contact-channels/stream", produces = APPLICATION_NDJSON_VALUE)
+	@Operation(summary = "Stream contact settings filtered by contactChannel.destination, as newline delimited JSON.", responses = {
+		@ApiResponse(responseCode = "200", description = "Successful operation", content = @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ContactSetting.class))),
+		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+			Problem.class, ConstraintViolationProblem.class
+		}))),
+		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+	})
+	void streamByDestination(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "destination", description = "destination of contact channel", example = "0701740605") @RequestParam(name = "destination") final String destination,
+		final HttpServletResponse response) {
+
+		contactSettingsService.streamByChannelsDestination(municipalityId, destination, ndjsonWriter(response));
+	}
+
+	/**
+	 * Clients that pass neither a limit nor a continuation token get all results in one response, as before the results
+	 * were paged.
+	 */
+	private static Limit toLimit(final Integer limit, final String continuationToken) {
+		if (isNull(limit) && isNull(continuationToken)) {
+			return Limit.unlimited();
+		}
+		return Limit.of(Optional.ofNullable(limit).orElse(DEFAULT_PAGE_SIZE));
+	}
+
+	private static ResponseEntity<List<ContactSetting>> toResponse(final ContactSettingPage page) {
+		final var response = ok();
+		Optional.ofNullable(page.continuationToken()).ifPresent(continuationToken -> response.header(CONTINUATION_TOKEN_HEADER, continuationToken));
+		return response.body(page.contactSettings());
+	}
 
-		return ok(contactSettingsService.findByChannelsDestination(municipalityId, destination));
+	/**
+	 * Returns a consumer that writes each contact setting as one line of JSON to the response, as soon as it is received.
+	 * Errors that occur before the first line has been written are handled as usual, while errors after that point can
+	 * only abort the response.
+	 */
+	private Consumer<ContactSetting> ndjsonWriter(final HttpServletResponse response) {
+		response.setContentType(APPLICATION_NDJSON_VALUE);
+		return contactSetting -> {
+			try {
+				final var outputStream = response.getOutputStream();
+				outputStream.write(jsonMapper.writeValueAsBytes(contactSetting));
+				outputStream.write(NDJSON_LINE_SEPARATOR);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		};
 	}
 }
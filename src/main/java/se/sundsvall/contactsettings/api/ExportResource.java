@@ -0,0 +1,108 @@
+package se.sundsvall.contactsettings.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import se.sundsvall.contactsettings.api.model.ExportRecord;
+import se.sundsvall.contactsettings.service.ExportService;
+import se.sundsvall.dept44.common.validators.annotation.ValidMunicipalityId;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.problem.violations.ConstraintViolationProblem;
+import tools.jackson.databind.json.JsonMapper;
+
+import static java.util.Objects.isNull;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
+
+@RestController
+@Validated
+@RequestMapping("/{municipalityId}/export")
+@Tag(name = "Export", description = "Export operations")
+class ExportResource {
+
+	static final String GZIP = "gzip";
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+	private static final byte NDJSON_LINE_SEPARATOR = '\n';
+
+	private final ExportService exportService;
+	private final JsonMapper jsonMapper;
+
+	ExportResource(final ExportService exportService, final JsonMapper jsonMapper) {
+		this.exportService = exportService;
+		this.jsonMapper = jsonMapper;
+	}
+
+	@GetMapping(produces = APPLICATION_NDJSON_VALUE)
+	@Operation(summary = "Export all contact settings and delegates of the municipality, as gzip compressed newline delimited JSON. The contact settings come first, and then the delegates.",
+		responses = {
+			@ApiResponse(responseCode = "200", headers = @Header(name = CONTENT_ENCODING, description = "Always gzip", schema = @Schema(type = "string")), description = "Successful operation",
+				content = @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ExportRecord.class))),
+			@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+				Problem.class, ConstraintViolationProblem.class
+			}))),
+			@ApiResponse(responseCode = "429", description = "Too many requests", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+			@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+		})
+	void export(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		final HttpServletResponse response) throws IOException {
+
+		final var writer = new GzipNdjsonWriter(response);
+		exportService.export(municipalityId, writer);
+		writer.finish();
+	}
+
+	/**
+	 * Writes each record as one line of JSON to a gzip stream over the response, as soon as it is received. The response
+	 * is only switched to gzip when the first record is written, so that errors that occur before that point are handled
+	 * as usual, while errors after that point can only abort the response. The gzip stream is only completed when all
+	 * records have been written, so that an aborted export can not be mistaken for a complete one.
+	 */
+	private final class GzipNdjsonWriter implements Consumer<ExportRecord> {
+
+		private final HttpServletResponse response;
+		private GZIPOutputStream outputStream;
+
+		private GzipNdjsonWriter(final HttpServletResponse response) {
+			this.response = response;
+		}
+
+		@Override
+		public void accept(final ExportRecord exportRecord) {
+			try {
+				outputStream().write(jsonMapper.writeValueAsBytes(exportRecord));
+				outputStream().write(NDJSON_LINE_SEPARATOR);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private void finish() throws IOException {
+			outputStream().finish();
+		}
+
+		private GZIPOutputStream outputStream() throws IOException {
+			if (isNull(outputStream)) {
+				response.setContentType(APPLICATION_NDJSON_VALUE);
+				response.setHeader(CONTENT_ENCODING, GZIP);
+				outputStream = new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE);
+			}
+			return outputStream;
+		}
+	}
+}
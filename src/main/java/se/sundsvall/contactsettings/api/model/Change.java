@@ -0,0 +1,143 @@
+package se.sundsvall.contactsettings.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import org.springframework.format.annotation.DateTimeFormat;
+import se.sundsvall.contactsettings.api.model.enums.ChangeEntityType;
+import se.sundsvall.contactsettings.api.model.enums.ChangeOperation;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+
+@Schema(description = "Change model. One entry of the change log, identifying an entity that has been created, updated or deleted.", accessMode = READ_ONLY)
+public class Change {
+
+	@Schema(description = "Sequence number of the change. Pass the sequence number of the last received change as 'since' to fetch the following changes.", examples = "4711",
+		accessMode = READ_ONLY)
+	private Long sequence;
+
+	@Schema(description = "Type of the changed entity", accessMode = READ_ONLY)
+	private ChangeEntityType entityType;
+
+	@Schema(description = "ID of the changed entity", examples = "0d64c132-3aea-11ec-8d3d-0242ac130003", accessMode = READ_ONLY)
+	private String entityId;
+
+	@Schema(description = "ID of the delegate that the changed filter belongs to. Only present on changes of type DELEGATE_FILTER.", examples = "0d64c132-3aea-11ec-8d3d-0242ac130003",
+		accessMode = READ_ONLY)
+	private String delegateId;
+
+	@Schema(description = "The operation that changed the entity", accessMode = READ_ONLY)
+	private ChangeOperation operation;
+
+	@Schema(description = "Timestamp when the change was made", examples = "2020-08-31T01:30:00.000+02:00", accessMode = READ_ONLY)
+	@DateTimeFormat(iso = DATE_TIME)
+	private OffsetDateTime created;
+
+	public static Change create() {
+		return new Change();
+	}
+
+	public Long getSequence() {
+		return sequence;
+	}
+
+	public void setSequence(final Long sequence) {
+		this.sequence = sequence;
+	}
+
+	public Change withSequence(final Long sequence) {
+		this.sequence = sequence;
+		return this;
+	}
+
+	public ChangeEntityType getEntityType() {
+		return entityType;
+	}
+
+	public void setEntityType(final ChangeEntityType entityType) {
+		this.entityType = entityType;
+	}
+
+	public Change withEntityType(final ChangeEntityType entityType) {
+		this.entityType = entityType;
+		return this;
+	}
+
+	public String getEntityId() {
+		return entityId;
+	}
+
+	public void setEntityId(final String entityId) {
+		this.entityId = entityId;
+	}
+
+	public Change withEntityId(final String entityId) {
+		this.entityId = entityId;
+		return this;
+	}
+
+	public String getDelegateId() {
+		return delegateId;
+	}
+
+	public void setDelegateId(final String delegateId) {
+		this.delegateId = delegateId;
+	}
+
+	public Change withDelegateId(final String delegateId) {
+		this.delegateId = delegateId;
+		return this;
+	}
+
+	public ChangeOperation getOperation() {
+		return operation;
+	}
+
+	public void setOperation(final ChangeOperation operation) {
+		this.operation = operation;
+	}
+
+	public Change withOperation(final ChangeOperation operation) {
+		this.operation = operation;
+		return this;
+	}
+
+	public OffsetDateTime getCreated() {
+		return created;
+	}
+
+	public void setCreated(final OffsetDateTime created) {
+		this.created = created;
+	}
+
+	public Change withCreated(final OffsetDateTime created) {
+		this.created = created;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(created, delegateId, entityId, entityType, operation, sequence);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof final Change other)) {
+			return false;
+		}
+		return Objects.equals(created, other.created) && Objects.equals(delegateId, other.delegateId) && Objects.equals(entityId, other.entityId) && entityType == other.entityType
+			&& operation == other.operation && Objects.equals(sequence, other.sequence);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("Change [sequence=").append(sequence).append(", entityType=").append(entityType).append(", entityId=").append(entityId).append(", delegateId=").append(delegateId)
+			.append(", operation=").append(operation).append(", created=").append(created).append("]");
+		return builder.toString();
+	}
+}
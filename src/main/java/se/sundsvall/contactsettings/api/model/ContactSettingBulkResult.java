@@ -0,0 +1,116 @@
+package se.sundsvall.contactsettings.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Objects;
+import se.sundsvall.contactsettings.api.model.enums.BulkOutcome;
+
+@Schema(description = "ContactSettingBulkResult model. The outcome of one contact setting of a bulk request.")
+public class ContactSettingBulkResult {
+
+	@Schema(description = "Position of the contact setting in the request (zero based)", examples = "0")
+	private int index;
+
+	@Schema(description = "Outcome for the contact setting")
+	private BulkOutcome outcome;
+
+	@Schema(description = "ID of the created or updated contact setting. Absent on conflict.", examples = "5d0a7e41-4c3b-4c1c-9f0f-6c2b8c3a1e2f")
+	private String id;
+
+	@Schema(description = "Party-ID of the contact setting", examples = "15aee472-46ab-4f03-9605-68bd64ebc73f")
+	private String partyId;
+
+	@Schema(description = "Details on why the contact setting was not written", examples = "A contact-setting with party-id: '15aee472-46ab-4f03-9605-68bd64ebc73f' already exists for this municipality!")
+	private String detail;
+
+	public static ContactSettingBulkResult create() {
+		return new ContactSettingBulkResult();
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(final int index) {
+		this.index = index;
+	}
+
+	public ContactSettingBulkResult withIndex(final int index) {
+		this.index = index;
+		return this;
+	}
+
+	public BulkOutcome getOutcome() {
+		return outcome;
+	}
+
+	public void setOutcome(final BulkOutcome outcome) {
+		this.outcome = outcome;
+	}
+
+	public ContactSettingBulkResult withOutcome(final BulkOutcome outcome) {
+		this.outcome = outcome;
+		return this;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(final String id) {
+		this.id = id;
+	}
+
+	public ContactSettingBulkResult withId(final String id) {
+		this.id = id;
+		return this;
+	}
+
+	public String getPartyId() {
+		return partyId;
+	}
+
+	public void setPartyId(final String partyId) {
+		this.partyId = partyId;
+	}
+
+	public ContactSettingBulkResult withPartyId(final String partyId) {
+		this.partyId = partyId;
+		return this;
+	}
+
+	public String getDetail() {
+		return detail;
+	}
+
+	public void setDetail(final String detail) {
+		this.detail = detail;
+	}
+
+	public ContactSettingBulkResult withDetail(final String detail) {
+		this.detail = detail;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(detail, id, index, outcome, partyId);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof final ContactSettingBulkResult other)) {
+			return false;
+		}
+		return Objects.equals(detail, other.detail) && Objects.equals(id, other.id) && index == other.index && outcome == other.outcome && Objects.equals(partyId, other.partyId);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("ContactSettingBulkResult [index=").append(index).append(", outcome=").append(outcome).append(", id=").append(id).append(", partyId=").append(partyId).append(", detail=").append(detail).append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,76 @@
+package se.sundsvall.contactsettings.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import se.sundsvall.dept44.common.validators.annotation.ValidUuid;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+@Schema(description = "ContactSettingsBatchResolveRequest model")
+public class ContactSettingsBatchResolveRequest {
+
+	@Schema(description = "Party-IDs to resolve contact setting chains for", requiredMode = REQUIRED)
+	@NotEmpty
+	@Size(max = 10000)
+	private List<@ValidUuid String> partyIds;
+
+	@Schema(description = "Filter query, shared by all party-IDs. Only delegates that matches (i.e. has matching delegate filters) the query will be included in the result.")
+	private Map<String, List<String>> query;
+
+	public static ContactSettingsBatchResolveRequest create() {
+		return new ContactSettingsBatchResolveRequest();
+	}
+
+	public List<String> getPartyIds() {
+		return partyIds;
+	}
+
+	public void setPartyIds(final List<String> partyIds) {
+		this.partyIds = partyIds;
+	}
+
+	public ContactSettingsBatchResolveRequest withPartyIds(final List<String> partyIds) {
+		this.partyIds = partyIds;
+		return this;
+	}
+
+	public Map<String, List<String>> getQuery() {
+		return query;
+	}
+
+	public void setQuery(final Map<String, List<String>> query) {
+		this.query = query;
+	}
+
+	public ContactSettingsBatchResolveRequest withQuery(final Map<String, List<String>> query) {
+		this.query = query;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(partyIds, query);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof final ContactSettingsBatchResolveRequest other)) {
+			return false;
+		}
+		return Objects.equals(partyIds, other.partyIds) && Objects.equals(query, other.query);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("ContactSettingsBatchResolveRequest [partyIds=").append(partyIds).append(", query=").append(query).append("]");
+		return builder.toString();
+	}
+}
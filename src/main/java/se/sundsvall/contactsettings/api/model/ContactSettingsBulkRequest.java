@@ -0,0 +1,76 @@
+package se.sundsvall.contactsettings.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.Objects;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+@Schema(description = "ContactSettingsBulkRequest model")
+public class ContactSettingsBulkRequest {
+
+	@Schema(description = "Contact settings to create", requiredMode = REQUIRED)
+	@NotEmpty
+	@Size(max = 10000)
+	private List<@NotNull @Valid ContactSettingCreateRequest> contactSettings;
+
+	@Schema(description = "If true, a contact setting that already exists for the party-ID is updated (alias and contact channels) instead of reported as a conflict", examples = "false")
+	private boolean upsert;
+
+	public static ContactSettingsBulkRequest create() {
+		return new ContactSettingsBulkRequest();
+	}
+
+	public List<ContactSettingCreateRequest> getContactSettings() {
+		return contactSettings;
+	}
+
+	public void setContactSettings(final List<ContactSettingCreateRequest> contactSettings) {
+		this.contactSettings = contactSettings;
+	}
+
+	public ContactSettingsBulkRequest withContactSettings(final List<ContactSettingCreateRequest> contactSettings) {
+		this.contactSettings = contactSettings;
+		return this;
+	}
+
+	public boolean isUpsert() {
+		return upsert;
+	}
+
+	public void setUpsert(final boolean upsert) {
+		this.upsert = upsert;
+	}
+
+	public ContactSettingsBulkRequest withUpsert(final boolean upsert) {
+		this.upsert = upsert;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(contactSettings, upsert);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof final ContactSettingsBulkRequest other)) {
+			return false;
+		}
+		return Objects.equals(contactSettings, other.contactSettings) && upsert == other.upsert;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("ContactSettingsBulkRequest [contactSettings=").append(contactSettings).append(", upsert=").append(upsert).append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,86 @@
+package se.sundsvall.contactsettings.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Objects;
+import se.sundsvall.contactsettings.api.model.enums.ExportRecordType;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+@Schema(description = "ExportRecord model. One line of an export, holding either a contact setting or a delegate (with its filters and rules).", accessMode = READ_ONLY)
+public class ExportRecord {
+
+	@Schema(description = "Type of the record", accessMode = READ_ONLY)
+	private ExportRecordType type;
+
+	@Schema(description = "The contact setting. Only present on records of type CONTACT_SETTING.", accessMode = READ_ONLY)
+	private ContactSetting contactSetting;
+
+	@Schema(description = "The delegate. Only present on records of type DELEGATE.", accessMode = READ_ONLY)
+	private Delegate delegate;
+
+	public static ExportRecord create() {
+		return new ExportRecord();
+	}
+
+	public ExportRecordType getType() {
+		return type;
+	}
+
+	public void setType(final ExportRecordType type) {
+		this.type = type;
+	}
+
+	public ExportRecord withType(final ExportRecordType type) {
+		this.type = type;
+		return this;
+	}
+
+	public ContactSetting getContactSetting() {
+		return contactSetting;
+	}
+
+	public void setContactSetting(final ContactSetting contactSetting) {
+		this.contactSetting = contactSetting;
+	}
+
+	public ExportRecord withContactSetting(final ContactSetting contactSetting) {
+		this.contactSetting = contactSetting;
+		return this;
+	}
+
+	public Delegate getDelegate() {
+		return delegate;
+	}
+
+	public void setDelegate(final Delegate delegate) {
+		this.delegate = delegate;
+	}
+
+	public ExportRecord withDelegate(final Delegate delegate) {
+		this.delegate = delegate;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(contactSetting, delegate, type);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof final ExportRecord other)) {
+			return false;
+		}
+		return Objects.equals(contactSetting, other.contactSetting) && Objects.equals(delegate, other.delegate) && type == other.type;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("ExportRecord [type=").append(type).append(", contactSetting=").append(contactSetting).append(", delegate=").append(delegate).append("]");
+		return builder.toString();
+	}
+}
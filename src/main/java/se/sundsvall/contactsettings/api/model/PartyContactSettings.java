@@ -0,0 +1,68 @@
+package se.sundsvall.contactsettings.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.Objects;
+
+@Schema(description = "PartyContactSettings model")
+public class PartyContactSettings {
+
+	@Schema(description = "Party-ID", examples = "81471222-5798-11e9-ae24-57fa13b361e1")
+	private String partyId;
+
+	@Schema(description = "The contact setting chain of the party, i.e. the contact setting of the party followed by all matching delegates. Empty if the party has no contact setting.")
+	private List<ContactSetting> contactSettings;
+
+	public static PartyContactSettings create() {
+		return new PartyContactSettings();
+	}
+
+	public String getPartyId() {
+		return partyId;
+	}
+
+	public void setPartyId(final String partyId) {
+		this.partyId = partyId;
+	}
+
+	public PartyContactSettings withPartyId(final String partyId) {
+		this.partyId = partyId;
+		return this;
+	}
+
+	public List<ContactSetting> getContactSettings() {
+		return contactSettings;
+	}
+
+	public void setContactSettings(final List<ContactSetting> contactSettings) {
+		this.contactSettings = contactSettings;
+	}
+
+	public PartyContactSettings withContactSettings(final List<ContactSetting> contactSettings) {
+		this.contactSettings = contactSettings;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(contactSettings, partyId);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof final PartyContactSettings other)) {
+			return false;
+		}
+		return Objects.equals(contactSettings, other.contactSettings) && Objects.equals(partyId, other.partyId);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("PartyContactSettings [partyId=").append(partyId).append(", contactSettings=").append(contactSettings).append("]");
+		return builder.toString();
+	}
+}
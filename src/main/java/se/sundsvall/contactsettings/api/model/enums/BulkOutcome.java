@@ -0,0 +1,11 @@
+package se.sundsvall.contactsettings.api.model.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "BulkOutcome model. The outcome of one item of a bulk operation.", enumAsRef = true)
+public enum BulkOutcome {
+
+	CREATED,
+	UPDATED,
+	CONFLICT
+}
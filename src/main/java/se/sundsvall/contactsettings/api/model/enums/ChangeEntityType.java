@@ -0,0 +1,11 @@
+package se.sundsvall.contactsettings.api.model.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "ChangeEntityType model. The type of the entity that has changed.", enumAsRef = true)
+public enum ChangeEntityType {
+
+	CONTACT_SETTING,
+	DELEGATE,
+	DELEGATE_FILTER
+}
@@ -0,0 +1,11 @@
+package se.sundsvall.contactsettings.api.model.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "ChangeOperation model. The operation that changed the entity.", enumAsRef = true)
+public enum ChangeOperation {
+
+	CREATED,
+	UPDATED,
+	DELETED
+}
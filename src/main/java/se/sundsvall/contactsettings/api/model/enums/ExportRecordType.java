@@ -0,0 +1,10 @@
+package se.sundsvall.contactsettings.api.model.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "ExportRecordType model. The type of one record of an export.", enumAsRef = true)
+public enum ExportRecordType {
+
+	CONTACT_SETTING,
+	DELEGATE
+}
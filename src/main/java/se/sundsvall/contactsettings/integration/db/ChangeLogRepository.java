@@ -0,0 +1,143 @@
+package se.sundsvall.contactsettings.integration.db;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.contactsettings.integration.db.model.ChangeLogEntity;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.springframework.transaction.annotation.Propagation.MANDATORY;
+
+/**
+ * Repository of the append-only change log.
+ *
+ * The insert methods must be called in the transaction of the change they record (a transactional outbox), so that an
+ * entry is committed if, and only if, the change is committed. Each insert records a chunk of entities with one
+ * statement, and reads the municipality of the entities from the database. Pending changes are flushed before the
+ * insert, so that entities persisted in the same transaction are found. A deletion must therefore be recorded before
+ * the entities are deleted.
+ *
+ * The entries are inserted without a sequence number, and are only read by sequence number once the ChangeLogRelay has
+ * assigned one (after the entry has been committed).
+ */
+@Transactional
+@CircuitBreaker(name = "changeLogRepository")
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntity, Long> {
+
+	/**
+	 * Find the changes of a municipality after a sequence number, in sequence order. Changes that have not been assigned a
+	 * sequence number yet are not included.
+	 *
+	 * @param  municipalityId of the changes.
+	 * @param  since          the sequence number to find changes after.
+	 * @param  limit          the maximum number of changes to return.
+	 * @return                a List of ChangeLogEntity objects.
+	 */
+	@Query("""
+		SELECT c FROM ChangeLogEntity c
+		WHERE c.municipalityId = :municipalityId AND c.sequence > :since
+		ORDER BY c.sequence""")
+	List<ChangeLogEntity> findByMunicipalityIdAfter(@Param("municipalityId") String municipalityId, @Param("since") long since, Limit limit);
+
+	/**
+	 * Find the (committed) changes that have not been assigned a sequence number yet, in insertion order.
+	 *
+	 * @param  limit the maximum number of changes to return.
+	 * @return       a List of ChangeLogEntity objects.
+	 */
+	@Query("""
+		SELECT c FROM ChangeLogEntity c
+		WHERE c.sequence IS NULL
+		ORDER BY c.id""")
+	List<ChangeLogEntity> findUnsequenced(Limit limit);
+
+	/**
+	 * Record a change of the given contact settings.
+	 *
+	 * @param  ids       the ids of the changed ContactSettings.
+	 * @param  operation the operation that changed the ContactSettings.
+	 * @param  created   the time of the change.
+	 * @return           the number of recorded changes.
+	 */
+	@Transactional(propagation = MANDATORY)
+	@Modifying(flushAutomatically = true)
+	@QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "change_log"))
+	@Query(nativeQuery = true, value = """
+		INSERT INTO change_log (municipality_id, entity_type, entity_id, operation, created)
+		SELECT c.municipality_id, 'CONTACT_SETTING', c.id, :operation, :created
+		FROM contact_setting c
+		WHERE c.id IN (:ids)""")
+	int insertContactSettingChanges(@Param("ids") Collection<String> ids, @Param("operation") String operation, @Param("created") OffsetDateTime created);
+
+	/**
+	 * Record a change of the given delegates. The municipality of a delegate is the municipality of its principal.
+	 *
+	 * @param  delegateIds the ids of the changed delegates.
+	 * @param  operation   the operation that changed the delegates.
+	 * @param  created     the time of the change.
+	 * @return             the number of recorded changes.
+	 */
+	@Transactional(propagation = MANDATORY)
+	@Modifying(flushAutomatically = true)
+	@QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "change_log"))
+	@Query(nativeQuery = true, value = """
+		INSERT INTO change_log (municipality_id, entity_type, entity_id, operation, created)
+		SELECT p.municipality_id, 'DELEGATE', d.id, :operation, :created
+		FROM delegate d
+		INNER JOIN contact_setting p ON p.id = d.principal_id
+		WHERE d.id IN (:delegateIds)""")
+	int insertDelegateChanges(@Param("delegateIds") Collection<String> delegateIds, @Param("operation") String operation, @Param("created") OffsetDateTime created);
+
+	/**
+	 * Record a change of the delegates where any of the given contact settings is principal or agent. The municipality of
+	 * a delegate is the municipality of its principal. Delegates of tombstoned contact settings are not recorded, as their
+	 * deletion has already been recorded.
+	 *
+	 * @param  contactSettingIds the ids of the ContactSettings.
+	 * @param  operation         the operation that changed the delegates.
+	 * @param  created           the time of the change.
+	 * @return                   the number of recorded changes.
+	 */
+	@Transactional(propagation = MANDATORY)
+	@Modifying(flushAutomatically = true)
+	@QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "change_log"))
+	@Query(nativeQuery = true, value = """
+		INSERT INTO change_log (municipality_id, entity_type, entity_id, operation, created)
+		SELECT p.municipality_id, 'DELEGATE', d.id, :operation, :created
+		FROM delegate d
+		INNER JOIN contact_setting p ON p.id = d.principal_id
+		INNER JOIN contact_setting a ON a.id = d.agent_id
+		WHERE (d.principal_id IN (:contactSettingIds) OR d.agent_id IN (:contactSettingIds)) AND p.deleted IS NULL AND a.deleted IS NULL""")
+	int insertDelegateChangesByPrincipalIdInOrAgentIdIn(@Param("contactSettingIds") Collection<String> contactSettingIds, @Param("operation") String operation,
+		@Param("created") OffsetDateTime created);
+
+	/**
+	 * Record a change of the given delegate filters. The municipality of a filter is the municipality of the principal of
+	 * its delegate.
+	 *
+	 * @param  filterIds the ids of the changed delegate filters.
+	 * @param  operation the operation that changed the delegate filters.
+	 * @param  created   the time of the change.
+	 * @return           the number of recorded changes.
+	 */
+	@Transactional(propagation = MANDATORY)
+	@Modifying(flushAutomatically = true)
+	@QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "change_log"))
+	@Query(nativeQuery = true, value = """
+		INSERT INTO change_log (municipality_id, entity_type, entity_id, delegate_id, operation, created)
+		SELECT p.municipality_id, 'DELEGATE_FILTER', f.id, f.delegate_id, :operation, :created
+		FROM delegate_filter f
+		INNER JOIN delegate d ON d.id = f.delegate_id
+		INNER JOIN contact_setting p ON p.id = d.principal_id
+		WHERE f.id IN (:filterIds)""")
+	int insertDelegateFilterChanges(@Param("filterIds") Collection<String> filterIds, @Param("operation") String operation, @Param("created") OffsetDateTime created);
+}
@@ -0,0 +1,29 @@
+package se.sundsvall.contactsettings.integration.db;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.contactsettings.integration.db.model.ChangeLogSequenceEntity;
+
+import static jakarta.persistence.LockModeType.PESSIMISTIC_WRITE;
+import static org.springframework.transaction.annotation.Propagation.MANDATORY;
+
+@Transactional
+@CircuitBreaker(name = "changeLogSequenceRepository")
+public interface ChangeLogSequenceRepository extends JpaRepository<ChangeLogSequenceEntity, Long> {
+
+	/**
+	 * Find by id, and lock the row (SELECT ... FOR UPDATE) until the calling transaction ends.
+	 *
+	 * @param  id the ChangeLogSequenceEntity id.
+	 * @return    an Optional ChangeLogSequenceEntity.
+	 */
+	@Transactional(propagation = MANDATORY)
+	@Lock(PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM ChangeLogSequenceEntity s WHERE s.id = :id")
+	Optional<ChangeLogSequenceEntity> findForUpdateById(@Param("id") long id);
+}
@@ -1,16 +1,48 @@
 package se.sundsvall.contactsettings.integration.db;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingIdentity;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+import static se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity.GRAPH_WITH_CHANNELS;
 
 @Transactional
 @CircuitBreaker(name = "contactSettingRepository")
 public interface ContactSettingRepository extends JpaRepository<ContactSettingEntity, String> {
 
+	/**
+	 * The number of rows fetched from the database per round-trip by the stream methods.
+	 */
+	String STREAM_FETCH_SIZE = "500";
+
+	/**
+	 * Find by id. The channels of the ContactSetting are fetched in the same query.
+	 *
+	 * @param  id the ID of the ContactSetting.
+	 * @return    an Optional of ContactSettingEntity object.
+	 */
+	@Override
+	@EntityGraph(GRAPH_WITH_CHANNELS)
+	Optional<ContactSettingEntity> findById(String id);
+
 	/**
 	 * Find by municipalityId and idd.
 	 *
@@ -18,6 +50,7 @@ public interface ContactSettingRepository extends JpaRepository<ContactSettingEn
 	 * @param  id             the ID of the ContactSetting.
 	 * @return                an Optional of ContactSettingEntity object.
 	 */
+	@EntityGraph(GRAPH_WITH_CHANNELS)
 	Optional<ContactSettingEntity> findByMunicipalityIdAndId(String municipalityId, String id);
 
 	/**
@@ -27,10 +60,20 @@ public interface ContactSettingRepository extends JpaRepository<ContactSettingEn
 	 * @param  partyId        of the ContactSetting owner.
 	 * @return                an Optional of ContactSettingEntity object.
 	 */
+	@EntityGraph(GRAPH_WITH_CHANNELS)
 	Optional<ContactSettingEntity> findByMunicipalityIdAndPartyId(String municipalityId, String partyId);
 
 	/**
-	 * Find by municipalityId and createdById.
+	 * Returns whether an entity with the given municipalityId and partyId exists.
+	 *
+	 * @param  municipalityId of the ContactSetting.
+	 * @param  partyId        of the ContactSetting owner.
+	 * @return                true if an entity with the given municipalityId and partyId exists, false otherwise.
+	 */
+	boolean existsByMunicipalityIdAndPartyId(String municipalityId, String partyId);
+
+	/**
+	 * Find by municipalityId and createdById. The channels of the ContactSettings are not loaded.
 	 *
 	 * @param  municipalityId of the ContactSetting.
 	 * @param  createdById    the id of the ContactSetting that created the instance to find.
@@ -38,6 +81,46 @@ public interface ContactSettingRepository extends JpaRepository<ContactSettingEn
 	 */
 	List<ContactSettingEntity> findByMunicipalityIdAndCreatedById(String municipalityId, String createdById);
 
+	/**
+	 * Find the ids of the virtual ContactSettings (i.e. without partyId) created by a ContactSetting.
+	 *
+	 * @param  municipalityId of the ContactSetting.
+	 * @param  createdById    the id of the ContactSetting that created the instances to find.
+	 * @return                a List of ContactSetting ids.
+	 */
+	@Query("SELECT c.id FROM ContactSettingEntity c WHERE c.municipalityId = :municipalityId AND c.createdById = :createdById AND c.partyId IS NULL")
+	List<String> findVirtualIdsByMunicipalityIdAndCreatedById(@Param("municipalityId") String municipalityId, @Param("createdById") String createdById);
+
+	/**
+	 * Find the ids of the first page of ContactSettings created by a ContactSetting, in (created, id) order.
+	 *
+	 * @param  municipalityId of the ContactSetting.
+	 * @param  createdById    the id of the ContactSetting that created the instances to find.
+	 * @param  limit          the maximum number of ids to return.
+	 * @return                a List of ContactSetting ids.
+	 */
+	@Query("SELECT c.id FROM ContactSettingEntity c WHERE c.municipalityId = :municipalityId AND c.createdById = :createdById ORDER BY c.created, c.id")
+	List<String> findIdsByMunicipalityIdAndCreatedById(@Param("municipalityId") String municipalityId, @Param("createdById") String createdById, Limit limit);
+
+	/**
+	 * Find the ids of the ContactSettings created by a ContactSetting that come after the provided (created, id) position,
+	 * in (created, id) order.
+	 *
+	 * @param  municipalityId of the ContactSetting.
+	 * @param  createdById    the id of the ContactSetting that created the instances to find.
+	 * @param  created        the created timestamp of the last ContactSetting of the previous page.
+	 * @param  id             the id of the last ContactSetting of the previous page.
+	 * @param  limit          the maximum number of ids to return.
+	 * @return                a List of ContactSetting ids.
+	 */
+	@Query("""
+		SELECT c.id FROM ContactSettingEntity c
+		WHERE c.municipalityId = :municipalityId AND c.createdById = :createdById
+		AND (c.created > :created OR (c.created = :created AND c.id > :id))
+		ORDER BY c.created, c.id""")
+	List<String> findIdsByMunicipalityIdAndCreatedByIdAfter(@Param("municipalityId") String municipalityId, @Param("createdById") String createdById, @Param("created") OffsetDateTime created,
+		@Param("id") String id, Limit limit);
+
 	/**
 	 * Returns whether an entity with the given municipalityId and id exists.
 	 *
@@ -54,5 +137,196 @@ public interface ContactSettingRepository extends JpaRepository<ContactSettingEn
 	 * @param  destination    channel-destination of the ContactSettings to find.
 	 * @return                a List of ContactSettingEntity objects.
 	 */
+	@EntityGraph(GRAPH_WITH_CHANNELS)
 	List<ContactSettingEntity> findByMunicipalityIdAndChannelsDestination(String municipalityId, String destination);
+
+	/**
+	 * Find the ids of the first page of ContactSettings with a channel with the provided destination, in id order.
+	 *
+	 * The channels are read in the order of their (destination, contact_setting_id) index, and each is joined to its
+	 * ContactSetting by primary key, so a page only reads as many rows as it returns, however many ContactSettings share
+	 * the destination. An id is returned once for each channel with the destination, so the caller removes duplicates.
+	 *
+	 * @param  municipalityId of the ContactSetting.
+	 * @param  destination    channel-destination of the ContactSettings to find.
+	 * @param  limit          the maximum number of ids to return.
+	 * @return                a List of ContactSetting ids.
+	 */
+	@Query(nativeQuery = true, value = """
+		SELECT CAST(ch.contact_setting_id AS CHAR) FROM contact_setting_channel ch
+		STRAIGHT_JOIN contact_setting c ON c.id = ch.contact_setting_id
+		WHERE ch.destination = :destination AND c.municipality_id = :municipalityId AND c.deleted IS NULL
+		ORDER BY ch.contact_setting_id
+		LIMIT :limit""")
+	List<String> findIdsByMunicipalityIdAndChannelsDestination(@Param("municipalityId") String municipalityId, @Param("destination") String destination, @Param("limit") int limit);
+
+	/**
+	 * Find the ids of the ContactSettings with a channel with the provided destination that come after the provided id, in
+	 * id order. Reads the same index as the first page, from the provided id onwards.
+	 *
+	 * @param  municipalityId of the ContactSetting.
+	 * @param  destination    channel-destination of the ContactSettings to find.
+	 * @param  id             the id of the last ContactSetting of the previous page.
+	 * @param  limit          the maximum number of ids to return.
+	 * @return                a List of ContactSetting ids.
+	 */
+	@Query(nativeQuery = true, value = """
+		SELECT CAST(ch.contact_setting_id AS CHAR) FROM contact_setting_channel ch
+		STRAIGHT_JOIN contact_setting c ON c.id = ch.contact_setting_id
+		WHERE ch.destination = :destination AND ch.contact_setting_id > :id AND c.municipality_id = :municipalityId AND c.deleted IS NULL
+		ORDER BY ch.contact_setting_id
+		LIMIT :limit""")
+	List<String> findIdsByMunicipalityIdAndChannelsDestinationAfter(@Param("municipalityId") String municipalityId, @Param("destination") String destination, @Param("id") String id,
+		@Param("limit") int limit);
+
+	/**
+	 * Find by a collection of ids. The channels of each ContactSetting are fetched in the same query.
+	 *
+	 * @param  ids the ids of the ContactSettings to find.
+	 * @return     a List of ContactSettingEntity objects.
+	 */
+	@Query("SELECT DISTINCT c FROM ContactSettingEntity c LEFT JOIN FETCH c.channels WHERE c.id IN :ids")
+	List<ContactSettingEntity> findWithChannelsByIdIn(@Param("ids") Collection<String> ids);
+
+	/**
+	 * Find by municipalityId and a collection of partyIds. The channels of each ContactSetting are fetched in the same
+	 * query.
+	 *
+	 * @param  municipalityId of the ContactSettings.
+	 * @param  partyIds       the partyIds of the ContactSetting owners.
+	 * @return                a List of ContactSettingEntity objects.
+	 */
+	@Query("SELECT DISTINCT c FROM ContactSettingEntity c LEFT JOIN FETCH c.channels WHERE c.municipalityId = :municipalityId AND c.partyId IN :partyIds")
+	List<ContactSettingEntity> findWithChannelsByMunicipalityIdAndPartyIdIn(@Param("municipalityId") String municipalityId, @Param("partyIds") Collection<String> partyIds);
+
+	/**
+	 * Find the id and partyId of the ContactSettings with any of the provided ids.
+	 *
+	 * @param  municipalityId of the ContactSettings.
+	 * @param  ids            the ids of the ContactSettings to find.
+	 * @return                a List of ContactSettingIdentity objects.
+	 */
+	@Query("SELECT c.id AS id, c.partyId AS partyId FROM ContactSettingEntity c WHERE c.municipalityId = :municipalityId AND c.id IN :ids")
+	List<ContactSettingIdentity> findIdentitiesByMunicipalityIdAndIdIn(@Param("municipalityId") String municipalityId, @Param("ids") Collection<String> ids);
+
+	/**
+	 * Find the id and partyId of the ContactSettings of any of the provided partyIds.
+	 *
+	 * @param  municipalityId of the ContactSettings.
+	 * @param  partyIds       the partyIds of the ContactSetting owners.
+	 * @return                a List of ContactSettingIdentity objects.
+	 */
+	@Query("SELECT c.id AS id, c.partyId AS partyId FROM ContactSettingEntity c WHERE c.municipalityId = :municipalityId AND c.partyId IN :partyIds")
+	List<ContactSettingIdentity> findIdentitiesByMunicipalityIdAndPartyIdIn(@Param("municipalityId") String municipalityId, @Param("partyIds") Collection<String> partyIds);
+
+	/**
+	 * Delete by a collection of ids, with one statement. The channels of the ContactSettings are removed by the database.
+	 *
+	 * The delete bypasses the entity listeners, so the caller is responsible for publishing the change events of the
+	 * ContactSettings. Delegates referring to the ContactSettings must be deleted first.
+	 *
+	 * @param  ids the ids of the ContactSettings to delete.
+	 * @return     the number of deleted ContactSettings.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM ContactSettingEntity c WHERE c.id IN :ids")
+	int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+	/**
+	 * Tombstone (i.e. mark as deleted) by a collection of ids, with one statement. Tombstoned ContactSettings are excluded
+	 * from all entity queries, and are removed later by the contact setting purger. The partyId is cleared, so that a new
+	 * ContactSetting can be created for the party at once.
+	 *
+	 * The update bypasses the entity listeners, so the caller is responsible for publishing the change events of the
+	 * ContactSettings.
+	 *
+	 * @param  ids     the ids of the ContactSettings to tombstone.
+	 * @param  deleted the time of deletion.
+	 * @return         the number of tombstoned ContactSettings.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE ContactSettingEntity c SET c.deleted = :deleted, c.partyId = NULL WHERE c.id IN :ids")
+	int tombstoneByIdIn(@Param("ids") Collection<String> ids, @Param("deleted") OffsetDateTime deleted);
+
+	/**
+	 * Find the ids of the tombstoned ContactSettings that have been waiting the longest to be purged.
+	 *
+	 * @param  limit the maximum number of ids to return.
+	 * @return       a List of ContactSetting ids, in order of deletion.
+	 */
+	@Query(nativeQuery = true, value = "SELECT CAST(id AS CHAR) FROM contact_setting WHERE deleted IS NOT NULL ORDER BY deleted, id LIMIT :limit")
+	List<String> findTombstonedIds(@Param("limit") int limit);
+
+	/**
+	 * Count the tombstoned ContactSettings that are waiting to be purged.
+	 *
+	 * @return the number of tombstoned ContactSettings.
+	 */
+	@Query(nativeQuery = true, value = "SELECT COUNT(*) FROM contact_setting WHERE deleted IS NOT NULL")
+	long countTombstoned();
+
+	/**
+	 * Delete the tombstoned ContactSettings among a collection of ids, with one statement. The channels of the
+	 * ContactSettings are removed by the database. Delegates referring to the ContactSettings must be deleted first.
+	 *
+	 * @param  ids the ids of the tombstoned ContactSettings to delete.
+	 * @return     the number of deleted ContactSettings.
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "contact_setting"))
+	@Query(nativeQuery = true, value = "DELETE FROM contact_setting WHERE id IN (:ids) AND deleted IS NOT NULL")
+	int deleteTombstonedByIdIn(@Param("ids") Collection<String> ids);
+
+	/**
+	 * Stream by municipalityId and createdById, ordered by id. The channels of each ContactSetting are fetched in the same
+	 * query.
+	 *
+	 * The stream must be consumed (and closed) within a transaction. Rows are fetched from the database in chunks of
+	 * {@link #STREAM_FETCH_SIZE} as the stream is consumed. The second-level cache is neither read nor populated.
+	 *
+	 * @param  municipalityId of the ContactSetting.
+	 * @param  createdById    the id of the ContactSetting that created the instances to find.
+	 * @return                a Stream of ContactSettingEntity objects.
+	 */
+	@QueryHints({
+		@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+	})
+	@Query("SELECT c FROM ContactSettingEntity c LEFT JOIN FETCH c.channels WHERE c.municipalityId = :municipalityId AND c.createdById = :createdById ORDER BY c.id")
+	Stream<ContactSettingEntity> streamWithChannelsByMunicipalityIdAndCreatedById(@Param("municipalityId") String municipalityId, @Param("createdById") String createdById);
+
+	/**
+	 * Stream by municipalityId, ordered by id. The channels of each ContactSetting are fetched in the same query.
+	 *
+	 * The stream must be consumed (and closed) within a transaction. Rows are fetched from the database in chunks of
+	 * {@link #STREAM_FETCH_SIZE} as the stream is consumed. The second-level cache is neither read nor populated.
+	 *
+	 * @param  municipalityId of the ContactSettings.
+	 * @return                a Stream of ContactSettingEntity objects.
+	 */
+	@QueryHints({
+		@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+	})
+	@Query("SELECT c FROM ContactSettingEntity c LEFT JOIN FETCH c.channels WHERE c.municipalityId = :municipalityId ORDER BY c.id")
+	Stream<ContactSettingEntity> streamWithChannelsByMunicipalityId(@Param("municipalityId") String municipalityId);
+
+	/**
+	 * Stream by channel destination (SMS, EMAIL, etc.), ordered by id. All channels of each ContactSetting are fetched in
+	 * the same query.
+	 *
+	 * The stream must be consumed (and closed) within a transaction. Rows are fetched from the database in chunks of
+	 * {@link #STREAM_FETCH_SIZE} as the stream is consumed. The second-level cache is neither read nor populated.
+	 *
+	 * @param  municipalityId of the ContactSetting.
+	 * @param  destination    channel-destination of the ContactSettings to find.
+	 * @return                a Stream of ContactSettingEntity objects.
+	 */
+	@QueryHints({
+		@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+	})
+	@Query("""
+		SELECT c FROM ContactSettingEntity c LEFT JOIN FETCH c.channels
+		WHERE c.municipalityId = :municipalityId
+		AND c.id IN (SELECT d.id FROM ContactSettingEntity d JOIN d.channels ch WHERE ch.destination = :destination)
+		ORDER BY c.id""")
+	Stream<ContactSettingEntity> streamWithChannelsByMunicipalityIdAndChannelsDestination(@Param("municipalityId") String municipalityId, @Param("destination") String destination);
 }
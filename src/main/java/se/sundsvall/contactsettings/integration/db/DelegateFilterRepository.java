@@ -1,23 +1,46 @@
 package se.sundsvall.contactsettings.integration.db;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
 
+import static se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity.GRAPH_WITH_RULES;
+
 @Transactional
 @CircuitBreaker(name = "delegateFilterRepository")
 public interface DelegateFilterRepository extends JpaRepository<DelegateFilterEntity, String> {
 
 	/**
-	 * Returns whether an entity with the given id and delegateId exists.
+	 * Find by id. The rules of the filter are fetched in the same query.
+	 *
+	 * @param  id the DelegateFilterEntity id.
+	 * @return    an Optional DelegateFilterEntity.
+	 */
+	@Override
+	@EntityGraph(GRAPH_WITH_RULES)
+	Optional<DelegateFilterEntity> findById(String id);
+
+	/**
+	 * Returns whether an entity with the given id and delegateId exists, and neither the principal nor the agent of the
+	 * delegate is tombstoned.
 	 *
 	 * @param  id         the DelegateFilterEntity id.
 	 * @param  delegateId the delegateId.
 	 * @return            true if an entity with the given id exists, false otherwise.
 	 */
-	boolean existsByIdAndDelegateId(String id, String delegateId);
+	@Query("""
+		SELECT CASE WHEN COUNT(f) > 0 THEN true ELSE false END FROM DelegateFilterEntity f
+		WHERE f.id = :id AND f.delegateId = :delegateId
+		AND EXISTS (SELECT d.id FROM DelegateEntity d INNER JOIN d.principal p INNER JOIN d.agent a
+			WHERE d.id = :delegateId AND p.deleted IS NULL AND a.deleted IS NULL)""")
+	boolean existsByIdAndDelegateId(@Param("id") String id, @Param("delegateId") String delegateId);
 
 	/**
 	 * Count by delegateId.
@@ -28,11 +51,28 @@ public interface DelegateFilterRepository extends JpaRepository<DelegateFilterEn
 	int countByDelegateId(String delegateId);
 
 	/**
-	 * Find by id and delegateId.
+	 * Find by id and delegateId, unless the principal or the agent of the delegate is tombstoned. The rules of the filter
+	 * are fetched in the same query.
 	 *
 	 * @param  id         the DelegateFilterEntity id
 	 * @param  delegateId the delegateId.
 	 * @return            an Optional DelegateFilterEntity.
 	 */
-	Optional<DelegateFilterEntity> findByIdAndDelegateId(String id, String delegateId);
+	@EntityGraph(GRAPH_WITH_RULES)
+	@Query("""
+		SELECT f FROM DelegateFilterEntity f
+		WHERE f.id = :id AND f.delegateId = :delegateId
+		AND EXISTS (SELECT d.id FROM DelegateEntity d INNER JOIN d.principal p INNER JOIN d.agent a
+			WHERE d.id = :delegateId AND p.deleted IS NULL AND a.deleted IS NULL)""")
+	Optional<DelegateFilterEntity> findByIdAndDelegateId(@Param("id") String id, @Param("delegateId") String delegateId);
+
+	/**
+	 * Find the filters of a collection of delegates, in creation order. The rules of each filter are fetched in the same
+	 * query.
+	 *
+	 * @param  delegateIds the ids of the delegates.
+	 * @return             a List of DelegateFilterEntity objects.
+	 */
+	@Query("SELECT DISTINCT f FROM DelegateFilterEntity f LEFT JOIN FETCH f.filterRules WHERE f.delegateId IN :delegateIds ORDER BY f.created, f.id")
+	List<DelegateFilterEntity> findWithRulesByDelegateIdIn(@Param("delegateIds") Collection<String> delegateIds);
 }
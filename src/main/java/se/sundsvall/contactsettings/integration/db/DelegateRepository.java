@@ -1,37 +1,338 @@
 package se.sundsvall.contactsettings.integration.db;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.contactsettings.integration.db.model.DelegateChainRow;
 import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateExportRow;
+import se.sundsvall.contactsettings.integration.db.model.DelegateSummary;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+import static se.sundsvall.contactsettings.integration.db.ContactSettingRepository.STREAM_FETCH_SIZE;
+import static se.sundsvall.contactsettings.integration.db.model.DelegateEntity.GRAPH_WITH_FILTERS;
 
 @Transactional
 @CircuitBreaker(name = "delegateRepository")
 public interface DelegateRepository extends JpaRepository<DelegateEntity, String> {
 
 	/**
-	 * Find by agent contact settings ID. I.e. the delegate agents (contactSetting) ID.
+	 * Find by id, unless the principal or the agent of the delegate is tombstoned. The filters of the delegate are fetched
+	 * in the same query, but not the principal and agent.
+	 *
+	 * @param  id the delegate ID.
+	 * @return    an Optional DelegateEntity.
+	 */
+	@EntityGraph(GRAPH_WITH_FILTERS)
+	@Query("""
+		SELECT d FROM DelegateEntity d
+		INNER JOIN d.principal p
+		INNER JOIN d.agent a
+		WHERE d.id = :id AND p.deleted IS NULL AND a.deleted IS NULL""")
+	Optional<DelegateEntity> findWithFiltersById(@Param("id") String id);
+
+	/**
+	 * Find by id, if both the principal and the agent of the delegate belong to the given municipalities. The filters of
+	 * the delegate are fetched in the same query, but not the principal and agent.
+	 *
+	 * @param  id                      the delegate ID.
+	 * @param  principalMunicipalityId the municipalityId of the principal.
+	 * @param  agentMunicipalityId     the municipalityId of the agent.
+	 * @return                         an Optional DelegateEntity.
+	 */
+	@EntityGraph(GRAPH_WITH_FILTERS)
+	Optional<DelegateEntity> findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(String id, String principalMunicipalityId, String agentMunicipalityId);
+
+	/**
+	 * Delete by id, if both the principal and the agent of the delegate belong to the given municipality. The filters (and
+	 * rules) of the delegate are removed by the database.
+	 *
+	 * The delete is executed as one statement, bypassing the entity listeners. The caller is responsible for publishing
+	 * the change events of the delegate.
+	 *
+	 * @param  id             the delegate ID.
+	 * @param  municipalityId the municipalityId of the principal and agent.
+	 * @return                the number of deleted delegates (0 or 1).
+	 */
+	@Modifying
+	@Query("""
+		DELETE FROM DelegateEntity d
+		WHERE d.id = :id
+		AND d.principal.id IN (SELECT c.id FROM ContactSettingEntity c WHERE c.municipalityId = :municipalityId)
+		AND d.agent.id IN (SELECT c.id FROM ContactSettingEntity c WHERE c.municipalityId = :municipalityId)""")
+	int deleteByIdAndMunicipalityId(@Param("id") String id, @Param("municipalityId") String municipalityId);
+
+	/**
+	 * Find by agent contact settings ID. I.e. the delegate agents (contactSetting) ID. The filters of each delegate are
+	 * fetched in the same query.
 	 *
 	 * @param  contactSettingsId the contactSettingsId.
-	 * @return                   an Optional ContactSettingEntity.
+	 * @return                   a List of DelegateEntity objects.
 	 */
+	@EntityGraph(GRAPH_WITH_FILTERS)
 	List<DelegateEntity> findByAgentId(String contactSettingsId);
 
 	/**
-	 * Find by principal contact settings ID. I.e. the delegate principal (contactSetting) ID.
+	 * Find by principal contact settings ID. I.e. the delegate principal (contactSetting) ID. The filters of each delegate
+	 * are fetched in the same query.
 	 *
 	 * @param  contactSettingsId the contactSettingsId.
-	 * @return                   an Optional ContactSettingEntity.
+	 * @return                   a List of DelegateEntity objects.
 	 */
+	@EntityGraph(GRAPH_WITH_FILTERS)
 	List<DelegateEntity> findByPrincipalId(String contactSettingsId);
 
 	/**
-	 * Find by principal contact settings ID. I.e. the delegate principal (contactSetting) ID.
+	 * Find by principal contact settings ID. I.e. the delegate principal (contactSetting) ID. The filters of each delegate
+	 * are fetched in the same query.
 	 *
 	 * @param  principalContactSettingsId the contactSettingsId of the principal (delegate owner).
 	 * @param  agentContactSettingsId     the contactSettingsId of the agent.
-	 * @return                            an Optional ContactSettingEntity.
+	 * @return                            a List of DelegateEntity objects.
 	 */
+	@EntityGraph(GRAPH_WITH_FILTERS)
 	List<DelegateEntity> findByPrincipalIdAndAgentId(String principalContactSettingsId, String agentContactSettingsId);
+
+	/**
+	 * Find summaries (i.e. without principal, agent and filters) of the delegates of an agent, in creation order.
+	 * Delegates where the principal or the agent is tombstoned are excluded.
+	 *
+	 * @param  agentContactSettingsId the contactSettingsId of the agent.
+	 * @return                        a List of DelegateSummary objects.
+	 */
+	@Query("""
+		SELECT d.id AS id, d.principal.id AS principalId, d.agent.id AS agentId, d.created AS created, d.modified AS modified
+		FROM DelegateEntity d
+		INNER JOIN d.principal p
+		INNER JOIN d.agent a
+		WHERE a.id = :agentId AND p.deleted IS NULL AND a.deleted IS NULL
+		ORDER BY d.created, d.id""")
+	List<DelegateSummary> findSummariesByAgentId(@Param("agentId") String agentContactSettingsId);
+
+	/**
+	 * Find summaries (i.e. without principal, agent and filters) of the delegates of a principal, in creation order.
+	 * Delegates where the principal or the agent is tombstoned are excluded.
+	 *
+	 * @param  principalContactSettingsId the contactSettingsId of the principal (delegate owner).
+	 * @return                            a List of DelegateSummary objects.
+	 */
+	@Query("""
+		SELECT d.id AS id, d.principal.id AS principalId, d.agent.id AS agentId, d.created AS created, d.modified AS modified
+		FROM DelegateEntity d
+		INNER JOIN d.principal p
+		INNER JOIN d.agent a
+		WHERE p.id = :principalId AND p.deleted IS NULL AND a.deleted IS NULL
+		ORDER BY d.created, d.id""")
+	List<DelegateSummary> findSummariesByPrincipalId(@Param("principalId") String principalContactSettingsId);
+
+	/**
+	 * Find summaries (i.e. without principal, agent and filters) of the delegates with the given principal and agent, in
+	 * creation order. Delegates where the principal or the agent is tombstoned are excluded.
+	 *
+	 * @param  principalContactSettingsId the contactSettingsId of the principal (delegate owner).
+	 * @param  agentContactSettingsId     the contactSettingsId of the agent.
+	 * @return                            a List of DelegateSummary objects.
+	 */
+	@Query("""
+		SELECT d.id AS id, d.principal.id AS principalId, d.agent.id AS agentId, d.created AS created, d.modified AS modified
+		FROM DelegateEntity d
+		INNER JOIN d.principal p
+		INNER JOIN d.agent a
+		WHERE p.id = :principalId AND a.id = :agentId AND p.deleted IS NULL AND a.deleted IS NULL
+		ORDER BY d.created, d.id""")
+	List<DelegateSummary> findSummariesByPrincipalIdAndAgentId(@Param("principalId") String principalContactSettingsId, @Param("agentId") String agentContactSettingsId);
+
+	/**
+	 * Find summaries (i.e. without principal, agent and filters) of the delegates of any of the provided principals.
+	 *
+	 * @param  principalContactSettingsIds the contactSettingsIds of the principals (delegate owners).
+	 * @return                             a List of DelegateSummary objects.
+	 */
+	@Query("""
+		SELECT d.id AS id, d.principal.id AS principalId, d.agent.id AS agentId, d.created AS created, d.modified AS modified
+		FROM DelegateEntity d
+		WHERE d.principal.id IN :principalIds""")
+	List<DelegateSummary> findSummariesByPrincipalIdIn(@Param("principalIds") Collection<String> principalContactSettingsIds);
+
+	/**
+	 * Delete all delegates where any of the given contact settings is principal or agent, with one statement. The filters
+	 * (and rules) of the delegates are removed by the database.
+	 *
+	 * The delete bypasses the entity listeners, so the caller is responsible for publishing the change events of the
+	 * delegates.
+	 *
+	 * @param  contactSettingIds the contactSettingsIds of the principals and agents.
+	 * @return                   the number of deleted delegates.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM DelegateEntity d WHERE d.principal.id IN :contactSettingIds OR d.agent.id IN :contactSettingIds")
+	int deleteByPrincipalIdInOrAgentIdIn(@Param("contactSettingIds") Collection<String> contactSettingIds);
+
+	/**
+	 * Delete at most limit delegates where any of the given contact settings is principal or agent, with one statement.
+	 * The filters (and rules) of the delegates are removed by the database. Called repeatedly until less than limit
+	 * delegates are deleted, to keep each statement (and transaction) bounded.
+	 *
+	 * @param  contactSettingIds the contactSettingsIds of the principals and agents.
+	 * @param  limit             the maximum number of delegates to delete.
+	 * @return                   the number of deleted delegates.
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "delegate"))
+	@Query(nativeQuery = true, value = "DELETE FROM delegate WHERE principal_id IN (:contactSettingIds) OR agent_id IN (:contactSettingIds) LIMIT :limit")
+	int deleteByPrincipalIdInOrAgentIdIn(@Param("contactSettingIds") Collection<String> contactSettingIds, @Param("limit") int limit);
+
+	/**
+	 * Returns whether a delegate with the given principal and agent exists.
+	 *
+	 * @param  principalContactSettingsId the contactSettingsId of the principal (delegate owner).
+	 * @param  agentContactSettingsId     the contactSettingsId of the agent.
+	 * @return                            true if a delegate with the given principal and agent exists, false otherwise.
+	 */
+	boolean existsByPrincipalIdAndAgentId(String principalContactSettingsId, String agentContactSettingsId);
+
+	/**
+	 * Find all delegates that are reachable from the provided root principal, together with their filters and filter
+	 * rules, in one round-trip.
+	 *
+	 * The delegate table is walked with a recursive query, from the root principal and onwards via each agent. Filters
+	 * are not evaluated here, so the result contains every reachable delegate. Delegates to tombstoned agents are not
+	 * followed. Circular references are handled by the distinct UNION, which stops the recursion when no new delegates
+	 * are found.
+	 *
+	 * @param  principalContactSettingsId the contactSettingsId of the root principal.
+	 * @return                            a List of DelegateChainRow objects, ordered by delegate creation.
+	 */
+	@Query(nativeQuery = true, value = """
+		WITH RECURSIVE delegate_chain (id, principal_id, agent_id, created) AS (
+			SELECT d.id, d.principal_id, d.agent_id, d.created
+			FROM delegate d
+			INNER JOIN contact_setting a ON a.id = d.agent_id AND a.deleted IS NULL
+			WHERE d.principal_id = :principalId
+			UNION
+			SELECT d.id, d.principal_id, d.agent_id, d.created
+			FROM delegate d
+			INNER JOIN contact_setting a ON a.id = d.agent_id AND a.deleted IS NULL
+			INNER JOIN delegate_chain c ON d.principal_id = c.agent_id
+		)
+		SELECT CAST(c.id AS CHAR) AS delegateId, CAST(c.principal_id AS CHAR) AS principalId, CAST(c.agent_id AS CHAR) AS agentId,
+			CAST(f.id AS CHAR) AS filterId, r.attribute_name AS attributeName, r.attribute_value AS attributeValue, r.operator AS operator
+		FROM delegate_chain c
+		LEFT JOIN delegate_filter f ON f.delegate_id = c.id
+		LEFT JOIN delegate_filter_rule r ON r.delegate_filter_id = f.id
+		ORDER BY c.created, c.id, f.id
+		""")
+	List<DelegateChainRow> findDelegateChainByRootPrincipalId(@Param("principalId") String principalContactSettingsId);
+
+	/**
+	 * Find all delegates that are reachable from any of the provided root principals, together with their filters and
+	 * filter rules, in one round-trip.
+	 *
+	 * Works as {@link #findDelegateChainByRootPrincipalId(String)}, but for several roots at once. Delegates that are
+	 * reachable from more than one root (i.e. shared sub-trees) are only returned once.
+	 *
+	 * @param  principalContactSettingsIds the contactSettingsIds of the root principals.
+	 * @return                             a List of DelegateChainRow objects, ordered by delegate creation.
+	 */
+	@Query(nativeQuery = true, value = """
+		WITH RECURSIVE delegate_chain (id, principal_id, agent_id, created) AS (
+			SELECT d.id, d.principal_id, d.agent_id, d.created
+			FROM delegate d
+			INNER JOIN contact_setting a ON a.id = d.agent_id AND a.deleted IS NULL
+			WHERE d.principal_id IN (:principalIds)
+			UNION
+			SELECT d.id, d.principal_id, d.agent_id, d.created
+			FROM delegate d
+			INNER JOIN contact_setting a ON a.id = d.agent_id AND a.deleted IS NULL
+			INNER JOIN delegate_chain c ON d.principal_id = c.agent_id
+		)
+		SELECT CAST(c.id AS CHAR) AS delegateId, CAST(c.principal_id AS CHAR) AS principalId, CAST(c.agent_id AS CHAR) AS agentId,
+			CAST(f.id AS CHAR) AS filterId, r.attribute_name AS attributeName, r.attribute_value AS attributeValue, r.operator AS operator
+		FROM delegate_chain c
+		LEFT JOIN delegate_filter f ON f.delegate_id = c.id
+		LEFT JOIN delegate_filter_rule r ON r.delegate_filter_id = f.id
+		ORDER BY c.created, c.id, f.id
+		""")
+	List<DelegateChainRow> findDelegateChainByRootPrincipalIdIn(@Param("principalIds") Collection<String> principalContactSettingsIds);
+
+	/**
+	 * Find all delegates owned by any of the provided principals, together with their filters and filter rules, in one
+	 * round-trip. I.e. one level of a delegate chain. Delegates to tombstoned agents are excluded.
+	 *
+	 * @param  principalContactSettingsIds the contactSettingsIds of the principals (delegate owners).
+	 * @return                             a List of DelegateChainRow objects, ordered by delegate creation.
+	 */
+	@Query(nativeQuery = true, value = """
+		SELECT CAST(d.id AS CHAR) AS delegateId, CAST(d.principal_id AS CHAR) AS principalId, CAST(d.agent_id AS CHAR) AS agentId,
+			CAST(f.id AS CHAR) AS filterId, r.attribute_name AS attributeName, r.attribute_value AS attributeValue, r.operator AS operator
+		FROM delegate d
+		INNER JOIN contact_setting a ON a.id = d.agent_id AND a.deleted IS NULL
+		LEFT JOIN delegate_filter f ON f.delegate_id = d.id
+		LEFT JOIN delegate_filter_rule r ON r.delegate_filter_id = f.id
+		WHERE d.principal_id IN (:principalIds)
+		ORDER BY d.created, d.id, f.id
+		""")
+	List<DelegateChainRow> findDelegateChainByPrincipalIdIn(@Param("principalIds") Collection<String> principalContactSettingsIds);
+
+	/**
+	 * Find all delegates whose principal belongs to the provided municipality, together with their filters and filter
+	 * rules, in one round-trip. I.e. the complete delegate graph of a municipality. Delegates to or from tombstoned
+	 * contact settings are excluded.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @return                a List of DelegateChainRow objects, ordered by delegate creation.
+	 */
+	@Query(nativeQuery = true, value = """
+		SELECT CAST(d.id AS CHAR) AS delegateId, CAST(d.principal_id AS CHAR) AS principalId, CAST(d.agent_id AS CHAR) AS agentId,
+			CAST(f.id AS CHAR) AS filterId, r.attribute_name AS attributeName, r.attribute_value AS attributeValue, r.operator AS operator
+		FROM delegate d
+		INNER JOIN contact_setting p ON p.id = d.principal_id AND p.deleted IS NULL
+		INNER JOIN contact_setting a ON a.id = d.agent_id AND a.deleted IS NULL
+		LEFT JOIN delegate_filter f ON f.delegate_id = d.id
+		LEFT JOIN delegate_filter_rule r ON r.delegate_filter_id = f.id
+		WHERE p.municipality_id = :municipalityId
+		ORDER BY d.created, d.id, f.id
+		""")
+	List<DelegateChainRow> findDelegateGraphByMunicipalityId(@Param("municipalityId") String municipalityId);
+
+	/**
+	 * Stream all delegates whose principal and agent belong to the provided municipality, joined with their filters and
+	 * filter rules, ordered by delegate id and filter id. I.e. the rows of one delegate (and of one filter) are adjacent.
+	 * Delegates to or from tombstoned contact settings are excluded.
+	 *
+	 * The stream must be consumed (and closed) within a transaction. Rows are fetched from the database in chunks of
+	 * {@link ContactSettingRepository#STREAM_FETCH_SIZE} as the stream is consumed. The second-level cache is neither read
+	 * nor populated.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @return                a Stream of DelegateExportRow objects.
+	 */
+	@QueryHints({
+		@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+	})
+	@Query("""
+		SELECT d.id AS delegateId, p.id AS principalId, a.id AS agentId, d.created AS created, d.modified AS modified,
+			f.id AS filterId, f.alias AS filterAlias, f.channel AS filterChannel, f.created AS filterCreated, f.modified AS filterModified,
+			r.attributeName AS attributeName, r.attributeValue AS attributeValue, r.operator AS operator
+		FROM DelegateEntity d
+		JOIN d.principal p
+		JOIN d.agent a
+		LEFT JOIN d.filters f
+		LEFT JOIN f.filterRules r
+		WHERE p.municipalityId = :municipalityId AND a.municipalityId = :municipalityId
+		ORDER BY d.id, f.id""")
+	Stream<DelegateExportRow> streamExportRowsByMunicipalityId(@Param("municipalityId") String municipalityId);
 }
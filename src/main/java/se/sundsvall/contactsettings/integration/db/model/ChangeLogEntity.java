@@ -0,0 +1,187 @@
+package se.sundsvall.contactsettings.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import org.hibernate.annotations.TimeZoneStorage;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+
+/**
+ * Entry of the append-only change log. The entries are inserted by the ChangeLogRepository, in the same transaction as
+ * the change they record, without a sequence number. The sequence number is assigned by the ChangeLogRelay once the
+ * entry has been committed, and the entry is never updated after that.
+ */
+@Entity
+@Table(name = "change_log",
+	indexes = {
+		@Index(name = "change_log_municipality_id_sequence_index", columnList = "municipality_id, sequence")
+	},
+	uniqueConstraints = {
+		@UniqueConstraint(name = "uq_change_log_sequence", columnNames = "sequence")
+	})
+public class ChangeLogEntity {
+
+	@Id
+	@GeneratedValue(strategy = IDENTITY)
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "sequence")
+	private Long sequence;
+
+	@Column(name = "municipality_id", updatable = false)
+	private String municipalityId;
+
+	@Column(name = "entity_type", updatable = false)
+	private String entityType;
+
+	@Column(name = "entity_id", columnDefinition = "uuid", updatable = false)
+	private String entityId;
+
+	@Column(name = "delegate_id", columnDefinition = "uuid", updatable = false)
+	private String delegateId;
+
+	@Column(name = "operation", updatable = false)
+	private String operation;
+
+	@Column(name = "created", updatable = false)
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime created;
+
+	public static ChangeLogEntity create() {
+		return new ChangeLogEntity();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public ChangeLogEntity withId(Long id) {
+		this.id = id;
+		return this;
+	}
+
+	public Long getSequence() {
+		return sequence;
+	}
+
+	public void setSequence(Long sequence) {
+		this.sequence = sequence;
+	}
+
+	public ChangeLogEntity withSequence(Long sequence) {
+		this.sequence = sequence;
+		return this;
+	}
+
+	public String getMunicipalityId() {
+		return municipalityId;
+	}
+
+	public void setMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+	}
+
+	public ChangeLogEntity withMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+		return this;
+	}
+
+	public String getEntityType() {
+		return entityType;
+	}
+
+	public void setEntityType(String entityType) {
+		this.entityType = entityType;
+	}
+
+	public ChangeLogEntity withEntityType(String entityType) {
+		this.entityType = entityType;
+		return this;
+	}
+
+	public String getEntityId() {
+		return entityId;
+	}
+
+	public void setEntityId(String entityId) {
+		this.entityId = entityId;
+	}
+
+	public ChangeLogEntity withEntityId(String entityId) {
+		this.entityId = entityId;
+		return this;
+	}
+
+	public String getDelegateId() {
+		return delegateId;
+	}
+
+	public void setDelegateId(String delegateId) {
+		this.delegateId = delegateId;
+	}
+
+	public ChangeLogEntity withDelegateId(String delegateId) {
+		this.delegateId = delegateId;
+		return this;
+	}
+
+	public String getOperation() {
+		return operation;
+	}
+
+	public void setOperation(String operation) {
+		this.operation = operation;
+	}
+
+	public ChangeLogEntity withOperation(String operation) {
+		this.operation = operation;
+		return this;
+	}
+
+	public OffsetDateTime getCreated() {
+		return created;
+	}
+
+	public void setCreated(OffsetDateTime created) {
+		this.created = created;
+	}
+
+	public ChangeLogEntity withCreated(OffsetDateTime created) {
+		this.created = created;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(created, delegateId, entityId, entityType, id, municipalityId, operation, sequence);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) { return true; }
+		if (!(obj instanceof final ChangeLogEntity other)) { return false; }
+		return Objects.equals(created, other.created) && Objects.equals(delegateId, other.delegateId) && Objects.equals(entityId, other.entityId) && Objects.equals(entityType, other.entityType)
+			&& Objects.equals(id, other.id) && Objects.equals(municipalityId, other.municipalityId) && Objects.equals(operation, other.operation) && Objects.equals(sequence, other.sequence);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("ChangeLogEntity [id=").append(id).append(", sequence=").append(sequence).append(", municipalityId=").append(municipalityId).append(", entityType=").append(entityType).append(", entityId=").append(entityId)
+			.append(", delegateId=").append(delegateId).append(", operation=").append(operation).append(", created=").append(created).append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,74 @@
+package se.sundsvall.contactsettings.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.Objects;
+
+/**
+ * The last sequence number assigned to the change log. The table holds a single row, which is locked by the
+ * ChangeLogRelay while it assigns sequence numbers, so that runs on different instances never interleave.
+ */
+@Entity
+@Table(name = "change_log_sequence")
+public class ChangeLogSequenceEntity {
+
+	public static final long ID = 1;
+
+	@Id
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "last_sequence", nullable = false)
+	private Long lastSequence;
+
+	public static ChangeLogSequenceEntity create() {
+		return new ChangeLogSequenceEntity();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public ChangeLogSequenceEntity withId(Long id) {
+		this.id = id;
+		return this;
+	}
+
+	public Long getLastSequence() {
+		return lastSequence;
+	}
+
+	public void setLastSequence(Long lastSequence) {
+		this.lastSequence = lastSequence;
+	}
+
+	public ChangeLogSequenceEntity withLastSequence(Long lastSequence) {
+		this.lastSequence = lastSequence;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, lastSequence);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) { return true; }
+		if (!(obj instanceof final ChangeLogSequenceEntity other)) { return false; }
+		return Objects.equals(id, other.id) && Objects.equals(lastSequence, other.lastSequence);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("ChangeLogSequenceEntity [id=").append(id).append(", lastSequence=").append(lastSequence).append("]");
+		return builder.toString();
+	}
+}
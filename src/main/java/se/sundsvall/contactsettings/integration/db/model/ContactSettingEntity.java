@@ -10,30 +10,55 @@ import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.TimeZoneStorage;
 import org.hibernate.annotations.UuidGenerator;
 import se.sundsvall.contactsettings.integration.db.model.listener.ContactSettingEntityListener;
 
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
+import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
 
 @Entity
 @Table(name = "contact_setting",
 	indexes = {
-		@Index(name = "contact_setting_party_id_index", columnList = "party_id"),
-		@Index(name = "contact_setting_created_by_id_index", columnList = "created_by_id"),
-		@Index(name = "contact_setting_municipality_id_index", columnList = "municipality_id"),
+		@Index(name = "contact_setting_municipality_id_created_by_id_created_index", columnList = "municipality_id, created_by_id, created"),
+		@Index(name = "contact_setting_deleted_index", columnList = "deleted"),
+	},
+	uniqueConstraints = {
+		@UniqueConstraint(name = ContactSettingEntity.UNIQUE_MUNICIPALITY_ID_PARTY_ID, columnNames = {
+			"municipality_id", "party_id"
+		})
 	})
+@NamedEntityGraph(name = ContactSettingEntity.GRAPH_WITH_CHANNELS, attributeNodes = @NamedAttributeNode("channels"))
 @EntityListeners(ContactSettingEntityListener.class)
+@Cache(usage = READ_WRITE)
+@SQLRestriction("deleted IS NULL")
 public class ContactSettingEntity {
 
+	/**
+	 * Fetch plan that loads the contact setting together with its channels.
+	 */
+	public static final String GRAPH_WITH_CHANNELS = "contact-setting-with-channels";
+
+	/**
+	 * Unique constraint that allows at most one contact setting per party and municipality.
+	 */
+	public static final String UNIQUE_MUNICIPALITY_ID_PARTY_ID = "uq_contact_setting_municipality_id_party_id";
+
 	@Id
 	@UuidGenerator
-	@Column(name = "id")
+	@Column(name = "id", columnDefinition = "uuid")
 	private String id;
 
 	@Column(name = "party_id")
@@ -53,17 +78,28 @@ public class ContactSettingEntity {
 	@TimeZoneStorage(NORMALIZE)
 	private OffsetDateTime modified;
 
-	@Column(name = "created_by_id")
+	@Column(name = "created_by_id", columnDefinition = "uuid")
 	private String createdById;
 
-	@ElementCollection(fetch = FetchType.EAGER)
+	/**
+	 * Set when the contact setting has been deleted, but not yet purged. Tombstoned contact settings are excluded from all
+	 * entity queries.
+	 */
+	@Column(name = "deleted")
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime deleted;
+
+	@ElementCollection(fetch = FetchType.LAZY)
+	@OnDelete(action = CASCADE)
+	@Cache(usage = READ_WRITE)
 	@CollectionTable(name = "contact_setting_channel",
 		indexes = {
-			@Index(name = "contact_setting_channel_destination_index", columnList = "destination")
+			@Index(name = "contact_setting_channel_destination_contact_setting_id_index", columnList = "destination, contact_setting_id")
 		},
 		joinColumns = @JoinColumn(
 			name = "contact_setting_id",
 			referencedColumnName = "id",
+			columnDefinition = "uuid",
 			foreignKey = @ForeignKey(name = "fk_contact_setting_contact_setting_channel")))
 	private List<Channel> channels = new ArrayList<>();
 
@@ -162,6 +198,19 @@ public class ContactSettingEntity {
 		return this;
 	}
 
+	public OffsetDateTime getDeleted() {
+		return deleted;
+	}
+
+	public void setDeleted(final OffsetDateTime deleted) {
+		this.deleted = deleted;
+	}
+
+	public ContactSettingEntity withDeleted(final OffsetDateTime deleted) {
+		this.deleted = deleted;
+		return this;
+	}
+
 	public List<Channel> getChannels() {
 		return channels;
 	}
@@ -177,14 +226,14 @@ public class ContactSettingEntity {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(alias, channels, created, createdById, id, modified, municipalityId, partyId);
+		return Objects.hash(alias, channels, created, createdById, deleted, id, modified, municipalityId, partyId);
 	}
 
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) { return true; }
 		if (!(obj instanceof final ContactSettingEntity other)) { return false; }
-		return Objects.equals(alias, other.alias) && Objects.equals(channels, other.channels) && Objects.equals(created, other.created) && Objects.equals(createdById, other.createdById) && Objects.equals(id, other.id) && Objects.equals(modified,
+		return Objects.equals(alias, other.alias) && Objects.equals(channels, other.channels) && Objects.equals(created, other.created) && Objects.equals(createdById, other.createdById) && Objects.equals(deleted, other.deleted) && Objects.equals(id, other.id) && Objects.equals(modified,
 			other.modified) && Objects.equals(municipalityId, other.municipalityId) && Objects.equals(partyId, other.partyId);
 	}
 
@@ -192,7 +241,7 @@ public class ContactSettingEntity {
 	public String toString() {
 		final StringBuilder builder = new StringBuilder();
 		builder.append("ContactSettingEntity [id=").append(id).append(", partyId=").append(partyId).append(", municipalityId=").append(municipalityId).append(", alias=").append(alias).append(", created=").append(created).append(", modified=").append(
-			modified).append(", createdById=").append(createdById).append(", channels=").append(channels).append("]");
+			modified).append(", createdById=").append(createdById).append(", deleted=").append(deleted).append(", channels=").append(channels).append("]");
 		return builder.toString();
 	}
 }
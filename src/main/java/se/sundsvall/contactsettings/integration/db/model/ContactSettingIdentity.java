@@ -0,0 +1,12 @@
+package se.sundsvall.contactsettings.integration.db.model;
+
+/**
+ * Projection of the id and partyId of a contact setting, i.e. what is needed to resolve a reference to a contact
+ * setting.
+ */
+public interface ContactSettingIdentity {
+
+	String getId();
+
+	String getPartyId();
+}
@@ -0,0 +1,26 @@
+package se.sundsvall.contactsettings.integration.db.model;
+
+/**
+ * Flat projection of a delegate edge in a delegate chain, joined with its filters and filter rules.
+ *
+ * A delegate without filters is represented by one row where the filter and rule columns are null. A filter without
+ * rules is represented by one row where the rule columns are null.
+ *
+ * The native queries that produce the rows select the id columns (of the UUID type) cast to strings.
+ */
+public interface DelegateChainRow {
+
+	String getDelegateId();
+
+	String getPrincipalId();
+
+	String getAgentId();
+
+	String getFilterId();
+
+	String getAttributeName();
+
+	String getAttributeValue();
+
+	String getOperator();
+}
@@ -9,39 +9,66 @@ import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.TimeZoneStorage;
 import org.hibernate.annotations.UuidGenerator;
 import se.sundsvall.contactsettings.integration.db.model.listener.DelegateEntityListener;
 
 import static java.util.Objects.isNull;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
+import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
 
 @Entity
-@Table(name = "delegate")
+@Table(name = "delegate",
+	uniqueConstraints = {
+		@UniqueConstraint(name = DelegateEntity.UNIQUE_PRINCIPAL_ID_AGENT_ID, columnNames = {
+			"principal_id", "agent_id"
+		})
+	})
+@NamedEntityGraph(name = DelegateEntity.GRAPH_WITH_FILTERS, attributeNodes = @NamedAttributeNode("filters"))
 @EntityListeners(DelegateEntityListener.class)
+@Cache(usage = READ_WRITE)
 public class DelegateEntity {
 
+	/**
+	 * Fetch plan that loads the delegate together with its filters. The rules of the filters are batch fetched when
+	 * accessed.
+	 */
+	public static final String GRAPH_WITH_FILTERS = "delegate-with-filters";
+
+	/**
+	 * Unique constraint that allows at most one delegate per principal and agent.
+	 */
+	public static final String UNIQUE_PRINCIPAL_ID_AGENT_ID = "uq_delegate_principal_id_agent_id";
+
 	@Id
 	@UuidGenerator
-	@Column(name = "id")
+	@Column(name = "id", columnDefinition = "uuid")
 	private String id;
 
-	@ManyToOne(optional = false, fetch = FetchType.EAGER)
-	@JoinColumn(name = "principal_id", nullable = false, updatable = false, foreignKey = @ForeignKey(name = "fk_delegate_principal_id_contact_setting_id"))
+	@ManyToOne(optional = false, fetch = FetchType.LAZY)
+	@JoinColumn(name = "principal_id", columnDefinition = "uuid", nullable = false, updatable = false, foreignKey = @ForeignKey(name = "fk_delegate_principal_id_contact_setting_id"))
 	private ContactSettingEntity principal;
 
-	@ManyToOne(optional = false, fetch = FetchType.EAGER)
-	@JoinColumn(name = "agent_id", nullable = false, updatable = false, foreignKey = @ForeignKey(name = "fk_delegate_agent_id_contact_setting_id"))
+	@ManyToOne(optional = false, fetch = FetchType.LAZY)
+	@JoinColumn(name = "agent_id", columnDefinition = "uuid", nullable = false, updatable = false, foreignKey = @ForeignKey(name = "fk_delegate_agent_id_contact_setting_id"))
 	private ContactSettingEntity agent;
 
-	@OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
-	@JoinColumn(name = "delegate_id", foreignKey = @ForeignKey(name = "fk_delegate_id_delegate_filter_delegate_id"))
+	@OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+	@OnDelete(action = CASCADE)
+	@Cache(usage = READ_WRITE)
+	@JoinColumn(name = "delegate_id", columnDefinition = "uuid", foreignKey = @ForeignKey(name = "fk_delegate_id_delegate_filter_delegate_id"))
 	private List<DelegateFilterEntity> filters;
 
 	@Column(name = "created")
@@ -0,0 +1,38 @@
+package se.sundsvall.contactsettings.integration.db.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Flat projection of a delegate, joined with its filters and filter rules, i.e. all columns of the delegate graph.
+ *
+ * A delegate without filters is represented by one row where the filter and rule columns are null. A filter without
+ * rules is represented by one row where the rule columns are null.
+ */
+public interface DelegateExportRow {
+
+	String getDelegateId();
+
+	String getPrincipalId();
+
+	String getAgentId();
+
+	OffsetDateTime getCreated();
+
+	OffsetDateTime getModified();
+
+	String getFilterId();
+
+	String getFilterAlias();
+
+	String getFilterChannel();
+
+	OffsetDateTime getFilterCreated();
+
+	OffsetDateTime getFilterModified();
+
+	String getAttributeName();
+
+	String getAttributeValue();
+
+	String getOperator();
+}
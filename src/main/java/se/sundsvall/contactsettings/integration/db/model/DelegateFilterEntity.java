@@ -9,29 +9,48 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.TimeZoneStorage;
 import org.hibernate.annotations.UuidGenerator;
 import se.sundsvall.contactsettings.integration.db.model.listener.DelegateFilterEntityListener;
 
 import static java.util.Objects.isNull;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
+import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
 
 @Entity
 @Table(name = "delegate_filter")
+@NamedEntityGraph(name = DelegateFilterEntity.GRAPH_WITH_RULES, attributeNodes = @NamedAttributeNode("filterRules"))
 @EntityListeners(DelegateFilterEntityListener.class)
+@Cache(usage = READ_WRITE)
 public class DelegateFilterEntity {
 
+	/**
+	 * Fetch plan that loads the filter together with its rules.
+	 */
+	public static final String GRAPH_WITH_RULES = "delegate-filter-with-rules";
+
+	/**
+	 * The number of filters whose rules are fetched in one round-trip, when the rules are loaded lazily.
+	 */
+	static final int RULES_BATCH_SIZE = 100;
+
 	@Id
 	@UuidGenerator
-	@Column(name = "id")
+	@Column(name = "id", columnDefinition = "uuid")
 	private String id;
 
-	@Column(name = "delegate_id")
+	@Column(name = "delegate_id", columnDefinition = "uuid")
 	private String delegateId;
 
 	@Column(name = "alias")
@@ -40,11 +59,15 @@ public class DelegateFilterEntity {
 	@Column(name = "channel")
 	private String channel;
 
-	@ElementCollection(fetch = FetchType.EAGER)
+	@ElementCollection(fetch = FetchType.LAZY)
+	@BatchSize(size = RULES_BATCH_SIZE)
+	@OnDelete(action = CASCADE)
+	@Cache(usage = READ_WRITE)
 	@CollectionTable(name = "delegate_filter_rule",
 		joinColumns = @JoinColumn(
 			name = "delegate_filter_id",
 			referencedColumnName = "id",
+			columnDefinition = "uuid",
 			foreignKey = @ForeignKey(name = "fk_delegate_filter_delegate_filter_rule")))
 	private List<DelegateFilterRule> filterRules;
 
@@ -0,0 +1,19 @@
+package se.sundsvall.contactsettings.integration.db.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Projection of a delegate without its principal, agent and filters, i.e. only the columns of the delegate table.
+ */
+public interface DelegateSummary {
+
+	String getId();
+
+	String getPrincipalId();
+
+	String getAgentId();
+
+	OffsetDateTime getCreated();
+
+	OffsetDateTime getModified();
+}
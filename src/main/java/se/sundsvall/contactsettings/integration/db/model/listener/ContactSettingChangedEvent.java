@@ -0,0 +1,11 @@
+package se.sundsvall.contactsettings.integration.db.model.listener;
+
+/**
+ * Published by the ContactSettingEntityListener when a contact setting has been updated or removed.
+ *
+ * @param municipalityId the municipalityId of the contact setting.
+ * @param id             the id of the contact setting.
+ * @param partyId        the partyId of the contact setting owner, or null if the contact setting is virtual.
+ */
+public record ContactSettingChangedEvent(String municipalityId, String id, String partyId) {
+}
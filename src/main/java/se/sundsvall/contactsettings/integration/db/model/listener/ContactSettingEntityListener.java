@@ -1,14 +1,25 @@
 package se.sundsvall.contactsettings.integration.db.model.listener;
 
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import java.time.ZoneId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.temporal.ChronoUnit.MILLIS;
 
-public class ContactSettingEntityListener {
+public class ContactSettingEntityListener implements ApplicationEventPublisherAware {
+
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	@Override
+	public void setApplicationEventPublisher(final ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
 
 	@PrePersist
 	void prePersist(final ContactSettingEntity entity) {
@@ -21,4 +32,20 @@ public class ContactSettingEntityListener {
 	void preUpdate(final ContactSettingEntity entity) {
 		entity.setModified(now(ZoneId.systemDefault()).truncatedTo(MILLIS));
 	}
+
+	@PostUpdate
+	void postUpdate(final ContactSettingEntity entity) {
+		if (applicationEventPublisher != null) {
+			applicationEventPublisher.publishEvent(new ContactSettingChangedEvent(entity.getMunicipalityId(), entity.getId(), entity.getPartyId()));
+		}
+	}
+
+	@PostRemove
+	void postRemove(final ContactSettingEntity entity) {
+		// Only removal affects the delegate graph, as a contact setting is referenced by id and never changes municipality.
+		if (applicationEventPublisher != null) {
+			applicationEventPublisher.publishEvent(new ContactSettingChangedEvent(entity.getMunicipalityId(), entity.getId(), entity.getPartyId()));
+			applicationEventPublisher.publishEvent(new DelegateGraphChangedEvent(entity.getMunicipalityId()));
+		}
+	}
 }
@@ -0,0 +1,12 @@
+package se.sundsvall.contactsettings.integration.db.model.listener;
+
+/**
+ * Published by the entity listeners when a delegate, or one of its filters, has been persisted, updated or removed. Also
+ * published by the services for changes made with bulk statements, as these bypass the entity listeners.
+ *
+ * @param delegateId  the id of the delegate, or null if unknown.
+ * @param principalId the contactSettingsId of the principal of the delegate, or null if unknown. If both ids are null,
+ *                    every delegate should be considered changed.
+ */
+public record DelegateChangedEvent(String delegateId, String principalId) {
+}
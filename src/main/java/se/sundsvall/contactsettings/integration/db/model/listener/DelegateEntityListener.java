@@ -1,14 +1,28 @@
 package se.sundsvall.contactsettings.integration.db.model.listener;
 
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import java.time.ZoneId;
+import java.util.Optional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
 import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.temporal.ChronoUnit.MILLIS;
 
-public class DelegateEntityListener {
+public class DelegateEntityListener implements ApplicationEventPublisherAware {
+
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	@Override
+	public void setApplicationEventPublisher(final ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
 
 	@PrePersist
 	void prePersist(final DelegateEntity entity) {
@@ -21,4 +35,15 @@ public class DelegateEntityListener {
 	void preUpdate(final DelegateEntity entity) {
 		entity.setModified(now(ZoneId.systemDefault()).truncatedTo(MILLIS));
 	}
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	void postChange(final DelegateEntity entity) {
+		if (applicationEventPublisher != null) {
+			final var principal = Optional.ofNullable(entity.getPrincipal());
+			applicationEventPublisher.publishEvent(new DelegateChangedEvent(entity.getId(), principal.map(ContactSettingEntity::getId).orElse(null)));
+			applicationEventPublisher.publishEvent(new DelegateGraphChangedEvent(principal.map(ContactSettingEntity::getMunicipalityId).orElse(null)));
+		}
+	}
 }
@@ -1,14 +1,26 @@
 package se.sundsvall.contactsettings.integration.db.model.listener;
 
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import java.time.ZoneId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.temporal.ChronoUnit.MILLIS;
 
-public class DelegateFilterEntityListener {
+public class DelegateFilterEntityListener implements ApplicationEventPublisherAware {
+
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	@Override
+	public void setApplicationEventPublisher(final ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
 
 	@PrePersist
 	void prePersist(final DelegateFilterEntity entity) {
@@ -21,4 +33,15 @@ public class DelegateFilterEntityListener {
 	void preUpdate(final DelegateFilterEntity entity) {
 		entity.setModified(now(ZoneId.systemDefault()).truncatedTo(MILLIS));
 	}
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	void postChange(final DelegateFilterEntity entity) {
+		// The municipality of a filter is not known here, so the graph of all municipalities is considered changed.
+		if (applicationEventPublisher != null) {
+			applicationEventPublisher.publishEvent(new DelegateChangedEvent(entity.getDelegateId(), null));
+			applicationEventPublisher.publishEvent(new DelegateGraphChangedEvent(null));
+		}
+	}
 }
@@ -0,0 +1,11 @@
+package se.sundsvall.contactsettings.integration.db.model.listener;
+
+/**
+ * Published by the entity listeners when an entity that is part of the delegate graph has been persisted, updated or
+ * removed. Also published by the services for changes made with bulk statements, as these bypass the entity listeners.
+ *
+ * @param municipalityId the municipality whose delegate graph has changed, or null if the municipality is unknown (in
+ *                       which case the graph of all municipalities should be considered changed).
+ */
+public record DelegateGraphChangedEvent(String municipalityId) {
+}
@@ -0,0 +1,79 @@
+package se.sundsvall.contactsettings.service;
+
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import se.sundsvall.contactsettings.api.model.Change;
+import se.sundsvall.contactsettings.api.model.enums.ChangeOperation;
+import se.sundsvall.contactsettings.integration.db.ChangeLogRepository;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static se.sundsvall.contactsettings.service.mapper.ChangeLogMapper.toChanges;
+
+/**
+ * Records changes in, and reads changes from, the append-only change log.
+ *
+ * The record methods must be called in the transaction of the change (they fail outside of a transaction), so that the
+ * change log is committed, or rolled back, together with the change. A deletion must be recorded before the entities
+ * are deleted. The delegates of a deleted contact setting are recorded as deleted too, while the filters of a deleted
+ * delegate are not recorded separately (a deleted delegate implies that its filters are deleted).
+ *
+ * The changes are recorded without a sequence number, and are only read once the ChangeLogRelay has assigned one. The
+ * relay assigns the sequence numbers after the changes have been committed, in the order they become visible, so that
+ * a consumer that has read past a sequence number never misses a change with a lower sequence number.
+ */
+@Service
+public class ChangeLogService {
+
+	private final ChangeLogRepository changeLogRepository;
+
+	public ChangeLogService(final ChangeLogRepository changeLogRepository) {
+		this.changeLogRepository = changeLogRepository;
+	}
+
+	/**
+	 * Reads the changes of a municipality after a sequence number, in sequence order.
+	 *
+	 * @param  municipalityId of the changes.
+	 * @param  since          the sequence number of the last change read by the consumer, or 0 to read from the start.
+	 * @param  limit          the maximum number of changes to return.
+	 * @return                the changes.
+	 */
+	public List<Change> readChanges(final String municipalityId, final long since, final int limit) {
+		return toChanges(changeLogRepository.findByMunicipalityIdAfter(municipalityId, since, Limit.of(limit)));
+	}
+
+	public void recordContactSettingChanges(final Collection<String> ids, final ChangeOperation operation) {
+		if (!ids.isEmpty()) {
+			changeLogRepository.insertContactSettingChanges(ids, operation.name(), now(ZoneId.systemDefault()).truncatedTo(MILLIS));
+		}
+	}
+
+	public void recordDelegateChanges(final Collection<String> delegateIds, final ChangeOperation operation) {
+		if (!delegateIds.isEmpty()) {
+			changeLogRepository.insertDelegateChanges(delegateIds, operation.name(), now(ZoneId.systemDefault()).truncatedTo(MILLIS));
+		}
+	}
+
+	/**
+	 * Records a change of every delegate where any of the given contact settings is principal or agent, e.g. before the
+	 * delegates are deleted together with the contact settings.
+	 *
+	 * @param contactSettingIds the ids of the contact settings.
+	 * @param operation         the operation that changed the delegates.
+	 */
+	public void recordDelegateChangesOfContactSettings(final Collection<String> contactSettingIds, final ChangeOperation operation) {
+		if (!contactSettingIds.isEmpty()) {
+			changeLogRepository.insertDelegateChangesByPrincipalIdInOrAgentIdIn(contactSettingIds, operation.name(), now(ZoneId.systemDefault()).truncatedTo(MILLIS));
+		}
+	}
+
+	public void recordDelegateFilterChanges(final Collection<String> filterIds, final ChangeOperation operation) {
+		if (!filterIds.isEmpty()) {
+			changeLogRepository.insertDelegateFilterChanges(filterIds, operation.name(), now(ZoneId.systemDefault()).truncatedTo(MILLIS));
+		}
+	}
+}
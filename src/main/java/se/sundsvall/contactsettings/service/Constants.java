@@ -9,7 +9,11 @@ public final class Constants {
 	public static final String ERROR_MESSAGE_DELEGATE_ALREADY_EXIST = "A delegate with this this principal and agent already exists!";
 	public static final String ERROR_MESSAGE_PRINCIPAL_NOT_FOUND = "No principal with contactSettingsId: '%s' could be found for this municipality!";
 	public static final String ERROR_MESSAGE_AGENT_NOT_FOUND = "No agent with contactSettingsId: '%s' could be found for this municipality!";
+	public static final String ERROR_MESSAGE_PRINCIPAL_BY_PARTY_ID_NOT_FOUND = "No principal with partyId: '%s' could be found for this municipality!";
+	public static final String ERROR_MESSAGE_AGENT_BY_PARTY_ID_NOT_FOUND = "No agent with partyId: '%s' could be found for this municipality!";
 	public static final String ERROR_MESSAGE_CONTACT_SETTING_NOT_FOUND = "No contact-setting with id: '%s' could be found for this municipality!";
 	public static final String ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ID_NOT_FOUND = "No contact-setting for partyId: '%s' could be found for this municipality!";
 	public static final String ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS = "A contact-setting with party-id: '%s' already exists for this municipality!";
+	public static final String ERROR_MESSAGE_INVALID_CONTINUATION_TOKEN = "Invalid continuation token: '%s'";
+	public static final String ERROR_MESSAGE_EXPORT_LIMIT_REACHED = "Too many exports are running, please try again later!";
 }
@@ -0,0 +1,12 @@
+package se.sundsvall.contactsettings.service;
+
+import java.util.List;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+
+/**
+ * A page of contact settings.
+ *
+ * @param contactSettings   the contact settings of the page.
+ * @param continuationToken the token to fetch the next page with, or null if this is the last page.
+ */
+public record ContactSettingPage(List<ContactSetting> contactSettings, String continuationToken) {}
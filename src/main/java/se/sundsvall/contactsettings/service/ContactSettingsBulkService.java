@@ -0,0 +1,201 @@
+package se.sundsvall.contactsettings.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.contactsettings.api.model.ContactSettingBulkResult;
+import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
+import se.sundsvall.contactsettings.api.model.ContactSettingUpdateRequest;
+import se.sundsvall.contactsettings.api.model.enums.BulkOutcome;
+import se.sundsvall.contactsettings.api.model.enums.ChangeOperation;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+
+import static java.util.Locale.ROOT;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.CONFLICT;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.UPDATED;
+import static se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity.UNIQUE_MUNICIPALITY_ID_PARTY_ID;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS;
+import static se.sundsvall.contactsettings.service.mapper.ContactSettingMapper.mergeIntoContactSettingEntity;
+import static se.sundsvall.contactsettings.service.mapper.ContactSettingMapper.toContactSettingEntity;
+
+/**
+ * Creates (or upserts) many contact settings at once, e.g. when a municipality is onboarded.
+ *
+ * The contact settings are written in chunks of 'chunk-size', each in its own transaction. The existing contact
+ * settings of the parties of a chunk are fetched with one query, and the new contact settings (and their channels) are
+ * inserted with JDBC batching when the chunk is flushed. If a chunk violates the (municipality, party) unique constraint
+ * (i.e. a contact setting was created concurrently for one of its parties), the chunk is rolled back and written one
+ * contact setting at a time instead, so that only the affected contact settings are reported as conflicts.
+ *
+ * The number of written contact settings (tagged with outcome) and the time spent per chunk are exposed as the metrics
+ * 'contactsettings.contact.setting.bulk.items' and 'contactsettings.contact.setting.bulk.chunk'.
+ */
+@Service
+public class ContactSettingsBulkService {
+
+	static final String METRIC_PREFIX = "contactsettings.contact.setting.bulk";
+
+	private final ContactSettingRepository contactSettingRepository;
+	private final ChangeLogService changeLogService;
+	private final TransactionTemplate transactionTemplate;
+	private final MeterRegistry meterRegistry;
+	private final Timer chunkTimer;
+	private final int chunkSize;
+
+	public ContactSettingsBulkService(final ContactSettingRepository contactSettingRepository, final ChangeLogService changeLogService, final PlatformTransactionManager transactionManager, final MeterRegistry meterRegistry,
+		@Value("${contactsettings.contact-setting-bulk.chunk-size:500}") final int chunkSize) {
+		this.contactSettingRepository = contactSettingRepository;
+		this.changeLogService = changeLogService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.meterRegistry = meterRegistry;
+		this.chunkTimer = Timer.builder(METRIC_PREFIX + ".chunk").register(meterRegistry);
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Creates the contact settings, in chunked transactions.
+	 *
+	 * A contact setting for a party that already has one (in the database, or earlier in the same request) is reported as
+	 * a conflict, or, if upsert is true, updated with the alias and contact channels of the request.
+	 *
+	 * @param  municipalityId of the ContactSettings.
+	 * @param  requests       the ContactSettings to create.
+	 * @param  upsert         whether existing ContactSettings should be updated instead of reported as conflicts.
+	 * @return                the outcome of each ContactSetting, in request order.
+	 */
+	public List<ContactSettingBulkResult> createContactSettings(final String municipalityId, final List<ContactSettingCreateRequest> requests, final boolean upsert) {
+		final var items = IntStream.range(0, requests.size())
+			.mapToObj(index -> new Item(index, requests.get(index)))
+			.toList();
+
+		final var results = new ArrayList<ContactSettingBulkResult>(items.size());
+		for (var from = 0; from < items.size(); from += chunkSize) {
+			results.addAll(writeChunk(municipalityId, items.subList(from, Math.min(from + chunkSize, items.size())), upsert));
+		}
+		return results;
+	}
+
+	private List<ContactSettingBulkResult> writeChunk(final String municipalityId, final List<Item> chunk, final boolean upsert) {
+		try {
+			return countOutcomes(chunkTimer.record(() -> transactionTemplate.execute(status -> writeInTransaction(municipalityId, chunk, upsert))));
+		} catch (final DataIntegrityViolationException e) {
+			if (!isPartyIdViolation(e)) {
+				throw e;
+			}
+
+			// Write the contact settings of the chunk one at a time, so that only the conflicting ones fail.
+			return chunk.stream()
+				.map(item -> writeOne(municipalityId, item, upsert))
+				.toList();
+		}
+	}
+
+	private ContactSettingBulkResult writeOne(final String municipalityId, final Item item, final boolean upsert) {
+		try {
+			return countOutcomes(transactionTemplate.execute(status -> writeInTransaction(municipalityId, List.of(item), upsert))).getFirst();
+		} catch (final DataIntegrityViolationException e) {
+			if (!isPartyIdViolation(e)) {
+				throw e;
+			}
+			return countOutcomes(List.of(toConflict(item))).getFirst();
+		}
+	}
+
+	private List<ContactSettingBulkResult> writeInTransaction(final String municipalityId, final List<Item> chunk, final boolean upsert) {
+
+		// Fetch the existing contact settings of all parties of the chunk in one round-trip.
+		final var partyIds = chunk.stream().map(item -> item.request().getPartyId()).filter(Objects::nonNull).collect(toSet());
+		final Map<String, ContactSettingEntity> entitiesByPartyId = partyIds.isEmpty()
+			? new HashMap<>()
+			: contactSettingRepository.findWithChannelsByMunicipalityIdAndPartyIdIn(municipalityId, partyIds).stream()
+				.collect(toMap(ContactSettingEntity::getPartyId, entity -> entity, (first, second) -> first, HashMap::new));
+
+		final var newEntities = new ArrayList<ContactSettingEntity>();
+		final var outcomes = new ArrayList<Outcome>(chunk.size());
+		for (final var item : chunk) {
+			final var partyId = item.request().getPartyId();
+			final var existing = isNull(partyId) ? null : entitiesByPartyId.get(partyId);
+			if (isNull(existing)) {
+				final var entity = toContactSettingEntity(municipalityId, item.request());
+				newEntities.add(entity);
+				if (nonNull(partyId)) {
+					entitiesByPartyId.put(partyId, entity);
+				}
+				outcomes.add(new Outcome(item, CREATED, entity));
+			} else if (upsert) {
+				mergeIntoContactSettingEntity(existing, ContactSettingUpdateRequest.create()
+					.withAlias(item.request().getAlias())
+					.withContactChannels(item.request().getContactChannels()));
+				outcomes.add(new Outcome(item, UPDATED, existing));
+			} else {
+				outcomes.add(new Outcome(item, CONFLICT, null));
+			}
+		}
+
+		// The inserts (and the updates of merged entities) are sent as JDBC batches when the chunk is flushed.
+		contactSettingRepository.saveAll(newEntities);
+		contactSettingRepository.flush();
+
+		// Record the changes of the chunk with (at most) one statement per operation.
+		changeLogService.recordContactSettingChanges(idsWithOutcome(outcomes, CREATED), ChangeOperation.CREATED);
+		changeLogService.recordContactSettingChanges(idsWithOutcome(outcomes, UPDATED), ChangeOperation.UPDATED);
+
+		return outcomes.stream()
+			.map(outcome -> outcome.outcome() == CONFLICT ? toConflict(outcome.item()) : toResult(outcome.item(), outcome.outcome(), outcome.entity().getId()))
+			.toList();
+	}
+
+	private List<ContactSettingBulkResult> countOutcomes(final List<ContactSettingBulkResult> results) {
+		results.forEach(result -> Counter.builder(METRIC_PREFIX + ".items")
+			.tag("outcome", result.getOutcome().name().toLowerCase(ROOT))
+			.register(meterRegistry)
+			.increment());
+		return results;
+	}
+
+	private static List<String> idsWithOutcome(final List<Outcome> outcomes, final BulkOutcome bulkOutcome) {
+		return outcomes.stream()
+			.filter(outcome -> outcome.outcome() == bulkOutcome)
+			.map(outcome -> outcome.entity().getId())
+			.toList();
+	}
+
+	private static boolean isPartyIdViolation(final DataIntegrityViolationException e) {
+		return containsIgnoreCase(e.getMostSpecificCause().getMessage(), UNIQUE_MUNICIPALITY_ID_PARTY_ID);
+	}
+
+	private static ContactSettingBulkResult toConflict(final Item item) {
+		return toResult(item, CONFLICT, null)
+			.withDetail(ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS.formatted(item.request().getPartyId()));
+	}
+
+	private static ContactSettingBulkResult toResult(final Item item, final BulkOutcome outcome, final String id) {
+		return ContactSettingBulkResult.create()
+			.withIndex(item.index())
+			.withOutcome(outcome)
+			.withId(id)
+			.withPartyId(item.request().getPartyId());
+	}
+
+	private record Item(int index, ContactSettingCreateRequest request) {}
+
+	private record Outcome(Item item, BulkOutcome outcome, ContactSettingEntity entity) {}
+}
@@ -1,138 +1,369 @@
 package se.sundsvall.contactsettings.service;
 
-import java.util.HashSet;
+import jakarta.persistence.EntityManager;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.contactsettings.api.model.ContactSetting;
 import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
 import se.sundsvall.contactsettings.api.model.ContactSettingUpdateRequest;
+import se.sundsvall.contactsettings.api.model.PartyContactSettings;
 import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
 import se.sundsvall.contactsettings.integration.db.DelegateRepository;
 import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
-import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.integration.db.model.listener.ContactSettingChangedEvent;
+import se.sundsvall.contactsettings.integration.db.model.listener.DelegateGraphChangedEvent;
+import se.sundsvall.contactsettings.service.cache.ContactSettingCache;
+import se.sundsvall.contactsettings.service.cache.DelegateChainCache;
+import se.sundsvall.contactsettings.service.cache.ResolvedContactSettings;
+import se.sundsvall.contactsettings.service.chain.DelegateChainResolver;
 import se.sundsvall.contactsettings.service.mapper.ContactSettingMapper;
+import se.sundsvall.contactsettings.service.purge.ContactSettingPurger;
+import se.sundsvall.contactsettings.service.util.ContinuationToken;
 import se.sundsvall.dept44.problem.Problem;
 
-import static java.util.Collections.emptyMap;
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.Collections.emptyList;
+import static java.util.function.Function.identity;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toMap;
+import static org.apache.commons.collections4.ListUtils.partition;
+import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.UPDATED;
+import static se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity.UNIQUE_MUNICIPALITY_ID_PARTY_ID;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ID_NOT_FOUND;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_CONTACT_SETTING_NOT_FOUND;
 import static se.sundsvall.contactsettings.service.mapper.ContactSettingMapper.mergeIntoContactSettingEntity;
 import static se.sundsvall.contactsettings.service.mapper.ContactSettingMapper.toContactSetting;
 import static se.sundsvall.contactsettings.service.mapper.ContactSettingMapper.toContactSettingEntity;
-import static se.sundsvall.contactsettings.service.util.FilterEvaluationUtils.evaluate;
 
 @Service
 public class ContactSettingsService {
 
+	private static final int STREAM_CHUNK_SIZE = 500;
+	private static final int DELETE_CHUNK_SIZE = 1000;
+
 	private final ContactSettingRepository contactSettingRepository;
 	private final DelegateRepository delegateRepository;
+	private final DelegateChainResolver delegateChainResolver;
+	private final EntityManager entityManager;
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private final ChangeLogService changeLogService;
+	private final Optional<ContactSettingCache> contactSettingCache;
+	private final Optional<DelegateChainCache> delegateChainCache;
+	private final Optional<ContactSettingPurger> contactSettingPurger;
 
-	public ContactSettingsService(ContactSettingRepository contactSettingRepository, DelegateRepository delegateRepository) {
+	public ContactSettingsService(ContactSettingRepository contactSettingRepository, DelegateRepository delegateRepository, DelegateChainResolver delegateChainResolver, EntityManager entityManager,
+		ApplicationEventPublisher applicationEventPublisher, ChangeLogService changeLogService, Optional<ContactSettingCache> contactSettingCache, Optional<DelegateChainCache> delegateChainCache,
+		Optional<ContactSettingPurger> contactSettingPurger) {
 		this.contactSettingRepository = contactSettingRepository;
 		this.delegateRepository = delegateRepository;
+		this.delegateChainResolver = delegateChainResolver;
+		this.entityManager = entityManager;
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.changeLogService = changeLogService;
+		this.contactSettingCache = contactSettingCache;
+		this.delegateChainCache = delegateChainCache;
+		this.contactSettingPurger = contactSettingPurger;
 	}
 
+	@Transactional
 	public String createContactSetting(final String municipalityId, final ContactSettingCreateRequest contactSettingCreateRequest) {
-		Optional.ofNullable(contactSettingCreateRequest.getPartyId()).ifPresent(partyId -> {
-			if (contactSettingRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId).isPresent()) {
+		// Insert directly. An existing contact setting for the party is detected by the unique constraint, which (unlike a
+		// check before the insert) also holds for concurrent requests.
+		try {
+			final var id = contactSettingRepository.saveAndFlush(toContactSettingEntity(municipalityId, contactSettingCreateRequest)).getId();
+			changeLogService.recordContactSettingChanges(List.of(id), CREATED);
+			return id;
+		} catch (final DataIntegrityViolationException e) {
+			if (containsIgnoreCase(e.getMostSpecificCause().getMessage(), UNIQUE_MUNICIPALITY_ID_PARTY_ID)) {
 				throw Problem.valueOf(CONFLICT, ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS.formatted(contactSettingCreateRequest.getPartyId()));
 			}
-		});
-
-		return contactSettingRepository.save(toContactSettingEntity(municipalityId, contactSettingCreateRequest)).getId();
+			throw e;
+		}
 	}
 
 	public ContactSetting readContactSetting(final String municipalityId, final String id) {
-		return contactSettingRepository.findByMunicipalityIdAndId(municipalityId, id).map(ContactSettingMapper::toContactSetting)
+		return findContactSetting(municipalityId, id)
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_CONTACT_SETTING_NOT_FOUND.formatted(id)));
 	}
 
-	public List<ContactSetting> readContactSettingChildren(final String municipalityId, final String id) {
+	/**
+	 * Read one page of the virtual contact settings created by a contact setting, in (created, id) order.
+	 *
+	 * @param  municipalityId    of the ContactSetting.
+	 * @param  id                the id of the ContactSetting that created the children.
+	 * @param  continuationToken the token of the previous page, or null for the first page.
+	 * @param  limit             the maximum number of children of the page. All children are returned when unlimited.
+	 * @return                   the page of children.
+	 */
+	public ContactSettingPage readContactSettingChildren(final String municipalityId, final String id, final String continuationToken, final Limit limit) {
 		verifyThatContactSettingExists(municipalityId, id);
-		return contactSettingRepository.findByMunicipalityIdAndCreatedById(municipalityId, id).stream()
-			.map(ContactSettingMapper::toContactSetting)
-			.toList();
+
+		// Fetch one id more than requested, to find out if there is a next page.
+		final var after = ContinuationToken.decode(continuationToken);
+		final var ids = isNull(after)
+			? contactSettingRepository.findIdsByMunicipalityIdAndCreatedById(municipalityId, id, oneMoreThan(limit))
+			: contactSettingRepository.findIdsByMunicipalityIdAndCreatedByIdAfter(municipalityId, id, after.created(), after.id(), oneMoreThan(limit));
+
+		return toContactSettingPage(ids, limit);
 	}
 
-	public List<ContactSetting> findByChannelsDestination(final String municipalityId, final String destination) {
-		return contactSettingRepository.findByMunicipalityIdAndChannelsDestination(municipalityId, destination).stream()
-			.map(ContactSettingMapper::toContactSetting)
-			.toList();
+	/**
+	 * Find one page of the contact settings with a channel with the provided destination, in id order.
+	 *
+	 * @param  municipalityId    of the ContactSettings.
+	 * @param  destination       channel-destination of the ContactSettings to find.
+	 * @param  continuationToken the token of the previous page, or null for the first page.
+	 * @param  limit             the maximum number of contact settings of the page. All are returned when unlimited.
+	 * @return                   the page of contact settings.
+	 */
+	public ContactSettingPage findByChannelsDestination(final String municipalityId, final String destination, final String continuationToken, final Limit limit) {
+
+		// Fetch one id more than requested, to find out if there is a next page. Only the id of the token is used, as the
+		// search is paged in id order.
+		final var after = ContinuationToken.decode(continuationToken);
+		final var max = limit.isLimited() ? limit.max() + 1 : Integer.MAX_VALUE;
+		final var ids = isNull(after)
+			? contactSettingRepository.findIdsByMunicipalityIdAndChannelsDestination(municipalityId, destination, max)
+			: contactSettingRepository.findIdsByMunicipalityIdAndChannelsDestinationAfter(municipalityId, destination, after.id(), max);
+
+		return toContactSettingPage(ids, limit);
 	}
 
 	public List<ContactSetting> findByPartyIdAndQueryFilter(final String municipalityId, final String partyId, final Map<String, List<String>> inputQuery) {
+		return delegateChainCache
+			.map(cache -> cache.get(municipalityId, partyId, inputQuery, () -> resolveByPartyIdAndQueryFilter(municipalityId, partyId, inputQuery)))
+			.orElseGet(() -> resolveByPartyIdAndQueryFilter(municipalityId, partyId, inputQuery).contactSettings());
+	}
+
+	public List<PartyContactSettings> findByPartyIdsAndQueryFilter(final String municipalityId, final List<String> partyIds, final Map<String, List<String>> inputQuery) {
+
+		// Fetch all root entities in one round-trip. Parties without a contact setting get an empty result.
+		final var rootsByPartyId = contactSettingRepository.findWithChannelsByMunicipalityIdAndPartyIdIn(municipalityId, new LinkedHashSet<>(partyIds)).stream()
+			.collect(toMap(ContactSettingEntity::getPartyId, identity(), (first, second) -> first));
+
+		// Resolve the delegate chains of all roots together (shared sub-trees are only resolved once).
+		final var chainIdsByRootId = delegateChainResolver.resolveAll(municipalityId, rootsByPartyId.values().stream().map(ContactSettingEntity::getId).toList(), inputQuery);
+
+		// Fetch all collected agents that are not roots themselves in one round-trip. Each contact setting is mapped once.
+		final var contactSettingsById = new HashMap<String, ContactSetting>();
+		rootsByPartyId.values().forEach(root -> contactSettingsById.put(root.getId(), toContactSetting(root)));
+		final var agentIds = chainIdsByRootId.values().stream()
+			.flatMap(List::stream)
+			.filter(id -> !contactSettingsById.containsKey(id))
+			.distinct()
+			.toList();
+		if (!agentIds.isEmpty()) {
+			contactSettingRepository.findWithChannelsByIdIn(agentIds).forEach(agent -> contactSettingsById.put(agent.getId(), toContactSetting(agent)));
+		}
+
+		return partyIds.stream()
+			.distinct()
+			.map(partyId -> PartyContactSettings.create()
+				.withPartyId(partyId)
+				.withContactSettings(Optional.ofNullable(rootsByPartyId.get(partyId))
+					.map(root -> chainIdsByRootId.get(root.getId()).stream().map(contactSettingsById::get).filter(Objects::nonNull).toList())
+					.orElse(emptyList())))
+			.toList();
+	}
+
+	/**
+	 * Streams the virtual contact settings created by a contact setting to the consumer, one at a time. Each entity is
+	 * detached as soon as it has been handed over, so memory usage does not grow with the number of children.
+	 *
+	 * @param municipalityId of the ContactSetting.
+	 * @param id             the id of the ContactSetting that created the children.
+	 * @param consumer       the consumer of the children.
+	 */
+	@Transactional(readOnly = true)
+	public void streamContactSettingChildren(final String municipalityId, final String id, final Consumer<ContactSetting> consumer) {
+		verifyThatContactSettingExists(municipalityId, id);
+		try (final var children = contactSettingRepository.streamWithChannelsByMunicipalityIdAndCreatedById(municipalityId, id)) {
+			children.forEach(child -> acceptAndDetach(child, consumer));
+		}
+	}
+
+	/**
+	 * Streams the contact settings with a channel with the provided destination to the consumer, one at a time. Each entity
+	 * is detached as soon as it has been handed over.
+	 *
+	 * @param municipalityId of the ContactSettings.
+	 * @param destination    channel-destination of the ContactSettings to find.
+	 * @param consumer       the consumer of the contact settings.
+	 */
+	@Transactional(readOnly = true)
+	public void streamByChannelsDestination(final String municipalityId, final String destination, final Consumer<ContactSetting> consumer) {
+		try (final var contactSettings = contactSettingRepository.streamWithChannelsByMunicipalityIdAndChannelsDestination(municipalityId, destination)) {
+			contactSettings.forEach(contactSetting -> acceptAndDetach(contactSetting, consumer));
+		}
+	}
+
+	/**
+	 * Streams the contact setting chain of a party to the consumer, root first and then in level order. The agents are
+	 * fetched in chunks, and each entity is detached as soon as it has been handed over.
+	 *
+	 * @param municipalityId of the ContactSettings.
+	 * @param partyId        the partyId of the root ContactSetting.
+	 * @param inputQuery     the query to filter delegates by.
+	 * @param consumer       the consumer of the contact settings.
+	 */
+	@Transactional(readOnly = true)
+	public void streamByPartyIdAndQueryFilter(final String municipalityId, final String partyId, final Map<String, List<String>> inputQuery, final Consumer<ContactSetting> consumer) {
 
 		// Fetch root entity, or throw a 404.
 		final var parent = contactSettingRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId)
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ID_NOT_FOUND.formatted(partyId)));
 
-		// Call the actual search-and-collect logic.
-		return searchAndCollectFromDelegateChain(parent, Optional.ofNullable(inputQuery).orElse(emptyMap()), new HashSet<>()).stream()
-			.map(ContactSettingMapper::toContactSetting)
-			.toList();
-	}
+		final var agentIds = delegateChainResolver.resolve(municipalityId, parent.getId(), inputQuery).stream().skip(1).toList();
+		acceptAndDetach(parent, consumer);
 
-	private List<ContactSettingEntity> searchAndCollectFromDelegateChain(ContactSettingEntity contactSetting, final Map<String, List<String>> inputQuery, HashSet<String> lookupRegistry) {
-		lookupRegistry.add(contactSetting.getId()); // Add contactSetting to lookupRegistry.
-		return Stream.concat(
-			Stream.of(contactSetting), // This will ensure that returned list always contains the provided contactSetting.
-			delegateRepository.findByPrincipalId(contactSetting.getId()).stream() // Find all agents for this contactSetting.
-				.filter(delegate -> evaluate(inputQuery, delegate.getFilters())) // Evaluate inputQuery against delegate filters (stored in DB).
-				.map(DelegateEntity::getAgent) // Extract agent from delegate.
-				.filter(agent -> !lookupRegistry.contains(agent.getId())) // The lookupRegistry must not already contain the ID of this agent (prevent circular references).
-				.flatMap(agent -> searchAndCollectFromDelegateChain(agent, inputQuery, lookupRegistry).stream())) // Recurse.
-			.toList();
+		// Fetch the agents one chunk at a time, and hand them over in the order they were collected.
+		partition(agentIds, STREAM_CHUNK_SIZE).forEach(chunk -> {
+			final var agentsById = contactSettingRepository.findWithChannelsByIdIn(chunk).stream().collect(toMap(ContactSettingEntity::getId, identity()));
+			chunk.stream()
+				.map(agentsById::get)
+				.filter(Objects::nonNull)
+				.forEach(agent -> acceptAndDetach(agent, consumer));
+		});
 	}
 
+	@Transactional
 	public ContactSetting updateContactSetting(final String municipalityId, final String id, final ContactSettingUpdateRequest contactSettingUpdateRequest) {
 		final var contactSettingEntity = contactSettingRepository.findByMunicipalityIdAndId(municipalityId, id)
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_CONTACT_SETTING_NOT_FOUND.formatted(id)));
 
 		var updatedContactSettingEntity = mergeIntoContactSettingEntity(contactSettingEntity, contactSettingUpdateRequest);
 
-		return toContactSetting(contactSettingRepository.save(updatedContactSettingEntity));
+		// Recording the change flushes the update, so that the modified timestamp is set before the entity is mapped.
+		final var savedContactSettingEntity = contactSettingRepository.save(updatedContactSettingEntity);
+		changeLogService.recordContactSettingChanges(List.of(id), UPDATED);
+
+		return toContactSetting(savedContactSettingEntity);
 	}
 
-	public void deleteContactSetting(final String municipalityId, final String id) {
+	/**
+	 * Delete a contact setting, and for "real" (i.e. non-virtual) instances all created virtual instances, together with
+	 * all related delegates. When the contact setting purger is enabled, the contact settings are only tombstoned here,
+	 * and are removed (together with their delegates) by the purger.
+	 *
+	 * @param  municipalityId the municipalityId of the contact setting.
+	 * @param  id             the id of the contact setting.
+	 * @return                true if the contact settings have been deleted, false if they have been tombstoned.
+	 */
+	@Transactional
+	public boolean deleteContactSetting(final String municipalityId, final String id) {
 
 		// Fetch entity, or throw a 404.
 		final var contactSetting = contactSettingRepository.findByMunicipalityIdAndId(municipalityId, id)
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_CONTACT_SETTING_NOT_FOUND.formatted(id)));
 
-		// Delete all related delegates (delegates where this entity is principal or agent).
-		deleteAllRelatedDelegates(id);
-
-		// For all "real" (i.e. non-virtual) instances: delete all created virtual instances.
+		// Collect the ids to delete: this entity, and for "real" (i.e. non-virtual) instances all created virtual instances.
+		final var ids = new ArrayList<String>();
+		ids.add(id);
 		if (nonNull(contactSetting.getPartyId())) {
-			contactSettingRepository.findByMunicipalityIdAndCreatedById(municipalityId, id).stream()
-				.filter(child -> isNull(child.getPartyId()))
-				.forEach(contactSettingEntity -> deleteContactSetting(contactSettingEntity.getMunicipalityId(), contactSettingEntity.getId()));
+			ids.addAll(contactSettingRepository.findVirtualIdsByMunicipalityIdAndCreatedById(municipalityId, id));
 		}
 
-		contactSettingRepository.deleteById(id);
+		final var deleted = now(ZoneId.systemDefault()).truncatedTo(MILLIS);
+		partition(ids, DELETE_CHUNK_SIZE).forEach(chunk -> {
+			// Record the deletions of the related delegates (delegates where any of the entities is principal or agent) and of
+			// the entities while they still exist. A delegate between two chunks is recorded once, as the first chunk is
+			// removed before the next is recorded.
+			changeLogService.recordDelegateChangesOfContactSettings(chunk, DELETED);
+			changeLogService.recordContactSettingChanges(chunk, DELETED);
+			if (contactSettingPurger.isPresent()) {
+				// Tombstone the entities. They (and their delegates) are excluded from all reads from now on, and are removed by
+				// the purger.
+				contactSettingRepository.tombstoneByIdIn(chunk, deleted);
+			} else {
+				// Delete the related delegates, and then the entities. Filters, rules and channels are removed by the database.
+				delegateRepository.deleteByPrincipalIdInOrAgentIdIn(chunk);
+				contactSettingRepository.deleteByIdIn(chunk);
+			}
+		});
+
+		// The bulk statements bypass the entity listeners, so the changes are published here. A removed contact setting
+		// also invalidates every resolved chain that depended on one of its delegates.
+		ids.forEach(deletedId -> applicationEventPublisher.publishEvent(new ContactSettingChangedEvent(municipalityId, deletedId, id.equals(deletedId) ? contactSetting.getPartyId() : null)));
+		applicationEventPublisher.publishEvent(new DelegateGraphChangedEvent(municipalityId));
+		return contactSettingPurger.isEmpty();
 	}
 
-	private void deleteAllRelatedDelegates(String contactSettingId) {
+	private ResolvedContactSettings resolveByPartyIdAndQueryFilter(final String municipalityId, final String partyId, final Map<String, List<String>> inputQuery) {
 
-		// Collect ID:s of all delegate-instances to delete.
-		final var idList = Stream.concat(
-			// All delegates where this contactSetting acts as an agent:
-			delegateRepository.findByAgentId(contactSettingId).stream(),
-			// All delegates where this contactSetting acts as a principal:
-			delegateRepository.findByPrincipalId(contactSettingId).stream()).map(DelegateEntity::getId).toList();
+		// Fetch root, or throw a 404.
+		final var parent = findContactSettingByPartyId(municipalityId, partyId)
+			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ID_NOT_FOUND.formatted(partyId)));
 
-		// Delete all delegates where this contactSetting occurs.
-		if (!idList.isEmpty()) {
-			delegateRepository.deleteAllById(idList);
+		// Resolve the contact settings in the delegate chain, root first and then in level order.
+		final var delegateChain = delegateChainResolver.resolveChain(municipalityId, parent.getId(), inputQuery);
+
+		// Fetch all collected agents in one round-trip, and return them in the order they were collected.
+		final var agentIds = delegateChain.contactSettingIds().stream().skip(1).toList();
+		final var agentsById = agentIds.isEmpty() ? Map.<String, ContactSettingEntity>of()
+			: contactSettingRepository.findWithChannelsByIdIn(agentIds).stream().collect(toMap(ContactSettingEntity::getId, identity()));
+
+		final var contactSettings = Stream.concat(Stream.of(parent), agentIds.stream().map(agentsById::get).filter(Objects::nonNull).map(ContactSettingMapper::toContactSetting))
+			.toList();
+
+		return new ResolvedContactSettings(contactSettings, delegateChain);
+	}
+
+	private static Limit oneMoreThan(final Limit limit) {
+		return limit.isLimited() ? Limit.of(limit.max() + 1) : limit;
+	}
+
+	private ContactSettingPage toContactSettingPage(final List<String> ids, final Limit limit) {
+		final var hasNextPage = limit.isLimited() && ids.size() > limit.max();
+		final var pageIds = (hasNextPage ? ids.subList(0, limit.max()) : ids).stream().distinct().toList();
+		if (pageIds.isEmpty()) {
+			return new ContactSettingPage(emptyList(), null);
 		}
+
+		// Fetch the page (with channels) in chunks, as an unlimited page has no upper bound, and return it in the order of
+		// the ids.
+		final var entitiesById = partition(pageIds, STREAM_CHUNK_SIZE).stream()
+			.flatMap(chunk -> contactSettingRepository.findWithChannelsByIdIn(chunk).stream())
+			.collect(toMap(ContactSettingEntity::getId, identity()));
+		final var entities = pageIds.stream().map(entitiesById::get).filter(Objects::nonNull).toList();
+		final var continuationToken = hasNextPage && !entities.isEmpty() ? ContinuationToken.of(entities.getLast()).encode() : null;
+
+		return new ContactSettingPage(entities.stream().map(ContactSettingMapper::toContactSetting).toList(), continuationToken);
+	}
+
+	private void acceptAndDetach(final ContactSettingEntity contactSettingEntity, final Consumer<ContactSetting> consumer) {
+		consumer.accept(toContactSetting(contactSettingEntity));
+		entityManager.detach(contactSettingEntity);
+	}
+
+	private Optional<ContactSetting> findContactSetting(final String municipalityId, final String id) {
+		return contactSettingCache.map(cache -> cache.findByMunicipalityIdAndId(municipalityId, id))
+			.orElseGet(() -> contactSettingRepository.findByMunicipalityIdAndId(municipalityId, id).map(ContactSettingMapper::toContactSetting));
+	}
+
+	private Optional<ContactSetting> findContactSettingByPartyId(final String municipalityId, final String partyId) {
+		return contactSettingCache.map(cache -> cache.findByMunicipalityIdAndPartyId(municipalityId, partyId))
+			.orElseGet(() -> contactSettingRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId).map(ContactSettingMapper::toContactSetting));
 	}
 
 	private void verifyThatContactSettingExists(final String municipalityId, final String id) {
@@ -1,8 +1,10 @@
 package se.sundsvall.contactsettings.service;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.contactsettings.api.model.Filter;
 import se.sundsvall.contactsettings.integration.db.DelegateFilterRepository;
 import se.sundsvall.contactsettings.integration.db.DelegateRepository;
@@ -10,6 +12,9 @@ import se.sundsvall.dept44.problem.Problem;
 
 import static java.util.Collections.emptyList;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.UPDATED;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_DELEGATE_FILTER_NOT_FOUND;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_DELEGATE_NOT_FOUND;
 import static se.sundsvall.contactsettings.service.mapper.DelegateMapper.mergeIntoDelegateFilterEntity;
@@ -21,25 +26,29 @@ public class DelegateFilterService {
 
 	private final DelegateRepository delegateRepository;
 	private final DelegateFilterRepository delegateFilterRepository;
+	private final ChangeLogService changeLogService;
 
-	public DelegateFilterService(DelegateRepository delegateRepository, DelegateFilterRepository delegateFilterRepository) {
+	public DelegateFilterService(DelegateRepository delegateRepository, DelegateFilterRepository delegateFilterRepository, ChangeLogService changeLogService) {
 		this.delegateRepository = delegateRepository;
 		this.delegateFilterRepository = delegateFilterRepository;
+		this.changeLogService = changeLogService;
 	}
 
+	@Transactional
 	public Filter create(String delegateId, Filter filter) {
 
 		// Fetch/Validate.
-		final var delegateEntity = delegateRepository.findById(delegateId)
+		final var delegateEntity = delegateRepository.findWithFiltersById(delegateId)
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_DELEGATE_NOT_FOUND.formatted(delegateId)));
 
-		// Save delegateFilter.
-		final var delegateFilterEntity = delegateFilterRepository.save(toDelegateFilterEntity(filter));
+		// Save delegateFilter. The delegateId is set up front, so that the change event of the filter identifies its delegate.
+		final var delegateFilterEntity = delegateFilterRepository.save(toDelegateFilterEntity(filter).withDelegateId(delegateId));
 
 		// Add delegateFilter to delegate.
 		final var delegateFilters = new ArrayList<>(Optional.ofNullable(delegateEntity.getFilters()).orElse(emptyList()).stream().toList());
 		delegateFilters.add(delegateFilterEntity);
 		delegateRepository.save(delegateEntity.withFilters(delegateFilters));
+		changeLogService.recordDelegateFilterChanges(List.of(delegateFilterEntity.getId()), CREATED);
 
 		return toFilter(delegateFilterEntity);
 	}
@@ -54,16 +63,22 @@ public class DelegateFilterService {
 		return toFilter(delegateFilterEntity);
 	}
 
+	@Transactional
 	public Filter update(String delegateId, String delegateFilterId, Filter filter) {
 
 		// Fetch/validate
 		final var delegateFilterEntity = delegateFilterRepository.findByIdAndDelegateId(delegateFilterId, delegateId)
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_DELEGATE_FILTER_NOT_FOUND.formatted(delegateId, delegateFilterId)));
 
-		// All good: proceed
-		return toFilter(delegateFilterRepository.save(mergeIntoDelegateFilterEntity(delegateFilterEntity, filter)));
+		// All good: proceed. Recording the change flushes the update, so that the modified timestamp is set before the entity
+		// is mapped.
+		final var savedDelegateFilterEntity = delegateFilterRepository.save(mergeIntoDelegateFilterEntity(delegateFilterEntity, filter));
+		changeLogService.recordDelegateFilterChanges(List.of(delegateFilterId), UPDATED);
+
+		return toFilter(savedDelegateFilterEntity);
 	}
 
+	@Transactional
 	public void delete(String delegateId, String delegateFilterId) {
 
 		// Validate
@@ -71,13 +86,20 @@ public class DelegateFilterService {
 			throw Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_DELEGATE_FILTER_NOT_FOUND.formatted(delegateId, delegateFilterId));
 		}
 
-		// Delete delegate if the filter is the last filter on the delegate.
+		// Delete delegate if the filter is the last filter on the delegate. The deletion is recorded while the delegate still
+		// exists.
 		if (delegateFilterRepository.countByDelegateId(delegateId) <= 1) {
+			changeLogService.recordDelegateChanges(List.of(delegateId), DELETED);
 			delegateRepository.deleteById(delegateId);
 			return;
 		}
 
-		// More filters exist on delegate, only delete the filter.
-		delegateFilterRepository.deleteById(delegateFilterId);
+		// More filters exist on delegate, only delete the filter. The filter is removed from the delegate (and deleted as an
+		// orphan), so that the cached filter collection of the delegate is updated together with the filter.
+		changeLogService.recordDelegateFilterChanges(List.of(delegateFilterId), DELETED);
+		final var delegateEntity = delegateRepository.findWithFiltersById(delegateId)
+			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_DELEGATE_NOT_FOUND.formatted(delegateId)));
+		delegateEntity.getFilters().removeIf(delegateFilter -> delegateFilterId.equals(delegateFilter.getId()));
+		delegateRepository.save(delegateEntity);
 	}
 }
@@ -1,12 +1,20 @@
 package se.sundsvall.contactsettings.service;
 
 import java.util.List;
+import java.util.Optional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.contactsettings.api.model.Delegate;
 import se.sundsvall.contactsettings.api.model.DelegateCreateRequest;
 import se.sundsvall.contactsettings.api.model.FindDelegatesParameters;
 import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateFilterRepository;
 import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.DelegateSummary;
+import se.sundsvall.contactsettings.integration.db.model.listener.DelegateChangedEvent;
+import se.sundsvall.contactsettings.integration.db.model.listener.DelegateGraphChangedEvent;
+import se.sundsvall.contactsettings.service.cache.ContactSettingCache;
 import se.sundsvall.dept44.problem.Problem;
 
 import static java.util.Collections.emptyList;
@@ -15,6 +23,8 @@ import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.ObjectUtils.allNotNull;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_AGENT_NOT_FOUND;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_DELEGATE_ALREADY_EXIST;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_DELEGATE_NOT_FOUND;
@@ -27,13 +37,23 @@ import static se.sundsvall.contactsettings.service.mapper.DelegateMapper.toDeleg
 public class DelegateService {
 
 	private final DelegateRepository delegateRepository;
+	private final DelegateFilterRepository delegateFilterRepository;
 	private final ContactSettingRepository contactSettingRepository;
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private final ChangeLogService changeLogService;
+	private final Optional<ContactSettingCache> contactSettingCache;
 
-	public DelegateService(DelegateRepository delegateRepository, ContactSettingRepository contactSettingRepository) {
+	public DelegateService(DelegateRepository delegateRepository, DelegateFilterRepository delegateFilterRepository, ContactSettingRepository contactSettingRepository,
+		ApplicationEventPublisher applicationEventPublisher, ChangeLogService changeLogService, Optional<ContactSettingCache> contactSettingCache) {
 		this.delegateRepository = delegateRepository;
+		this.delegateFilterRepository = delegateFilterRepository;
 		this.contactSettingRepository = contactSettingRepository;
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.changeLogService = changeLogService;
+		this.contactSettingCache = contactSettingCache;
 	}
 
+	@Transactional
 	public Delegate create(final String municipalityId, final DelegateCreateRequest delegateCreateRequest) {
 
 		// Verifications:
@@ -42,33 +62,39 @@ public class DelegateService {
 		verifyThatDelegateDoesNotAlreadyExist(delegateCreateRequest.getPrincipalId(), delegateCreateRequest.getAgentId());
 
 		// All good: proceed
-		return toDelegate(delegateRepository.save(toDelegateEntity(delegateCreateRequest)));
+		final var delegateEntity = delegateRepository.save(toDelegateEntity(delegateCreateRequest));
+		changeLogService.recordDelegateChanges(List.of(delegateEntity.getId()), CREATED);
+
+		return toDelegate(delegateEntity);
 	}
 
+	@Transactional(readOnly = true)
 	public Delegate read(final String municipalityId, final String id) {
 
-		// Fetch/validate
-		final var entity = delegateRepository.findById(id).orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_DELEGATE_NOT_FOUND.formatted(id)));
-
-		if (!entity.getAgent().getMunicipalityId().equals(municipalityId) || !entity.getPrincipal().getMunicipalityId().equals(municipalityId)) {
-			throw Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_DELEGATE_NOT_FOUND.formatted(id));
-		}
+		// Fetch/validate. Only a delegate whose principal and agent both belong to the municipality is found. The rules of
+		// the filters are loaded (within the transaction) when mapped.
+		final var entity = delegateRepository.findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(id, municipalityId, municipalityId)
+			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_DELEGATE_NOT_FOUND.formatted(id)));
 
 		// All good: proceed
 		return toDelegate(entity);
 	}
 
+	@Transactional
 	public void delete(final String municipalityId, final String id) {
 
-		// Fetch/validate
-		final var entity = delegateRepository.findById(id).orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_DELEGATE_NOT_FOUND.formatted(id)));
+		// Record the deletion while the delegate still exists. The entry is rolled back if the delegate is not found.
+		changeLogService.recordDelegateChanges(List.of(id), DELETED);
 
-		if (!entity.getAgent().getMunicipalityId().equals(municipalityId) || !entity.getPrincipal().getMunicipalityId().equals(municipalityId)) {
+		// Delete/validate. Only a delegate whose principal and agent both belong to the municipality is deleted.
+		if (delegateRepository.deleteByIdAndMunicipalityId(id, municipalityId) == 0) {
 			throw Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_DELEGATE_NOT_FOUND.formatted(id));
 		}
 
-		// All good: proceed
-		delegateRepository.delete(entity);
+		// The delete bypasses the entity listeners, so the change is published here. The principal is not known, but the
+		// delegate id identifies every resolved chain that depends on the delegate.
+		applicationEventPublisher.publishEvent(new DelegateChangedEvent(id, null));
+		applicationEventPublisher.publishEvent(new DelegateGraphChangedEvent(municipalityId));
 	}
 
 	public List<Delegate> find(final String municipalityId, final FindDelegatesParameters parameters) {
@@ -78,34 +104,49 @@ public class DelegateService {
 		if (allNotNull(parameters.getAgentId(), parameters.getPrincipalId())) {
 			verifyThatAgentExists(municipalityId, parameters.getAgentId());
 			verifyThatPrincipalExists(municipalityId, parameters.getPrincipalId());
-			return toDelegateList(delegateRepository.findByPrincipalIdAndAgentId(parameters.getPrincipalId(), parameters.getAgentId()));
+			return toDelegates(delegateRepository.findSummariesByPrincipalIdAndAgentId(parameters.getPrincipalId(), parameters.getAgentId()));
 		}
 		if (nonNull(parameters.getAgentId())) {
 			verifyThatAgentExists(municipalityId, parameters.getAgentId());
-			return toDelegateList(delegateRepository.findByAgentId(parameters.getAgentId()));
+			return toDelegates(delegateRepository.findSummariesByAgentId(parameters.getAgentId()));
 		}
 		if (nonNull(parameters.getPrincipalId())) {
 			verifyThatPrincipalExists(municipalityId, parameters.getPrincipalId());
-			return toDelegateList(delegateRepository.findByPrincipalId(parameters.getPrincipalId()));
+			return toDelegates(delegateRepository.findSummariesByPrincipalId(parameters.getPrincipalId()));
 		}
 
 		return emptyList();
 	}
 
+	private List<Delegate> toDelegates(final List<DelegateSummary> delegateSummaries) {
+		if (delegateSummaries.isEmpty()) {
+			return emptyList();
+		}
+
+		// Fetch the filters (with rules) of all delegates in one round-trip.
+		final var delegateIds = delegateSummaries.stream().map(DelegateSummary::getId).toList();
+		return toDelegateList(delegateSummaries, delegateFilterRepository.findWithRulesByDelegateIdIn(delegateIds));
+	}
+
 	private void verifyThatAgentExists(String municipalityId, String agentId) {
-		if (!contactSettingRepository.existsByMunicipalityIdAndId(municipalityId, agentId)) {
+		if (!contactSettingExists(municipalityId, agentId)) {
 			throw Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_AGENT_NOT_FOUND.formatted(agentId));
 		}
 	}
 
 	private void verifyThatPrincipalExists(String municipalityId, String principalId) {
-		if (!contactSettingRepository.existsByMunicipalityIdAndId(municipalityId, principalId)) {
+		if (!contactSettingExists(municipalityId, principalId)) {
 			throw Problem.valueOf(NOT_FOUND, ERROR_MESSAGE_PRINCIPAL_NOT_FOUND.formatted(principalId));
 		}
 	}
 
+	private boolean contactSettingExists(String municipalityId, String id) {
+		return contactSettingCache.map(cache -> cache.findByMunicipalityIdAndId(municipalityId, id).isPresent())
+			.orElseGet(() -> contactSettingRepository.existsByMunicipalityIdAndId(municipalityId, id));
+	}
+
 	private void verifyThatDelegateDoesNotAlreadyExist(String principalId, String agentId) {
-		if (!delegateRepository.findByPrincipalIdAndAgentId(principalId, agentId).isEmpty()) {
+		if (delegateRepository.existsByPrincipalIdAndAgentId(principalId, agentId)) {
 			throw Problem.valueOf(CONFLICT, ERROR_MESSAGE_DELEGATE_ALREADY_EXIST);
 		}
 	}
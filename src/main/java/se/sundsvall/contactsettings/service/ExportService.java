@@ -0,0 +1,131 @@
+package se.sundsvall.contactsettings.service;
+
+import jakarta.persistence.EntityManager;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.contactsettings.api.model.Delegate;
+import se.sundsvall.contactsettings.api.model.ExportRecord;
+import se.sundsvall.contactsettings.api.model.Filter;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.DelegateExportRow;
+import se.sundsvall.dept44.problem.Problem;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.ObjectUtils.anyNotNull;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.CONTACT_SETTING;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.DELEGATE;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_EXPORT_LIMIT_REACHED;
+import static se.sundsvall.contactsettings.service.mapper.ContactSettingMapper.toContactSetting;
+import static se.sundsvall.contactsettings.service.mapper.DelegateMapper.toDelegate;
+import static se.sundsvall.contactsettings.service.mapper.DelegateMapper.toFilter;
+import static se.sundsvall.contactsettings.service.mapper.DelegateMapper.toRule;
+
+/**
+ * Exports all contact settings (with their channels) and all delegates (with their filters and rules) of a
+ * municipality, e.g. for backups, reporting or to populate another environment.
+ *
+ * Both are read with forward-only cursors, that fetch the rows from the database in chunks as they are consumed, and
+ * each record is handed over as soon as it is complete. Memory usage therefore does not grow with the size of the
+ * municipality: the contact settings are detached once handed over, and the delegates are assembled from adjacent rows
+ * of a read-only projection, which is never added to the persistence context. The cursors bypass the second-level
+ * cache, so an export does not evict the entries of the regular reads.
+ *
+ * An export runs in one read-only transaction, so that the contact settings and the delegates are read from the same
+ * snapshot. The transaction holds a connection from the pool, and a read view in the database (which delays the purge
+ * of old row versions), until the last record has been handed over, i.e. for as long as the client takes to receive
+ * the export. At most 'max-concurrent' exports therefore run at a time on each instance, and further exports are
+ * rejected with 429 Too Many Requests before a connection is taken.
+ */
+@Service
+public class ExportService {
+
+	private final ContactSettingRepository contactSettingRepository;
+	private final DelegateRepository delegateRepository;
+	private final EntityManager entityManager;
+	private final TransactionTemplate transactionTemplate;
+	private final Semaphore permits;
+
+	public ExportService(final ContactSettingRepository contactSettingRepository, final DelegateRepository delegateRepository, final EntityManager entityManager,
+		final PlatformTransactionManager transactionManager, @Value("${contactsettings.export.max-concurrent:2}") final int maxConcurrent) {
+		this.contactSettingRepository = contactSettingRepository;
+		this.delegateRepository = delegateRepository;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.permits = new Semaphore(maxConcurrent);
+	}
+
+	/**
+	 * Streams the contact settings, and then the delegates, of a municipality to the consumer, one record at a time. The
+	 * contact settings and the delegates are each ordered by id. Fails with 429 Too Many Requests if 'max-concurrent'
+	 * exports are already running.
+	 *
+	 * @param municipalityId of the ContactSettings and Delegates.
+	 * @param consumer       the consumer of the records.
+	 */
+	public void export(final String municipalityId, final Consumer<ExportRecord> consumer) {
+		if (!permits.tryAcquire()) {
+			throw Problem.valueOf(TOO_MANY_REQUESTS, ERROR_MESSAGE_EXPORT_LIMIT_REACHED);
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				try (final var contactSettings = contactSettingRepository.streamWithChannelsByMunicipalityId(municipalityId)) {
+					contactSettings.forEach(contactSettingEntity -> {
+						consumer.accept(ExportRecord.create().withType(CONTACT_SETTING).withContactSetting(toContactSetting(contactSettingEntity)));
+						entityManager.detach(contactSettingEntity);
+					});
+				}
+
+				try (final var rows = delegateRepository.streamExportRowsByMunicipalityId(municipalityId)) {
+					exportDelegates(rows::iterator, consumer);
+				}
+			});
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Assembles the delegates from rows ordered by delegate id and filter id, and hands each delegate over as soon as its
+	 * last row has been read.
+	 */
+	private static void exportDelegates(final Iterable<DelegateExportRow> rows, final Consumer<ExportRecord> consumer) {
+		Delegate delegate = null;
+		Filter filter = null;
+		for (final var row : rows) {
+			if (isNull(delegate) || !delegate.getId().equals(row.getDelegateId())) {
+				acceptDelegate(delegate, consumer);
+				delegate = toDelegate(row);
+				filter = null;
+			}
+
+			if (isNull(row.getFilterId())) {
+				continue; // Delegate without filters.
+			}
+
+			if (isNull(filter) || !filter.getId().equals(row.getFilterId())) {
+				filter = toFilter(row);
+				delegate.getFilters().add(filter);
+			}
+
+			if (anyNotNull(row.getAttributeName(), row.getAttributeValue(), row.getOperator())) {
+				filter.getRules().add(toRule(row));
+			}
+		}
+		acceptDelegate(delegate, consumer);
+	}
+
+	private static void acceptDelegate(final Delegate delegate, final Consumer<ExportRecord> consumer) {
+		if (nonNull(delegate)) {
+			consumer.accept(ExportRecord.create().withType(DELEGATE).withDelegate(delegate));
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package se.sundsvall.contactsettings.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.model.listener.ContactSettingChangedEvent;
+import se.sundsvall.contactsettings.service.mapper.ContactSettingMapper;
+
+import static java.util.Objects.nonNull;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isActualTransactionActive;
+
+/**
+ * Bounded read cache of contact settings, keyed by (municipalityId, id) and (municipalityId, partyId). Entries are
+ * evicted by size and by time since they were loaded. Contact settings that do not exist are not cached.
+ *
+ * Entries are invalidated when a ContactSettingChangedEvent is received after commit. A value is loaded inside the
+ * cache's atomic compute, so an invalidation that races with a load waits for the load to finish and then removes the
+ * loaded value. Values are only stored when loaded outside of a transaction, as a value read within a transaction may
+ * come from a snapshot taken before a write that has since been committed (and invalidated).
+ *
+ * Hits, misses, evictions and load times are exposed as cache metrics tagged with the cache names
+ * 'contactSettingsById' and 'contactSettingsByPartyId'.
+ *
+ * The cache is disabled by default (invalidation is local to each instance), and is enabled by setting
+ * 'contactsettings.contact-setting-cache.enabled' to true.
+ */
+@Component
+@ConditionalOnProperty(name = "contactsettings.contact-setting-cache.enabled", havingValue = "true")
+public class ContactSettingCache {
+
+	static final String CACHE_NAME_BY_ID = "contactSettingsById";
+	static final String CACHE_NAME_BY_PARTY_ID = "contactSettingsByPartyId";
+
+	private final ContactSettingRepository contactSettingRepository;
+	private final Cache<Key, ContactSetting> byId;
+	private final Cache<Key, ContactSetting> byPartyId;
+
+	public ContactSettingCache(final ContactSettingRepository contactSettingRepository, final MeterRegistry meterRegistry,
+		@Value("${contactsettings.contact-setting-cache.maximum-size:10000}") final long maximumSize,
+		@Value("${contactsettings.contact-setting-cache.expire-after-write:5m}") final Duration expireAfterWrite) {
+		this.contactSettingRepository = contactSettingRepository;
+		this.byId = CaffeineCacheMetrics.monitor(meterRegistry, buildCache(maximumSize, expireAfterWrite), CACHE_NAME_BY_ID);
+		this.byPartyId = CaffeineCacheMetrics.monitor(meterRegistry, buildCache(maximumSize, expireAfterWrite), CACHE_NAME_BY_PARTY_ID);
+	}
+
+	/**
+	 * Find by municipalityId and id. The contact setting is loaded from the database if not cached.
+	 *
+	 * The returned ContactSetting is shared with other readers and must not be modified.
+	 *
+	 * @param  municipalityId of the ContactSetting.
+	 * @param  id             the id of the ContactSetting.
+	 * @return                an Optional of ContactSetting.
+	 */
+	public Optional<ContactSetting> findByMunicipalityIdAndId(final String municipalityId, final String id) {
+		return get(byId, new Key(municipalityId, id), () -> contactSettingRepository.findByMunicipalityIdAndId(municipalityId, id).map(ContactSettingMapper::toContactSetting));
+	}
+
+	/**
+	 * Find by municipalityId and partyId. The contact setting is loaded from the database if not cached.
+	 *
+	 * The returned ContactSetting is shared with other readers and must not be modified.
+	 *
+	 * @param  municipalityId of the ContactSetting.
+	 * @param  partyId        of the ContactSetting owner.
+	 * @return                an Optional of ContactSetting.
+	 */
+	public Optional<ContactSetting> findByMunicipalityIdAndPartyId(final String municipalityId, final String partyId) {
+		return get(byPartyId, new Key(municipalityId, partyId), () -> contactSettingRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId).map(ContactSettingMapper::toContactSetting));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onContactSettingChanged(final ContactSettingChangedEvent event) {
+		byId.invalidate(new Key(event.municipalityId(), event.id()));
+		if (nonNull(event.partyId())) {
+			byPartyId.invalidate(new Key(event.municipalityId(), event.partyId()));
+		}
+	}
+
+	private static Optional<ContactSetting> get(final Cache<Key, ContactSetting> cache, final Key key, final Supplier<Optional<ContactSetting>> loader) {
+		if (isActualTransactionActive()) {
+			return Optional.ofNullable(cache.getIfPresent(key)).or(loader);
+		}
+
+		// Returning null from the mapping function leaves the key absent, so non-existing contact settings are not cached.
+		return Optional.ofNullable(cache.get(key, ignored -> loader.get().orElse(null)));
+	}
+
+	private static Cache<Key, ContactSetting> buildCache(final long maximumSize, final Duration expireAfterWrite) {
+		return Caffeine.newBuilder()
+			.maximumSize(maximumSize)
+			.expireAfterWrite(expireAfterWrite)
+			.recordStats()
+			.build();
+	}
+
+	private record Key(String municipalityId, String value) {
+	}
+}
@@ -0,0 +1,178 @@
+package se.sundsvall.contactsettings.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.integration.db.model.listener.ContactSettingChangedEvent;
+import se.sundsvall.contactsettings.integration.db.model.listener.DelegateChangedEvent;
+import se.sundsvall.contactsettings.service.util.NormalizedQuery;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isActualTransactionActive;
+
+/**
+ * Bounded cache of resolved delegate chains, keyed by (municipalityId, partyId, normalised query). Two queries that only
+ * differ in attribute order, value order or value case share an entry.
+ *
+ * Every entry records the contact settings and delegates it depends on, i.e. the contact settings in the chain and every
+ * delegate whose filters were evaluated while resolving it. A ContactSettingChangedEvent or DelegateChangedEvent
+ * received after commit evicts exactly the entries that depend on the changed contact setting, delegate or principal
+ * (as a new delegate of a principal in a chain changes the chain).
+ *
+ * A generation counter makes sure that a chain resolved from data read before a change is never stored after the change
+ * has been committed. Chains resolved within a transaction are never stored, as they may have been read from a snapshot
+ * taken before a committed change.
+ *
+ * Hits, misses and evictions are exposed as cache metrics tagged with the cache name 'delegateChains'.
+ *
+ * The cache is disabled by default (invalidation is local to each instance), and is enabled by setting
+ * 'contactsettings.delegate-chain-cache.enabled' to true.
+ */
+@Component
+@ConditionalOnProperty(name = "contactsettings.delegate-chain-cache.enabled", havingValue = "true")
+public class DelegateChainCache {
+
+	static final String CACHE_NAME = "delegateChains";
+
+	private final Cache<Key, ResolvedContactSettings> cache;
+
+	// Guarded by this.
+	private final Map<String, Set<Key>> keysByContactSettingId = new HashMap<>();
+	private final Map<String, Set<Key>> keysByDelegateId = new HashMap<>();
+	private long generation;
+
+	public DelegateChainCache(final MeterRegistry meterRegistry,
+		@Value("${contactsettings.delegate-chain-cache.maximum-size:10000}") final long maximumSize,
+		@Value("${contactsettings.delegate-chain-cache.expire-after-write:5m}") final Duration expireAfterWrite) {
+		this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+			.maximumSize(maximumSize)
+			.expireAfterWrite(expireAfterWrite)
+			.recordStats()
+			.<Key, ResolvedContactSettings>removalListener((key, value, cause) -> unregister(key, value))
+			.build(), CACHE_NAME);
+	}
+
+	/**
+	 * Returns the contact settings of the delegate chain of a party. The chain is resolved with the provided resolver if
+	 * not cached.
+	 *
+	 * The returned ContactSettings are shared with other readers and must not be modified.
+	 *
+	 * @param  municipalityId the municipalityId of the party.
+	 * @param  partyId        the partyId of the root contact setting.
+	 * @param  inputQuery     the query to filter delegates by.
+	 * @param  resolver       resolves the chain on a cache miss. Exceptions are propagated and nothing is cached.
+	 * @return                the contact settings in the chain, root first and then in level order.
+	 */
+	public List<ContactSetting> get(final String municipalityId, final String partyId, final Map<String, List<String>> inputQuery, final Supplier<ResolvedContactSettings> resolver) {
+		final var key = new Key(municipalityId, partyId, NormalizedQuery.of(inputQuery));
+		final var cached = cache.getIfPresent(key);
+		if (nonNull(cached)) {
+			return cached.contactSettings();
+		}
+
+		final var expectedGeneration = generation();
+		final var resolved = resolver.get();
+		if (!isActualTransactionActive()) {
+			store(key, resolved, expectedGeneration);
+		}
+		return resolved.contactSettings();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onContactSettingChanged(final ContactSettingChangedEvent event) {
+		invalidate(keysByContactSettingId, event.id());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onDelegateChanged(final DelegateChangedEvent event) {
+		if (isNull(event.delegateId()) && isNull(event.principalId())) {
+			invalidateAll();
+			return;
+		}
+
+		invalidate(keysByDelegateId, event.delegateId());
+		invalidate(keysByContactSettingId, event.principalId());
+	}
+
+	private synchronized long generation() {
+		return generation;
+	}
+
+	private synchronized void store(final Key key, final ResolvedContactSettings resolved, final long expectedGeneration) {
+		// Only store the chain if nothing has been invalidated while it was resolved.
+		if (generation != expectedGeneration) {
+			return;
+		}
+
+		register(keysByContactSettingId, resolved.delegateChain().contactSettingIds(), key);
+		register(keysByDelegateId, resolved.delegateChain().delegateIds(), key);
+		cache.put(key, resolved);
+	}
+
+	private synchronized void invalidate(final Map<String, Set<Key>> keysById, final String id) {
+		generation++;
+		if (isNull(id)) {
+			return;
+		}
+
+		final var keys = keysById.remove(id);
+		if (nonNull(keys)) {
+			cache.invalidateAll(keys);
+		}
+	}
+
+	private synchronized void invalidateAll() {
+		generation++;
+		keysByContactSettingId.clear();
+		keysByDelegateId.clear();
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Called (asynchronously) when an entry has been removed from the cache, for any reason. Dependencies that are shared
+	 * with the value currently cached for the key (if any) are kept.
+	 */
+	private synchronized void unregister(final Key key, final ResolvedContactSettings value) {
+		if (isNull(key) || isNull(value)) {
+			return;
+		}
+
+		final var current = cache.asMap().get(key);
+		value.delegateChain().contactSettingIds().stream()
+			.filter(id -> isNull(current) || !current.delegateChain().contactSettingIds().contains(id))
+			.forEach(id -> unregister(keysByContactSettingId, id, key));
+		value.delegateChain().delegateIds().stream()
+			.filter(id -> isNull(current) || !current.delegateChain().delegateIds().contains(id))
+			.forEach(id -> unregister(keysByDelegateId, id, key));
+	}
+
+	private static void register(final Map<String, Set<Key>> keysById, final Collection<String> ids, final Key key) {
+		ids.forEach(id -> keysById.computeIfAbsent(id, ignored -> new HashSet<>()).add(key));
+	}
+
+	private static void unregister(final Map<String, Set<Key>> keysById, final String id, final Key key) {
+		keysById.computeIfPresent(id, (ignored, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		});
+	}
+
+	private record Key(String municipalityId, String partyId, NormalizedQuery query) {
+	}
+}
@@ -0,0 +1,14 @@
+package se.sundsvall.contactsettings.service.cache;
+
+import java.util.List;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.service.chain.DelegateChain;
+
+/**
+ * The contact settings of a resolved delegate chain, together with the chain they were resolved from.
+ *
+ * @param contactSettings the contact settings in the chain, root first and then in level order.
+ * @param delegateChain   the resolved chain, i.e. the contact settings and delegates the result depends on.
+ */
+public record ResolvedContactSettings(List<ContactSetting> contactSettings, DelegateChain delegateChain) {
+}
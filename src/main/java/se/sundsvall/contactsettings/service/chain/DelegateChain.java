@@ -0,0 +1,14 @@
+package se.sundsvall.contactsettings.service.chain;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A resolved delegate chain.
+ *
+ * @param contactSettingIds the ids of the contact settings in the chain, root first and then in level order.
+ * @param delegateIds       the ids of all delegates whose filters were evaluated while the chain was resolved, i.e. the
+ *                          delegates of every contact setting in the chain, whether they matched or not.
+ */
+public record DelegateChain(List<String> contactSettingIds, Set<String> delegateIds) {
+}
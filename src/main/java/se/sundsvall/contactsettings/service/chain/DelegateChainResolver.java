@@ -0,0 +1,205 @@
+package se.sundsvall.contactsettings.service.chain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.service.util.NormalizedQuery;
+
+import static java.util.Collections.emptyList;
+import static se.sundsvall.contactsettings.service.chain.DelegateEdge.groupByPrincipalId;
+import static se.sundsvall.contactsettings.service.util.FilterEvaluationUtils.evaluate;
+
+/**
+ * Resolves the contact settings that are reachable from a root contact setting via delegates whose filters match an
+ * input query.
+ *
+ * The chain is walked breadth-first. Delegates are either fetched all at once with a recursive query (default), or one
+ * level at a time with a single IN-query per level. The latter is used on databases where recursive queries are
+ * unavailable or slow, and is enabled by setting 'contactsettings.delegate-chain.recursive-query-enabled' to false.
+ *
+ * If the DelegateGraphIndex is enabled, delegates are read from the index instead, and the database is not queried at
+ * all when the index of the municipality is warm.
+ *
+ * Chains of several roots can be resolved at once (see {@link #resolveAll(String, Collection, Map)}), in which case
+ * delegates are fetched and their filters evaluated once, regardless of how many chains they are part of.
+ */
+@Component
+public class DelegateChainResolver {
+
+	private final DelegateRepository delegateRepository;
+	private final Optional<DelegateGraphIndex> delegateGraphIndex;
+	private final boolean recursiveQueryEnabled;
+
+	public DelegateChainResolver(final DelegateRepository delegateRepository, final Optional<DelegateGraphIndex> delegateGraphIndex,
+		@Value("${contactsettings.delegate-chain.recursive-query-enabled:true}") final boolean recursiveQueryEnabled) {
+		this.delegateRepository = delegateRepository;
+		this.delegateGraphIndex = delegateGraphIndex;
+		this.recursiveQueryEnabled = recursiveQueryEnabled;
+	}
+
+	/**
+	 * Resolves the ids of all contact settings in the delegate chain of the provided root.
+	 *
+	 * @param  municipalityId the municipalityId of the root contact setting.
+	 * @param  rootId         the id of the root contact setting.
+	 * @param  inputQuery     the query to evaluate against the delegate filters.
+	 * @return                the ids of the contact settings in the chain, root first and then in level order.
+	 */
+	public List<String> resolve(final String municipalityId, final String rootId, final Map<String, List<String>> inputQuery) {
+		return resolveChain(municipalityId, rootId, inputQuery).contactSettingIds();
+	}
+
+	/**
+	 * Resolves the delegate chain of the provided root, i.e. the ids of all contact settings in the chain together with the
+	 * ids of all delegates that were evaluated while walking it.
+	 *
+	 * @param  municipalityId the municipalityId of the root contact setting.
+	 * @param  rootId         the id of the root contact setting.
+	 * @param  inputQuery     the query to evaluate against the delegate filters.
+	 * @return                the resolved DelegateChain.
+	 */
+	public DelegateChain resolveChain(final String municipalityId, final String rootId, final Map<String, List<String>> inputQuery) {
+		final var query = NormalizedQuery.of(inputQuery); // Normalised once, and reused for every delegate in the chain.
+		final var edgeLoader = createEdgeLoader(municipalityId, rootId);
+
+		final var lookupRegistry = new LinkedHashSet<String>(); // Keeps track of visited contact settings (prevents circular references).
+		lookupRegistry.add(rootId);
+		final var delegateIds = new HashSet<String>();
+
+		var frontier = List.of(rootId);
+		while (!frontier.isEmpty()) {
+			final var edgesByPrincipalId = edgeLoader.apply(frontier);
+			final var nextFrontier = new ArrayList<String>();
+
+			for (final var principalId : frontier) {
+				for (final var edge : edgesByPrincipalId.getOrDefault(principalId, emptyList())) {
+					delegateIds.add(edge.delegateId());
+					if (evaluate(query, edge.filters()) && lookupRegistry.add(edge.agentId())) {
+						nextFrontier.add(edge.agentId());
+					}
+				}
+			}
+			frontier = nextFrontier;
+		}
+
+		return new DelegateChain(new ArrayList<>(lookupRegistry), delegateIds);
+	}
+
+	/**
+	 * Resolves the ids of all contact settings in the delegate chains of the provided roots.
+	 *
+	 * The delegates of all chains are fetched together, and the filters of each delegate are evaluated once (the outcome
+	 * only depends on the delegate and the query). Sub-trees shared between chains are therefore only fetched and
+	 * evaluated once, and then walked for each root.
+	 *
+	 * @param  municipalityId the municipalityId of the root contact settings.
+	 * @param  rootIds        the ids of the root contact settings.
+	 * @param  inputQuery     the query to evaluate against the delegate filters.
+	 * @return                a Map of root id to the ids of the contact settings in its chain (root first and then in level
+	 *                        order), in the order of the provided roots.
+	 */
+	public Map<String, List<String>> resolveAll(final String municipalityId, final Collection<String> rootIds, final Map<String, List<String>> inputQuery) {
+		final var query = NormalizedQuery.of(inputQuery);
+		final var matchingAgentIdsByPrincipalId = loadMatchingAgentIds(municipalityId, rootIds, query);
+
+		final var result = new LinkedHashMap<String, List<String>>();
+		for (final var rootId : rootIds) {
+			final var lookupRegistry = new LinkedHashSet<String>();
+			lookupRegistry.add(rootId);
+
+			var frontier = List.of(rootId);
+			while (!frontier.isEmpty()) {
+				final var nextFrontier = new ArrayList<String>();
+				for (final var principalId : frontier) {
+					for (final var agentId : matchingAgentIdsByPrincipalId.getOrDefault(principalId, emptyList())) {
+						if (lookupRegistry.add(agentId)) {
+							nextFrontier.add(agentId);
+						}
+					}
+				}
+				frontier = nextFrontier;
+			}
+			result.put(rootId, new ArrayList<>(lookupRegistry));
+		}
+		return result;
+	}
+
+	/**
+	 * Loads the delegates reachable from the roots and evaluates their filters, i.e. builds the graph of principal id to
+	 * the agent ids of its matching delegates (in delegate order).
+	 */
+	private Map<String, List<String>> loadMatchingAgentIds(final String municipalityId, final Collection<String> rootIds, final NormalizedQuery query) {
+		final var matchingAgentIdsByPrincipalId = new HashMap<String, List<String>>();
+		if (rootIds.isEmpty()) {
+			return matchingAgentIdsByPrincipalId;
+		}
+
+		if (delegateGraphIndex.isPresent() || recursiveQueryEnabled) {
+			final var edgesByPrincipalId = delegateGraphIndex.isPresent()
+				? delegateGraphIndex.get().getEdgesByPrincipalId(municipalityId)
+				: groupByPrincipalId(delegateRepository.findDelegateChainByRootPrincipalIdIn(rootIds));
+
+			// Evaluate lazily, so that only delegates that are reachable via matching delegates are evaluated.
+			final var pending = new ArrayList<>(new LinkedHashSet<>(rootIds));
+			while (!pending.isEmpty()) {
+				final var principalId = pending.removeLast();
+				if (!matchingAgentIdsByPrincipalId.containsKey(principalId)) {
+					final var agentIds = matchingAgentIds(edgesByPrincipalId.getOrDefault(principalId, emptyList()), query);
+					matchingAgentIdsByPrincipalId.put(principalId, agentIds);
+					pending.addAll(agentIds);
+				}
+			}
+			return matchingAgentIdsByPrincipalId;
+		}
+
+		// Level-batched: one query per level, for the principals of all chains that are not yet loaded.
+		final var loaded = new HashSet<String>();
+		List<String> frontier = new ArrayList<>(new LinkedHashSet<>(rootIds));
+		while (!frontier.isEmpty()) {
+			loaded.addAll(frontier);
+			final var edgesByPrincipalId = groupByPrincipalId(delegateRepository.findDelegateChainByPrincipalIdIn(frontier));
+			final var nextFrontier = new LinkedHashSet<String>();
+			for (final var principalId : frontier) {
+				final var agentIds = matchingAgentIds(edgesByPrincipalId.getOrDefault(principalId, emptyList()), query);
+				matchingAgentIdsByPrincipalId.put(principalId, agentIds);
+				agentIds.stream().filter(agentId -> !loaded.contains(agentId)).forEach(nextFrontier::add);
+			}
+			frontier = new ArrayList<>(nextFrontier);
+		}
+		return matchingAgentIdsByPrincipalId;
+	}
+
+	private static List<String> matchingAgentIds(final List<DelegateEdge> edges, final NormalizedQuery query) {
+		return edges.stream()
+			.filter(edge -> evaluate(query, edge.filters()))
+			.map(DelegateEdge::agentId)
+			.toList();
+	}
+
+	private Function<Collection<String>, Map<String, List<DelegateEdge>>> createEdgeLoader(final String municipalityId, final String rootId) {
+		if (delegateGraphIndex.isPresent()) {
+			final var edgesByPrincipalId = delegateGraphIndex.get().getEdgesByPrincipalId(municipalityId);
+			return principalIds -> edgesByPrincipalId;
+		}
+		return recursiveQueryEnabled ? prefetchingEdgeLoader(rootId) : levelBatchedEdgeLoader();
+	}
+
+	private Function<Collection<String>, Map<String, List<DelegateEdge>>> prefetchingEdgeLoader(final String rootId) {
+		final var edgesByPrincipalId = groupByPrincipalId(delegateRepository.findDelegateChainByRootPrincipalId(rootId));
+		return principalIds -> edgesByPrincipalId;
+	}
+
+	private Function<Collection<String>, Map<String, List<DelegateEdge>>> levelBatchedEdgeLoader() {
+		return principalIds -> groupByPrincipalId(delegateRepository.findDelegateChainByPrincipalIdIn(principalIds));
+	}
+}
@@ -0,0 +1,34 @@
+package se.sundsvall.contactsettings.service.chain;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import se.sundsvall.contactsettings.integration.db.model.DelegateChainRow;
+import se.sundsvall.contactsettings.service.util.CompiledDelegateFilters;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static se.sundsvall.contactsettings.service.mapper.DelegateMapper.toDelegateEntityList;
+
+/**
+ * A delegate in a delegate chain, i.e. an edge from a principal to an agent, with its filters compiled.
+ *
+ * @param delegateId  the id of the delegate.
+ * @param principalId the contactSettingsId of the principal (delegate owner).
+ * @param agentId     the contactSettingsId of the agent.
+ * @param filters     the compiled filters of the delegate.
+ */
+public record DelegateEdge(String delegateId, String principalId, String agentId, CompiledDelegateFilters filters) {
+
+	/**
+	 * Converts delegate chain rows into edges, grouped by principal id.
+	 *
+	 * @param  delegateChainRows the rows to convert.
+	 * @return                   a Map of principal id to edges, in the order of the rows.
+	 */
+	public static Map<String, List<DelegateEdge>> groupByPrincipalId(final List<DelegateChainRow> delegateChainRows) {
+		return toDelegateEntityList(delegateChainRows).stream()
+			.map(delegate -> new DelegateEdge(delegate.getId(), delegate.getPrincipal().getId(), delegate.getAgent().getId(), CompiledDelegateFilters.compile(delegate.getFilters())))
+			.collect(groupingBy(DelegateEdge::principalId, LinkedHashMap::new, toList()));
+	}
+}
@@ -0,0 +1,104 @@
+package se.sundsvall.contactsettings.service.chain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.listener.DelegateGraphChangedEvent;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.isNull;
+import static se.sundsvall.contactsettings.service.chain.DelegateEdge.groupByPrincipalId;
+
+/**
+ * In-memory adjacency index of the delegate graph (principalId -> edges with compiled filters), built lazily per
+ * municipality.
+ *
+ * An index is dropped when a DelegateGraphChangedEvent for its municipality is received after commit, and is rebuilt on
+ * the next read. A generation counter per municipality makes sure that an index built from data read before a change
+ * is never stored after the change has been committed.
+ *
+ * The index is disabled by default, and is enabled by setting 'contactsettings.delegate-graph-index.enabled' to true.
+ */
+@Component
+@ConditionalOnProperty(name = "contactsettings.delegate-graph-index.enabled", havingValue = "true")
+public class DelegateGraphIndex {
+
+	static final String METRIC_PREFIX = "contactsettings.delegate.graph.index";
+
+	private final DelegateRepository delegateRepository;
+	private final Map<String, Map<String, List<DelegateEdge>>> indexByMunicipalityId = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> generationByMunicipalityId = new ConcurrentHashMap<>();
+	private final Counter hits;
+	private final Counter misses;
+
+	public DelegateGraphIndex(final DelegateRepository delegateRepository, final MeterRegistry meterRegistry) {
+		this.delegateRepository = delegateRepository;
+		this.hits = Counter.builder(METRIC_PREFIX + ".requests").tag("result", "hit").register(meterRegistry);
+		this.misses = Counter.builder(METRIC_PREFIX + ".requests").tag("result", "miss").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".municipalities", indexByMunicipalityId, Map::size).register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".edges", this, DelegateGraphIndex::edgeCount).register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".rules", this, DelegateGraphIndex::ruleCount).register(meterRegistry);
+	}
+
+	/**
+	 * Returns the delegate edges of the provided municipality, grouped by principal id. The index is built if not present.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @return                an unmodifiable Map of principal id to edges, in order of delegate creation.
+	 */
+	public Map<String, List<DelegateEdge>> getEdgesByPrincipalId(final String municipalityId) {
+		final var index = indexByMunicipalityId.get(municipalityId);
+		if (index != null) {
+			hits.increment();
+			return index;
+		}
+
+		misses.increment();
+		final var generation = generation(municipalityId);
+		final var expectedGeneration = generation.get();
+		final var builtIndex = unmodifiableMap(groupByPrincipalId(delegateRepository.findDelegateGraphByMunicipalityId(municipalityId)));
+
+		// Only store the built index if no change has been committed while it was built.
+		indexByMunicipalityId.compute(municipalityId, (key, existing) -> generation.get() == expectedGeneration ? builtIndex : existing);
+		return builtIndex;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onDelegateGraphChanged(final DelegateGraphChangedEvent event) {
+		if (isNull(event.municipalityId())) {
+			generationByMunicipalityId.values().forEach(AtomicLong::incrementAndGet);
+			indexByMunicipalityId.clear();
+			return;
+		}
+
+		generation(event.municipalityId()).incrementAndGet();
+		indexByMunicipalityId.remove(event.municipalityId());
+	}
+
+	private AtomicLong generation(final String municipalityId) {
+		return generationByMunicipalityId.computeIfAbsent(municipalityId, key -> new AtomicLong());
+	}
+
+	private long edgeCount() {
+		return indexByMunicipalityId.values().stream()
+			.flatMap(index -> index.values().stream())
+			.mapToLong(List::size)
+			.sum();
+	}
+
+	private long ruleCount() {
+		return indexByMunicipalityId.values().stream()
+			.flatMap(index -> index.values().stream())
+			.flatMap(List::stream)
+			.mapToLong(edge -> edge.filters().ruleCount())
+			.sum();
+	}
+}
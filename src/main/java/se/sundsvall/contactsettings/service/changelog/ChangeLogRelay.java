@@ -0,0 +1,70 @@
+package se.sundsvall.contactsettings.service.changelog;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.contactsettings.integration.db.ChangeLogRepository;
+import se.sundsvall.contactsettings.integration.db.ChangeLogSequenceRepository;
+import se.sundsvall.contactsettings.integration.db.model.ChangeLogSequenceEntity;
+
+import static org.springframework.transaction.annotation.Isolation.READ_COMMITTED;
+import static se.sundsvall.contactsettings.integration.db.model.ChangeLogSequenceEntity.ID;
+
+/**
+ * Assigns sequence numbers to the change log in the background, in commit order.
+ *
+ * The changes are inserted (in the transactions of the changes) without a sequence number, as an auto increment id is
+ * assigned when a row is inserted, while the row becomes visible when its transaction commits, which may be in another
+ * order. Each run locks the single row of the change log sequence, reads at most 'batch-size' committed changes without
+ * a sequence number, and numbers them from the last assigned sequence number. The lock is held until the run commits,
+ * so runs (also on other instances) never interleave, and a change is always assigned a higher sequence number than
+ * every change that was visible to consumers before it. The changes are read with READ_COMMITTED, so that a run sees
+ * every change committed before it acquired the lock.
+ *
+ * The relay is enabled by default, and is disabled by setting 'contactsettings.change-log.relay.enabled' to false (the
+ * changes are then not served until it is enabled again).
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "contactsettings.change-log.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeLogRelay {
+
+	private final ChangeLogRepository changeLogRepository;
+	private final ChangeLogSequenceRepository changeLogSequenceRepository;
+	private final int batchSize;
+
+	public ChangeLogRelay(final ChangeLogRepository changeLogRepository, final ChangeLogSequenceRepository changeLogSequenceRepository,
+		@Value("${contactsettings.change-log.relay.batch-size:1000}") final int batchSize) {
+		this.changeLogRepository = changeLogRepository;
+		this.changeLogSequenceRepository = changeLogSequenceRepository;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Assigns sequence numbers to one batch of committed changes.
+	 *
+	 * @return the number of changes that were assigned a sequence number.
+	 */
+	@Scheduled(initialDelayString = "${contactsettings.change-log.relay.fixed-delay:PT1S}", fixedDelayString = "${contactsettings.change-log.relay.fixed-delay:PT1S}")
+	@Transactional(isolation = READ_COMMITTED)
+	public int relay() {
+		// The row is created by the migration. Should it be missing, concurrent runs that create it fail on the primary key,
+		// and are retried by the next run.
+		final var sequence = changeLogSequenceRepository.findForUpdateById(ID)
+			.orElseGet(() -> changeLogSequenceRepository.saveAndFlush(ChangeLogSequenceEntity.create().withId(ID).withLastSequence(0L)));
+
+		final var changes = changeLogRepository.findUnsequenced(Limit.of(batchSize));
+		var lastSequence = sequence.getLastSequence();
+		for (final var change : changes) {
+			change.setSequence(++lastSequence);
+		}
+		sequence.setLastSequence(lastSequence);
+
+		// The updates are sent as JDBC batches when the transaction commits.
+		return changes.size();
+	}
+}
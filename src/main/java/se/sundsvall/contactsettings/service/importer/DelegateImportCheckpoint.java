@@ -0,0 +1,57 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * How far an import file has been imported, i.e. the last line of the last committed batch, and whether the whole file
+ * has been imported. Stored as a properties file next to the import file, and replaced atomically, so that an
+ * interrupted import is resumed after the last committed batch.
+ */
+record DelegateImportCheckpoint(long line, boolean completed) {
+
+	static final DelegateImportCheckpoint START = new DelegateImportCheckpoint(0, false);
+
+	private static final String LINE = "line";
+	private static final String COMPLETED = "completed";
+
+	static Path of(final Path file) {
+		return file.resolveSibling(file.getFileName() + ".checkpoint");
+	}
+
+	static DelegateImportCheckpoint read(final Path checkpointFile) {
+		if (!Files.exists(checkpointFile)) {
+			return START;
+		}
+
+		final var properties = new Properties();
+		try (final var reader = Files.newBufferedReader(checkpointFile)) {
+			properties.load(reader);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return new DelegateImportCheckpoint(Long.parseLong(properties.getProperty(LINE, "0")), Boolean.parseBoolean(properties.getProperty(COMPLETED)));
+	}
+
+	void write(final Path checkpointFile) {
+		final var properties = new Properties();
+		properties.setProperty(LINE, String.valueOf(line));
+		properties.setProperty(COMPLETED, String.valueOf(completed));
+
+		final var temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+		try {
+			try (final var writer = Files.newBufferedWriter(temporaryFile)) {
+				properties.store(writer, null);
+			}
+			Files.move(temporaryFile, checkpointFile, REPLACE_EXISTING, ATOMIC_MOVE);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
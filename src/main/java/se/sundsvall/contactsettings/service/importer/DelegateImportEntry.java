@@ -0,0 +1,7 @@
+package se.sundsvall.contactsettings.service.importer;
+
+/**
+ * A delegate read from an import file, with the lines it was read from. The record is null, and the error set, when
+ * the lines could not be parsed.
+ */
+record DelegateImportEntry(long firstLine, long lastLine, DelegateImportRecord record, String error) {}
@@ -0,0 +1,33 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import java.nio.file.Path;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * The supported formats of a delegate import file, given by the extension of the file.
+ */
+enum DelegateImportFormat {
+
+	/**
+	 * One delegate (with its filters and rules) per line, as a JSON object. Extension '.ndjson' or '.jsonl'.
+	 */
+	NDJSON,
+
+	/**
+	 * One rule per row, with a header row. Consecutive rows of the same principal and agent make up one delegate, and
+	 * consecutive rows of the same filter alias and channel make up one filter. Extension '.csv'.
+	 */
+	CSV;
+
+	static DelegateImportFormat fromPath(final Path file) {
+		final var name = file.getFileName().toString().toLowerCase(ROOT);
+		if (name.endsWith(".csv")) {
+			return CSV;
+		}
+		if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+			return NDJSON;
+		}
+		throw new IllegalArgumentException("Unsupported delegate import file: '%s' (expected .csv, .ndjson or .jsonl)".formatted(file));
+	}
+}
@@ -0,0 +1,145 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Locale.ROOT;
+import static java.util.Objects.isNull;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.IMPORTED;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.INVALID;
+
+/**
+ * Imports delegates (with their filters and rules), e.g. when migrating from another system, from an NDJSON or CSV
+ * file on local disk (see {@link DelegateImportFormat} and {@link DelegateImportReader} for the formats).
+ *
+ * The file is streamed, and imported in batches of 'batch-size' delegates, each in its own transaction (see
+ * {@link DelegateImporter}). After each batch, the last imported line is written to a checkpoint file next to the
+ * import file ('&lt;file&gt;.checkpoint'), so that an import that is interrupted (e.g. by a restart) is resumed after
+ * the last committed batch by the next run. When the whole file has been imported, the checkpoint is marked as
+ * completed, and the file is not imported again until the checkpoint file is removed.
+ *
+ * In a dry-run, the delegates are validated and resolved, and the outcomes counted and logged, but nothing is written,
+ * not even the checkpoint. Each delegate that is not imported is logged with its line and the reason.
+ *
+ * The number of imported delegates (tagged with outcome and dryRun) are exposed as the metric
+ * 'contactsettings.delegate.import.records'.
+ *
+ * The job is disabled by default, and is enabled by setting 'contactsettings.delegate-import.enabled' to true. It
+ * should only be enabled on one instance at a time.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "contactsettings.delegate-import.enabled", havingValue = "true")
+public class DelegateImportJob {
+
+	static final String METRIC_PREFIX = "contactsettings.delegate.import";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DelegateImportJob.class);
+
+	private final DelegateImporter delegateImporter;
+	private final JsonMapper jsonMapper;
+	private final MeterRegistry meterRegistry;
+	private final Path file;
+	private final String municipalityId;
+	private final boolean dryRun;
+	private final int batchSize;
+	private boolean dryRunCompleted;
+
+	public DelegateImportJob(final DelegateImporter delegateImporter, final JsonMapper jsonMapper, final MeterRegistry meterRegistry,
+		@Value("${contactsettings.delegate-import.file}") final Path file,
+		@Value("${contactsettings.delegate-import.municipality-id}") final String municipalityId,
+		@Value("${contactsettings.delegate-import.dry-run:false}") final boolean dryRun,
+		@Value("${contactsettings.delegate-import.batch-size:500}") final int batchSize) {
+		this.delegateImporter = delegateImporter;
+		this.jsonMapper = jsonMapper;
+		this.meterRegistry = meterRegistry;
+		this.file = file;
+		this.municipalityId = municipalityId;
+		this.dryRun = dryRun;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Imports the (rest of the) file, unless it does not exist or has already been imported.
+	 *
+	 * @return the number of delegates per outcome, imported by this run.
+	 */
+	@Scheduled(initialDelayString = "${contactsettings.delegate-import.fixed-delay:PT1M}", fixedDelayString = "${contactsettings.delegate-import.fixed-delay:PT1M}")
+	public Map<DelegateImportOutcome, Long> run() {
+		if (!Files.isRegularFile(file) || dryRunCompleted) {
+			return emptyMap();
+		}
+
+		final var checkpointFile = DelegateImportCheckpoint.of(file);
+		final var checkpoint = dryRun ? DelegateImportCheckpoint.START : DelegateImportCheckpoint.read(checkpointFile);
+		if (checkpoint.completed()) {
+			return emptyMap();
+		}
+
+		LOGGER.info("Importing delegates from {} (municipalityId: {}, dry-run: {}), starting after line {}", file, municipalityId, dryRun, checkpoint.line());
+		final var counts = new EnumMap<DelegateImportOutcome, Long>(DelegateImportOutcome.class);
+		var lastLine = checkpoint.line();
+		try (final var reader = DelegateImportReader.open(file, DelegateImportFormat.fromPath(file), jsonMapper, checkpoint.line())) {
+			final var batch = new ArrayList<DelegateImportEntry>(batchSize);
+			while (reader.hasNext()) {
+				batch.add(reader.next());
+				if (batch.size() == batchSize) {
+					lastLine = importBatch(batch, counts, checkpointFile);
+				}
+			}
+			lastLine = batch.isEmpty() ? lastLine : importBatch(batch, counts, checkpointFile);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		if (dryRun) {
+			dryRunCompleted = true;
+		} else {
+			new DelegateImportCheckpoint(lastLine, true).write(checkpointFile);
+		}
+		LOGGER.info("Imported delegates from {} (dry-run: {}): {}", file, dryRun, counts);
+		return counts;
+	}
+
+	private long importBatch(final List<DelegateImportEntry> batch, final Map<DelegateImportOutcome, Long> counts, final Path checkpointFile) {
+		final var parsed = batch.stream().filter(entry -> isNull(entry.error())).toList();
+		final var results = delegateImporter.importDelegates(municipalityId, parsed.stream().map(DelegateImportEntry::record).toList(), dryRun).iterator();
+
+		batch.forEach(entry -> {
+			final var result = isNull(entry.error()) ? results.next() : new DelegateImportResult(INVALID, entry.error());
+			if (result.outcome() != IMPORTED) {
+				LOGGER.warn("Delegate on line {} of {} was not imported ({}): {}", entry.firstLine(), file, result.outcome(), result.detail());
+			}
+			counts.merge(result.outcome(), 1L, Long::sum);
+			Counter.builder(METRIC_PREFIX + ".records")
+				.tag("outcome", result.outcome().name().toLowerCase(ROOT))
+				.tag("dryRun", String.valueOf(dryRun))
+				.register(meterRegistry)
+				.increment();
+		});
+
+		final var lastLine = batch.getLast().lastLine();
+		if (!dryRun) {
+			new DelegateImportCheckpoint(lastLine, false).write(checkpointFile);
+		}
+		batch.clear();
+		return lastLine;
+	}
+}
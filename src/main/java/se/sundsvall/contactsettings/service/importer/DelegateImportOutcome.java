@@ -0,0 +1,27 @@
+package se.sundsvall.contactsettings.service.importer;
+
+/**
+ * The outcome of one imported delegate.
+ */
+enum DelegateImportOutcome {
+
+	/**
+	 * The delegate was created (or, in a dry-run, would have been created).
+	 */
+	IMPORTED,
+
+	/**
+	 * A delegate with the same principal and agent already exists, or occurs earlier in the file.
+	 */
+	DUPLICATE,
+
+	/**
+	 * The principal or the agent could not be found in the municipality.
+	 */
+	UNRESOLVED,
+
+	/**
+	 * The delegate could not be parsed, or is not valid.
+	 */
+	INVALID
+}
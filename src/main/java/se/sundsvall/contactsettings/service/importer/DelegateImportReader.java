@@ -0,0 +1,273 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import se.sundsvall.contactsettings.api.model.Filter;
+import se.sundsvall.contactsettings.api.model.Rule;
+import se.sundsvall.contactsettings.api.model.enums.Operator;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.StringUtils.trimToNull;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportFormat.CSV;
+
+/**
+ * Streams the delegates of an import file one at a time, so that the file is never read into memory as a whole.
+ *
+ * Blank lines, and all lines up to and including 'skipToLine' (i.e. the lines of a checkpoint), are skipped. The
+ * header row of a CSV file names its columns, in any order: 'principalId' or 'principalPartyId', 'agentId' or
+ * 'agentPartyId', 'attributeName', 'operator' and 'attributeValue', and optionally 'filterAlias' and 'filterChannel'.
+ * Fields may be quoted with double quotes, but may not span lines.
+ */
+final class DelegateImportReader implements Iterator<DelegateImportEntry>, Closeable {
+
+	static final String PRINCIPAL_ID = "principalId";
+	static final String PRINCIPAL_PARTY_ID = "principalPartyId";
+	static final String AGENT_ID = "agentId";
+	static final String AGENT_PARTY_ID = "agentPartyId";
+	static final String FILTER_ALIAS = "filterAlias";
+	static final String FILTER_CHANNEL = "filterChannel";
+	static final String ATTRIBUTE_NAME = "attributeName";
+	static final String OPERATOR = "operator";
+	static final String ATTRIBUTE_VALUE = "attributeValue";
+
+	private final BufferedReader reader;
+	private final DelegateImportFormat format;
+	private final JsonMapper jsonMapper;
+	private final long skipToLine;
+	private final Map<String, Integer> columns = new HashMap<>();
+	private long lineNumber;
+	private Row pendingRow;
+	private DelegateImportEntry nextEntry;
+
+	private DelegateImportReader(final BufferedReader reader, final DelegateImportFormat format, final JsonMapper jsonMapper, final long skipToLine) {
+		this.reader = reader;
+		this.format = format;
+		this.jsonMapper = jsonMapper;
+		this.skipToLine = skipToLine;
+	}
+
+	static DelegateImportReader open(final Path file, final DelegateImportFormat format, final JsonMapper jsonMapper, final long skipToLine) {
+		try {
+			final var importReader = new DelegateImportReader(Files.newBufferedReader(file), format, jsonMapper, skipToLine);
+			if (format == CSV) {
+				importReader.readHeader();
+			}
+			return importReader;
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (isNull(nextEntry)) {
+			try {
+				nextEntry = format == CSV ? readCsvEntry() : readNdjsonEntry();
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return nonNull(nextEntry);
+	}
+
+	@Override
+	public DelegateImportEntry next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final var entry = nextEntry;
+		nextEntry = null;
+		return entry;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private void readHeader() throws IOException {
+		final var header = reader.readLine();
+		if (isNull(header)) {
+			return; // Empty file.
+		}
+		lineNumber++;
+
+		final var names = split(header);
+		for (var index = 0; index < names.size(); index++) {
+			columns.put(names.get(index).strip(), index);
+		}
+		if (!(columns.containsKey(PRINCIPAL_ID) || columns.containsKey(PRINCIPAL_PARTY_ID)) || !(columns.containsKey(AGENT_ID) || columns.containsKey(AGENT_PARTY_ID))
+			|| !columns.containsKey(ATTRIBUTE_NAME) || !columns.containsKey(OPERATOR) || !columns.containsKey(ATTRIBUTE_VALUE)) {
+			throw new IllegalArgumentException("Invalid header of delegate import file: '%s'".formatted(header));
+		}
+	}
+
+	private DelegateImportEntry readNdjsonEntry() throws IOException {
+		final var line = readLine();
+		if (isNull(line)) {
+			return null;
+		}
+
+		try {
+			return new DelegateImportEntry(lineNumber, lineNumber, jsonMapper.readValue(line, DelegateImportRecord.class), null);
+		} catch (final JacksonException e) {
+			return new DelegateImportEntry(lineNumber, lineNumber, null, e.getOriginalMessage());
+		}
+	}
+
+	private DelegateImportEntry readCsvEntry() throws IOException {
+		var row = nonNull(pendingRow) ? pendingRow : readRow();
+		pendingRow = null;
+		if (isNull(row)) {
+			return null;
+		}
+		if (nonNull(row.error())) {
+			return new DelegateImportEntry(row.line(), row.line(), null, row.error());
+		}
+
+		// Collect the consecutive rows of the same delegate, with one filter per consecutive alias and channel.
+		final var first = row;
+		final var filters = new ArrayList<Filter>();
+		String error = null;
+		List<String> filterKey = null;
+		var lastLine = row.line();
+		while (nonNull(row) && isNull(row.error()) && row.delegateKey().equals(first.delegateKey())) {
+			if (!row.filterKey().equals(filterKey)) {
+				filterKey = row.filterKey();
+				filters.add(Filter.create()
+					.withAlias(row.value(FILTER_ALIAS))
+					.withChannel(row.value(FILTER_CHANNEL))
+					.withRules(new ArrayList<>()));
+			}
+
+			try {
+				filters.getLast().getRules().add(Rule.create()
+					.withAttributeName(row.value(ATTRIBUTE_NAME))
+					.withOperator(isNull(row.value(OPERATOR)) ? null : Operator.toEnum(row.value(OPERATOR)))
+					.withAttributeValue(row.value(ATTRIBUTE_VALUE)));
+			} catch (final ThrowableProblem e) {
+				error = isNull(error) ? "line %d: %s".formatted(row.line(), e.getDetail()) : error;
+			}
+
+			lastLine = row.line();
+			row = readRow();
+		}
+		pendingRow = row;
+
+		if (nonNull(error)) {
+			return new DelegateImportEntry(first.line(), lastLine, null, error);
+		}
+		return new DelegateImportEntry(first.line(), lastLine,
+			new DelegateImportRecord(first.value(PRINCIPAL_ID), first.value(PRINCIPAL_PARTY_ID), first.value(AGENT_ID), first.value(AGENT_PARTY_ID), filters), null);
+	}
+
+	private Row readRow() throws IOException {
+		final var line = readLine();
+		if (isNull(line)) {
+			return null;
+		}
+
+		try {
+			return new Row(lineNumber, split(line), null);
+		} catch (final IllegalArgumentException e) {
+			return new Row(lineNumber, List.of(), e.getMessage());
+		}
+	}
+
+	private String readLine() throws IOException {
+		String line;
+		do {
+			line = reader.readLine();
+			if (isNull(line)) {
+				return null;
+			}
+			lineNumber++;
+		} while (line.isBlank() || lineNumber <= skipToLine);
+		return line;
+	}
+
+	/**
+	 * Splits a CSV line into its fields. A field may be quoted with double quotes, and a double quote within a quoted
+	 * field is escaped by another double quote.
+	 */
+	static List<String> split(final String line) {
+		final var fields = new ArrayList<String>();
+		final var field = new StringBuilder();
+		var quoted = false;
+		var index = 0;
+		while (index < line.length()) {
+			final var character = line.charAt(index++);
+			if (quoted && character == '"') {
+				if (index < line.length() && line.charAt(index) == '"') {
+					field.append('"');
+					index++;
+				} else {
+					quoted = false;
+				}
+			} else if (quoted) {
+				field.append(character);
+			} else if (character == '"') {
+				quoted = true;
+			} else if (character == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(character);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("Unterminated quoted field: '%s'".formatted(line));
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private final class Row {
+
+		private final long line;
+		private final List<String> values;
+		private final String error;
+
+		private Row(final long line, final List<String> values, final String error) {
+			this.line = line;
+			this.values = values;
+			this.error = error;
+		}
+
+		long line() {
+			return line;
+		}
+
+		String error() {
+			return error;
+		}
+
+		String value(final String column) {
+			final var index = columns.get(column);
+			return isNull(index) || index >= values.size() ? null : trimToNull(values.get(index));
+		}
+
+		List<String> delegateKey() {
+			return Arrays.asList(value(PRINCIPAL_ID), value(PRINCIPAL_PARTY_ID), value(AGENT_ID), value(AGENT_PARTY_ID));
+		}
+
+		List<String> filterKey() {
+			return Arrays.asList(value(FILTER_ALIAS), value(FILTER_CHANNEL));
+		}
+	}
+}
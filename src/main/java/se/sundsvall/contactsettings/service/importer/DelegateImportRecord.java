@@ -0,0 +1,32 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import se.sundsvall.contactsettings.api.model.Filter;
+import se.sundsvall.dept44.common.validators.annotation.ValidUuid;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A delegate to import, i.e. one line of an NDJSON file or a group of consecutive rows of a CSV file. The principal
+ * and the agent are each referenced either by the id of their contact setting or by their partyId.
+ */
+record DelegateImportRecord(
+	@ValidUuid(nullable = true) String principalId,
+	@ValidUuid(nullable = true) String principalPartyId,
+	@ValidUuid(nullable = true) String agentId,
+	@ValidUuid(nullable = true) String agentPartyId,
+	@NotEmpty List<@Valid Filter> filters) {
+
+	@AssertTrue(message = "exactly one of principalId and principalPartyId must be set")
+	boolean isPrincipalReferenced() {
+		return isNull(principalId) != isNull(principalPartyId);
+	}
+
+	@AssertTrue(message = "exactly one of agentId and agentPartyId must be set")
+	boolean isAgentReferenced() {
+		return isNull(agentId) != isNull(agentPartyId);
+	}
+}
@@ -0,0 +1,11 @@
+package se.sundsvall.contactsettings.service.importer;
+
+/**
+ * The outcome of one imported delegate, with the reason when it was not imported.
+ */
+record DelegateImportResult(DelegateImportOutcome outcome, String detail) {
+
+	static DelegateImportResult imported() {
+		return new DelegateImportResult(DelegateImportOutcome.IMPORTED, null);
+	}
+}
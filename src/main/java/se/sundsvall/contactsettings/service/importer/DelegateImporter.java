@@ -0,0 +1,223 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.contactsettings.api.model.DelegateCreateRequest;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingIdentity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.service.ChangeLogService;
+import se.sundsvall.contactsettings.service.mapper.DelegateMapper;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.integration.db.model.DelegateEntity.UNIQUE_PRINCIPAL_ID_AGENT_ID;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_AGENT_BY_PARTY_ID_NOT_FOUND;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_AGENT_NOT_FOUND;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_DELEGATE_ALREADY_EXIST;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_PRINCIPAL_BY_PARTY_ID_NOT_FOUND;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_PRINCIPAL_NOT_FOUND;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.DUPLICATE;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.INVALID;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.UNRESOLVED;
+
+/**
+ * Imports one batch of delegates (with their filters and rules) in one transaction.
+ *
+ * The principals and agents of the whole batch are resolved with one query per kind of reference (contact setting id
+ * or partyId), and the existing delegates of the resolved principals with one more query. The delegates are then
+ * inserted with JDBC batching when the batch is flushed. If the batch violates the (principal, agent) unique constraint
+ * (i.e. a delegate was created concurrently), the batch is rolled back and imported one delegate at a time instead, so
+ * that only the affected delegates are reported as duplicates.
+ *
+ * In a dry-run, the batch is validated and resolved in a read-only transaction, but nothing is written.
+ */
+@Component
+public class DelegateImporter {
+
+	private final ContactSettingRepository contactSettingRepository;
+	private final DelegateRepository delegateRepository;
+	private final ChangeLogService changeLogService;
+	private final Validator validator;
+	private final TransactionTemplate transactionTemplate;
+	private final TransactionTemplate readOnlyTransactionTemplate;
+
+	public DelegateImporter(final ContactSettingRepository contactSettingRepository, final DelegateRepository delegateRepository, final ChangeLogService changeLogService,
+		final Validator validator, final PlatformTransactionManager transactionManager) {
+		this.contactSettingRepository = contactSettingRepository;
+		this.delegateRepository = delegateRepository;
+		this.changeLogService = changeLogService;
+		this.validator = validator;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+		this.readOnlyTransactionTemplate.setReadOnly(true);
+	}
+
+	/**
+	 * Imports a batch of delegates.
+	 *
+	 * @param  municipalityId of the principals and agents.
+	 * @param  records        the delegates to import.
+	 * @param  dryRun         whether the delegates only should be validated and resolved, but not written.
+	 * @return                the result of each delegate, in the order of the records.
+	 */
+	List<DelegateImportResult> importDelegates(final String municipalityId, final List<DelegateImportRecord> records, final boolean dryRun) {
+		if (dryRun) {
+			return readOnlyTransactionTemplate.execute(status -> importInTransaction(municipalityId, records, false));
+		}
+
+		try {
+			return transactionTemplate.execute(status -> importInTransaction(municipalityId, records, true));
+		} catch (final DataIntegrityViolationException e) {
+			if (!isDelegateViolation(e)) {
+				throw e;
+			}
+
+			// Import the delegates of the batch one at a time, so that only the duplicates fail.
+			return records.stream()
+				.map(delegateRecord -> importOne(municipalityId, delegateRecord))
+				.toList();
+		}
+	}
+
+	private DelegateImportResult importOne(final String municipalityId, final DelegateImportRecord delegateRecord) {
+		try {
+			return transactionTemplate.execute(status -> importInTransaction(municipalityId, List.of(delegateRecord), true)).getFirst();
+		} catch (final DataIntegrityViolationException e) {
+			if (!isDelegateViolation(e)) {
+				throw e;
+			}
+			return new DelegateImportResult(DUPLICATE, ERROR_MESSAGE_DELEGATE_ALREADY_EXIST);
+		}
+	}
+
+	private List<DelegateImportResult> importInTransaction(final String municipalityId, final List<DelegateImportRecord> records, final boolean write) {
+		final var results = new ArrayList<DelegateImportResult>(records.size());
+		final var valid = new ArrayList<DelegateImportRecord>();
+		records.forEach(delegateRecord -> {
+			final var violations = validator.validate(delegateRecord);
+			if (violations.isEmpty()) {
+				valid.add(delegateRecord);
+			}
+			results.add(violations.isEmpty() ? null : new DelegateImportResult(INVALID, toDetail(violations)));
+		});
+
+		// Resolve the principals and agents of all delegates in (at most) two round-trips.
+		final var ids = valid.stream()
+			.flatMap(delegateRecord -> Stream.of(delegateRecord.principalId(), delegateRecord.agentId()))
+			.filter(Objects::nonNull)
+			.collect(toSet());
+		final var partyIds = valid.stream()
+			.flatMap(delegateRecord -> Stream.of(delegateRecord.principalPartyId(), delegateRecord.agentPartyId()))
+			.filter(Objects::nonNull)
+			.collect(toSet());
+		final Set<String> existingIds = ids.isEmpty() ? Set.of()
+			: contactSettingRepository.findIdentitiesByMunicipalityIdAndIdIn(municipalityId, ids).stream()
+				.map(ContactSettingIdentity::getId)
+				.collect(toSet());
+		final Map<String, String> idsByPartyId = partyIds.isEmpty() ? Map.of()
+			: contactSettingRepository.findIdentitiesByMunicipalityIdAndPartyIdIn(municipalityId, partyIds).stream()
+				.collect(toMap(ContactSettingIdentity::getPartyId, ContactSettingIdentity::getId));
+
+		final var principalIds = new ArrayList<String>(records.size());
+		final var agentIds = new ArrayList<String>(records.size());
+		for (var index = 0; index < records.size(); index++) {
+			final var delegateRecord = records.get(index);
+			final var isValid = isNull(results.get(index));
+			principalIds.add(isValid ? resolve(delegateRecord.principalId(), delegateRecord.principalPartyId(), existingIds, idsByPartyId) : null);
+			agentIds.add(isValid ? resolve(delegateRecord.agentId(), delegateRecord.agentPartyId(), existingIds, idsByPartyId) : null);
+		}
+
+		// Fetch the existing delegates of all resolved principals in one round-trip.
+		final var resolvedPrincipalIds = principalIds.stream().filter(Objects::nonNull).collect(toSet());
+		final var existingDelegates = new HashSet<List<String>>();
+		if (!resolvedPrincipalIds.isEmpty()) {
+			delegateRepository.findSummariesByPrincipalIdIn(resolvedPrincipalIds)
+				.forEach(summary -> existingDelegates.add(List.of(summary.getPrincipalId(), summary.getAgentId())));
+		}
+
+		final var entities = new ArrayList<DelegateEntity>();
+		for (var index = 0; index < records.size(); index++) {
+			if (nonNull(results.get(index))) {
+				continue; // Invalid.
+			}
+
+			final var delegateRecord = records.get(index);
+			final var principalId = principalIds.get(index);
+			final var agentId = agentIds.get(index);
+			if (isNull(principalId)) {
+				results.set(index, new DelegateImportResult(UNRESOLVED, isNull(delegateRecord.principalId())
+					? ERROR_MESSAGE_PRINCIPAL_BY_PARTY_ID_NOT_FOUND.formatted(delegateRecord.principalPartyId())
+					: ERROR_MESSAGE_PRINCIPAL_NOT_FOUND.formatted(delegateRecord.principalId())));
+			} else if (isNull(agentId)) {
+				results.set(index, new DelegateImportResult(UNRESOLVED, isNull(delegateRecord.agentId())
+					? ERROR_MESSAGE_AGENT_BY_PARTY_ID_NOT_FOUND.formatted(delegateRecord.agentPartyId())
+					: ERROR_MESSAGE_AGENT_NOT_FOUND.formatted(delegateRecord.agentId())));
+			} else if (!existingDelegates.add(List.of(principalId, agentId))) {
+				results.set(index, new DelegateImportResult(DUPLICATE, ERROR_MESSAGE_DELEGATE_ALREADY_EXIST));
+			} else {
+				entities.add(toDelegateEntity(municipalityId, principalId, agentId, delegateRecord));
+				results.set(index, DelegateImportResult.imported());
+			}
+		}
+
+		// The delegates, filters and rules are sent as JDBC batches when the batch is flushed. The delegates of the batch are
+		// recorded in the change log with one statement.
+		if (write) {
+			delegateRepository.saveAll(entities);
+			delegateRepository.flush();
+			changeLogService.recordDelegateChanges(entities.stream().map(DelegateEntity::getId).toList(), CREATED);
+		}
+		return results;
+	}
+
+	/**
+	 * The principal and agent are only references by id, and are not loaded. Their municipality is set all the same, so
+	 * that the entity listener publishes a DelegateGraphChangedEvent for this municipality only, instead of one for all
+	 * municipalities.
+	 */
+	private static DelegateEntity toDelegateEntity(final String municipalityId, final String principalId, final String agentId, final DelegateImportRecord delegateRecord) {
+		final var entity = DelegateMapper.toDelegateEntity(DelegateCreateRequest.create()
+			.withPrincipalId(principalId)
+			.withAgentId(agentId)
+			.withFilters(delegateRecord.filters()));
+		entity.getPrincipal().setMunicipalityId(municipalityId);
+		entity.getAgent().setMunicipalityId(municipalityId);
+		return entity;
+	}
+
+	private static String resolve(final String id, final String partyId, final Set<String> existingIds, final Map<String, String> idsByPartyId) {
+		if (isNull(id)) {
+			return idsByPartyId.get(partyId);
+		}
+		return existingIds.contains(id) ? id : null;
+	}
+
+	private static String toDetail(final Set<ConstraintViolation<DelegateImportRecord>> violations) {
+		return violations.stream()
+			.map(violation -> "%s: %s".formatted(violation.getPropertyPath(), violation.getMessage()))
+			.sorted()
+			.collect(joining(", "));
+	}
+
+	private static boolean isDelegateViolation(final DataIntegrityViolationException e) {
+		return containsIgnoreCase(e.getMostSpecificCause().getMessage(), UNIQUE_PRINCIPAL_ID_AGENT_ID);
+	}
+}
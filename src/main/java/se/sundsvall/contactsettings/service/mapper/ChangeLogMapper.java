@@ -0,0 +1,37 @@
+package se.sundsvall.contactsettings.service.mapper;
+
+import java.util.List;
+import java.util.Optional;
+import se.sundsvall.contactsettings.api.model.Change;
+import se.sundsvall.contactsettings.api.model.enums.ChangeEntityType;
+import se.sundsvall.contactsettings.api.model.enums.ChangeOperation;
+import se.sundsvall.contactsettings.integration.db.model.ChangeLogEntity;
+
+import static java.util.Collections.emptyList;
+
+public final class ChangeLogMapper {
+
+	private ChangeLogMapper() {}
+
+	/*
+	 * From DB-model to API-model.
+	 */
+
+	public static List<Change> toChanges(final List<ChangeLogEntity> changeLogEntities) {
+		return Optional.ofNullable(changeLogEntities).orElse(emptyList()).stream()
+			.map(ChangeLogMapper::toChange)
+			.toList();
+	}
+
+	public static Change toChange(final ChangeLogEntity changeLogEntity) {
+		return Optional.ofNullable(changeLogEntity)
+			.map(entity -> Change.create()
+				.withSequence(entity.getSequence())
+				.withEntityType(Optional.ofNullable(entity.getEntityType()).map(ChangeEntityType::valueOf).orElse(null))
+				.withEntityId(entity.getEntityId())
+				.withDelegateId(entity.getDelegateId())
+				.withOperation(Optional.ofNullable(entity.getOperation()).map(ChangeOperation::valueOf).orElse(null))
+				.withCreated(entity.getCreated()))
+			.orElse(null);
+	}
+}
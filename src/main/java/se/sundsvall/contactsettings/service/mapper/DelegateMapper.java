@@ -1,6 +1,8 @@
 package se.sundsvall.contactsettings.service.mapper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
 import se.sundsvall.contactsettings.api.model.Delegate;
@@ -8,12 +10,19 @@ import se.sundsvall.contactsettings.api.model.DelegateCreateRequest;
 import se.sundsvall.contactsettings.api.model.Filter;
 import se.sundsvall.contactsettings.api.model.Rule;
 import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateChainRow;
 import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateExportRow;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.contactsettings.integration.db.model.DelegateSummary;
 
 import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.ObjectUtils.anyNotNull;
 import static se.sundsvall.contactsettings.api.model.enums.Operator.toEnum;
 
 public final class DelegateMapper {
@@ -72,6 +81,45 @@ public final class DelegateMapper {
 			.toList());
 	}
 
+	/*
+	 * From DB-projection to DB-model.
+	 */
+
+	public static List<DelegateEntity> toDelegateEntityList(final List<DelegateChainRow> delegateChainRowList) {
+		final var delegateEntities = new LinkedHashMap<String, DelegateEntity>();
+		final var delegateFilterEntities = new HashMap<String, DelegateFilterEntity>();
+
+		Optional.ofNullable(delegateChainRowList).orElse(emptyList()).forEach(row -> {
+			final var delegateEntity = delegateEntities.computeIfAbsent(row.getDelegateId(), delegateId -> DelegateEntity.create()
+				.withId(delegateId)
+				.withPrincipal(ContactSettingEntity.create().withId(row.getPrincipalId()))
+				.withAgent(ContactSettingEntity.create().withId(row.getAgentId()))
+				.withFilters(emptyList()));
+
+			if (isNull(row.getFilterId())) {
+				return; // Delegate without filters.
+			}
+
+			final var delegateFilterEntity = delegateFilterEntities.computeIfAbsent(row.getFilterId(), filterId -> {
+				final var filterEntity = DelegateFilterEntity.create()
+					.withId(filterId)
+					.withDelegateId(row.getDelegateId())
+					.withFilterRules(emptyList());
+				delegateEntity.getFilters().add(filterEntity);
+				return filterEntity;
+			});
+
+			if (anyNotNull(row.getAttributeName(), row.getAttributeValue(), row.getOperator())) {
+				delegateFilterEntity.getFilterRules().add(DelegateFilterRule.create()
+					.withAttributeName(row.getAttributeName())
+					.withAttributeValue(row.getAttributeValue())
+					.withOperator(row.getOperator()));
+			}
+		});
+
+		return new ArrayList<>(delegateEntities.values());
+	}
+
 	/*
 	 * From DB-model to API-model.
 	 */
@@ -82,6 +130,29 @@ public final class DelegateMapper {
 			.toList());
 	}
 
+	/**
+	 * Maps delegate summaries and the filters of the delegates to Delegates. Each filter is added to the delegate it
+	 * belongs to, in the order of the provided filter list.
+	 *
+	 * @param  delegateSummaryList      the delegates.
+	 * @param  delegateFilterEntityList the filters of the delegates.
+	 * @return                          a List of Delegate objects, in the order of the provided delegates.
+	 */
+	public static List<Delegate> toDelegateList(final List<DelegateSummary> delegateSummaryList, final List<DelegateFilterEntity> delegateFilterEntityList) {
+		final var filtersByDelegateId = Optional.ofNullable(delegateFilterEntityList).orElse(emptyList()).stream()
+			.collect(groupingBy(DelegateFilterEntity::getDelegateId, mapping(DelegateMapper::toFilter, toList())));
+
+		return new ArrayList<>(Optional.ofNullable(delegateSummaryList).orElse(emptyList()).stream()
+			.map(summary -> Delegate.create()
+				.withAgentId(summary.getAgentId())
+				.withCreated(summary.getCreated())
+				.withFilters(filtersByDelegateId.getOrDefault(summary.getId(), emptyList()))
+				.withId(summary.getId())
+				.withModified(summary.getModified())
+				.withPrincipalId(summary.getPrincipalId()))
+			.toList());
+	}
+
 	public static Delegate toDelegate(final DelegateEntity delegateEntity) {
 		return Optional.ofNullable(delegateEntity)
 			.map(entity -> Delegate.create()
@@ -112,6 +183,55 @@ public final class DelegateMapper {
 			.orElse(null);
 	}
 
+	/*
+	 * From DB-projection to API-model.
+	 */
+
+	/**
+	 * Maps the delegate columns of an export row to a Delegate, with an empty (mutable) list of filters.
+	 *
+	 * @param  delegateExportRow the row.
+	 * @return                   a Delegate object.
+	 */
+	public static Delegate toDelegate(final DelegateExportRow delegateExportRow) {
+		return Delegate.create()
+			.withAgentId(delegateExportRow.getAgentId())
+			.withCreated(delegateExportRow.getCreated())
+			.withFilters(new ArrayList<>())
+			.withId(delegateExportRow.getDelegateId())
+			.withModified(delegateExportRow.getModified())
+			.withPrincipalId(delegateExportRow.getPrincipalId());
+	}
+
+	/**
+	 * Maps the filter columns of an export row to a Filter, with an empty (mutable) list of rules.
+	 *
+	 * @param  delegateExportRow the row.
+	 * @return                   a Filter object.
+	 */
+	public static Filter toFilter(final DelegateExportRow delegateExportRow) {
+		return Filter.create()
+			.withAlias(delegateExportRow.getFilterAlias())
+			.withChannel(delegateExportRow.getFilterChannel())
+			.withCreated(delegateExportRow.getFilterCreated())
+			.withId(delegateExportRow.getFilterId())
+			.withModified(delegateExportRow.getFilterModified())
+			.withRules(new ArrayList<>());
+	}
+
+	/**
+	 * Maps the rule columns of an export row to a Rule.
+	 *
+	 * @param  delegateExportRow the row.
+	 * @return                   a Rule object.
+	 */
+	public static Rule toRule(final DelegateExportRow delegateExportRow) {
+		return Rule.create()
+			.withAttributeName(delegateExportRow.getAttributeName())
+			.withAttributeValue(delegateExportRow.getAttributeValue())
+			.withOperator(toEnum(delegateExportRow.getOperator()));
+	}
+
 	private static List<Rule> toRuleList(final List<DelegateFilterRule> filterRuleList) {
 		return Optional.ofNullable(filterRuleList).orElse(emptyList()).stream()
 			.map(delegateFilterRule -> Rule.create()
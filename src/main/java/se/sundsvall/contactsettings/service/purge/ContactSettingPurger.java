@@ -0,0 +1,87 @@
+package se.sundsvall.contactsettings.service.purge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+
+/**
+ * Removes tombstoned contact settings (i.e. contact settings that have been deleted while the purger is enabled) in the
+ * background.
+ *
+ * Each run removes at most 'batch-size' tombstoned contact settings, oldest first. The delegates of a batch (where any
+ * of its contact settings is principal or agent) are deleted first, at most 'delegate-batch-size' per statement, and
+ * then the contact settings. Filters, rules and channels are removed by the database. Every statement runs in its own
+ * transaction, so a run that fails is resumed by the next run.
+ *
+ * No change events are published, as the change events (and change log entries) of the contact settings and their
+ * delegates are published when they are tombstoned. From then on, the contact settings, and the delegates and filters
+ * where any of them is principal or agent, are excluded from the reads of the API (lookups, searches, delegate chains
+ * and the export).
+ *
+ * The number of purged contact settings and delegates, and the number of tombstoned contact settings still waiting to
+ * be purged, are exposed as the metrics 'contactsettings.contact.setting.purge.purged' (tagged with type) and
+ * 'contactsettings.contact.setting.purge.pending'.
+ *
+ * The purger is disabled by default, and is enabled by setting 'contactsettings.contact-setting-purge.enabled' to true.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "contactsettings.contact-setting-purge.enabled", havingValue = "true")
+public class ContactSettingPurger {
+
+	static final String METRIC_PREFIX = "contactsettings.contact.setting.purge";
+
+	private final ContactSettingRepository contactSettingRepository;
+	private final DelegateRepository delegateRepository;
+	private final int batchSize;
+	private final int delegateBatchSize;
+	private final Counter purgedContactSettings;
+	private final Counter purgedDelegates;
+	private final AtomicLong pending = new AtomicLong();
+
+	public ContactSettingPurger(final ContactSettingRepository contactSettingRepository, final DelegateRepository delegateRepository, final MeterRegistry meterRegistry,
+		@Value("${contactsettings.contact-setting-purge.batch-size:100}") final int batchSize,
+		@Value("${contactsettings.contact-setting-purge.delegate-batch-size:1000}") final int delegateBatchSize) {
+		this.contactSettingRepository = contactSettingRepository;
+		this.delegateRepository = delegateRepository;
+		this.batchSize = batchSize;
+		this.delegateBatchSize = delegateBatchSize;
+		this.purgedContactSettings = Counter.builder(METRIC_PREFIX + ".purged").tag("type", "contactSetting").register(meterRegistry);
+		this.purgedDelegates = Counter.builder(METRIC_PREFIX + ".purged").tag("type", "delegate").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".pending", pending, AtomicLong::get).register(meterRegistry);
+	}
+
+	/**
+	 * Removes one batch of tombstoned contact settings, together with their delegates.
+	 *
+	 * @return the number of removed contact settings.
+	 */
+	@Scheduled(initialDelayString = "${contactsettings.contact-setting-purge.fixed-delay:PT10S}", fixedDelayString = "${contactsettings.contact-setting-purge.fixed-delay:PT10S}")
+	public int purge() {
+		final var ids = contactSettingRepository.findTombstonedIds(batchSize);
+		if (ids.isEmpty()) {
+			pending.set(0);
+			return 0;
+		}
+
+		// Delete the delegates in bounded statements, until a statement deletes less than a full batch.
+		int deletedDelegates;
+		do {
+			deletedDelegates = delegateRepository.deleteByPrincipalIdInOrAgentIdIn(ids, delegateBatchSize);
+			purgedDelegates.increment(deletedDelegates);
+		} while (deletedDelegates == delegateBatchSize);
+
+		final var deletedContactSettings = contactSettingRepository.deleteTombstonedByIdIn(ids);
+		purgedContactSettings.increment(deletedContactSettings);
+		pending.set(contactSettingRepository.countTombstoned());
+		return deletedContactSettings;
+	}
+}
@@ -0,0 +1,148 @@
+package se.sundsvall.contactsettings.service.util;
+
+import java.util.List;
+import java.util.Optional;
+import se.sundsvall.contactsettings.api.model.enums.Operator;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+
+import static java.util.Objects.isNull;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
+
+/**
+ * Pre-compiled representation of the filters of a delegate.
+ *
+ * Operators are resolved, match-all rules are flagged, attribute names are interned and attribute values are case-folded
+ * once, when the filters are compiled. Evaluation against a NormalizedQuery then only walks arrays and does constant
+ * time lookups, and does not allocate. An invalid operator is kept as is and is reported
+ * (with the same problem as Operator.toEnum) first when the rule is evaluated, as evaluation short-circuits.
+ *
+ * Instances are immutable and safe to share between threads.
+ */
+public final class CompiledDelegateFilters {
+
+	private static final DelegateFilterRule MATCH_ALL_RULE = DelegateFilterRule.create()
+		.withAttributeName("*")
+		.withAttributeValue("*")
+		.withOperator(EQUALS.toString());
+
+	private static final CompiledDelegateFilters NO_FILTERS = new CompiledDelegateFilters(new CompiledFilter[0]);
+
+	private final CompiledFilter[] filters;
+
+	private CompiledDelegateFilters(final CompiledFilter[] filters) {
+		this.filters = filters;
+	}
+
+	/**
+	 * Compiles a list of DelegateFilter:s.
+	 *
+	 * @param  delegateFilterEntityList the list of the defined filters.
+	 * @return                          the compiled filters.
+	 */
+	public static CompiledDelegateFilters compile(final List<DelegateFilterEntity> delegateFilterEntityList) {
+		if (isEmpty(delegateFilterEntityList)) {
+			return NO_FILTERS;
+		}
+
+		return new CompiledDelegateFilters(delegateFilterEntityList.stream()
+			.map(CompiledDelegateFilters::compile)
+			.toArray(CompiledFilter[]::new));
+	}
+
+	/**
+	 * Evaluates the inputQuery against the compiled filters.
+	 *
+	 * At least one filter must evaluate to true, for the entire evaluation to be true (OR-condition). All rules in a
+	 * filter must evaluate to true, for the filter to evaluate to true (AND-condition). A filter without rules never
+	 * matches. If there are no filters, this method will evaluate to true.
+	 *
+	 * @param  query the normalised input query.
+	 * @return       whether the filters match the query or not.
+	 */
+	public boolean matches(final NormalizedQuery query) {
+		if (filters.length == 0) {
+			return true;
+		}
+
+		for (final var filter : filters) {
+			if (matches(query, filter)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the total number of rules in the compiled filters.
+	 */
+	public int ruleCount() {
+		var count = 0;
+		for (final var filter : filters) {
+			count += filter.rules().length;
+		}
+		return count;
+	}
+
+	private static boolean matches(final NormalizedQuery query, final CompiledFilter filter) {
+		if (filter.rules().length == 0) {
+			return false; // If no rules exist, then there will be no match.
+		}
+
+		for (final var rule : filter.rules()) {
+			if (!matches(query, rule)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean matches(final NormalizedQuery query, final CompiledRule rule) {
+		// An unresolved operator is invalid, and Operator.toEnum will throw a problem describing it.
+		final var operator = isNull(rule.operator()) ? Operator.toEnum(rule.rawOperator()) : rule.operator();
+
+		return switch (operator) {
+			case EQUALS -> equalsEvaluation(query, rule);
+			case NOT_EQUALS -> !equalsEvaluation(query, rule);
+		};
+	}
+
+	private static boolean equalsEvaluation(final NormalizedQuery query, final CompiledRule rule) {
+		return rule.matchAll() || query.contains(rule.attributeName(), rule.foldedAttributeValue());
+	}
+
+	private static CompiledFilter compile(final DelegateFilterEntity delegateFilterEntity) {
+		if (isEmpty(delegateFilterEntity.getFilterRules())) {
+			return new CompiledFilter(new CompiledRule[0]);
+		}
+
+		return new CompiledFilter(delegateFilterEntity.getFilterRules().stream()
+			.map(CompiledDelegateFilters::compile)
+			.toArray(CompiledRule[]::new));
+	}
+
+	private static CompiledRule compile(final DelegateFilterRule rule) {
+		return new CompiledRule(
+			Optional.ofNullable(rule.getAttributeName()).map(String::intern).orElse(null),
+			NormalizedQuery.fold(rule.getAttributeValue()),
+			resolveOperator(rule.getOperator()),
+			rule.getOperator(),
+			MATCH_ALL_RULE.equals(rule));
+	}
+
+	private static Operator resolveOperator(final String operator) {
+		for (final var value : Operator.values()) {
+			if (value.name().equalsIgnoreCase(operator)) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	private record CompiledFilter(CompiledRule[] rules) {
+	}
+
+	private record CompiledRule(String attributeName, String foldedAttributeValue, Operator operator, String rawOperator, boolean matchAll) {
+	}
+}
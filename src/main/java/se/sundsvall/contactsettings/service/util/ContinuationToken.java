@@ -0,0 +1,76 @@
+package se.sundsvall.contactsettings.service.util;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.dept44.problem.Problem;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_INVALID_CONTINUATION_TOKEN;
+
+/**
+ * The position of the last contact setting of a page. The children of a contact setting are paged in (created, id)
+ * order, and the destination search in id order (which only uses the id).
+ *
+ * The next page is fetched by seeking past this position, which makes every page as cheap as the first. The token is
+ * handed to clients as an opaque, URL-safe string.
+ *
+ * @param created the created timestamp of the last contact setting of the page.
+ * @param id      the id of the last contact setting of the page.
+ */
+public record ContinuationToken(OffsetDateTime created, String id) {
+
+	private static final String SEPARATOR = "|";
+
+	/**
+	 * Creates a token positioned at the provided contact setting.
+	 *
+	 * @param  contactSettingEntity the last contact setting of a page.
+	 * @return                      the token.
+	 */
+	public static ContinuationToken of(final ContactSettingEntity contactSettingEntity) {
+		return new ContinuationToken(contactSettingEntity.getCreated(), contactSettingEntity.getId());
+	}
+
+	/**
+	 * Decodes a token. An invalid token results in a BAD_REQUEST problem.
+	 *
+	 * @param  token the encoded token (may be null or blank).
+	 * @return       the decoded token, or null if no token was provided.
+	 */
+	public static ContinuationToken decode(final String token) {
+		if (isBlank(token)) {
+			return null;
+		}
+
+		try {
+			final var decoded = new String(Base64.getUrlDecoder().decode(token), UTF_8);
+			final var separatorIndex = decoded.indexOf(SEPARATOR);
+			final var created = Instant.parse(decoded.substring(0, separatorIndex));
+			final var id = decoded.substring(separatorIndex + 1);
+			if (isBlank(id)) {
+				throw new IllegalArgumentException("Missing id");
+			}
+			return new ContinuationToken(OffsetDateTime.ofInstant(created, ZoneId.systemDefault()), id);
+		} catch (final RuntimeException e) {
+			throw Problem.valueOf(BAD_REQUEST, ERROR_MESSAGE_INVALID_CONTINUATION_TOKEN.formatted(token));
+		}
+	}
+
+	/**
+	 * Encodes the token.
+	 *
+	 * @return the encoded token, or null if the position is incomplete.
+	 */
+	public String encode() {
+		if (isNull(created) || isNull(id)) {
+			return null;
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString((created.toInstant() + SEPARATOR + id).getBytes(UTF_8));
+	}
+}
@@ -2,76 +2,39 @@ package se.sundsvall.contactsettings.service.util;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
-import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
-
-import static java.util.Collections.emptyList;
-import static java.util.Collections.emptyMap;
-import static org.apache.commons.collections4.CollectionUtils.isEmpty;
-import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
-import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
-import static se.sundsvall.contactsettings.api.model.enums.Operator.toEnum;
 
 public final class FilterEvaluationUtils {
 
-	private static final DelegateFilterRule MATCH_ALL_RULE = DelegateFilterRule.create()
-		.withAttributeName("*")
-		.withAttributeValue("*")
-		.withOperator(EQUALS.toString());
-
 	private FilterEvaluationUtils() {}
 
 	/**
 	 * Evaluates the inputQuery against a list of DelegateFilter:s.
 	 * At least one filter in the filter list must evaluate to true, for the entire evaluation to be true (OR-condition).
+	 * All rules in a filter must evaluate to true, for the filter to evaluate to true (AND-condition).
 	 *
 	 * If delegateFilterEntityList is null or empty, this method will evaluate to true.
 	 *
+	 * The query is normalised and the filters are compiled on every call. Use
+	 * {@link #evaluate(NormalizedQuery, CompiledDelegateFilters)} when the same query or filters are evaluated repeatedly.
+	 *
 	 * @param  inputQuery               the input query.
 	 * @param  delegateFilterEntityList the list of the defined filters.
 	 * @return                          whether the filter matches the query or not.
 	 */
 	public static boolean evaluate(final Map<String, List<String>> inputQuery, List<DelegateFilterEntity> delegateFilterEntityList) {
-		if (isEmpty(delegateFilterEntityList)) {
-			return true;
-		}
-
-		return delegateFilterEntityList.stream()
-			.anyMatch(delegateFilterEntity -> evaluate(Optional.ofNullable(inputQuery).orElse(emptyMap()), delegateFilterEntity));
+		return evaluate(NormalizedQuery.of(inputQuery), CompiledDelegateFilters.compile(delegateFilterEntityList));
 	}
 
 	/**
-	 * Evaluates the inputQuery against the rules in a single DelegateFilter.
-	 *
-	 * All rules in the filter must evaluate to true, for the entire evaluation to be true (AND-condition).
+	 * Evaluates a normalised query against pre-compiled DelegateFilter:s, with the same semantics as
+	 * {@link #evaluate(Map, List)}.
 	 *
-	 * @param  inputQuery           the input query.
-	 * @param  delegateFilterEntity the defined filter entity.
-	 * @return                      whether the filter matches the query or not.
+	 * @param  query           the normalised input query.
+	 * @param  compiledFilters the compiled filters.
+	 * @return                 whether the filter matches the query or not.
 	 */
-	private static boolean evaluate(final Map<String, List<String>> inputQuery, DelegateFilterEntity delegateFilterEntity) {
-		if (isEmpty(delegateFilterEntity.getFilterRules())) {
-			return false; // If no rules exist, then there will be no match.
-		}
-
-		return Optional.ofNullable(delegateFilterEntity.getFilterRules()).orElse(emptyList()).stream()
-			.allMatch(rule -> switch (toEnum(rule.getOperator()))
-			{
-				case EQUALS -> equalsEvaluation(inputQuery, rule);
-				case NOT_EQUALS -> !equalsEvaluation(inputQuery, rule);
-			});
-	}
-
-	private static boolean equalsEvaluation(Map<String, List<String>> inputQuery, DelegateFilterRule rule) {
-		if (isMatchAllRule(rule)) {
-			return true;
-		}
-		return Optional.ofNullable(inputQuery.get(rule.getAttributeName())).orElse(emptyList()).stream()
-			.anyMatch(queryStringValue -> equalsIgnoreCase(queryStringValue, rule.getAttributeValue()));
-	}
-
-	private static boolean isMatchAllRule(DelegateFilterRule rule) {
-		return MATCH_ALL_RULE.equals(rule);
+	public static boolean evaluate(final NormalizedQuery query, CompiledDelegateFilters compiledFilters) {
+		return compiledFilters.matches(query);
 	}
 }
@@ -0,0 +1,100 @@
+package se.sundsvall.contactsettings.service.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Objects.isNull;
+
+/**
+ * An input query, normalised once so that it can be evaluated against any number of filter rules.
+ *
+ * The values of each attribute are case-folded into a Set, which makes a case-insensitive equals check of a rule value
+ * a constant time lookup. Folding maps each code point to Character.toLowerCase(Character.toUpperCase(codePoint)), which
+ * gives the same result as String.equalsIgnoreCase when comparing two folded values.
+ *
+ * Instances are immutable and safe to share between threads. Two instances are equal if they contain the same folded
+ * values for the same attributes, regardless of the order and case of the input, which makes them usable as cache keys.
+ */
+public final class NormalizedQuery {
+
+	private static final NormalizedQuery EMPTY = new NormalizedQuery(emptyMap());
+
+	private final Map<String, Set<String>> foldedValuesByAttributeName;
+
+	private NormalizedQuery(final Map<String, Set<String>> foldedValuesByAttributeName) {
+		this.foldedValuesByAttributeName = foldedValuesByAttributeName;
+	}
+
+	/**
+	 * Normalises an input query.
+	 *
+	 * @param  inputQuery the input query (attribute name -> values). Null is treated as an empty query.
+	 * @return            the normalised query.
+	 */
+	public static NormalizedQuery of(final Map<String, List<String>> inputQuery) {
+		if (isNull(inputQuery) || inputQuery.isEmpty()) {
+			return EMPTY;
+		}
+
+		final var foldedValuesByAttributeName = HashMap.<String, Set<String>>newHashMap(inputQuery.size());
+		inputQuery.forEach((attributeName, values) -> {
+			if (isNull(values)) {
+				return;
+			}
+			final var foldedValues = HashSet.<String>newHashSet(values.size());
+			values.forEach(value -> foldedValues.add(fold(value)));
+			foldedValuesByAttributeName.put(attributeName, foldedValues);
+		});
+		return new NormalizedQuery(foldedValuesByAttributeName);
+	}
+
+	/**
+	 * Checks if the query contains a value for the attribute that is equal to the provided (already folded) value.
+	 *
+	 * @param  attributeName the attribute name (case-sensitive).
+	 * @param  foldedValue   the value to look for, folded with {@link #fold(String)}.
+	 * @return               true if the query contains the value for the attribute, false otherwise.
+	 */
+	public boolean contains(final String attributeName, final String foldedValue) {
+		final var foldedValues = foldedValuesByAttributeName.get(attributeName);
+		return !isNull(foldedValues) && foldedValues.contains(foldedValue);
+	}
+
+	/**
+	 * Case-folds a value.
+	 *
+	 * @param  value the value to fold (may be null).
+	 * @return       the folded value, or null if the value is null.
+	 */
+	public static String fold(final String value) {
+		if (isNull(value)) {
+			return null;
+		}
+
+		final var builder = new StringBuilder(value.length());
+		value.codePoints().forEach(codePoint -> builder.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint))));
+		return builder.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(foldedValuesByAttributeName);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) { return true; }
+		if (!(obj instanceof final NormalizedQuery other)) { return false; }
+		return Objects.equals(foldedValuesByAttributeName, other.foldedValuesByAttributeName);
+	}
+
+	@Override
+	public String toString() {
+		return "NormalizedQuery [foldedValuesByAttributeName=" + foldedValuesByAttributeName + "]";
+	}
+}
@@ -0,0 +1,3 @@
+-- InnoDB appends the primary key (id) to every secondary index, so this index also serves the (created, id) order.
+create index contact_setting_municipality_id_created_by_id_created_index
+   on contact_setting (municipality_id, created_by_id, created);
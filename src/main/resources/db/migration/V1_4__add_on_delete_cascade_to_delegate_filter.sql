@@ -0,0 +1,18 @@
+-- Let the database remove the filters (and their rules) of a delegate, so that a delegate can be deleted with one statement.
+alter table if exists delegate_filter_rule
+   drop foreign key fk_delegate_filter_delegate_filter_rule;
+
+alter table if exists delegate_filter_rule
+   add constraint fk_delegate_filter_delegate_filter_rule
+   foreign key (delegate_filter_id)
+   references delegate_filter (id)
+   on delete cascade;
+
+alter table if exists delegate_filter
+   drop foreign key fk_delegate_id_delegate_filter_delegate_id;
+
+alter table if exists delegate_filter
+   add constraint fk_delegate_id_delegate_filter_delegate_id
+   foreign key (delegate_id)
+   references delegate (id)
+   on delete cascade;
@@ -0,0 +1,9 @@
+-- Let the database remove the channels of a contact setting, so that contact settings can be deleted with bulk statements.
+alter table if exists contact_setting_channel
+   drop foreign key fk_contact_setting_contact_setting_channel;
+
+alter table if exists contact_setting_channel
+   add constraint fk_contact_setting_contact_setting_channel
+   foreign key (contact_setting_id)
+   references contact_setting (id)
+   on delete cascade;
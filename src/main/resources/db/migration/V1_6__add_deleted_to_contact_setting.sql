@@ -0,0 +1,6 @@
+-- Tombstone of contact settings that have been deleted, but not yet removed by the contact setting purger.
+alter table if exists contact_setting
+   add column deleted datetime(6) AFTER modified;
+
+create index contact_setting_deleted_index
+   on contact_setting (deleted);
@@ -0,0 +1,65 @@
+-- Store all ids with the UUID data type (MariaDB 10.7 or later), i.e. as 16 bytes instead of up to 255 characters.
+-- This shrinks the primary keys, and thereby every secondary index (as InnoDB appends the primary key to each of them),
+-- and the foreign key columns that delegate chain resolution joins on. Ids are still read and written in their string
+-- form. The migration fails if any existing id is not a valid UUID.
+alter table if exists contact_setting_channel
+   drop foreign key fk_contact_setting_contact_setting_channel;
+
+alter table if exists delegate
+   drop foreign key fk_delegate_agent_id_contact_setting_id;
+
+alter table if exists delegate
+   drop foreign key fk_delegate_principal_id_contact_setting_id;
+
+alter table if exists delegate_filter
+   drop foreign key fk_delegate_id_delegate_filter_delegate_id;
+
+alter table if exists delegate_filter_rule
+   drop foreign key fk_delegate_filter_delegate_filter_rule;
+
+alter table if exists contact_setting
+   modify column id uuid not null,
+   modify column created_by_id uuid;
+
+alter table if exists contact_setting_channel
+   modify column contact_setting_id uuid not null;
+
+alter table if exists delegate
+   modify column id uuid not null,
+   modify column principal_id uuid not null,
+   modify column agent_id uuid not null;
+
+alter table if exists delegate_filter
+   modify column id uuid not null,
+   modify column delegate_id uuid;
+
+alter table if exists delegate_filter_rule
+   modify column delegate_filter_id uuid not null;
+
+alter table if exists contact_setting_channel
+   add constraint fk_contact_setting_contact_setting_channel
+   foreign key (contact_setting_id)
+   references contact_setting (id)
+   on delete cascade;
+
+alter table if exists delegate
+   add constraint fk_delegate_agent_id_contact_setting_id
+   foreign key (agent_id)
+   references contact_setting (id);
+
+alter table if exists delegate
+   add constraint fk_delegate_principal_id_contact_setting_id
+   foreign key (principal_id)
+   references contact_setting (id);
+
+alter table if exists delegate_filter
+   add constraint fk_delegate_id_delegate_filter_delegate_id
+   foreign key (delegate_id)
+   references delegate (id)
+   on delete cascade;
+
+alter table if exists delegate_filter_rule
+   add constraint fk_delegate_filter_delegate_filter_rule
+   foreign key (delegate_filter_id)
+   references delegate_filter (id)
+   on delete cascade;
@@ -0,0 +1,28 @@
+-- Replace the single column indexes with composite indexes that match the repository queries, which all filter on
+-- municipality_id together with another column. Unique constraints enforce one contact setting per party and
+-- municipality, and one delegate per principal and agent. The migration fails if any duplicates exist.
+
+-- Tombstoned contact settings (waiting to be purged) do not occupy their party id.
+update contact_setting
+   set party_id = null
+   where deleted is not null;
+
+alter table if exists contact_setting
+   add constraint uq_contact_setting_municipality_id_party_id unique (municipality_id, party_id);
+
+-- Served by the unique constraint, and by contact_setting_municipality_id_created_by_id_created_index.
+drop index if exists contact_setting_party_id_index on contact_setting;
+drop index if exists contact_setting_municipality_id_index on contact_setting;
+drop index if exists contact_setting_created_by_id_index on contact_setting;
+
+-- Covers the destination lookups, without reading the channel rows.
+create index contact_setting_channel_destination_contact_setting_id_index
+   on contact_setting_channel (destination, contact_setting_id);
+
+drop index if exists contact_setting_channel_destination_index on contact_setting_channel;
+
+-- Also serves the principal_id foreign key, which makes the index that was created with the foreign key redundant.
+alter table if exists delegate
+   add constraint uq_delegate_principal_id_agent_id unique (principal_id, agent_id);
+
+drop index if exists fk_delegate_principal_id_contact_setting_id on delegate;
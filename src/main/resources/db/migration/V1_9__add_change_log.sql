@@ -0,0 +1,29 @@
+-- Append-only change log, written in the same transaction as the changes it records. The sequence number, that
+-- consumers page the changes of a municipality by, is assigned by the change log relay once the change is committed.
+create table change_log (
+    created datetime(6),
+    id bigint not null auto_increment,
+    sequence bigint,
+    delegate_id uuid,
+    entity_id uuid,
+    entity_type varchar(255),
+    municipality_id varchar(255),
+    operation varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+-- The last assigned sequence number. The single row is locked by the relay while it assigns sequence numbers.
+create table change_log_sequence (
+    id bigint not null,
+    last_sequence bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert into change_log_sequence (id, last_sequence) values (1, 0);
+
+create index change_log_municipality_id_sequence_index
+   on change_log (municipality_id, sequence);
+
+-- Also finds the changes that have not been assigned a sequence number yet.
+alter table if exists change_log
+   add constraint uq_change_log_sequence unique (sequence);
@@ -0,0 +1,88 @@
+package se.sundsvall.contactsettings.api;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webtestclient.autoconfigure.AutoConfigureWebTestClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.Change;
+import se.sundsvall.contactsettings.service.ChangeLogService;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.CONTACT_SETTING;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.DELEGATE;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
+
+@AutoConfigureWebTestClient
+@SpringBootTest(classes = Application.class, webEnvironment = RANDOM_PORT)
+@ActiveProfiles("junit")
+class ChangeResourceTest {
+
+	private static final String PATH_TEMPLATE = "/{municipalityId}/changes";
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@MockitoBean
+	private ChangeLogService changeLogServiceMock;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	void readChanges() {
+
+		// Arrange
+		final var changes = List.of(
+			Change.create().withSequence(1L).withEntityType(CONTACT_SETTING).withEntityId(randomUUID().toString()).withOperation(CREATED),
+			Change.create().withSequence(2L).withEntityType(DELEGATE).withEntityId(randomUUID().toString()).withOperation(DELETED));
+		when(changeLogServiceMock.readChanges(MUNICIPALITY_ID, 0, 100)).thenReturn(changes);
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE).build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBodyList(Change.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isEqualTo(changes);
+		verify(changeLogServiceMock).readChanges(MUNICIPALITY_ID, 0, 100);
+	}
+
+	@Test
+	void readChangesSince() {
+
+		// Arrange
+		when(changeLogServiceMock.readChanges(MUNICIPALITY_ID, 4711, 10)).thenReturn(List.of());
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE)
+				.queryParam("since", 4711)
+				.queryParam("limit", 10)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBodyList(Change.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isEmpty();
+		verify(changeLogServiceMock).readChanges(MUNICIPALITY_ID, 4711, 10);
+	}
+}
@@ -13,6 +13,9 @@ import se.sundsvall.contactsettings.Application;
 import se.sundsvall.contactsettings.api.model.ContactChannel;
 import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
 import se.sundsvall.contactsettings.api.model.ContactSettingUpdateRequest;
+import se.sundsvall.contactsettings.api.model.ContactSettingsBatchResolveRequest;
+import se.sundsvall.contactsettings.api.model.ContactSettingsBulkRequest;
+import se.sundsvall.contactsettings.service.ContactSettingsBulkService;
 import se.sundsvall.contactsettings.service.ContactSettingsService;
 import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.dept44.problem.violations.ConstraintViolationProblem;
@@ -44,6 +47,9 @@ class ContactSettingsResourceFailuresTest {
 	@MockitoBean
 	private ContactSettingsService contactSettingsServiceMock;
 
+	@MockitoBean
+	private ContactSettingsBulkService contactSettingsBulkServiceMock;
+
 	@Test
 	void createWithMissingBody() {
 
@@ -537,6 +543,59 @@ class ContactSettingsResourceFailuresTest {
 		verifyNoInteractions(contactSettingsServiceMock);
 	}
 
+	@Test
+	void readChildrenWithInvalidLimit() {
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/{id}/children")
+				.queryParam("limit", 1001)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID, "id", randomUUID().toString())))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactlyInAnyOrder(tuple("readChildren.limit", "must be less than or equal to 1000"));
+
+		verifyNoInteractions(contactSettingsServiceMock);
+	}
+
+	@Test
+	void findByDestinationWithInvalidLimit() {
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/contact-channels")
+				.queryParam("destination", "0701740605")
+				.queryParam("limit", 0)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactlyInAnyOrder(tuple("findByDestination.limit", "must be greater than or equal to 1"));
+
+		verifyNoInteractions(contactSettingsServiceMock);
+	}
+
 	@Test
 	void findByPartyIdAndQueryFilterWithInvalidPartyId() {
 
@@ -563,6 +622,32 @@ class ContactSettingsResourceFailuresTest {
 		verifyNoInteractions(contactSettingsServiceMock);
 	}
 
+	@Test
+	void streamByPartyIdAndQueryFilterWithInvalidPartyId() {
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/stream")
+				.queryParam("partyId", "invalid-partyId")
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactlyInAnyOrder(tuple("streamByPartyIdAndQueryFilter.partyId", "not a valid UUID"));
+
+		verifyNoInteractions(contactSettingsServiceMock);
+	}
+
 	@Test
 	void findByPartyIdAndQueryFilterWithMissingPartyId() {
 
@@ -610,4 +695,151 @@ class ContactSettingsResourceFailuresTest {
 
 		verifyNoInteractions(contactSettingsServiceMock);
 	}
+
+	@Test
+	void batchResolveWithEmptyPartyIds() {
+
+		// Arrange
+		final var body = ContactSettingsBatchResolveRequest.create().withPartyIds(List.of());
+
+		// Act
+		final var response = webTestClient.post()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/batch-resolve").build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.contentType(APPLICATION_JSON)
+			.bodyValue(body)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactlyInAnyOrder(tuple("partyIds", "must not be empty"));
+
+		verifyNoInteractions(contactSettingsServiceMock);
+	}
+
+	@Test
+	void batchResolveWithInvalidPartyId() {
+
+		// Arrange
+		final var body = ContactSettingsBatchResolveRequest.create().withPartyIds(List.of(randomUUID().toString(), "invalid-partyId"));
+
+		// Act
+		final var response = webTestClient.post()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/batch-resolve").build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.contentType(APPLICATION_JSON)
+			.bodyValue(body)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactlyInAnyOrder(tuple("partyIds[1]", "not a valid UUID"));
+
+		verifyNoInteractions(contactSettingsServiceMock);
+	}
+
+	@Test
+	void batchResolveWithInvalidMunicipalityId() {
+
+		// Arrange
+		final var body = ContactSettingsBatchResolveRequest.create().withPartyIds(List.of(randomUUID().toString()));
+
+		// Act
+		final var response = webTestClient.post()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/batch-resolve").build(Map.of("municipalityId", "invalid-id")))
+			.contentType(APPLICATION_JSON)
+			.bodyValue(body)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactlyInAnyOrder(tuple("batchResolve.municipalityId", "not a valid municipality ID"));
+
+		verifyNoInteractions(contactSettingsServiceMock);
+	}
+
+	@Test
+	void bulkCreateWithEmptyContactSettings() {
+
+		// Arrange
+		final var body = ContactSettingsBulkRequest.create().withContactSettings(List.of());
+
+		// Act
+		final var response = webTestClient.post()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/bulk").build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.contentType(APPLICATION_JSON)
+			.bodyValue(body)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactlyInAnyOrder(tuple("contactSettings", "must not be empty"));
+
+		verifyNoInteractions(contactSettingsBulkServiceMock);
+	}
+
+	@Test
+	void bulkCreateWithInvalidContactSetting() {
+
+		// Arrange
+		final var body = ContactSettingsBulkRequest.create().withContactSettings(List.of(
+			ContactSettingCreateRequest.create().withPartyId(randomUUID().toString()),
+			ContactSettingCreateRequest.create().withPartyId("invalid-partyId")));
+
+		// Act
+		final var response = webTestClient.post()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/bulk").build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.contentType(APPLICATION_JSON)
+			.bodyValue(body)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactlyInAnyOrder(tuple("contactSettings[1].partyId", "not a valid UUID"));
+
+		verifyNoInteractions(contactSettingsBulkServiceMock);
+	}
 }
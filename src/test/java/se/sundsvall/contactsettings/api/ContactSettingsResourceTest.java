@@ -2,10 +2,12 @@ package se.sundsvall.contactsettings.api;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webtestclient.autoconfigure.AutoConfigureWebTestClient;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -13,20 +15,31 @@ import org.springframework.util.LinkedMultiValueMap;
 import se.sundsvall.contactsettings.Application;
 import se.sundsvall.contactsettings.api.model.ContactChannel;
 import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.api.model.ContactSettingBulkResult;
 import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
 import se.sundsvall.contactsettings.api.model.ContactSettingUpdateRequest;
+import se.sundsvall.contactsettings.api.model.ContactSettingsBatchResolveRequest;
+import se.sundsvall.contactsettings.api.model.ContactSettingsBulkRequest;
+import se.sundsvall.contactsettings.api.model.PartyContactSettings;
+import se.sundsvall.contactsettings.service.ContactSettingPage;
+import se.sundsvall.contactsettings.service.ContactSettingsBulkService;
 import se.sundsvall.contactsettings.service.ContactSettingsService;
 
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.http.MediaType.ALL;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.web.util.UriComponentsBuilder.fromPath;
+import static se.sundsvall.contactsettings.api.ContactSettingsResource.CONTINUATION_TOKEN_HEADER;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.UPDATED;
 import static se.sundsvall.contactsettings.api.model.enums.ContactMethod.EMAIL;
 
 @AutoConfigureWebTestClient
@@ -47,6 +60,9 @@ class ContactSettingsResourceTest {
 	@MockitoBean
 	private ContactSettingsService contactSettingsServiceMock;
 
+	@MockitoBean
+	private ContactSettingsBulkService contactSettingsBulkServiceMock;
+
 	@Test
 	void create() {
 
@@ -99,7 +115,7 @@ class ContactSettingsResourceTest {
 
 		// Arrange
 		final var contectSettingChildren = List.of(contactSetting(), contactSetting());
-		when(contactSettingsServiceMock.readContactSettingChildren(MUNICIPALITY_ID, CONTACT_SETTING_ID)).thenReturn(contectSettingChildren);
+		when(contactSettingsServiceMock.readContactSettingChildren(MUNICIPALITY_ID, CONTACT_SETTING_ID, null, Limit.unlimited())).thenReturn(new ContactSettingPage(contectSettingChildren, null));
 
 		// Act
 		final var response = webTestClient.get()
@@ -109,13 +125,67 @@ class ContactSettingsResourceTest {
 			.exchange()
 			.expectStatus().isOk()
 			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().doesNotExist(CONTINUATION_TOKEN_HEADER)
 			.expectBodyList(ContactSetting.class)
 			.returnResult()
 			.getResponseBody();
 
 		// Assert
-		assertThat(response).isNotNull();
-		verify(contactSettingsServiceMock).readContactSettingChildren(MUNICIPALITY_ID, CONTACT_SETTING_ID);
+		assertThat(response).isNotNull().hasSize(2);
+		verify(contactSettingsServiceMock).readContactSettingChildren(MUNICIPALITY_ID, CONTACT_SETTING_ID, null, Limit.unlimited());
+	}
+
+	@Test
+	void readChildrenWithContinuationToken() {
+
+		// Arrange
+		when(contactSettingsServiceMock.readContactSettingChildren(MUNICIPALITY_ID, CONTACT_SETTING_ID, "token-1", Limit.of(10))).thenReturn(new ContactSettingPage(List.of(contactSetting()), "token-2"));
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/{id}/children")
+				.queryParam("limit", 10)
+				.queryParam("continuationToken", "token-1")
+				.build(Map.of(
+					"municipalityId", MUNICIPALITY_ID,
+					"id", CONTACT_SETTING_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().valueEquals(CONTINUATION_TOKEN_HEADER, "token-2")
+			.expectBodyList(ContactSetting.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull().hasSize(1);
+		verify(contactSettingsServiceMock).readContactSettingChildren(MUNICIPALITY_ID, CONTACT_SETTING_ID, "token-1", Limit.of(10));
+	}
+
+	@Test
+	void readChildrenWithContinuationTokenAndDefaultLimit() {
+
+		// Arrange
+		when(contactSettingsServiceMock.readContactSettingChildren(MUNICIPALITY_ID, CONTACT_SETTING_ID, "token-1", Limit.of(100))).thenReturn(new ContactSettingPage(List.of(contactSetting()), null));
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/{id}/children")
+				.queryParam("continuationToken", "token-1")
+				.build(Map.of(
+					"municipalityId", MUNICIPALITY_ID,
+					"id", CONTACT_SETTING_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().doesNotExist(CONTINUATION_TOKEN_HEADER)
+			.expectBodyList(ContactSetting.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull().hasSize(1);
+		verify(contactSettingsServiceMock).readContactSettingChildren(MUNICIPALITY_ID, CONTACT_SETTING_ID, "token-1", Limit.of(100));
 	}
 
 	@Test
@@ -207,33 +277,209 @@ class ContactSettingsResourceTest {
 		verify(contactSettingsServiceMock).findByPartyIdAndQueryFilter(MUNICIPALITY_ID, PARTY_ID, inputQuery);
 	}
 
+	@Test
+	void batchResolve() {
+
+		// Arrange
+		final var otherPartyId = randomUUID().toString();
+		final var request = ContactSettingsBatchResolveRequest.create()
+			.withPartyIds(List.of(PARTY_ID, otherPartyId))
+			.withQuery(Map.of("key1", List.of("value1", "value2")));
+
+		when(contactSettingsServiceMock.findByPartyIdsAndQueryFilter(MUNICIPALITY_ID, request.getPartyIds(), request.getQuery())).thenReturn(List.of(
+			PartyContactSettings.create().withPartyId(PARTY_ID).withContactSettings(List.of(contactSetting())),
+			PartyContactSettings.create().withPartyId(otherPartyId).withContactSettings(List.of())));
+
+		// Act
+		final var response = webTestClient.post()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/batch-resolve").build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.contentType(APPLICATION_JSON)
+			.bodyValue(request)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBodyList(PartyContactSettings.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull().extracting(PartyContactSettings::getPartyId).containsExactly(PARTY_ID, otherPartyId);
+		assertThat(response.getFirst().getContactSettings()).hasSize(1);
+		verify(contactSettingsServiceMock).findByPartyIdsAndQueryFilter(MUNICIPALITY_ID, request.getPartyIds(), request.getQuery());
+	}
+
+	@Test
+	void bulkCreate() {
+
+		// Arrange
+		final var otherPartyId = randomUUID().toString();
+		final var request = ContactSettingsBulkRequest.create()
+			.withContactSettings(List.of(contactSettingCreateRequest(), contactSettingCreateRequest().withPartyId(otherPartyId)))
+			.withUpsert(true);
+
+		when(contactSettingsBulkServiceMock.createContactSettings(MUNICIPALITY_ID, request.getContactSettings(), true)).thenReturn(List.of(
+			ContactSettingBulkResult.create().withIndex(0).withOutcome(CREATED).withId(CONTACT_SETTING_ID).withPartyId(PARTY_ID),
+			ContactSettingBulkResult.create().withIndex(1).withOutcome(UPDATED).withId(randomUUID().toString()).withPartyId(otherPartyId)));
+
+		// Act
+		final var response = webTestClient.post()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/bulk").build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.contentType(APPLICATION_JSON)
+			.bodyValue(request)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBodyList(ContactSettingBulkResult.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull().extracting(ContactSettingBulkResult::getOutcome).containsExactly(CREATED, UPDATED);
+		verify(contactSettingsBulkServiceMock).createContactSettings(MUNICIPALITY_ID, request.getContactSettings(), true);
+	}
+
 	@Test
 	void findByDestination() {
 
 		// Arrange
 		final var contactSettings = List.of(contactSetting());
-		when(contactSettingsServiceMock.findByChannelsDestination(MUNICIPALITY_ID, CONTACT_CHANNEL_DESTINATION)).thenReturn(contactSettings);
+		when(contactSettingsServiceMock.findByChannelsDestination(MUNICIPALITY_ID, CONTACT_CHANNEL_DESTINATION, "token-1", Limit.of(1))).thenReturn(new ContactSettingPage(contactSettings, "token-2"));
 
 		// Act
 		final var response = webTestClient.get()
 			.uri(builder -> builder.path(PATH_TEMPLATE + "/contact-channels")
 				.queryParam("destination", CONTACT_CHANNEL_DESTINATION)
+				.queryParam("limit", 1)
+				.queryParam("continuationToken", "token-1")
 				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
 			.exchange()
 			.expectStatus().isOk()
 			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().valueEquals(CONTINUATION_TOKEN_HEADER, "token-2")
 			.expectBodyList(ContactSetting.class)
 			.returnResult()
 			.getResponseBody();
 
 		// Assert
 		assertThat(response).hasSize(1);
-		verify(contactSettingsServiceMock).findByChannelsDestination(MUNICIPALITY_ID, CONTACT_CHANNEL_DESTINATION);
+		verify(contactSettingsServiceMock).findByChannelsDestination(MUNICIPALITY_ID, CONTACT_CHANNEL_DESTINATION, "token-1", Limit.of(1));
+	}
+
+	@Test
+	void findByDestinationWithoutPaging() {
+
+		// Arrange
+		final var contactSettings = List.of(contactSetting(), contactSetting());
+		when(contactSettingsServiceMock.findByChannelsDestination(MUNICIPALITY_ID, CONTACT_CHANNEL_DESTINATION, null, Limit.unlimited())).thenReturn(new ContactSettingPage(contactSettings, null));
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/contact-channels")
+				.queryParam("destination", CONTACT_CHANNEL_DESTINATION)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().doesNotExist(CONTINUATION_TOKEN_HEADER)
+			.expectBodyList(ContactSetting.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).hasSize(2);
+		verify(contactSettingsServiceMock).findByChannelsDestination(MUNICIPALITY_ID, CONTACT_CHANNEL_DESTINATION, null, Limit.unlimited());
+	}
+
+	@Test
+	void streamChildren() {
+
+		// Arrange
+		doAnswer(invocation -> {
+			final Consumer<ContactSetting> consumer = invocation.getArgument(2);
+			consumer.accept(contactSetting());
+			consumer.accept(contactSetting());
+			return null;
+		}).when(contactSettingsServiceMock).streamContactSettingChildren(eq(MUNICIPALITY_ID), eq(CONTACT_SETTING_ID), any());
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/{id}/children/stream").build(Map.of(
+				"municipalityId", MUNICIPALITY_ID,
+				"id", CONTACT_SETTING_ID)))
+			.accept(APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_NDJSON)
+			.expectBody(String.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.lines()).hasSize(2).allSatisfy(line -> assertThat(line).startsWith("{").contains(CONTACT_SETTING_ID));
+		verify(contactSettingsServiceMock).streamContactSettingChildren(eq(MUNICIPALITY_ID), eq(CONTACT_SETTING_ID), any());
+	}
+
+	@Test
+	void streamByPartyIdAndQueryFilter() {
+
+		// Arrange
+		final var inputQuery = new LinkedMultiValueMap<String, String>();
+		inputQuery.put("key1", List.of("value1", "value2"));
+
+		doAnswer(invocation -> {
+			final Consumer<ContactSetting> consumer = invocation.getArgument(3);
+			consumer.accept(contactSetting());
+			return null;
+		}).when(contactSettingsServiceMock).streamByPartyIdAndQueryFilter(eq(MUNICIPALITY_ID), eq(PARTY_ID), eq(inputQuery), any());
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/stream")
+				.queryParam("partyId", PARTY_ID)
+				.queryParams(inputQuery)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.accept(APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_NDJSON)
+			.expectBody(String.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.lines()).hasSize(1);
+		verify(contactSettingsServiceMock).streamByPartyIdAndQueryFilter(eq(MUNICIPALITY_ID), eq(PARTY_ID), eq(inputQuery), any());
+	}
+
+	@Test
+	void streamByDestination() {
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/contact-channels/stream")
+				.queryParam("destination", CONTACT_CHANNEL_DESTINATION)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.accept(APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_NDJSON)
+			.expectBody(String.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNull(); // Nothing streamed by the (mocked) service.
+		verify(contactSettingsServiceMock).streamByChannelsDestination(eq(MUNICIPALITY_ID), eq(CONTACT_CHANNEL_DESTINATION), any());
 	}
 
 	@Test
 	void deleteContactSetting() {
 
+		// Arrange
+		when(contactSettingsServiceMock.deleteContactSetting(MUNICIPALITY_ID, CONTACT_SETTING_ID)).thenReturn(true);
+
 		// Act
 		webTestClient.delete()
 			.uri(builder -> builder.path(PATH_TEMPLATE + "/{id}").build(Map.of(
@@ -247,6 +493,25 @@ class ContactSettingsResourceTest {
 		verify(contactSettingsServiceMock).deleteContactSetting(MUNICIPALITY_ID, CONTACT_SETTING_ID);
 	}
 
+	@Test
+	void deleteContactSettingWithPurger() {
+
+		// Arrange
+		when(contactSettingsServiceMock.deleteContactSetting(MUNICIPALITY_ID, CONTACT_SETTING_ID)).thenReturn(false);
+
+		// Act
+		webTestClient.delete()
+			.uri(builder -> builder.path(PATH_TEMPLATE + "/{id}").build(Map.of(
+				"municipalityId", MUNICIPALITY_ID,
+				"id", CONTACT_SETTING_ID)))
+			.exchange()
+			.expectStatus().isAccepted()
+			.expectBody().isEmpty();
+
+		// Assert
+		verify(contactSettingsServiceMock).deleteContactSetting(MUNICIPALITY_ID, CONTACT_SETTING_ID);
+	}
+
 	private static ContactSettingCreateRequest contactSettingCreateRequest() {
 		return ContactSettingCreateRequest.create()
 			.withPartyId(PARTY_ID)
@@ -0,0 +1,107 @@
+package se.sundsvall.contactsettings.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webtestclient.autoconfigure.AutoConfigureWebTestClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import se.sundsvall.contactsettings.Application;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.api.model.Delegate;
+import se.sundsvall.contactsettings.api.model.ExportRecord;
+import se.sundsvall.contactsettings.service.ExportService;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static se.sundsvall.contactsettings.api.ExportResource.GZIP;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.CONTACT_SETTING;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.DELEGATE;
+
+@AutoConfigureWebTestClient
+@SpringBootTest(classes = Application.class, webEnvironment = RANDOM_PORT)
+@ActiveProfiles("junit")
+class ExportResourceTest {
+
+	private static final String PATH_TEMPLATE = "/{municipalityId}/export";
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String CONTACT_SETTING_ID = randomUUID().toString();
+	private static final String DELEGATE_ID = randomUUID().toString();
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@MockitoBean
+	private ExportService exportServiceMock;
+
+	@Test
+	void export() throws IOException {
+
+		// Arrange
+		doAnswer(invocation -> {
+			final Consumer<ExportRecord> consumer = invocation.getArgument(1);
+			consumer.accept(ExportRecord.create().withType(CONTACT_SETTING).withContactSetting(ContactSetting.create().withId(CONTACT_SETTING_ID)));
+			consumer.accept(ExportRecord.create().withType(DELEGATE).withDelegate(Delegate.create().withId(DELEGATE_ID)));
+			return null;
+		}).when(exportServiceMock).export(eq(MUNICIPALITY_ID), any());
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE).build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.accept(APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_NDJSON)
+			.expectHeader().valueEquals(CONTENT_ENCODING, GZIP)
+			.expectBody(byte[].class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(gunzip(response).lines()).satisfiesExactly(
+			line -> assertThat(line).startsWith("{").contains("\"CONTACT_SETTING\"", CONTACT_SETTING_ID),
+			line -> assertThat(line).startsWith("{").contains("\"DELEGATE\"", DELEGATE_ID));
+		verify(exportServiceMock).export(eq(MUNICIPALITY_ID), any());
+	}
+
+	@Test
+	void exportWhenEmpty() throws IOException {
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH_TEMPLATE).build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.accept(APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().valueEquals(CONTENT_ENCODING, GZIP)
+			.expectBody(byte[].class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(gunzip(response)).isEmpty();
+		verify(exportServiceMock).export(eq(MUNICIPALITY_ID), any());
+	}
+
+	private static String gunzip(final byte[] bytes) throws IOException {
+		try (final var inputStream = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return new String(inputStream.readAllBytes(), UTF_8);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package se.sundsvall.contactsettings.api.model;
+
+import java.time.OffsetDateTime;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static java.time.OffsetDateTime.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.DELEGATE_FILTER;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.UPDATED;
+
+class ChangeTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+	}
+
+	@Test
+	void testBean() {
+		assertThat(Change.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var sequence = 4711L;
+		final var entityType = DELEGATE_FILTER;
+		final var entityId = "entityId";
+		final var delegateId = "delegateId";
+		final var operation = UPDATED;
+		final var created = now();
+
+		final var bean = Change.create()
+			.withSequence(sequence)
+			.withEntityType(entityType)
+			.withEntityId(entityId)
+			.withDelegateId(delegateId)
+			.withOperation(operation)
+			.withCreated(created);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getSequence()).isEqualTo(sequence);
+		assertThat(bean.getEntityType()).isEqualTo(entityType);
+		assertThat(bean.getEntityId()).isEqualTo(entityId);
+		assertThat(bean.getDelegateId()).isEqualTo(delegateId);
+		assertThat(bean.getOperation()).isEqualTo(operation);
+		assertThat(bean.getCreated()).isEqualTo(created);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(Change.create()).hasAllNullFieldsOrProperties();
+		assertThat(new Change()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -0,0 +1,56 @@
+package se.sundsvall.contactsettings.api.model;
+
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.CONFLICT;
+
+class ContactSettingBulkResultTest {
+
+	@Test
+	void testBean() {
+		assertThat(ContactSettingBulkResult.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var index = 3;
+		final var outcome = CONFLICT;
+		final var id = "5d0a7e41-4c3b-4c1c-9f0f-6c2b8c3a1e2f";
+		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e1";
+		final var detail = "detail";
+
+		final var bean = ContactSettingBulkResult.create()
+			.withIndex(index)
+			.withOutcome(outcome)
+			.withId(id)
+			.withPartyId(partyId)
+			.withDetail(detail);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getIndex()).isEqualTo(index);
+		assertThat(bean.getOutcome()).isEqualTo(outcome);
+		assertThat(bean.getId()).isEqualTo(id);
+		assertThat(bean.getPartyId()).isEqualTo(partyId);
+		assertThat(bean.getDetail()).isEqualTo(detail);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(ContactSettingBulkResult.create()).hasAllNullFieldsOrPropertiesExcept("index");
+		assertThat(new ContactSettingBulkResult()).hasAllNullFieldsOrPropertiesExcept("index");
+	}
+}
@@ -0,0 +1,48 @@
+package se.sundsvall.contactsettings.api.model;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ContactSettingsBatchResolveRequestTest {
+
+	@Test
+	void testBean() {
+		assertThat(ContactSettingsBatchResolveRequest.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var partyIds = List.of("81471222-5798-11e9-ae24-57fa13b361e1");
+		final var query = Map.of("key", List.of("value"));
+
+		final var bean = ContactSettingsBatchResolveRequest.create()
+			.withPartyIds(partyIds)
+			.withQuery(query);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getPartyIds()).isEqualTo(partyIds);
+		assertThat(bean.getQuery()).isEqualTo(query);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(ContactSettingsBatchResolveRequest.create()).hasAllNullFieldsOrProperties();
+		assertThat(new ContactSettingsBatchResolveRequest()).hasAllNullFieldsOrProperties();
+	}
+}
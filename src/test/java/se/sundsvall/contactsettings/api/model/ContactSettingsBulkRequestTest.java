@@ -0,0 +1,47 @@
+package se.sundsvall.contactsettings.api.model;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ContactSettingsBulkRequestTest {
+
+	@Test
+	void testBean() {
+		assertThat(ContactSettingsBulkRequest.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var contactSettings = List.of(ContactSettingCreateRequest.create().withPartyId("81471222-5798-11e9-ae24-57fa13b361e1"));
+		final var upsert = true;
+
+		final var bean = ContactSettingsBulkRequest.create()
+			.withContactSettings(contactSettings)
+			.withUpsert(upsert);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getContactSettings()).isEqualTo(contactSettings);
+		assertThat(bean.isUpsert()).isEqualTo(upsert);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(ContactSettingsBulkRequest.create()).hasAllNullFieldsOrPropertiesExcept("upsert");
+		assertThat(new ContactSettingsBulkRequest()).hasAllNullFieldsOrPropertiesExcept("upsert");
+	}
+}
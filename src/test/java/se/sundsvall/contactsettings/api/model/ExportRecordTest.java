@@ -0,0 +1,50 @@
+package se.sundsvall.contactsettings.api.model;
+
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.DELEGATE;
+
+class ExportRecordTest {
+
+	@Test
+	void testBean() {
+		assertThat(ExportRecord.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var type = DELEGATE;
+		final var contactSetting = ContactSetting.create().withId("contactSettingId");
+		final var delegate = Delegate.create().withId("delegateId");
+
+		final var bean = ExportRecord.create()
+			.withType(type)
+			.withContactSetting(contactSetting)
+			.withDelegate(delegate);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getType()).isEqualTo(type);
+		assertThat(bean.getContactSetting()).isEqualTo(contactSetting);
+		assertThat(bean.getDelegate()).isEqualTo(delegate);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(ExportRecord.create()).hasAllNullFieldsOrProperties();
+		assertThat(new ExportRecord()).hasAllNullFieldsOrProperties();
+	}
+}
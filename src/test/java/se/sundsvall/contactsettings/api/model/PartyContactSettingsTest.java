@@ -0,0 +1,47 @@
+package se.sundsvall.contactsettings.api.model;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class PartyContactSettingsTest {
+
+	@Test
+	void testBean() {
+		assertThat(PartyContactSettings.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e1";
+		final var contactSettings = List.of(ContactSetting.create());
+
+		final var bean = PartyContactSettings.create()
+			.withPartyId(partyId)
+			.withContactSettings(contactSettings);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getPartyId()).isEqualTo(partyId);
+		assertThat(bean.getContactSettings()).isEqualTo(contactSettings);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(PartyContactSettings.create()).hasAllNullFieldsOrProperties();
+		assertThat(new PartyContactSettings()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -0,0 +1,16 @@
+package se.sundsvall.contactsettings.api.model.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.CONFLICT;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.UPDATED;
+
+class BulkOutcomeTest {
+
+	@Test
+	void testEnumValues() {
+		assertThat(BulkOutcome.values()).containsExactly(CREATED, UPDATED, CONFLICT);
+	}
+}
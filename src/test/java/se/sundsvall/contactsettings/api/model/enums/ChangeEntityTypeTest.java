@@ -0,0 +1,16 @@
+package se.sundsvall.contactsettings.api.model.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.CONTACT_SETTING;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.DELEGATE;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.DELEGATE_FILTER;
+
+class ChangeEntityTypeTest {
+
+	@Test
+	void testEnumValues() {
+		assertThat(ChangeEntityType.values()).containsExactly(CONTACT_SETTING, DELEGATE, DELEGATE_FILTER);
+	}
+}
@@ -0,0 +1,16 @@
+package se.sundsvall.contactsettings.api.model.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.UPDATED;
+
+class ChangeOperationTest {
+
+	@Test
+	void testEnumValues() {
+		assertThat(ChangeOperation.values()).containsExactly(CREATED, UPDATED, DELETED);
+	}
+}
@@ -0,0 +1,15 @@
+package se.sundsvall.contactsettings.api.model.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.CONTACT_SETTING;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.DELEGATE;
+
+class ExportRecordTypeTest {
+
+	@Test
+	void testEnumValues() {
+		assertThat(ExportRecordType.values()).containsExactly(CONTACT_SETTING, DELEGATE);
+	}
+}
@@ -0,0 +1,195 @@
+package se.sundsvall.contactsettings.integration.db;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.contactsettings.integration.db.model.ChangeLogEntity;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+/**
+ * ChangeLogRepository tests
+ *
+ * @see /src/test/resources/db/testdata-junit.sql for data setup.
+ */
+@DataJpaTest
+@Transactional(propagation = NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/scripts/truncate.sql",
+	"/db/scripts/testdata-junit.sql"
+})
+class ChangeLogRepositoryTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String CONTACT_SETTING_ID = "a42bfd69-ab22-443c-bdef-1cc6a70bcab3";
+	private static final String OTHER_MUNICIPALITY_CONTACT_SETTING_ID = "951dacb1-645a-41fd-952a-6089abdce481";
+	private static final String PRINCIPAL_ID = "534ba8a0-7484-45b3-b041-ff90f1228c16";
+	private static final String AGENT_ID = "07025549-3fbd-4db2-ab40-e1b93034b254";
+	private static final String OTHER_MUNICIPALITY_AGENT_ID = "eba08ae5-6b62-42f2-aea5-59d12a2b821f";
+	private static final String DELEGATE_ID = "4d6adb65-172a-4671-a667-5e142bfc353e";
+	private static final String OTHER_MUNICIPALITY_DELEGATE_ID = "d929c8ad-7cfb-4e49-ac53-1c26da40aed7";
+	private static final String DELEGATE_FILTER_ID = "4327dae1-a00b-462d-885a-417628ea3114";
+	private static final String NON_EXISTING_ID = "00000000-0000-0000-0000-000000000000";
+
+	@Autowired
+	private ChangeLogRepository changeLogRepository;
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Test
+	void findByMunicipalityIdAfter() {
+
+		// Act
+		final var result = changeLogRepository.findByMunicipalityIdAfter(MUNICIPALITY_ID, 0, Limit.of(10));
+
+		// Assert
+		assertThat(result)
+			.extracting(ChangeLogEntity::getSequence, ChangeLogEntity::getEntityType, ChangeLogEntity::getEntityId, ChangeLogEntity::getDelegateId, ChangeLogEntity::getOperation)
+			.containsExactly(
+				tuple(1L, "CONTACT_SETTING", CONTACT_SETTING_ID, null, "CREATED"),
+				tuple(3L, "DELEGATE_FILTER", DELEGATE_FILTER_ID, DELEGATE_ID, "CREATED"),
+				tuple(4L, "DELEGATE", DELEGATE_ID, null, "CREATED"),
+				tuple(5L, "CONTACT_SETTING", CONTACT_SETTING_ID, null, "UPDATED"));
+	}
+
+	@Test
+	void findByMunicipalityIdAfterSequenceWithLimit() {
+
+		// Act
+		final var result = changeLogRepository.findByMunicipalityIdAfter(MUNICIPALITY_ID, 1, Limit.of(2));
+
+		// Assert
+		assertThat(result).extracting(ChangeLogEntity::getSequence).containsExactly(3L, 4L);
+	}
+
+	@Test
+	void findUnsequenced() {
+
+		// Act
+		final var result = changeLogRepository.findUnsequenced(Limit.of(10));
+
+		// Assert
+		assertThat(result)
+			.extracting(ChangeLogEntity::getId, ChangeLogEntity::getSequence, ChangeLogEntity::getOperation)
+			.containsExactly(tuple(6L, null, "UPDATED"));
+	}
+
+	@Test
+	@Transactional
+	void insertContactSettingChanges() {
+
+		// Arrange
+		final var created = now(systemDefault()).truncatedTo(MILLIS);
+
+		// Act
+		final var result = changeLogRepository.insertContactSettingChanges(List.of(CONTACT_SETTING_ID, OTHER_MUNICIPALITY_CONTACT_SETTING_ID, NON_EXISTING_ID), "DELETED", created);
+
+		// Assert
+		assertThat(result).isEqualTo(2);
+		assertThat(changeLogRepository.findUnsequenced(Limit.of(10)))
+			.extracting(ChangeLogEntity::getMunicipalityId, ChangeLogEntity::getEntityType, ChangeLogEntity::getEntityId, ChangeLogEntity::getDelegateId, ChangeLogEntity::getOperation)
+			.containsExactlyInAnyOrder(
+				tuple(MUNICIPALITY_ID, "CONTACT_SETTING", CONTACT_SETTING_ID, null, "UPDATED"),
+				tuple(MUNICIPALITY_ID, "CONTACT_SETTING", CONTACT_SETTING_ID, null, "DELETED"),
+				tuple("1984", "CONTACT_SETTING", OTHER_MUNICIPALITY_CONTACT_SETTING_ID, null, "DELETED"));
+	}
+
+	@Test
+	@Transactional
+	void insertDelegateChanges() {
+
+		// Arrange
+		final var created = now(systemDefault()).truncatedTo(MILLIS);
+
+		// Act
+		final var result = changeLogRepository.insertDelegateChanges(List.of(DELEGATE_ID), "DELETED", created);
+
+		// Assert
+		assertThat(result).isOne();
+		assertThat(changeLogRepository.findUnsequenced(Limit.of(10)))
+			.extracting(ChangeLogEntity::getMunicipalityId, ChangeLogEntity::getEntityType, ChangeLogEntity::getEntityId, ChangeLogEntity::getDelegateId, ChangeLogEntity::getOperation)
+			.containsExactly(
+				tuple(MUNICIPALITY_ID, "CONTACT_SETTING", CONTACT_SETTING_ID, null, "UPDATED"),
+				tuple(MUNICIPALITY_ID, "DELEGATE", DELEGATE_ID, null, "DELETED"));
+	}
+
+	@Test
+	@Transactional
+	void insertDelegateChangesByPrincipalIdInOrAgentIdIn() {
+
+		// Arrange
+		final var created = now(systemDefault()).truncatedTo(MILLIS);
+
+		// Act
+		final var result = changeLogRepository.insertDelegateChangesByPrincipalIdInOrAgentIdIn(List.of(PRINCIPAL_ID, AGENT_ID, OTHER_MUNICIPALITY_AGENT_ID), "DELETED", created);
+
+		// Assert (the delegate where both principal and agent are given is recorded once).
+		assertThat(result).isEqualTo(2);
+		assertThat(changeLogRepository.findUnsequenced(Limit.of(10)))
+			.extracting(ChangeLogEntity::getMunicipalityId, ChangeLogEntity::getEntityType, ChangeLogEntity::getEntityId, ChangeLogEntity::getDelegateId, ChangeLogEntity::getOperation)
+			.containsExactlyInAnyOrder(
+				tuple(MUNICIPALITY_ID, "CONTACT_SETTING", CONTACT_SETTING_ID, null, "UPDATED"),
+				tuple(MUNICIPALITY_ID, "DELEGATE", DELEGATE_ID, null, "DELETED"),
+				tuple("1984", "DELEGATE", OTHER_MUNICIPALITY_DELEGATE_ID, null, "DELETED"));
+	}
+
+	@Test
+	@Transactional
+	void insertDelegateChangesByPrincipalIdInOrAgentIdInWhenTombstoned() {
+
+		// Arrange
+		final var created = now(systemDefault()).truncatedTo(MILLIS);
+		contactSettingRepository.tombstoneByIdIn(List.of(AGENT_ID), created);
+
+		// Act
+		final var result = changeLogRepository.insertDelegateChangesByPrincipalIdInOrAgentIdIn(List.of(PRINCIPAL_ID), "DELETED", created);
+
+		// Assert (the deletion was recorded when the agent was tombstoned).
+		assertThat(result).isZero();
+	}
+
+	@Test
+	@Transactional
+	void insertDelegateFilterChanges() {
+
+		// Arrange
+		final var created = now(systemDefault()).truncatedTo(MILLIS);
+
+		// Act
+		final var result = changeLogRepository.insertDelegateFilterChanges(List.of(DELEGATE_FILTER_ID), "UPDATED", created);
+
+		// Assert
+		assertThat(result).isOne();
+		assertThat(changeLogRepository.findUnsequenced(Limit.of(10)))
+			.extracting(ChangeLogEntity::getMunicipalityId, ChangeLogEntity::getEntityType, ChangeLogEntity::getEntityId, ChangeLogEntity::getDelegateId, ChangeLogEntity::getOperation)
+			.containsExactly(
+				tuple(MUNICIPALITY_ID, "CONTACT_SETTING", CONTACT_SETTING_ID, null, "UPDATED"),
+				tuple(MUNICIPALITY_ID, "DELEGATE_FILTER", DELEGATE_FILTER_ID, DELEGATE_ID, "UPDATED"));
+	}
+
+	@Test
+	void insertOutsideOfTransaction() {
+		final var ids = List.of(CONTACT_SETTING_ID);
+		final var created = now(systemDefault());
+
+		assertThatThrownBy(() -> changeLogRepository.insertContactSettingChanges(ids, "CREATED", created))
+			.isInstanceOf(IllegalTransactionStateException.class);
+	}
+}
@@ -0,0 +1,49 @@
+package se.sundsvall.contactsettings.integration.db;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.contactsettings.integration.db.model.ChangeLogSequenceEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+import static se.sundsvall.contactsettings.integration.db.model.ChangeLogSequenceEntity.ID;
+
+/**
+ * ChangeLogSequenceRepository tests
+ */
+@DataJpaTest
+@Transactional(propagation = NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+class ChangeLogSequenceRepositoryTest {
+
+	@Autowired
+	private ChangeLogSequenceRepository changeLogSequenceRepository;
+
+	@Test
+	@Transactional
+	void findForUpdateById() {
+
+		// Arrange
+		changeLogSequenceRepository.saveAndFlush(ChangeLogSequenceEntity.create().withId(ID).withLastSequence(4711L));
+
+		// Act
+		final var result = changeLogSequenceRepository.findForUpdateById(ID);
+
+		// Assert
+		assertThat(result).isPresent().get().extracting(ChangeLogSequenceEntity::getLastSequence).isEqualTo(4711L);
+	}
+
+	@Test
+	void findForUpdateByIdOutsideOfTransaction() {
+		assertThatThrownBy(() -> changeLogSequenceRepository.findForUpdateById(ID))
+			.isInstanceOf(IllegalTransactionStateException.class);
+	}
+}
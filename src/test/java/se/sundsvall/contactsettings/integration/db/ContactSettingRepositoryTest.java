@@ -6,11 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.contactsettings.integration.db.model.Channel;
 import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingIdentity;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.temporal.ChronoUnit.SECONDS;
@@ -18,6 +21,8 @@ import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.hibernate.Hibernate.isInitialized;
 import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
 import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 
@@ -40,6 +45,7 @@ class ContactSettingRepositoryTest {
 	private static final String CONTACT_SETTING_ENTITY_PARTY_ID = "db96ca23-7c52-412e-b251-f75fb45551d5";
 	private static final String CONTACT_SETTING_VIRTUAL_ENTITY_ID = "2c94ea99-a1b4-4073-b094-9ff79bad23b0";
 	private static final String MUNICIPALITY_ID = "2281";
+	private static final String NON_EXISTING_ID = "00000000-0000-0000-0000-000000000000";
 
 	@Autowired
 	private ContactSettingRepository contactSettingRepository;
@@ -63,6 +69,19 @@ class ContactSettingRepositoryTest {
 			.containsExactly(tuple("Email", "EMAIL", "0701740605"));
 	}
 
+	@Test
+	void createWithExistingMunicipalityIdAndPartyId() {
+
+		// Arrange
+		final var entity = createContactSettingEntity().withMunicipalityId(MUNICIPALITY_ID).withPartyId(CONTACT_SETTING_ENTITY_PARTY_ID);
+
+		// Act
+		final var exception = assertThrows(DataIntegrityViolationException.class, () -> contactSettingRepository.saveAndFlush(entity));
+
+		// Assert
+		assertThat(exception.getMessage()).contains("uq_contact_setting_municipality_id_party_id");
+	}
+
 	@Test
 	void update() {
 
@@ -133,6 +152,26 @@ class ContactSettingRepositoryTest {
 		assertThat(result).isTrue();
 	}
 
+	@Test
+	void existsByMunicipalityIdAndPartyId() {
+
+		// Act
+		final var result = contactSettingRepository.existsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, CONTACT_SETTING_ENTITY_PARTY_ID);
+
+		// Assert
+		assertThat(result).isTrue();
+	}
+
+	@Test
+	void existsByMunicipalityIdAndPartyIdNotFound() {
+
+		// Act
+		final var result = contactSettingRepository.existsByMunicipalityIdAndPartyId("non-existing", CONTACT_SETTING_ENTITY_PARTY_ID);
+
+		// Assert
+		assertThat(result).isFalse();
+	}
+
 	@Test
 	void existsByMunicipalityIdAndIdNotFound() {
 
@@ -216,6 +255,7 @@ class ContactSettingRepositoryTest {
 		assertThat(result)
 			.extracting(ContactSettingEntity::getAlias, ContactSettingEntity::getId, ContactSettingEntity::getCreatedById)
 			.containsExactly(tuple("Virtual friend", CONTACT_SETTING_VIRTUAL_ENTITY_ID, CONTACT_SETTING_ENTITY_ID));
+		assertThat(result).noneMatch(contactSetting -> isInitialized(contactSetting.getChannels()));
 	}
 
 	@Test
@@ -228,6 +268,329 @@ class ContactSettingRepositoryTest {
 		assertThat(result).isEmpty();
 	}
 
+	@Test
+	void findVirtualIdsByMunicipalityIdAndCreatedById() {
+
+		// Act
+		final var result = contactSettingRepository.findVirtualIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, CONTACT_SETTING_ENTITY_ID);
+
+		// Assert
+		assertThat(result).containsExactly(CONTACT_SETTING_VIRTUAL_ENTITY_ID);
+	}
+
+	@Test
+	void findVirtualIdsByMunicipalityIdAndCreatedByIdNotFound() {
+
+		// Act
+		final var result = contactSettingRepository.findVirtualIdsByMunicipalityIdAndCreatedById("non-existing", CONTACT_SETTING_ENTITY_ID);
+
+		// Assert
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void deleteByIdIn() {
+
+		// Act
+		final var result = contactSettingRepository.deleteByIdIn(List.of(CONTACT_SETTING_ENTITY_ID, CONTACT_SETTING_VIRTUAL_ENTITY_ID, NON_EXISTING_ID));
+
+		// Assert (the channels are removed by the database)
+		assertThat(result).isEqualTo(2);
+		assertThat(contactSettingRepository.findById(CONTACT_SETTING_ENTITY_ID)).isNotPresent();
+		assertThat(contactSettingRepository.findById(CONTACT_SETTING_VIRTUAL_ENTITY_ID)).isNotPresent();
+		assertThat(contactSettingRepository.findByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, "john.smith@example.com")).isEmpty();
+	}
+
+	@Test
+	void tombstoneByIdIn() {
+
+		// Act
+		final var result = contactSettingRepository.tombstoneByIdIn(List.of(CONTACT_SETTING_ENTITY_ID, CONTACT_SETTING_VIRTUAL_ENTITY_ID, NON_EXISTING_ID), now());
+
+		// Assert (tombstoned entities are excluded from all entity queries)
+		assertThat(result).isEqualTo(2);
+		assertThat(contactSettingRepository.findById(CONTACT_SETTING_ENTITY_ID)).isNotPresent();
+		assertThat(contactSettingRepository.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, CONTACT_SETTING_ENTITY_PARTY_ID)).isNotPresent();
+		assertThat(contactSettingRepository.findVirtualIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, CONTACT_SETTING_ENTITY_ID)).isEmpty();
+		assertThat(contactSettingRepository.findByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, "john.smith@example.com")).isEmpty();
+		assertThat(contactSettingRepository.findIdsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, "john.smith@example.com", 10)).isEmpty();
+		assertThat(contactSettingRepository.findTombstonedIds(10)).containsExactlyInAnyOrder(CONTACT_SETTING_ENTITY_ID, CONTACT_SETTING_VIRTUAL_ENTITY_ID);
+		assertThat(contactSettingRepository.countTombstoned()).isEqualTo(2);
+
+		// The partyId is released, so that the party can get a new entity at once.
+		assertThat(contactSettingRepository.save(createContactSettingEntity().withMunicipalityId(MUNICIPALITY_ID).withPartyId(CONTACT_SETTING_ENTITY_PARTY_ID)).getId()).isNotNull();
+	}
+
+	@Test
+	void findTombstonedIdsNotFound() {
+
+		// Act
+		final var result = contactSettingRepository.findTombstonedIds(10);
+
+		// Assert
+		assertThat(result).isEmpty();
+		assertThat(contactSettingRepository.countTombstoned()).isZero();
+	}
+
+	@Test
+	void deleteTombstonedByIdIn() {
+
+		// Arrange
+		contactSettingRepository.tombstoneByIdIn(List.of(CONTACT_SETTING_VIRTUAL_ENTITY_ID), now());
+
+		// Act (only tombstoned entities are deleted)
+		final var result = contactSettingRepository.deleteTombstonedByIdIn(List.of(CONTACT_SETTING_ENTITY_ID, CONTACT_SETTING_VIRTUAL_ENTITY_ID));
+
+		// Assert
+		assertThat(result).isOne();
+		assertThat(contactSettingRepository.findById(CONTACT_SETTING_ENTITY_ID)).isPresent();
+		assertThat(contactSettingRepository.findTombstonedIds(10)).isEmpty();
+	}
+
+	@Test
+	@Transactional // Streams must be consumed within a transaction.
+	void streamWithChannelsByMunicipalityIdAndCreatedById() {
+
+		// Act
+		try (final var stream = contactSettingRepository.streamWithChannelsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, CONTACT_SETTING_ENTITY_ID)) {
+			final var result = stream.toList();
+
+			// Assert
+			assertThat(result)
+				.extracting(ContactSettingEntity::getAlias, ContactSettingEntity::getId, ContactSettingEntity::getCreatedById)
+				.containsExactly(tuple("Virtual friend", CONTACT_SETTING_VIRTUAL_ENTITY_ID, CONTACT_SETTING_ENTITY_ID));
+		}
+	}
+
+	@Test
+	@Transactional // Streams must be consumed within a transaction.
+	void streamWithChannelsByMunicipalityIdAndCreatedByIdNotFound() {
+
+		// Act
+		try (final var stream = contactSettingRepository.streamWithChannelsByMunicipalityIdAndCreatedById("non-existing", CONTACT_SETTING_ENTITY_ID)) {
+
+			// Assert
+			assertThat(stream).isEmpty();
+		}
+	}
+
+	@Test
+	@Transactional // Streams must be consumed within a transaction.
+	void streamWithChannelsByMunicipalityIdAndChannelsDestination() {
+
+		// Act
+		try (final var stream = contactSettingRepository.streamWithChannelsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, "46701111111")) {
+			final var result = stream.toList();
+
+			// Assert
+			assertThat(result).hasSize(1);
+			assertThat(result.getFirst().getId()).isEqualTo(CONTACT_SETTING_ENTITY_ID);
+			assertThat(result.getFirst().getChannels())
+				.extracting(Channel::getAlias, Channel::getContactMethod, Channel::getDestination)
+				.containsExactlyInAnyOrder(
+					tuple("Email", "EMAIL", "john.smith@example.com"),
+					tuple("SMS", "SMS", "46701111111"));
+		}
+	}
+
+	@Test
+	@Transactional // Streams must be consumed within a transaction.
+	void streamWithChannelsByMunicipalityIdAndChannelsDestinationNotFound() {
+
+		// Act
+		try (final var stream = contactSettingRepository.streamWithChannelsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, "non-existing")) {
+
+			// Assert
+			assertThat(stream).isEmpty();
+		}
+	}
+
+	@Test
+	@Transactional // Streams must be consumed within a transaction.
+	void streamWithChannelsByMunicipalityId() {
+
+		// Act
+		try (final var stream = contactSettingRepository.streamWithChannelsByMunicipalityId(MUNICIPALITY_ID)) {
+			final var result = stream.toList();
+
+			// Assert
+			assertThat(result)
+				.extracting(ContactSettingEntity::getAlias)
+				.containsExactlyInAnyOrder("John Smith", "Joe Doe", "Jane Doe", "Virtual friend");
+			assertThat(result)
+				.filteredOn(entity -> CONTACT_SETTING_ENTITY_ID.equals(entity.getId()))
+				.singleElement()
+				.satisfies(entity -> assertThat(entity.getChannels())
+					.extracting(Channel::getContactMethod, Channel::getDestination)
+					.containsExactlyInAnyOrder(
+						tuple("EMAIL", "john.smith@example.com"),
+						tuple("SMS", "46701111111")));
+		}
+	}
+
+	@Test
+	@Transactional // Streams must be consumed within a transaction.
+	void streamWithChannelsByMunicipalityIdNotFound() {
+
+		// Act
+		try (final var stream = contactSettingRepository.streamWithChannelsByMunicipalityId("non-existing")) {
+
+			// Assert
+			assertThat(stream).isEmpty();
+		}
+	}
+
+	@Test
+	void findIdsByMunicipalityIdAndCreatedById() {
+
+		// Act
+		final var result = contactSettingRepository.findIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, CONTACT_SETTING_ENTITY_ID, Limit.of(10));
+
+		// Assert
+		assertThat(result).containsExactly(CONTACT_SETTING_VIRTUAL_ENTITY_ID);
+	}
+
+	@Test
+	void findIdsByMunicipalityIdAndCreatedByIdAfter() {
+
+		// Arrange
+		final var child = contactSettingRepository.findById(CONTACT_SETTING_VIRTUAL_ENTITY_ID).orElseThrow();
+
+		// Act
+		final var resultAfterEarlierCreated = contactSettingRepository.findIdsByMunicipalityIdAndCreatedByIdAfter(MUNICIPALITY_ID, CONTACT_SETTING_ENTITY_ID, child.getCreated().minusSeconds(1), "", Limit.of(10));
+		final var resultAfterLowerId = contactSettingRepository.findIdsByMunicipalityIdAndCreatedByIdAfter(MUNICIPALITY_ID, CONTACT_SETTING_ENTITY_ID, child.getCreated(), "", Limit.of(10));
+		final var resultAfterChild = contactSettingRepository.findIdsByMunicipalityIdAndCreatedByIdAfter(MUNICIPALITY_ID, CONTACT_SETTING_ENTITY_ID, child.getCreated(), child.getId(), Limit.of(10));
+
+		// Assert
+		assertThat(resultAfterEarlierCreated).containsExactly(CONTACT_SETTING_VIRTUAL_ENTITY_ID);
+		assertThat(resultAfterLowerId).containsExactly(CONTACT_SETTING_VIRTUAL_ENTITY_ID);
+		assertThat(resultAfterChild).isEmpty();
+	}
+
+	@Test
+	void findIdsByMunicipalityIdAndChannelsDestination() {
+
+		// Act
+		final var result = contactSettingRepository.findIdsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, "46701111111", 10);
+
+		// Assert
+		assertThat(result).containsExactly(CONTACT_SETTING_ENTITY_ID);
+	}
+
+	@Test
+	void findIdsByMunicipalityIdAndChannelsDestinationAfter() {
+
+		// Act
+		final var resultAfterLowerId = contactSettingRepository.findIdsByMunicipalityIdAndChannelsDestinationAfter(MUNICIPALITY_ID, "46701111111", NON_EXISTING_ID, 10);
+		final var resultAfterEntity = contactSettingRepository.findIdsByMunicipalityIdAndChannelsDestinationAfter(MUNICIPALITY_ID, "46701111111", CONTACT_SETTING_ENTITY_ID, 10);
+
+		// Assert
+		assertThat(resultAfterLowerId).containsExactly(CONTACT_SETTING_ENTITY_ID);
+		assertThat(resultAfterEntity).isEmpty();
+	}
+
+	@Test
+	void findWithChannelsByIdIn() {
+
+		// Act
+		final var result = contactSettingRepository.findWithChannelsByIdIn(List.of(CONTACT_SETTING_ENTITY_ID, CONTACT_SETTING_VIRTUAL_ENTITY_ID));
+
+		// Assert
+		assertThat(result)
+			.extracting(ContactSettingEntity::getId, ContactSettingEntity::getAlias)
+			.containsExactlyInAnyOrder(
+				tuple(CONTACT_SETTING_ENTITY_ID, "John Smith"),
+				tuple(CONTACT_SETTING_VIRTUAL_ENTITY_ID, "Virtual friend"));
+		assertThat(result)
+			.filteredOn(entity -> CONTACT_SETTING_ENTITY_ID.equals(entity.getId()))
+			.flatExtracting(ContactSettingEntity::getChannels)
+			.extracting(Channel::getAlias, Channel::getContactMethod, Channel::getDestination)
+			.containsExactlyInAnyOrder(
+				tuple("Email", "EMAIL", "john.smith@example.com"),
+				tuple("SMS", "SMS", "46701111111"));
+	}
+
+	@Test
+	void findWithChannelsByIdInNotFound() {
+
+		// Act
+		final var result = contactSettingRepository.findWithChannelsByIdIn(List.of(NON_EXISTING_ID));
+
+		// Assert
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void findWithChannelsByMunicipalityIdAndPartyIdIn() {
+
+		// Act
+		final var result = contactSettingRepository.findWithChannelsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, List.of(
+			CONTACT_SETTING_ENTITY_PARTY_ID,
+			"62fd9c95-99c0-4874-b0ef-e990aaab03c6", // Joe Doe.
+			"3189727c-68e9-40f0-b7e4-838aa9752b91", // Outside Joe, other municipality.
+			"non-existing"));
+
+		// Assert
+		assertThat(result)
+			.extracting(ContactSettingEntity::getPartyId, ContactSettingEntity::getAlias)
+			.containsExactlyInAnyOrder(
+				tuple(CONTACT_SETTING_ENTITY_PARTY_ID, "John Smith"),
+				tuple("62fd9c95-99c0-4874-b0ef-e990aaab03c6", "Joe Doe"));
+		assertThat(result)
+			.filteredOn(entity -> CONTACT_SETTING_ENTITY_ID.equals(entity.getId()))
+			.flatExtracting(ContactSettingEntity::getChannels)
+			.extracting(Channel::getAlias, Channel::getContactMethod, Channel::getDestination)
+			.containsExactlyInAnyOrder(
+				tuple("Email", "EMAIL", "john.smith@example.com"),
+				tuple("SMS", "SMS", "46701111111"));
+	}
+
+	@Test
+	void findWithChannelsByMunicipalityIdAndPartyIdInNotFound() {
+
+		// Act
+		final var result = contactSettingRepository.findWithChannelsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, List.of("non-existing"));
+
+		// Assert
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void findIdentitiesByMunicipalityIdAndIdIn() {
+
+		// Act
+		final var result = contactSettingRepository.findIdentitiesByMunicipalityIdAndIdIn(MUNICIPALITY_ID, List.of(
+			CONTACT_SETTING_ENTITY_ID,
+			CONTACT_SETTING_VIRTUAL_ENTITY_ID,
+			"951dacb1-645a-41fd-952a-6089abdce481", // Outside Joe, other municipality.
+			NON_EXISTING_ID));
+
+		// Assert
+		assertThat(result)
+			.extracting(ContactSettingIdentity::getId, ContactSettingIdentity::getPartyId)
+			.containsExactlyInAnyOrder(
+				tuple(CONTACT_SETTING_ENTITY_ID, CONTACT_SETTING_ENTITY_PARTY_ID),
+				tuple(CONTACT_SETTING_VIRTUAL_ENTITY_ID, null));
+	}
+
+	@Test
+	void findIdentitiesByMunicipalityIdAndPartyIdIn() {
+
+		// Act
+		final var result = contactSettingRepository.findIdentitiesByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, List.of(
+			CONTACT_SETTING_ENTITY_PARTY_ID,
+			"62fd9c95-99c0-4874-b0ef-e990aaab03c6", // Joe Doe.
+			"3189727c-68e9-40f0-b7e4-838aa9752b91", // Outside Joe, other municipality.
+			"non-existing"));
+
+		// Assert
+		assertThat(result)
+			.extracting(ContactSettingIdentity::getId, ContactSettingIdentity::getPartyId)
+			.containsExactlyInAnyOrder(
+				tuple(CONTACT_SETTING_ENTITY_ID, CONTACT_SETTING_ENTITY_PARTY_ID),
+				tuple("534ba8a0-7484-45b3-b041-ff90f1228c16", "62fd9c95-99c0-4874-b0ef-e990aaab03c6"));
+	}
+
 	private static ContactSettingEntity createContactSettingEntity() {
 		return ContactSettingEntity.create()
 			.withAlias("alias")
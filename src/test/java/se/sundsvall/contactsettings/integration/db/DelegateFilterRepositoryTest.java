@@ -17,6 +17,7 @@ import static java.time.temporal.ChronoUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.api.Assertions.within;
+import static org.hibernate.Hibernate.isInitialized;
 import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
 import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
@@ -38,6 +39,12 @@ import static se.sundsvall.contactsettings.api.model.enums.Operator.NOT_EQUALS;
 class DelegateFilterRepositoryTest {
 
 	private static final String DELEGATE_FILTER_ENTITY_ID = "4327dae1-a00b-462d-885a-417628ea3114";
+	private static final String DELEGATE_ID = "4d6adb65-172a-4671-a667-5e142bfc353e";
+	private static final String DELEGATE_AGENT_ID = "07025549-3fbd-4db2-ab40-e1b93034b254";
+	private static final String NON_EXISTING_ID = "00000000-0000-0000-0000-000000000000";
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
 
 	@Autowired
 	private DelegateFilterRepository delegateFilterRepository;
@@ -94,7 +101,65 @@ class DelegateFilterRepositoryTest {
 	void findByIdNotFound() {
 
 		// Act
-		final var result = delegateFilterRepository.findById("non-existing");
+		final var result = delegateFilterRepository.findById(NON_EXISTING_ID);
+
+		// Assert
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void findByIdAndDelegateId() {
+
+		// Act
+		final var result = delegateFilterRepository.findByIdAndDelegateId(DELEGATE_FILTER_ENTITY_ID, DELEGATE_ID).orElseThrow();
+
+		// Assert
+		assertThat(result.getId()).isEqualTo(DELEGATE_FILTER_ENTITY_ID);
+		assertThat(isInitialized(result.getFilterRules())).isTrue();
+		assertThat(delegateFilterRepository.findByIdAndDelegateId(DELEGATE_FILTER_ENTITY_ID, NON_EXISTING_ID)).isEmpty();
+	}
+
+	@Test
+	void existsByIdAndDelegateId() {
+
+		// Act and assert
+		assertThat(delegateFilterRepository.existsByIdAndDelegateId(DELEGATE_FILTER_ENTITY_ID, DELEGATE_ID)).isTrue();
+		assertThat(delegateFilterRepository.existsByIdAndDelegateId(DELEGATE_FILTER_ENTITY_ID, NON_EXISTING_ID)).isFalse();
+	}
+
+	@Test
+	@Transactional
+	void findByIdAndDelegateIdWhenAgentIsTombstoned() {
+
+		// Arrange
+		contactSettingRepository.tombstoneByIdIn(List.of(DELEGATE_AGENT_ID), now());
+
+		// Act and assert
+		assertThat(delegateFilterRepository.findByIdAndDelegateId(DELEGATE_FILTER_ENTITY_ID, DELEGATE_ID)).isEmpty();
+		assertThat(delegateFilterRepository.existsByIdAndDelegateId(DELEGATE_FILTER_ENTITY_ID, DELEGATE_ID)).isFalse();
+	}
+
+	@Test
+	void findWithRulesByDelegateIdIn() {
+
+		// Act
+		final var result = delegateFilterRepository.findWithRulesByDelegateIdIn(List.of(DELEGATE_ID, NON_EXISTING_ID));
+
+		// Assert
+		assertThat(result)
+			.extracting(DelegateFilterEntity::getId, DelegateFilterEntity::getDelegateId)
+			.containsExactly(tuple(DELEGATE_FILTER_ENTITY_ID, DELEGATE_ID));
+		assertThat(isInitialized(result.getFirst().getFilterRules())).isTrue();
+		assertThat(result.getFirst().getFilterRules())
+			.extracting(DelegateFilterRule::getAttributeName, DelegateFilterRule::getOperator, DelegateFilterRule::getAttributeValue)
+			.containsExactly(tuple("facilityId", "EQUALS", "12345678"));
+	}
+
+	@Test
+	void findWithRulesByDelegateIdInNotFound() {
+
+		// Act
+		final var result = delegateFilterRepository.findWithRulesByDelegateIdIn(List.of(NON_EXISTING_ID));
 
 		// Assert
 		assertThat(result).isEmpty();
@@ -6,20 +6,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.contactsettings.integration.db.model.Channel;
 import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateChainRow;
 import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateExportRow;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.contactsettings.integration.db.model.DelegateSummary;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.hibernate.Hibernate.isInitialized;
 import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
 import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
@@ -39,12 +46,14 @@ import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
 })
 class DelegateRepositoryTest {
 
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String OTHER_MUNICIPALITY_ID = "1984";
 	private static final String DELEGATE_ENTITY_ID = "4d6adb65-172a-4671-a667-5e142bfc353e";
 	private static final String DELEGATE_ENTITY_PRINCIPAL_ID = "534ba8a0-7484-45b3-b041-ff90f1228c16";
-	private static final String DELEGATE_ENTITY_PRINCIPAL_PARTY_ID = "62fd9c95-99c0-4874-b0ef-e990aaab03c6";
 	private static final String DELEGATE_ENTITY_AGENT_ID = "07025549-3fbd-4db2-ab40-e1b93034b254";
-	private static final String DELEGATE_ENTITY_AGENT_PARTY_ID = "7af1869c-a8c2-4690-8d89-112ef15b4ffd";
+	private static final String NON_EXISTING_ID = "00000000-0000-0000-0000-000000000000";
 	private static final String DELEGATE_FILTER_ENTITY_ID = "4327dae1-a00b-462d-885a-417628ea3114";
+	private static final String OTHER_DELEGATE_ENTITY_ID = "d929c8ad-7cfb-4e49-ac53-1c26da40aed7";
 
 	@Autowired
 	private ContactSettingRepository contactSettingRepository;
@@ -90,6 +99,80 @@ class DelegateRepositoryTest {
 				.allMatch(rule -> "key".equals(rule.getAttributeName()) && "value".equals(rule.getAttributeValue()) && rule.getOperator().equals(EQUALS.toString())));
 	}
 
+	@Test
+	void createWithExistingPrincipalAndAgent() {
+
+		// Arrange
+		final var entity = DelegateEntity.create()
+			.withPrincipal(contactSettingRepository.findById(DELEGATE_ENTITY_PRINCIPAL_ID).orElseThrow())
+			.withAgent(contactSettingRepository.findById(DELEGATE_ENTITY_AGENT_ID).orElseThrow());
+
+		// Act
+		final var exception = assertThrows(DataIntegrityViolationException.class, () -> delegateRepository.saveAndFlush(entity));
+
+		// Assert
+		assertThat(exception.getMessage()).contains("uq_delegate_principal_id_agent_id");
+	}
+
+	@Test
+	void findWithFiltersById() {
+
+		// Act
+		final var result = delegateRepository.findWithFiltersById(DELEGATE_ENTITY_ID).orElseThrow();
+
+		// Assert
+		assertThat(result.getId()).isEqualTo(DELEGATE_ENTITY_ID);
+		assertThat(isInitialized(result.getAgent())).isFalse();
+		assertThat(isInitialized(result.getPrincipal())).isFalse();
+		assertThat(isInitialized(result.getFilters())).isTrue();
+		assertThat(result.getFilters()).extracting(DelegateFilterEntity::getId).containsExactly(DELEGATE_FILTER_ENTITY_ID);
+	}
+
+	@Test
+	void findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId() {
+
+		// Act
+		final var result = delegateRepository.findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(DELEGATE_ENTITY_ID, MUNICIPALITY_ID, MUNICIPALITY_ID).orElseThrow();
+
+		// Assert
+		assertThat(result.getId()).isEqualTo(DELEGATE_ENTITY_ID);
+		assertThat(result.getAgent().getId()).isEqualTo(DELEGATE_ENTITY_AGENT_ID);
+		assertThat(result.getPrincipal().getId()).isEqualTo(DELEGATE_ENTITY_PRINCIPAL_ID);
+		assertThat(isInitialized(result.getAgent())).isFalse();
+		assertThat(isInitialized(result.getPrincipal())).isFalse();
+		assertThat(isInitialized(result.getFilters())).isTrue();
+		assertThat(result.getFilters()).extracting(DelegateFilterEntity::getId).containsExactly(DELEGATE_FILTER_ENTITY_ID);
+	}
+
+	@Test
+	void findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityIdWhenWrongMunicipality() {
+
+		// Act and assert
+		assertThat(delegateRepository.findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(DELEGATE_ENTITY_ID, OTHER_MUNICIPALITY_ID, MUNICIPALITY_ID)).isEmpty();
+		assertThat(delegateRepository.findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(DELEGATE_ENTITY_ID, MUNICIPALITY_ID, OTHER_MUNICIPALITY_ID)).isEmpty();
+		assertThat(delegateRepository.findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(NON_EXISTING_ID, MUNICIPALITY_ID, MUNICIPALITY_ID)).isEmpty();
+	}
+
+	@Test
+	void existsByPrincipalIdAndAgentId() {
+
+		// Act
+		final var result = delegateRepository.existsByPrincipalIdAndAgentId(DELEGATE_ENTITY_PRINCIPAL_ID, DELEGATE_ENTITY_AGENT_ID);
+
+		// Assert
+		assertThat(result).isTrue();
+	}
+
+	@Test
+	void existsByPrincipalIdAndAgentIdNotFound() {
+
+		// Act
+		final var result = delegateRepository.existsByPrincipalIdAndAgentId(DELEGATE_ENTITY_AGENT_ID, DELEGATE_ENTITY_PRINCIPAL_ID);
+
+		// Assert
+		assertThat(result).isFalse();
+	}
+
 	@Test
 	void findByAgentId() {
 
@@ -100,16 +183,18 @@ class DelegateRepositoryTest {
 		assertThat(result).hasSize(1);
 		assertThat(result.get(0).getId()).isEqualTo(DELEGATE_ENTITY_ID);
 		assertThat(result.get(0).getAgent().getId()).isEqualTo(DELEGATE_ENTITY_AGENT_ID);
-		assertThat(result.get(0).getAgent().getPartyId()).isEqualTo(DELEGATE_ENTITY_AGENT_PARTY_ID);
 		assertThat(result.get(0).getPrincipal().getId()).isEqualTo(DELEGATE_ENTITY_PRINCIPAL_ID);
-		assertThat(result.get(0).getPrincipal().getPartyId()).isEqualTo(DELEGATE_ENTITY_PRINCIPAL_PARTY_ID);
+		assertThat(isInitialized(result.get(0).getAgent())).isFalse();
+		assertThat(isInitialized(result.get(0).getPrincipal())).isFalse();
+		assertThat(isInitialized(result.get(0).getFilters())).isTrue();
+		assertThat(result.get(0).getFilters()).extracting(DelegateFilterEntity::getId).containsExactly(DELEGATE_FILTER_ENTITY_ID);
 	}
 
 	@Test
 	void findByAgentIdNotFound() {
 
 		// Act
-		final var result = delegateRepository.findByAgentId("non-existing");
+		final var result = delegateRepository.findByAgentId(NON_EXISTING_ID);
 
 		// Assert
 		assertThat(result).isEmpty();
@@ -125,16 +210,18 @@ class DelegateRepositoryTest {
 		assertThat(result).hasSize(1);
 		assertThat(result.get(0).getId()).isEqualTo(DELEGATE_ENTITY_ID);
 		assertThat(result.get(0).getAgent().getId()).isEqualTo(DELEGATE_ENTITY_AGENT_ID);
-		assertThat(result.get(0).getAgent().getPartyId()).isEqualTo(DELEGATE_ENTITY_AGENT_PARTY_ID);
 		assertThat(result.get(0).getPrincipal().getId()).isEqualTo(DELEGATE_ENTITY_PRINCIPAL_ID);
-		assertThat(result.get(0).getPrincipal().getPartyId()).isEqualTo(DELEGATE_ENTITY_PRINCIPAL_PARTY_ID);
+		assertThat(isInitialized(result.get(0).getAgent())).isFalse();
+		assertThat(isInitialized(result.get(0).getPrincipal())).isFalse();
+		assertThat(isInitialized(result.get(0).getFilters())).isTrue();
+		assertThat(result.get(0).getFilters()).extracting(DelegateFilterEntity::getId).containsExactly(DELEGATE_FILTER_ENTITY_ID);
 	}
 
 	@Test
 	void findByPrincipalIdNotFound() {
 
 		// Act
-		final var result = delegateRepository.findByPrincipalId("non-existing");
+		final var result = delegateRepository.findByPrincipalId(NON_EXISTING_ID);
 
 		// Assert
 		assertThat(result).isEmpty();
@@ -150,16 +237,205 @@ class DelegateRepositoryTest {
 		assertThat(result).hasSize(1);
 		assertThat(result.get(0).getId()).isEqualTo(DELEGATE_ENTITY_ID);
 		assertThat(result.get(0).getAgent().getId()).isEqualTo(DELEGATE_ENTITY_AGENT_ID);
-		assertThat(result.get(0).getAgent().getPartyId()).isEqualTo(DELEGATE_ENTITY_AGENT_PARTY_ID);
 		assertThat(result.get(0).getPrincipal().getId()).isEqualTo(DELEGATE_ENTITY_PRINCIPAL_ID);
-		assertThat(result.get(0).getPrincipal().getPartyId()).isEqualTo(DELEGATE_ENTITY_PRINCIPAL_PARTY_ID);
+		assertThat(isInitialized(result.get(0).getAgent())).isFalse();
+		assertThat(isInitialized(result.get(0).getPrincipal())).isFalse();
+		assertThat(isInitialized(result.get(0).getFilters())).isTrue();
+		assertThat(result.get(0).getFilters()).extracting(DelegateFilterEntity::getId).containsExactly(DELEGATE_FILTER_ENTITY_ID);
 	}
 
 	@Test
 	void findByPrincipalIdAndAgentIdNotFound() {
 
 		// Act
-		final var result = delegateRepository.findByPrincipalIdAndAgentId(DELEGATE_ENTITY_PRINCIPAL_ID, "non-existing");
+		final var result = delegateRepository.findByPrincipalIdAndAgentId(DELEGATE_ENTITY_PRINCIPAL_ID, NON_EXISTING_ID);
+
+		// Assert
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void findSummariesByAgentId() {
+
+		// Act
+		final var result = delegateRepository.findSummariesByAgentId(DELEGATE_ENTITY_AGENT_ID);
+
+		// Assert
+		assertThat(result)
+			.extracting(DelegateSummary::getId, DelegateSummary::getPrincipalId, DelegateSummary::getAgentId)
+			.containsExactly(tuple(DELEGATE_ENTITY_ID, DELEGATE_ENTITY_PRINCIPAL_ID, DELEGATE_ENTITY_AGENT_ID));
+		assertThat(result.getFirst().getCreated()).isNotNull();
+	}
+
+	@Test
+	void findSummariesByPrincipalId() {
+
+		// Act
+		final var result = delegateRepository.findSummariesByPrincipalId(DELEGATE_ENTITY_PRINCIPAL_ID);
+
+		// Assert
+		assertThat(result)
+			.extracting(DelegateSummary::getId, DelegateSummary::getPrincipalId, DelegateSummary::getAgentId)
+			.containsExactly(tuple(DELEGATE_ENTITY_ID, DELEGATE_ENTITY_PRINCIPAL_ID, DELEGATE_ENTITY_AGENT_ID));
+	}
+
+	@Test
+	void findSummariesByPrincipalIdAndAgentId() {
+
+		// Act
+		final var result = delegateRepository.findSummariesByPrincipalIdAndAgentId(DELEGATE_ENTITY_PRINCIPAL_ID, DELEGATE_ENTITY_AGENT_ID);
+
+		// Assert
+		assertThat(result)
+			.extracting(DelegateSummary::getId, DelegateSummary::getPrincipalId, DelegateSummary::getAgentId)
+			.containsExactly(tuple(DELEGATE_ENTITY_ID, DELEGATE_ENTITY_PRINCIPAL_ID, DELEGATE_ENTITY_AGENT_ID));
+	}
+
+	@Test
+	void findSummariesByPrincipalIdIn() {
+
+		// Act
+		final var result = delegateRepository.findSummariesByPrincipalIdIn(List.of(DELEGATE_ENTITY_PRINCIPAL_ID, NON_EXISTING_ID));
+
+		// Assert
+		assertThat(result)
+			.extracting(DelegateSummary::getId, DelegateSummary::getPrincipalId, DelegateSummary::getAgentId)
+			.containsExactly(tuple(DELEGATE_ENTITY_ID, DELEGATE_ENTITY_PRINCIPAL_ID, DELEGATE_ENTITY_AGENT_ID));
+	}
+
+	@Test
+	@Transactional
+	void findSummariesWhenAgentIsTombstoned() {
+
+		// Arrange
+		contactSettingRepository.tombstoneByIdIn(List.of(DELEGATE_ENTITY_AGENT_ID), now());
+
+		// Act and assert
+		assertThat(delegateRepository.findSummariesByAgentId(DELEGATE_ENTITY_AGENT_ID)).isEmpty();
+		assertThat(delegateRepository.findSummariesByPrincipalId(DELEGATE_ENTITY_PRINCIPAL_ID)).isEmpty();
+		assertThat(delegateRepository.findSummariesByPrincipalIdAndAgentId(DELEGATE_ENTITY_PRINCIPAL_ID, DELEGATE_ENTITY_AGENT_ID)).isEmpty();
+		assertThat(delegateRepository.findWithFiltersById(DELEGATE_ENTITY_ID)).isEmpty();
+	}
+
+	@Test
+	void findSummariesByPrincipalIdAndAgentIdNotFound() {
+
+		// Act
+		final var result = delegateRepository.findSummariesByPrincipalIdAndAgentId(DELEGATE_ENTITY_PRINCIPAL_ID, NON_EXISTING_ID);
+
+		// Assert
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void findDelegateChainByRootPrincipalId() {
+
+		// Act
+		final var result = delegateRepository.findDelegateChainByRootPrincipalId(DELEGATE_ENTITY_PRINCIPAL_ID);
+
+		// Assert
+		assertThat(result)
+			.extracting(DelegateChainRow::getDelegateId, DelegateChainRow::getPrincipalId, DelegateChainRow::getAgentId, DelegateChainRow::getFilterId,
+				DelegateChainRow::getAttributeName, DelegateChainRow::getOperator, DelegateChainRow::getAttributeValue)
+			.containsExactly(tuple(DELEGATE_ENTITY_ID, DELEGATE_ENTITY_PRINCIPAL_ID, DELEGATE_ENTITY_AGENT_ID, DELEGATE_FILTER_ENTITY_ID, "facilityId", "EQUALS", "12345678"));
+	}
+
+	@Test
+	void findDelegateChainByRootPrincipalIdWithCircularReferences() {
+
+		// Arrange
+		final var first = contactSettingRepository.save(createContactSettingEntity());
+		final var second = contactSettingRepository.save(createContactSettingEntity());
+		final var third = contactSettingRepository.save(createContactSettingEntity());
+		final var firstToSecond = delegateRepository.save(DelegateEntity.create().withPrincipal(first).withAgent(second));
+		final var secondToThird = delegateRepository.save(DelegateEntity.create().withPrincipal(second).withAgent(third));
+		final var thirdToFirst = delegateRepository.save(DelegateEntity.create().withPrincipal(third).withAgent(first));
+
+		// Act
+		final var result = delegateRepository.findDelegateChainByRootPrincipalId(first.getId());
+
+		// Assert
+		assertThat(result)
+			.extracting(DelegateChainRow::getDelegateId, DelegateChainRow::getPrincipalId, DelegateChainRow::getAgentId, DelegateChainRow::getFilterId)
+			.containsExactlyInAnyOrder(
+				tuple(firstToSecond.getId(), first.getId(), second.getId(), null),
+				tuple(secondToThird.getId(), second.getId(), third.getId(), null),
+				tuple(thirdToFirst.getId(), third.getId(), first.getId(), null));
+	}
+
+	@Test
+	void findDelegateChainByRootPrincipalIdNotFound() {
+
+		// Act
+		final var result = delegateRepository.findDelegateChainByRootPrincipalId(NON_EXISTING_ID);
+
+		// Assert
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void findDelegateChainByRootPrincipalIdIn() {
+
+		// Arrange
+		final var first = contactSettingRepository.save(createContactSettingEntity());
+		final var second = contactSettingRepository.save(createContactSettingEntity());
+		final var shared = contactSettingRepository.save(createContactSettingEntity());
+		final var leaf = contactSettingRepository.save(createContactSettingEntity());
+		final var firstToShared = delegateRepository.save(DelegateEntity.create().withPrincipal(first).withAgent(shared));
+		final var secondToShared = delegateRepository.save(DelegateEntity.create().withPrincipal(second).withAgent(shared));
+		final var sharedToLeaf = delegateRepository.save(DelegateEntity.create().withPrincipal(shared).withAgent(leaf));
+
+		// Act
+		final var result = delegateRepository.findDelegateChainByRootPrincipalIdIn(List.of(first.getId(), second.getId()));
+
+		// Assert
+		assertThat(result)
+			.extracting(DelegateChainRow::getDelegateId, DelegateChainRow::getPrincipalId, DelegateChainRow::getAgentId, DelegateChainRow::getFilterId)
+			.containsExactlyInAnyOrder(
+				tuple(firstToShared.getId(), first.getId(), shared.getId(), null),
+				tuple(secondToShared.getId(), second.getId(), shared.getId(), null),
+				tuple(sharedToLeaf.getId(), shared.getId(), leaf.getId(), null)); // The shared sub-tree is only included once.
+	}
+
+	@Test
+	void findDelegateChainByRootPrincipalIdInNotFound() {
+
+		// Act
+		final var result = delegateRepository.findDelegateChainByRootPrincipalIdIn(List.of(NON_EXISTING_ID));
+
+		// Assert
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void findDelegateChainByPrincipalIdIn() {
+
+		// Arrange
+		final var first = contactSettingRepository.save(createContactSettingEntity());
+		final var second = contactSettingRepository.save(createContactSettingEntity());
+		final var third = contactSettingRepository.save(createContactSettingEntity());
+		final var firstToThird = delegateRepository.save(DelegateEntity.create().withPrincipal(first).withAgent(third));
+		final var secondToThird = delegateRepository.save(DelegateEntity.create().withPrincipal(second).withAgent(third));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(third).withAgent(first)); // Next level, must not be included.
+
+		// Act
+		final var result = delegateRepository.findDelegateChainByPrincipalIdIn(List.of(first.getId(), second.getId(), DELEGATE_ENTITY_PRINCIPAL_ID));
+
+		// Assert
+		assertThat(result)
+			.extracting(DelegateChainRow::getDelegateId, DelegateChainRow::getPrincipalId, DelegateChainRow::getAgentId, DelegateChainRow::getFilterId,
+				DelegateChainRow::getAttributeName, DelegateChainRow::getOperator, DelegateChainRow::getAttributeValue)
+			.containsExactlyInAnyOrder(
+				tuple(DELEGATE_ENTITY_ID, DELEGATE_ENTITY_PRINCIPAL_ID, DELEGATE_ENTITY_AGENT_ID, DELEGATE_FILTER_ENTITY_ID, "facilityId", "EQUALS", "12345678"),
+				tuple(firstToThird.getId(), first.getId(), third.getId(), null, null, null, null),
+				tuple(secondToThird.getId(), second.getId(), third.getId(), null, null, null, null));
+	}
+
+	@Test
+	void findDelegateChainByPrincipalIdInNotFound() {
+
+		// Act
+		final var result = delegateRepository.findDelegateChainByPrincipalIdIn(List.of(NON_EXISTING_ID));
 
 		// Assert
 		assertThat(result).isEmpty();
@@ -184,6 +460,124 @@ class DelegateRepositoryTest {
 		assertThat(contactSettingRepository.findById(DELEGATE_ENTITY_AGENT_ID)).isPresent(); // Should still be present.
 	}
 
+	@Test
+	void deleteByIdAndMunicipalityId() {
+
+		// Act
+		final var result = delegateRepository.deleteByIdAndMunicipalityId(DELEGATE_ENTITY_ID, MUNICIPALITY_ID);
+
+		// Assert
+		assertThat(result).isOne();
+		assertThat(delegateRepository.findById(DELEGATE_ENTITY_ID)).isNotPresent(); // Should be removed.
+		assertThat(delegateFilterRepository.findById(DELEGATE_FILTER_ENTITY_ID)).isNotPresent(); // Should be removed by the database.
+		assertThat(contactSettingRepository.findById(DELEGATE_ENTITY_PRINCIPAL_ID)).isPresent(); // Should still be present.
+		assertThat(contactSettingRepository.findById(DELEGATE_ENTITY_AGENT_ID)).isPresent(); // Should still be present.
+	}
+
+	@Test
+	void deleteByPrincipalIdInOrAgentIdIn() {
+
+		// Act
+		final var result = delegateRepository.deleteByPrincipalIdInOrAgentIdIn(List.of(DELEGATE_ENTITY_AGENT_ID, NON_EXISTING_ID));
+
+		// Assert
+		assertThat(result).isOne();
+		assertThat(delegateRepository.findById(DELEGATE_ENTITY_ID)).isNotPresent(); // Should be removed.
+		assertThat(delegateFilterRepository.findById(DELEGATE_FILTER_ENTITY_ID)).isNotPresent(); // Should be removed by the database.
+		assertThat(delegateRepository.findById(OTHER_DELEGATE_ENTITY_ID)).isPresent(); // Should still be present.
+	}
+
+	@Test
+	void deleteByPrincipalIdInOrAgentIdInWithLimit() {
+
+		// Arrange
+		final var principal = contactSettingRepository.save(createContactSettingEntity());
+		delegateRepository.save(DelegateEntity.create().withPrincipal(principal).withAgent(contactSettingRepository.save(createContactSettingEntity())));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(principal).withAgent(contactSettingRepository.save(createContactSettingEntity())));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(principal).withAgent(contactSettingRepository.save(createContactSettingEntity())));
+
+		// Act
+		final var first = delegateRepository.deleteByPrincipalIdInOrAgentIdIn(List.of(principal.getId()), 2);
+		final var second = delegateRepository.deleteByPrincipalIdInOrAgentIdIn(List.of(principal.getId()), 2);
+
+		// Assert
+		assertThat(first).isEqualTo(2);
+		assertThat(second).isOne();
+		assertThat(delegateRepository.findSummariesByPrincipalId(principal.getId())).isEmpty();
+		assertThat(delegateRepository.findById(DELEGATE_ENTITY_ID)).isPresent(); // Should still be present.
+	}
+
+	@Test
+	void findDelegateChainExcludesTombstonedAgents() {
+
+		// Arrange
+		final var root = contactSettingRepository.save(createContactSettingEntity().withMunicipalityId(MUNICIPALITY_ID));
+		final var agent = contactSettingRepository.save(createContactSettingEntity().withMunicipalityId(MUNICIPALITY_ID));
+		final var tombstonedAgent = contactSettingRepository.save(createContactSettingEntity().withMunicipalityId(MUNICIPALITY_ID));
+		final var rootToAgent = delegateRepository.save(DelegateEntity.create().withPrincipal(root).withAgent(agent));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(root).withAgent(tombstonedAgent));
+		delegateRepository.save(DelegateEntity.create().withPrincipal(tombstonedAgent).withAgent(contactSettingRepository.save(createContactSettingEntity().withMunicipalityId(MUNICIPALITY_ID))));
+		contactSettingRepository.tombstoneByIdIn(List.of(tombstonedAgent.getId()), now());
+
+		// Act and assert
+		assertThat(delegateRepository.findDelegateChainByRootPrincipalId(root.getId())).extracting(DelegateChainRow::getDelegateId).containsExactly(rootToAgent.getId());
+		assertThat(delegateRepository.findDelegateChainByRootPrincipalIdIn(List.of(root.getId()))).extracting(DelegateChainRow::getDelegateId).containsExactly(rootToAgent.getId());
+		assertThat(delegateRepository.findDelegateChainByPrincipalIdIn(List.of(root.getId()))).extracting(DelegateChainRow::getDelegateId).containsExactly(rootToAgent.getId());
+		assertThat(delegateRepository.findDelegateGraphByMunicipalityId(MUNICIPALITY_ID)).extracting(DelegateChainRow::getDelegateId)
+			.containsExactlyInAnyOrder(DELEGATE_ENTITY_ID, rootToAgent.getId());
+	}
+
+	@Test
+	@Transactional // Streams must be consumed within a transaction.
+	void streamExportRowsByMunicipalityId() {
+
+		// Arrange
+		final var principal = contactSettingRepository.save(createContactSettingEntity().withMunicipalityId(MUNICIPALITY_ID));
+		final var agent = contactSettingRepository.save(createContactSettingEntity().withMunicipalityId(MUNICIPALITY_ID));
+		final var withoutFilters = delegateRepository.save(DelegateEntity.create().withPrincipal(principal).withAgent(agent));
+
+		// Act
+		try (final var stream = delegateRepository.streamExportRowsByMunicipalityId(MUNICIPALITY_ID)) {
+			final var result = stream.toList();
+
+			// Assert
+			assertThat(result)
+				.extracting(DelegateExportRow::getDelegateId, DelegateExportRow::getPrincipalId, DelegateExportRow::getAgentId, DelegateExportRow::getFilterId,
+					DelegateExportRow::getFilterAlias, DelegateExportRow::getAttributeName, DelegateExportRow::getOperator, DelegateExportRow::getAttributeValue)
+				.containsExactlyInAnyOrder(
+					tuple(DELEGATE_ENTITY_ID, DELEGATE_ENTITY_PRINCIPAL_ID, DELEGATE_ENTITY_AGENT_ID, DELEGATE_FILTER_ENTITY_ID,
+						"Jane will only see messages for summer house", "facilityId", "EQUALS", "12345678"),
+					tuple(withoutFilters.getId(), principal.getId(), agent.getId(), null, null, null, null, null));
+		}
+	}
+
+	@Test
+	@Transactional // Streams must be consumed within a transaction.
+	void streamExportRowsByMunicipalityIdExcludesTombstonedAgents() {
+
+		// Arrange
+		contactSettingRepository.tombstoneByIdIn(List.of(DELEGATE_ENTITY_AGENT_ID), now());
+
+		// Act
+		try (final var stream = delegateRepository.streamExportRowsByMunicipalityId(MUNICIPALITY_ID)) {
+
+			// Assert
+			assertThat(stream).isEmpty();
+		}
+	}
+
+	@Test
+	void deleteByIdAndMunicipalityIdWhenWrongMunicipality() {
+
+		// Act
+		final var result = delegateRepository.deleteByIdAndMunicipalityId(DELEGATE_ENTITY_ID, OTHER_MUNICIPALITY_ID);
+
+		// Assert
+		assertThat(result).isZero();
+		assertThat(delegateRepository.findById(DELEGATE_ENTITY_ID)).isPresent(); // Should still be present.
+		assertThat(delegateFilterRepository.findById(DELEGATE_FILTER_ENTITY_ID)).isPresent(); // Should still be present.
+	}
+
 	private static ContactSettingEntity createContactSettingEntity() {
 		return ContactSettingEntity.create()
 			.withAlias("alias")
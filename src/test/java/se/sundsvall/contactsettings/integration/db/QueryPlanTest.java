@@ -0,0 +1,368 @@
+package se.sundsvall.contactsettings.integration.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static java.time.ZoneId.systemDefault;
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+/**
+ * Verifies that no repository query reads a table with a full scan, by explaining each query on a generated dataset.
+ *
+ * Every repository method is called (in a transaction that is rolled back), and the SQL statements that Hibernate sends
+ * to the database are recorded, together with their bound parameters, by a data source that wraps the prepared
+ * statements. The recorded statements are then explained as they were executed, so the plans follow the repositories
+ * (including the restriction that excludes tombstoned contact settings) without being kept in line by hand. A method
+ * without an invocation fails the test.
+ *
+ * The keyset queries, that page through a result with a limit, must also read their rows in index order. A filesort
+ * sorts every matching row before the limit is applied, so every page would cost as much as the whole result.
+ *
+ * @see /src/test/resources/db/scripts/testdata-query-plan.sql for data setup.
+ */
+@DataJpaTest
+@Transactional(propagation = NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/scripts/truncate.sql",
+	"/db/scripts/testdata-query-plan.sql"
+})
+class QueryPlanTest {
+
+	private static final String FULL_SCAN = "ALL";
+	private static final String FILESORT = "Using filesort";
+	private static final Set<String> KEYSET_METHODS = Set.of(
+		"ContactSettingRepository.findIdsByMunicipalityIdAndCreatedById",
+		"ContactSettingRepository.findIdsByMunicipalityIdAndCreatedByIdAfter",
+		"ContactSettingRepository.findIdsByMunicipalityIdAndChannelsDestination",
+		"ContactSettingRepository.findIdsByMunicipalityIdAndChannelsDestinationAfter",
+		"ChangeLogRepository.findByMunicipalityIdAfter");
+	private static final List<Class<?>> REPOSITORIES = List.of(ContactSettingRepository.class, DelegateRepository.class, DelegateFilterRepository.class, ChangeLogRepository.class,
+		ChangeLogSequenceRepository.class);
+	private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+	@Autowired
+	private ContactSettingRepository contactSettingRepository;
+
+	@Autowired
+	private DelegateRepository delegateRepository;
+
+	@Autowired
+	private DelegateFilterRepository delegateFilterRepository;
+
+	@Autowired
+	private ChangeLogRepository changeLogRepository;
+
+	@Autowired
+	private ChangeLogSequenceRepository changeLogSequenceRepository;
+
+	@Autowired
+	private RecordingDataSource recordingDataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Fixture fixture;
+
+	@BeforeEach
+	void setUp() {
+		// Pick a contact setting (with its virtual contact setting, delegate, filter and email destination) from the
+		// middle of the dataset.
+		fixture = new JdbcTemplate(recordingDataSource.getTargetDataSource()).queryForObject("""
+			SELECT CAST(c.id AS CHAR) AS id, CAST(v.id AS CHAR) AS virtual_id, c.party_id, c.municipality_id, c.created,
+				CAST(d.id AS CHAR) AS delegate_id, CAST(f.id AS CHAR) AS filter_id, ch.destination
+			FROM contact_setting c
+			INNER JOIN contact_setting v ON v.created_by_id = c.id
+			INNER JOIN delegate d ON d.principal_id = c.id
+			INNER JOIN delegate_filter f ON f.delegate_id = d.id
+			INNER JOIN contact_setting_channel ch ON ch.contact_setting_id = c.id AND ch.contact_method = 'EMAIL'
+			WHERE c.alias = 'Person 1000'""", (resultSet, rowNum) -> new Fixture(
+			resultSet.getString("id"),
+			resultSet.getString("virtual_id"),
+			resultSet.getString("party_id"),
+			resultSet.getString("municipality_id"),
+			resultSet.getObject("created", LocalDateTime.class).atZone(systemDefault()).toOffsetDateTime(),
+			resultSet.getString("delegate_id"),
+			resultSet.getString("filter_id"),
+			resultSet.getString("destination")));
+	}
+
+	@Test
+	void everyRepositoryMethodIsInvoked() {
+
+		// Arrange
+		final var methods = REPOSITORIES.stream()
+			.flatMap(repository -> Stream.of(repository.getDeclaredMethods())
+				.filter(method -> !method.isDefault() && !method.isBridge() && !method.isSynthetic() && !Modifier.isStatic(method.getModifiers()))
+				.map(method -> repository.getSimpleName() + "." + method.getName()))
+			.toList();
+
+		// Act
+		final var invoked = invocations().keySet().stream()
+			.map(name -> name.replaceAll("\\(.*\\)$", ""))
+			.toList();
+
+		// Assert (overloaded methods have one invocation each).
+		assertThat(invoked)
+			.as("Invoked repository methods")
+			.containsExactlyInAnyOrderElementsOf(methods);
+	}
+
+	@Test
+	void noFullScans() {
+
+		// Arrange
+		final var explainTemplate = new JdbcTemplate(recordingDataSource.getTargetDataSource());
+		final var transactionTemplate = new TransactionTemplate(transactionManager);
+
+		// Act
+		final var fullScans = new ArrayList<String>();
+		final var filesorts = new ArrayList<String>();
+		final var silent = new ArrayList<String>();
+		invocations().forEach((name, invocation) -> {
+			recordingDataSource.statements().clear();
+			transactionTemplate.executeWithoutResult(status -> {
+				invocation.run();
+				status.setRollbackOnly();
+			});
+
+			final var statements = List.copyOf(recordingDataSource.statements());
+			if (statements.isEmpty()) {
+				silent.add(name);
+			}
+			statements.forEach(statement -> explainTemplate.queryForList("EXPLAIN " + statement.sql(), statement.parameters().toArray()).forEach(plan -> {
+				if (FULL_SCAN.equals(plan.get("type")) && !String.valueOf(plan.get("table")).startsWith("<")) { // Derived tables, e.g. the recursive delegate chain.
+					fullScans.add("%s: %s %s".formatted(name, statement.sql(), plan));
+				}
+				if (KEYSET_METHODS.contains(name) && String.valueOf(plan.get("Extra")).contains(FILESORT)) {
+					filesorts.add("%s: %s %s".formatted(name, statement.sql(), plan));
+				}
+			}));
+		});
+
+		// Assert
+		assertThat(silent)
+			.as("Invocations that did not execute a statement")
+			.isEmpty();
+		assertThat(fullScans)
+			.as("Queries reading a table with a full scan")
+			.isEmpty();
+		assertThat(filesorts)
+			.as("Keyset queries sorting their rows instead of reading them in index order")
+			.isEmpty();
+	}
+
+	private Map<String, Runnable> invocations() {
+		final var municipalityId = fixture.municipalityId();
+		final var ids = List.of(fixture.id(), fixture.virtualId());
+		final var limit = Limit.of(10);
+
+		return Map.ofEntries(
+			// ContactSettingRepository
+			invocation("ContactSettingRepository.findById", () -> contactSettingRepository.findById(fixture.id())),
+			invocation("ContactSettingRepository.findByMunicipalityIdAndId", () -> contactSettingRepository.findByMunicipalityIdAndId(municipalityId, fixture.id())),
+			invocation("ContactSettingRepository.findByMunicipalityIdAndPartyId", () -> contactSettingRepository.findByMunicipalityIdAndPartyId(municipalityId, fixture.partyId())),
+			invocation("ContactSettingRepository.existsByMunicipalityIdAndPartyId", () -> contactSettingRepository.existsByMunicipalityIdAndPartyId(municipalityId, fixture.partyId())),
+			invocation("ContactSettingRepository.existsByMunicipalityIdAndId", () -> contactSettingRepository.existsByMunicipalityIdAndId(municipalityId, fixture.id())),
+			invocation("ContactSettingRepository.findByMunicipalityIdAndCreatedById", () -> contactSettingRepository.findByMunicipalityIdAndCreatedById(municipalityId, fixture.id())),
+			invocation("ContactSettingRepository.findVirtualIdsByMunicipalityIdAndCreatedById", () -> contactSettingRepository.findVirtualIdsByMunicipalityIdAndCreatedById(municipalityId, fixture.id())),
+			invocation("ContactSettingRepository.findIdsByMunicipalityIdAndCreatedById", () -> contactSettingRepository.findIdsByMunicipalityIdAndCreatedById(municipalityId, fixture.id(), limit)),
+			invocation("ContactSettingRepository.findIdsByMunicipalityIdAndCreatedByIdAfter",
+				() -> contactSettingRepository.findIdsByMunicipalityIdAndCreatedByIdAfter(municipalityId, fixture.id(), fixture.created(), fixture.virtualId(), limit)),
+			invocation("ContactSettingRepository.findByMunicipalityIdAndChannelsDestination",
+				() -> contactSettingRepository.findByMunicipalityIdAndChannelsDestination(municipalityId, fixture.destination())),
+			invocation("ContactSettingRepository.findIdsByMunicipalityIdAndChannelsDestination",
+				() -> contactSettingRepository.findIdsByMunicipalityIdAndChannelsDestination(municipalityId, fixture.destination(), 10)),
+			invocation("ContactSettingRepository.findIdsByMunicipalityIdAndChannelsDestinationAfter",
+				() -> contactSettingRepository.findIdsByMunicipalityIdAndChannelsDestinationAfter(municipalityId, fixture.destination(), fixture.id(), 10)),
+			invocation("ContactSettingRepository.findWithChannelsByIdIn", () -> contactSettingRepository.findWithChannelsByIdIn(ids)),
+			invocation("ContactSettingRepository.findWithChannelsByMunicipalityIdAndPartyIdIn",
+				() -> contactSettingRepository.findWithChannelsByMunicipalityIdAndPartyIdIn(municipalityId, List.of(fixture.partyId()))),
+			invocation("ContactSettingRepository.findIdentitiesByMunicipalityIdAndIdIn", () -> contactSettingRepository.findIdentitiesByMunicipalityIdAndIdIn(municipalityId, ids)),
+			invocation("ContactSettingRepository.findIdentitiesByMunicipalityIdAndPartyIdIn",
+				() -> contactSettingRepository.findIdentitiesByMunicipalityIdAndPartyIdIn(municipalityId, List.of(fixture.partyId()))),
+			invocation("ContactSettingRepository.deleteByIdIn", () -> {
+				delegateRepository.deleteByPrincipalIdInOrAgentIdIn(ids);
+				contactSettingRepository.deleteByIdIn(ids);
+			}),
+			invocation("ContactSettingRepository.tombstoneByIdIn", () -> contactSettingRepository.tombstoneByIdIn(ids, fixture.created())),
+			invocation("ContactSettingRepository.findTombstonedIds", () -> contactSettingRepository.findTombstonedIds(10)),
+			invocation("ContactSettingRepository.countTombstoned", () -> contactSettingRepository.countTombstoned()),
+			invocation("ContactSettingRepository.deleteTombstonedByIdIn", () -> contactSettingRepository.deleteTombstonedByIdIn(ids)),
+			invocation("ContactSettingRepository.streamWithChannelsByMunicipalityIdAndCreatedById",
+				() -> consume(contactSettingRepository.streamWithChannelsByMunicipalityIdAndCreatedById(municipalityId, fixture.id()))),
+			invocation("ContactSettingRepository.streamWithChannelsByMunicipalityId", () -> consume(contactSettingRepository.streamWithChannelsByMunicipalityId(municipalityId))),
+			invocation("ContactSettingRepository.streamWithChannelsByMunicipalityIdAndChannelsDestination",
+				() -> consume(contactSettingRepository.streamWithChannelsByMunicipalityIdAndChannelsDestination(municipalityId, fixture.destination()))),
+
+			// DelegateRepository
+			invocation("DelegateRepository.findWithFiltersById", () -> delegateRepository.findWithFiltersById(fixture.delegateId())),
+			invocation("DelegateRepository.findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId",
+				() -> delegateRepository.findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(fixture.delegateId(), municipalityId, municipalityId)),
+			invocation("DelegateRepository.deleteByIdAndMunicipalityId", () -> delegateRepository.deleteByIdAndMunicipalityId(fixture.delegateId(), municipalityId)),
+			invocation("DelegateRepository.findByAgentId", () -> delegateRepository.findByAgentId(fixture.virtualId())),
+			invocation("DelegateRepository.findByPrincipalId", () -> delegateRepository.findByPrincipalId(fixture.id())),
+			invocation("DelegateRepository.findByPrincipalIdAndAgentId", () -> delegateRepository.findByPrincipalIdAndAgentId(fixture.id(), fixture.virtualId())),
+			invocation("DelegateRepository.findSummariesByAgentId", () -> delegateRepository.findSummariesByAgentId(fixture.virtualId())),
+			invocation("DelegateRepository.findSummariesByPrincipalId", () -> delegateRepository.findSummariesByPrincipalId(fixture.id())),
+			invocation("DelegateRepository.findSummariesByPrincipalIdAndAgentId", () -> delegateRepository.findSummariesByPrincipalIdAndAgentId(fixture.id(), fixture.virtualId())),
+			invocation("DelegateRepository.findSummariesByPrincipalIdIn", () -> delegateRepository.findSummariesByPrincipalIdIn(List.of(fixture.id()))),
+			invocation("DelegateRepository.deleteByPrincipalIdInOrAgentIdIn", () -> delegateRepository.deleteByPrincipalIdInOrAgentIdIn(ids)),
+			invocation("DelegateRepository.deleteByPrincipalIdInOrAgentIdIn(limit)", () -> delegateRepository.deleteByPrincipalIdInOrAgentIdIn(ids, 10)),
+			invocation("DelegateRepository.existsByPrincipalIdAndAgentId", () -> delegateRepository.existsByPrincipalIdAndAgentId(fixture.id(), fixture.virtualId())),
+			invocation("DelegateRepository.findDelegateChainByRootPrincipalId", () -> delegateRepository.findDelegateChainByRootPrincipalId(fixture.id())),
+			invocation("DelegateRepository.findDelegateChainByRootPrincipalIdIn", () -> delegateRepository.findDelegateChainByRootPrincipalIdIn(List.of(fixture.id()))),
+			invocation("DelegateRepository.findDelegateChainByPrincipalIdIn", () -> delegateRepository.findDelegateChainByPrincipalIdIn(List.of(fixture.id()))),
+			invocation("DelegateRepository.findDelegateGraphByMunicipalityId", () -> delegateRepository.findDelegateGraphByMunicipalityId(municipalityId)),
+			invocation("DelegateRepository.streamExportRowsByMunicipalityId", () -> consume(delegateRepository.streamExportRowsByMunicipalityId(municipalityId))),
+
+			// DelegateFilterRepository
+			invocation("DelegateFilterRepository.findById", () -> delegateFilterRepository.findById(fixture.filterId())),
+			invocation("DelegateFilterRepository.existsByIdAndDelegateId", () -> delegateFilterRepository.existsByIdAndDelegateId(fixture.filterId(), fixture.delegateId())),
+			invocation("DelegateFilterRepository.countByDelegateId", () -> delegateFilterRepository.countByDelegateId(fixture.delegateId())),
+			invocation("DelegateFilterRepository.findByIdAndDelegateId", () -> delegateFilterRepository.findByIdAndDelegateId(fixture.filterId(), fixture.delegateId())),
+			invocation("DelegateFilterRepository.findWithRulesByDelegateIdIn", () -> delegateFilterRepository.findWithRulesByDelegateIdIn(List.of(fixture.delegateId()))),
+
+			// ChangeLogRepository
+			invocation("ChangeLogRepository.findByMunicipalityIdAfter", () -> changeLogRepository.findByMunicipalityIdAfter(municipalityId, 0, limit)),
+			invocation("ChangeLogRepository.findUnsequenced", () -> changeLogRepository.findUnsequenced(limit)),
+			invocation("ChangeLogRepository.insertContactSettingChanges", () -> changeLogRepository.insertContactSettingChanges(ids, "CREATED", fixture.created())),
+			invocation("ChangeLogRepository.insertDelegateChanges", () -> changeLogRepository.insertDelegateChanges(List.of(fixture.delegateId()), "CREATED", fixture.created())),
+			invocation("ChangeLogRepository.insertDelegateChangesByPrincipalIdInOrAgentIdIn",
+				() -> changeLogRepository.insertDelegateChangesByPrincipalIdInOrAgentIdIn(ids, "DELETED", fixture.created())),
+			invocation("ChangeLogRepository.insertDelegateFilterChanges", () -> changeLogRepository.insertDelegateFilterChanges(List.of(fixture.filterId()), "CREATED", fixture.created())),
+
+			// ChangeLogSequenceRepository
+			invocation("ChangeLogSequenceRepository.findForUpdateById", () -> changeLogSequenceRepository.findForUpdateById(1)));
+	}
+
+	private static Entry<String, Runnable> invocation(final String name, final Runnable invocation) {
+		return entry(name, invocation);
+	}
+
+	private static void consume(final Stream<?> stream) {
+		try (stream) {
+			stream.forEach(element -> {});
+		}
+	}
+
+	private record Fixture(String id, String virtualId, String partyId, String municipalityId, OffsetDateTime created, String delegateId, String filterId, String destination) {}
+
+	private record RecordedStatement(String sql, List<Object> parameters) {}
+
+	/**
+	 * Records the prepared statements executed through the data source, with their bound parameters (in order).
+	 */
+	static class RecordingDataSource extends DelegatingDataSource {
+
+		private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+
+		RecordingDataSource(final DataSource targetDataSource) {
+			super(targetDataSource);
+		}
+
+		List<RecordedStatement> statements() {
+			return statements;
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return recording(super.getConnection());
+		}
+
+		@Override
+		public Connection getConnection(final String username, final String password) throws SQLException {
+			return recording(super.getConnection(username, password));
+		}
+
+		private Connection recording(final Connection connection) {
+			return proxy(Connection.class, (proxy, method, args) -> {
+				final var result = invoke(connection, method, args);
+				if (result instanceof final PreparedStatement preparedStatement && method.getName().startsWith("prepare")) {
+					return recording(preparedStatement, (String) args[0], method.getReturnType());
+				}
+				return result;
+			});
+		}
+
+		private Object recording(final PreparedStatement preparedStatement, final String sql, final Class<?> type) {
+			final var parameters = new TreeMap<Integer, Object>();
+			return proxy(type, (proxy, method, args) -> {
+				if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof final Integer index) {
+					parameters.put(index, "setNull".equals(method.getName()) ? null : args[1]);
+				} else if ("clearParameters".equals(method.getName())) {
+					parameters.clear();
+				} else if (EXECUTE_METHODS.contains(method.getName()) && (args == null || args.length == 0)) {
+					statements.add(new RecordedStatement(sql, new ArrayList<>(parameters.values())));
+				}
+				return invoke(preparedStatement, method, args);
+			});
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+			return (T) Proxy.newProxyInstance(QueryPlanTest.class.getClassLoader(), new Class<?>[] {
+				type
+			}, handler);
+		}
+
+		private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (final InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	@TestConfiguration
+	static class RecordingDataSourceConfiguration {
+
+		@Bean
+		static BeanPostProcessor recordingDataSourcePostProcessor() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+					return bean instanceof final DataSource dataSource && !(bean instanceof RecordingDataSource) ? new RecordingDataSource(dataSource) : bean;
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package se.sundsvall.contactsettings.integration.db.model;
+
+import java.time.OffsetDateTime;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static java.time.OffsetDateTime.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.AllOf.allOf;
+
+class ChangeLogEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+	}
+
+	@Test
+	void testBean() {
+		assertThat(ChangeLogEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void hasValidBuilderMethods() {
+
+		final var id = 4711L;
+		final var sequence = 42L;
+		final var municipalityId = "2281";
+		final var entityType = "DELEGATE_FILTER";
+		final var entityId = randomUUID().toString();
+		final var delegateId = randomUUID().toString();
+		final var operation = "UPDATED";
+		final var created = now();
+
+		final var entity = ChangeLogEntity.create()
+			.withId(id)
+			.withSequence(sequence)
+			.withMunicipalityId(municipalityId)
+			.withEntityType(entityType)
+			.withEntityId(entityId)
+			.withDelegateId(delegateId)
+			.withOperation(operation)
+			.withCreated(created);
+
+		assertThat(entity).hasNoNullFieldsOrProperties();
+		assertThat(entity.getId()).isEqualTo(id);
+		assertThat(entity.getSequence()).isEqualTo(sequence);
+		assertThat(entity.getMunicipalityId()).isEqualTo(municipalityId);
+		assertThat(entity.getEntityType()).isEqualTo(entityType);
+		assertThat(entity.getEntityId()).isEqualTo(entityId);
+		assertThat(entity.getDelegateId()).isEqualTo(delegateId);
+		assertThat(entity.getOperation()).isEqualTo(operation);
+		assertThat(entity.getCreated()).isEqualTo(created);
+	}
+
+	@Test
+	void hasNoDirtOnCreatedBean() {
+		assertThat(new ChangeLogEntity()).hasAllNullFieldsOrProperties();
+		assertThat(ChangeLogEntity.create()).hasAllNullFieldsOrProperties();
+	}
+}
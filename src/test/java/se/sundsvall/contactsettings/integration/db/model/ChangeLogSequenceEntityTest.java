@@ -0,0 +1,46 @@
+package se.sundsvall.contactsettings.integration.db.model;
+
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.AllOf.allOf;
+
+class ChangeLogSequenceEntityTest {
+
+	@Test
+	void testBean() {
+		assertThat(ChangeLogSequenceEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void hasValidBuilderMethods() {
+
+		final var id = 1L;
+		final var lastSequence = 4711L;
+
+		final var entity = ChangeLogSequenceEntity.create()
+			.withId(id)
+			.withLastSequence(lastSequence);
+
+		assertThat(entity).hasNoNullFieldsOrProperties();
+		assertThat(entity.getId()).isEqualTo(id);
+		assertThat(entity.getLastSequence()).isEqualTo(lastSequence);
+	}
+
+	@Test
+	void hasNoDirtOnCreatedBean() {
+		assertThat(new ChangeLogSequenceEntity()).hasAllNullFieldsOrProperties();
+		assertThat(ChangeLogSequenceEntity.create()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -42,6 +42,7 @@ class ContactSettingEntityTest {
 		final var channels = List.of(Channel.create());
 		final var created = now();
 		final var createdById = randomUUID().toString();
+		final var deleted = now();
 		final var id = randomUUID().toString();
 		final var modified = now();
 		final var municipalityId = "2281";
@@ -52,6 +53,7 @@ class ContactSettingEntityTest {
 			.withChannels(channels)
 			.withCreated(created)
 			.withCreatedById(createdById)
+			.withDeleted(deleted)
 			.withId(id)
 			.withModified(modified)
 			.withMunicipalityId(municipalityId)
@@ -62,6 +64,7 @@ class ContactSettingEntityTest {
 		assertThat(entity.getChannels()).isEqualTo(channels);
 		assertThat(entity.getCreated()).isEqualTo(created);
 		assertThat(entity.getCreatedById()).isEqualTo(createdById);
+		assertThat(entity.getDeleted()).isEqualTo(deleted);
 		assertThat(entity.getId()).isEqualTo(id);
 		assertThat(entity.getModified()).isEqualTo(modified);
 		assertThat(entity.getMunicipalityId()).isEqualTo(municipalityId);
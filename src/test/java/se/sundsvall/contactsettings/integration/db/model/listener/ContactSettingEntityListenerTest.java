@@ -1,12 +1,17 @@
 package se.sundsvall.contactsettings.integration.db.model.listener;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 class ContactSettingEntityListenerTest {
 
@@ -39,4 +44,59 @@ class ContactSettingEntityListenerTest {
 		assertThat(entity).hasAllNullFieldsOrPropertiesExcept("modified", "channels");
 		assertThat(entity.getModified()).isCloseTo(now(), within(2, SECONDS));
 	}
+
+	@Test
+	void postUpdate() {
+
+		// Arrange
+		final var applicationEventPublisherMock = mock(ApplicationEventPublisher.class);
+		final var listener = new ContactSettingEntityListener();
+		listener.setApplicationEventPublisher(applicationEventPublisherMock);
+
+		// Act
+		listener.postUpdate(ContactSettingEntity.create().withMunicipalityId("2281").withId("id").withPartyId("partyId"));
+
+		// Assert
+		verify(applicationEventPublisherMock).publishEvent(new ContactSettingChangedEvent("2281", "id", "partyId"));
+		verifyNoMoreInteractions(applicationEventPublisherMock);
+	}
+
+	@Test
+	void postUpdateWithoutApplicationEventPublisher() {
+
+		// Arrange
+		final var listener = new ContactSettingEntityListener();
+		final var entity = new ContactSettingEntity();
+
+		// Act and assert
+		assertDoesNotThrow(() -> listener.postUpdate(entity));
+	}
+
+	@Test
+	void postRemove() {
+
+		// Arrange
+		final var applicationEventPublisherMock = mock(ApplicationEventPublisher.class);
+		final var listener = new ContactSettingEntityListener();
+		listener.setApplicationEventPublisher(applicationEventPublisherMock);
+
+		// Act
+		listener.postRemove(ContactSettingEntity.create().withMunicipalityId("2281").withId("id").withPartyId("partyId"));
+
+		// Assert
+		verify(applicationEventPublisherMock).publishEvent(new ContactSettingChangedEvent("2281", "id", "partyId"));
+		verify(applicationEventPublisherMock).publishEvent(new DelegateGraphChangedEvent("2281"));
+		verifyNoMoreInteractions(applicationEventPublisherMock);
+	}
+
+	@Test
+	void postRemoveWithoutApplicationEventPublisher() {
+
+		// Arrange
+		final var listener = new ContactSettingEntityListener();
+		final var entity = new ContactSettingEntity();
+
+		// Act and assert
+		assertDoesNotThrow(() -> listener.postRemove(entity));
+	}
 }
@@ -1,12 +1,18 @@
 package se.sundsvall.contactsettings.integration.db.model.listener;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
 import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 class DelegateEntityListenerTest {
 
@@ -39,4 +45,32 @@ class DelegateEntityListenerTest {
 		assertThat(entity).hasAllNullFieldsOrPropertiesExcept("modified");
 		assertThat(entity.getModified()).isCloseTo(now(), within(2, SECONDS));
 	}
+
+	@Test
+	void postChange() {
+
+		// Arrange
+		final var applicationEventPublisherMock = mock(ApplicationEventPublisher.class);
+		final var listener = new DelegateEntityListener();
+		listener.setApplicationEventPublisher(applicationEventPublisherMock);
+
+		// Act
+		listener.postChange(DelegateEntity.create().withId("delegateId").withPrincipal(ContactSettingEntity.create().withId("principalId").withMunicipalityId("2281")));
+
+		// Assert
+		verify(applicationEventPublisherMock).publishEvent(new DelegateChangedEvent("delegateId", "principalId"));
+		verify(applicationEventPublisherMock).publishEvent(new DelegateGraphChangedEvent("2281"));
+		verifyNoMoreInteractions(applicationEventPublisherMock);
+	}
+
+	@Test
+	void postChangeWithoutApplicationEventPublisher() {
+
+		// Arrange
+		final var listener = new DelegateEntityListener();
+		final var entity = new DelegateEntity();
+
+		// Act and assert
+		assertDoesNotThrow(() -> listener.postChange(entity));
+	}
 }
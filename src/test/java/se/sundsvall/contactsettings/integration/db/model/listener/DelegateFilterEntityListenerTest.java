@@ -1,12 +1,17 @@
 package se.sundsvall.contactsettings.integration.db.model.listener;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 class DelegateFilterEntityListenerTest {
 
@@ -39,4 +44,32 @@ class DelegateFilterEntityListenerTest {
 		assertThat(entity).hasAllNullFieldsOrPropertiesExcept("modified");
 		assertThat(entity.getModified()).isCloseTo(now(), within(2, SECONDS));
 	}
+
+	@Test
+	void postChange() {
+
+		// Arrange
+		final var applicationEventPublisherMock = mock(ApplicationEventPublisher.class);
+		final var listener = new DelegateFilterEntityListener();
+		listener.setApplicationEventPublisher(applicationEventPublisherMock);
+
+		// Act
+		listener.postChange(DelegateFilterEntity.create().withDelegateId("delegateId"));
+
+		// Assert
+		verify(applicationEventPublisherMock).publishEvent(new DelegateChangedEvent("delegateId", null));
+		verify(applicationEventPublisherMock).publishEvent(new DelegateGraphChangedEvent(null));
+		verifyNoMoreInteractions(applicationEventPublisherMock);
+	}
+
+	@Test
+	void postChangeWithoutApplicationEventPublisher() {
+
+		// Arrange
+		final var listener = new DelegateFilterEntityListener();
+		final var entity = new DelegateFilterEntity();
+
+		// Act and assert
+		assertDoesNotThrow(() -> listener.postChange(entity));
+	}
 }
@@ -0,0 +1,123 @@
+package se.sundsvall.contactsettings.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.contactsettings.api.model.Change;
+import se.sundsvall.contactsettings.integration.db.ChangeLogRepository;
+import se.sundsvall.contactsettings.integration.db.model.ChangeLogEntity;
+
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.domain.Limit.of;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.CONTACT_SETTING;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.UPDATED;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeLogServiceTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Mock
+	private ChangeLogRepository changeLogRepositoryMock;
+
+	@Captor
+	private ArgumentCaptor<OffsetDateTime> timeCaptor;
+
+	private ChangeLogService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new ChangeLogService(changeLogRepositoryMock);
+	}
+
+	@Test
+	void readChanges() {
+
+		// Arrange
+		when(changeLogRepositoryMock.findByMunicipalityIdAfter(MUNICIPALITY_ID, 4711L, of(100))).thenReturn(List.of(
+			ChangeLogEntity.create().withId(1L).withSequence(4712L).withMunicipalityId(MUNICIPALITY_ID).withEntityType("CONTACT_SETTING").withEntityId("id").withOperation("CREATED")));
+
+		// Act
+		final var result = service.readChanges(MUNICIPALITY_ID, 4711L, 100);
+
+		// Assert
+		assertThat(result).containsExactly(Change.create().withSequence(4712L).withEntityType(CONTACT_SETTING).withEntityId("id").withOperation(CREATED));
+		verify(changeLogRepositoryMock).findByMunicipalityIdAfter(MUNICIPALITY_ID, 4711L, of(100));
+		verifyNoMoreInteractions(changeLogRepositoryMock);
+	}
+
+	@Test
+	void recordContactSettingChanges() {
+
+		// Act
+		service.recordContactSettingChanges(List.of("id1", "id2"), CREATED);
+
+		// Assert
+		verify(changeLogRepositoryMock).insertContactSettingChanges(eq(List.of("id1", "id2")), eq("CREATED"), timeCaptor.capture());
+		assertThat(timeCaptor.getValue()).isCloseTo(OffsetDateTime.now(systemDefault()), within(Duration.ofSeconds(1)));
+		verifyNoMoreInteractions(changeLogRepositoryMock);
+	}
+
+	@Test
+	void recordDelegateChanges() {
+
+		// Act
+		service.recordDelegateChanges(List.of("delegateId"), DELETED);
+
+		// Assert
+		verify(changeLogRepositoryMock).insertDelegateChanges(eq(List.of("delegateId")), eq("DELETED"), any());
+		verifyNoMoreInteractions(changeLogRepositoryMock);
+	}
+
+	@Test
+	void recordDelegateChangesOfContactSettings() {
+
+		// Act
+		service.recordDelegateChangesOfContactSettings(List.of("id1", "id2"), DELETED);
+
+		// Assert
+		verify(changeLogRepositoryMock).insertDelegateChangesByPrincipalIdInOrAgentIdIn(eq(List.of("id1", "id2")), eq("DELETED"), any());
+		verifyNoMoreInteractions(changeLogRepositoryMock);
+	}
+
+	@Test
+	void recordDelegateFilterChanges() {
+
+		// Act
+		service.recordDelegateFilterChanges(List.of("filterId"), UPDATED);
+
+		// Assert
+		verify(changeLogRepositoryMock).insertDelegateFilterChanges(eq(List.of("filterId")), eq("UPDATED"), any());
+		verifyNoMoreInteractions(changeLogRepositoryMock);
+	}
+
+	@Test
+	void recordNoChanges() {
+
+		// Act
+		service.recordContactSettingChanges(List.of(), CREATED);
+		service.recordDelegateChanges(List.of(), DELETED);
+		service.recordDelegateChangesOfContactSettings(List.of(), DELETED);
+		service.recordDelegateFilterChanges(List.of(), UPDATED);
+
+		// Assert
+		verifyNoInteractions(changeLogRepositoryMock);
+	}
+}
@@ -0,0 +1,255 @@
+package se.sundsvall.contactsettings.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.sundsvall.contactsettings.api.model.ContactChannel;
+import se.sundsvall.contactsettings.api.model.ContactSettingBulkResult;
+import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
+import se.sundsvall.contactsettings.api.model.enums.ChangeOperation;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.model.Channel;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.CONFLICT;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.BulkOutcome.UPDATED;
+import static se.sundsvall.contactsettings.api.model.enums.ContactMethod.EMAIL;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS;
+import static se.sundsvall.contactsettings.service.ContactSettingsBulkService.METRIC_PREFIX;
+
+@ExtendWith(MockitoExtension.class)
+class ContactSettingsBulkServiceTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final int CHUNK_SIZE = 2;
+
+	@Mock
+	private ContactSettingRepository contactSettingRepositoryMock;
+
+	@Mock
+	private ChangeLogService changeLogServiceMock;
+
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ContactSettingsBulkService service;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		service = new ContactSettingsBulkService(contactSettingRepositoryMock, changeLogServiceMock, transactionManagerMock, meterRegistry, CHUNK_SIZE);
+	}
+
+	@Test
+	void createContactSettings() {
+
+		// Arrange
+		final var requests = List.of(createRequest(randomUUID().toString()), createRequest(randomUUID().toString()));
+
+		when(contactSettingRepositoryMock.findWithChannelsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), anyCollection())).thenReturn(List.of());
+		when(contactSettingRepositoryMock.saveAll(anyIterable())).thenAnswer(invocation -> {
+			final Iterable<ContactSettingEntity> entities = invocation.getArgument(0);
+			entities.forEach(entity -> entity.setId(randomUUID().toString()));
+			return entities;
+		});
+
+		// Act
+		final var result = service.createContactSettings(MUNICIPALITY_ID, requests, false);
+
+		// Assert
+		assertThat(result)
+			.extracting(ContactSettingBulkResult::getIndex, ContactSettingBulkResult::getOutcome, ContactSettingBulkResult::getPartyId)
+			.containsExactly(
+				tuple(0, CREATED, requests.get(0).getPartyId()),
+				tuple(1, CREATED, requests.get(1).getPartyId()));
+		assertThat(result).allSatisfy(contactSettingBulkResult -> assertThat(contactSettingBulkResult.getId()).isNotNull());
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".items").tag("outcome", "created").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".chunk").timer().count()).isOne();
+
+		verify(contactSettingRepositoryMock).findWithChannelsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), anyCollection());
+		verify(contactSettingRepositoryMock).saveAll(anyIterable());
+		verify(contactSettingRepositoryMock).flush();
+		verify(changeLogServiceMock).recordContactSettingChanges(result.stream().map(ContactSettingBulkResult::getId).toList(), ChangeOperation.CREATED);
+		verify(changeLogServiceMock).recordContactSettingChanges(List.of(), ChangeOperation.UPDATED);
+		verifyNoMoreInteractions(contactSettingRepositoryMock, changeLogServiceMock);
+	}
+
+	@Test
+	void createContactSettingsExistingPartyId() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		final var requests = List.of(createRequest(partyId));
+
+		when(contactSettingRepositoryMock.findWithChannelsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, Set.of(partyId))).thenReturn(List.of(existingEntity(partyId)));
+
+		// Act
+		final var result = service.createContactSettings(MUNICIPALITY_ID, requests, false);
+
+		// Assert
+		assertThat(result)
+			.extracting(ContactSettingBulkResult::getIndex, ContactSettingBulkResult::getOutcome, ContactSettingBulkResult::getId, ContactSettingBulkResult::getDetail)
+			.containsExactly(tuple(0, CONFLICT, null, ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS.formatted(partyId)));
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".items").tag("outcome", "conflict").counter().count()).isOne();
+
+		verify(contactSettingRepositoryMock).saveAll(List.of());
+		verify(contactSettingRepositoryMock).flush();
+	}
+
+	@Test
+	void createContactSettingsExistingPartyIdWithUpsert() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		final var existing = existingEntity(partyId);
+		final var requests = List.of(createRequest(partyId).withAlias("new-alias"));
+
+		when(contactSettingRepositoryMock.findWithChannelsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, Set.of(partyId))).thenReturn(List.of(existing));
+
+		// Act
+		final var result = service.createContactSettings(MUNICIPALITY_ID, requests, true);
+
+		// Assert
+		assertThat(result)
+			.extracting(ContactSettingBulkResult::getIndex, ContactSettingBulkResult::getOutcome, ContactSettingBulkResult::getId)
+			.containsExactly(tuple(0, UPDATED, existing.getId()));
+		assertThat(existing.getAlias()).isEqualTo("new-alias");
+		assertThat(existing.getChannels()).extracting(Channel::getDestination).containsExactly("test@example.com");
+		assertThat(existing.getModified()).isNotNull();
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".items").tag("outcome", "updated").counter().count()).isOne();
+
+		verify(contactSettingRepositoryMock).saveAll(List.of());
+		verify(contactSettingRepositoryMock).flush();
+		verify(changeLogServiceMock).recordContactSettingChanges(List.of(existing.getId()), ChangeOperation.UPDATED);
+	}
+
+	@Test
+	void createContactSettingsDuplicatePartyIdInRequest() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		final var requests = List.of(createRequest(partyId), createRequest(partyId));
+
+		when(contactSettingRepositoryMock.findWithChannelsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, Set.of(partyId))).thenReturn(List.of());
+
+		// Act
+		final var result = service.createContactSettings(MUNICIPALITY_ID, requests, false);
+
+		// Assert
+		assertThat(result)
+			.extracting(ContactSettingBulkResult::getIndex, ContactSettingBulkResult::getOutcome)
+			.containsExactly(tuple(0, CREATED), tuple(1, CONFLICT));
+	}
+
+	@Test
+	void createContactSettingsInChunks() {
+
+		// Arrange
+		final var requests = List.of(createRequest(randomUUID().toString()), createRequest(randomUUID().toString()), createRequest(randomUUID().toString()));
+
+		when(contactSettingRepositoryMock.findWithChannelsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), anyCollection())).thenReturn(List.of());
+
+		// Act
+		final var result = service.createContactSettings(MUNICIPALITY_ID, requests, false);
+
+		// Assert
+		assertThat(result).extracting(ContactSettingBulkResult::getIndex).containsExactly(0, 1, 2);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".chunk").timer().count()).isEqualTo(2);
+
+		verify(contactSettingRepositoryMock, times(2)).findWithChannelsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), anyCollection());
+		verify(contactSettingRepositoryMock, times(2)).saveAll(anyIterable());
+		verify(contactSettingRepositoryMock, times(2)).flush();
+	}
+
+	@Test
+	void createContactSettingsConcurrentlyCreatedPartyId() {
+
+		// Arrange
+		final var requests = List.of(createRequest(randomUUID().toString()), createRequest(randomUUID().toString()));
+		final var uniqueViolation = new DataIntegrityViolationException("could not execute statement",
+			new SQLIntegrityConstraintViolationException("Duplicate entry for key 'uq_contact_setting_municipality_id_party_id'"));
+
+		when(contactSettingRepositoryMock.findWithChannelsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), anyCollection())).thenReturn(List.of());
+		// The chunk fails, then the first contact setting is written and the second fails on its own.
+		when(contactSettingRepositoryMock.saveAll(anyIterable()))
+			.thenThrow(uniqueViolation)
+			.thenReturn(List.of())
+			.thenThrow(uniqueViolation);
+
+		// Act
+		final var result = service.createContactSettings(MUNICIPALITY_ID, requests, false);
+
+		// Assert
+		assertThat(result)
+			.extracting(ContactSettingBulkResult::getIndex, ContactSettingBulkResult::getOutcome, ContactSettingBulkResult::getDetail)
+			.containsExactly(
+				tuple(0, CREATED, null),
+				tuple(1, CONFLICT, ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS.formatted(requests.get(1).getPartyId())));
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".items").tag("outcome", "created").counter().count()).isOne();
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".items").tag("outcome", "conflict").counter().count()).isOne();
+
+		verify(contactSettingRepositoryMock, times(3)).saveAll(anyIterable());
+		verify(transactionManagerMock, times(2)).rollback(any());
+	}
+
+	@Test
+	void createContactSettingsOtherDataIntegrityViolation() {
+
+		// Arrange
+		final var requests = List.of(createRequest(randomUUID().toString()));
+		final var dataIntegrityViolationException = new DataIntegrityViolationException("could not execute statement", new SQLIntegrityConstraintViolationException("Column 'id' cannot be null"));
+
+		when(contactSettingRepositoryMock.findWithChannelsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), anyCollection())).thenReturn(List.of());
+		when(contactSettingRepositoryMock.saveAll(anyIterable())).thenThrow(dataIntegrityViolationException);
+
+		// Act
+		final var exception = assertThrows(DataIntegrityViolationException.class, () -> service.createContactSettings(MUNICIPALITY_ID, requests, false));
+
+		// Assert
+		assertThat(exception).isSameAs(dataIntegrityViolationException);
+
+		verify(contactSettingRepositoryMock).saveAll(anyIterable());
+		verify(transactionManagerMock).rollback(any());
+	}
+
+	private static ContactSettingCreateRequest createRequest(final String partyId) {
+		return ContactSettingCreateRequest.create()
+			.withPartyId(partyId)
+			.withAlias("alias")
+			.withContactChannels(List.of(ContactChannel.create()
+				.withContactMethod(EMAIL)
+				.withDestination("test@example.com")
+				.withAlias("email")));
+	}
+
+	private static ContactSettingEntity existingEntity(final String partyId) {
+		return ContactSettingEntity.create()
+			.withId(randomUUID().toString())
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withPartyId(partyId)
+			.withAlias("old-alias");
+	}
+}
@@ -1,24 +1,44 @@
 package se.sundsvall.contactsettings.service;
 
+import jakarta.persistence.EntityManager;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.util.LinkedMultiValueMap;
 import se.sundsvall.contactsettings.api.model.ContactChannel;
 import se.sundsvall.contactsettings.api.model.ContactSetting;
 import se.sundsvall.contactsettings.api.model.ContactSettingCreateRequest;
 import se.sundsvall.contactsettings.api.model.ContactSettingUpdateRequest;
+import se.sundsvall.contactsettings.api.model.PartyContactSettings;
 import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
 import se.sundsvall.contactsettings.integration.db.DelegateRepository;
 import se.sundsvall.contactsettings.integration.db.model.Channel;
 import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
-import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
-import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
-import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.contactsettings.integration.db.model.listener.ContactSettingChangedEvent;
+import se.sundsvall.contactsettings.integration.db.model.listener.DelegateGraphChangedEvent;
+import se.sundsvall.contactsettings.service.cache.ContactSettingCache;
+import se.sundsvall.contactsettings.service.cache.DelegateChainCache;
+import se.sundsvall.contactsettings.service.chain.DelegateChain;
+import se.sundsvall.contactsettings.service.chain.DelegateChainResolver;
+import se.sundsvall.contactsettings.service.purge.ContactSettingPurger;
+import se.sundsvall.contactsettings.service.util.ContinuationToken;
 import se.sundsvall.dept44.problem.ThrowableProblem;
 
 import static java.util.Collections.emptyList;
@@ -28,18 +48,27 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.UPDATED;
 import static se.sundsvall.contactsettings.api.model.enums.ContactMethod.EMAIL;
 import static se.sundsvall.contactsettings.api.model.enums.ContactMethod.SMS;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ID_NOT_FOUND;
 import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_CONTACT_SETTING_NOT_FOUND;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_INVALID_CONTINUATION_TOKEN;
 
 @ExtendWith(MockitoExtension.class)
 class ContactSettingsServiceTest {
@@ -53,15 +82,45 @@ class ContactSettingsServiceTest {
 	@Mock
 	private DelegateRepository delegateRepositoryMock;
 
-	@InjectMocks
+	@Mock
+	private DelegateChainResolver delegateChainResolverMock;
+
+	@Mock
+	private EntityManager entityManagerMock;
+
+	@Mock
+	private ApplicationEventPublisher applicationEventPublisherMock;
+
+	@Mock
+	private ChangeLogService changeLogServiceMock;
+
+	@Mock
+	private ContactSettingCache contactSettingCacheMock;
+
+	@Mock
+	private DelegateChainCache delegateChainCacheMock;
+
+	@Mock
+	private ContactSettingPurger contactSettingPurgerMock;
+
+	@Captor
+	private ArgumentCaptor<Collection<String>> partyIdsCaptor;
+
+	@Captor
+	private ArgumentCaptor<Collection<String>> rootIdsCaptor;
+
 	private ContactSettingsService service;
 
+	@BeforeEach
+	void setUp() {
+		service = new ContactSettingsService(contactSettingRepositoryMock, delegateRepositoryMock, delegateChainResolverMock, entityManagerMock, applicationEventPublisherMock, changeLogServiceMock, Optional.empty(), Optional.empty(), Optional.empty());
+	}
+
 	@Test
 	void createContactSetting() {
 
 		// Arrange
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(any(String.class), any(String.class))).thenReturn(empty());
-		when(contactSettingRepositoryMock.save(any(ContactSettingEntity.class))).thenReturn(ContactSettingEntity.create().withId(ID));
+		when(contactSettingRepositoryMock.saveAndFlush(any(ContactSettingEntity.class))).thenReturn(ContactSettingEntity.create().withId(ID));
 
 		// Act
 		final var result = service.createContactSetting(MUNICIPALITY_ID, buildContactSettingCreateRequest());
@@ -69,9 +128,9 @@ class ContactSettingsServiceTest {
 		// Assert
 		assertThat(result).isEqualTo(ID);
 
-		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(eq(MUNICIPALITY_ID), any(String.class));
-		verify(contactSettingRepositoryMock).save(any(ContactSettingEntity.class));
-		verifyNoMoreInteractions(contactSettingRepositoryMock);
+		verify(contactSettingRepositoryMock).saveAndFlush(any(ContactSettingEntity.class));
+		verify(changeLogServiceMock).recordContactSettingChanges(List.of(ID), CREATED);
+		verifyNoMoreInteractions(contactSettingRepositoryMock, changeLogServiceMock);
 	}
 
 	@Test
@@ -80,7 +139,8 @@ class ContactSettingsServiceTest {
 		// Arrange
 		final var contactSettingCreateRequest = buildContactSettingCreateRequest();
 
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(any(String.class), any(String.class))).thenReturn(Optional.of(ContactSettingEntity.create().withId(ID)));
+		when(contactSettingRepositoryMock.saveAndFlush(any(ContactSettingEntity.class)))
+			.thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLIntegrityConstraintViolationException("Duplicate entry for key 'uq_contact_setting_municipality_id_party_id'")));
 
 		// Act
 		final var exception = assertThrows(ThrowableProblem.class, () -> service.createContactSetting(MUNICIPALITY_ID, contactSettingCreateRequest));
@@ -90,7 +150,27 @@ class ContactSettingsServiceTest {
 		assertThat(exception.getTitle()).isEqualTo(CONFLICT.getReasonPhrase());
 		assertThat(exception.getDetail()).isEqualTo(ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ALREADY_EXISTS.formatted(contactSettingCreateRequest.getPartyId()));
 
-		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(eq(MUNICIPALITY_ID), any(String.class));
+		verify(contactSettingRepositoryMock).saveAndFlush(any(ContactSettingEntity.class));
+		verifyNoMoreInteractions(contactSettingRepositoryMock);
+		verifyNoInteractions(changeLogServiceMock);
+	}
+
+	@Test
+	void createContactSettingOtherDataIntegrityViolation() {
+
+		// Arrange
+		final var contactSettingCreateRequest = buildContactSettingCreateRequest();
+		final var dataIntegrityViolationException = new DataIntegrityViolationException("could not execute statement", new SQLIntegrityConstraintViolationException("Column 'id' cannot be null"));
+
+		when(contactSettingRepositoryMock.saveAndFlush(any(ContactSettingEntity.class))).thenThrow(dataIntegrityViolationException);
+
+		// Act
+		final var exception = assertThrows(DataIntegrityViolationException.class, () -> service.createContactSetting(MUNICIPALITY_ID, contactSettingCreateRequest));
+
+		// Assert
+		assertThat(exception).isSameAs(dataIntegrityViolationException);
+
+		verify(contactSettingRepositoryMock).saveAndFlush(any(ContactSettingEntity.class));
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
 	}
 
@@ -127,27 +207,89 @@ class ContactSettingsServiceTest {
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
 	}
 
+	@Test
+	void readContactSettingWithCache() {
+
+		// Arrange
+		final var contactSetting = ContactSetting.create().withId(ID);
+		final var cachedService = new ContactSettingsService(contactSettingRepositoryMock, delegateRepositoryMock, delegateChainResolverMock, entityManagerMock, applicationEventPublisherMock, changeLogServiceMock, Optional.of(contactSettingCacheMock), Optional.empty(), Optional.empty());
+
+		when(contactSettingCacheMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(Optional.of(contactSetting));
+
+		// Act
+		final var result = cachedService.readContactSetting(MUNICIPALITY_ID, ID);
+
+		// Assert
+		assertThat(result).isSameAs(contactSetting);
+		verify(contactSettingCacheMock).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		verifyNoInteractions(contactSettingRepositoryMock);
+	}
+
 	@Test
 	void readContactSettingChildren() {
 
 		// Arrange
-		final var children = List.of(
-			ContactSettingEntity.create().withCreatedById(ID).withAlias("Child-1"),
-			ContactSettingEntity.create().withCreatedById(ID).withAlias("Child-2"));
+		final var created = OffsetDateTime.now();
+		final var child1 = ContactSettingEntity.create().withId("child-1").withCreatedById(ID).withAlias("Child-1").withCreated(created);
+		final var child2 = ContactSettingEntity.create().withId("child-2").withCreatedById(ID).withAlias("Child-2").withCreated(created);
 
 		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(true);
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID)).thenReturn(children);
+		when(contactSettingRepositoryMock.findIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID, Limit.of(3))).thenReturn(List.of("child-1", "child-2"));
+		when(contactSettingRepositoryMock.findWithChannelsByIdIn(List.of("child-1", "child-2"))).thenReturn(List.of(child2, child1)); // Order from DB is not guaranteed.
 
 		// Act
-		final var result = service.readContactSettingChildren(MUNICIPALITY_ID, ID);
+		final var result = service.readContactSettingChildren(MUNICIPALITY_ID, ID, null, Limit.of(2));
 
 		// Assert
-		assertThat(result).isEqualTo(List.of(
-			ContactSetting.create().withCreatedById(ID).withAlias("Child-1").withVirtual(true).withContactChannels(emptyList()),
-			ContactSetting.create().withCreatedById(ID).withAlias("Child-2").withVirtual(true).withContactChannels(emptyList())));
+		assertThat(result.contactSettings()).isEqualTo(List.of(
+			ContactSetting.create().withId("child-1").withCreatedById(ID).withAlias("Child-1").withCreated(created).withVirtual(true).withContactChannels(emptyList()),
+			ContactSetting.create().withId("child-2").withCreatedById(ID).withAlias("Child-2").withCreated(created).withVirtual(true).withContactChannels(emptyList())));
+		assertThat(result.continuationToken()).isNull();
 
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
-		verify(contactSettingRepositoryMock).findByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID);
+		verify(contactSettingRepositoryMock).findIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID, Limit.of(3));
+		verify(contactSettingRepositoryMock).findWithChannelsByIdIn(List.of("child-1", "child-2"));
+		verifyNoMoreInteractions(contactSettingRepositoryMock);
+	}
+
+	@Test
+	void readContactSettingChildrenWithNextPage() {
+
+		// Arrange
+		final var created = OffsetDateTime.now();
+		final var child1 = ContactSettingEntity.create().withId("child-1").withCreatedById(ID).withCreated(created);
+		final var continuationToken = new ContinuationToken(created.minusDays(1), "child-0").encode();
+
+		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(true);
+		when(contactSettingRepositoryMock.findIdsByMunicipalityIdAndCreatedByIdAfter(eq(MUNICIPALITY_ID), eq(ID), any(), eq("child-0"), eq(Limit.of(2)))).thenReturn(List.of("child-1", "child-2"));
+		when(contactSettingRepositoryMock.findWithChannelsByIdIn(List.of("child-1"))).thenReturn(List.of(child1));
+
+		// Act
+		final var result = service.readContactSettingChildren(MUNICIPALITY_ID, ID, continuationToken, Limit.of(1));
+
+		// Assert
+		assertThat(result.contactSettings()).extracting(ContactSetting::getId).containsExactly("child-1");
+		assertThat(result.continuationToken()).isEqualTo(ContinuationToken.of(child1).encode());
+
+		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		verify(contactSettingRepositoryMock).findIdsByMunicipalityIdAndCreatedByIdAfter(MUNICIPALITY_ID, ID, ContinuationToken.decode(continuationToken).created(), "child-0", Limit.of(2));
+		verify(contactSettingRepositoryMock).findWithChannelsByIdIn(List.of("child-1"));
+		verifyNoMoreInteractions(contactSettingRepositoryMock);
+	}
+
+	@Test
+	void readContactSettingChildrenWithInvalidContinuationToken() {
+
+		// Arrange
+		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(true);
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> service.readContactSettingChildren(MUNICIPALITY_ID, ID, "invalid", Limit.of(10)));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getDetail()).isEqualTo(ERROR_MESSAGE_INVALID_CONTINUATION_TOKEN.formatted("invalid"));
+		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
 	}
 
@@ -155,7 +297,7 @@ class ContactSettingsServiceTest {
 	void readContactSettingChildrenNotFoundParent() {
 
 		// Act
-		final var exception = assertThrows(ThrowableProblem.class, () -> service.readContactSettingChildren(MUNICIPALITY_ID, ID));
+		final var exception = assertThrows(ThrowableProblem.class, () -> service.readContactSettingChildren(MUNICIPALITY_ID, ID, null, Limit.of(10)));
 
 		// Assert
 		assertThat(exception.getStatus()).isEqualTo(NOT_FOUND);
@@ -170,16 +312,17 @@ class ContactSettingsServiceTest {
 
 		// Arrange
 		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(true);
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID)).thenReturn(emptyList());
+		when(contactSettingRepositoryMock.findIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID, Limit.of(11))).thenReturn(emptyList());
 
 		// Act
-		final var result = service.readContactSettingChildren(MUNICIPALITY_ID, ID);
+		final var result = service.readContactSettingChildren(MUNICIPALITY_ID, ID, null, Limit.of(10));
 
 		// Assert
-		assertThat(result).isEmpty();
+		assertThat(result.contactSettings()).isEmpty();
+		assertThat(result.continuationToken()).isNull();
 
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
-		verify(contactSettingRepositoryMock).findByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID);
+		verify(contactSettingRepositoryMock).findIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID, Limit.of(11));
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
 	}
 
@@ -188,86 +331,95 @@ class ContactSettingsServiceTest {
 
 		// Arrange
 		final var destination = "0701740605";
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, destination)).thenReturn(List.of(ContactSettingEntity.create().withChannels(List.of(
-			Channel.create().withDestination(destination).withContactMethod("SMS")))));
+		when(contactSettingRepositoryMock.findIdsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, destination, 11)).thenReturn(List.of(ID, ID)); // Two channels with the destination.
+		when(contactSettingRepositoryMock.findWithChannelsByIdIn(List.of(ID))).thenReturn(List.of(ContactSettingEntity.create().withId(ID).withChannels(List.of(
+			Channel.create().withAlias("Home").withDestination(destination).withContactMethod("SMS"),
+			Channel.create().withAlias("Work").withDestination(destination).withContactMethod("SMS")))));
 
 		// Act
-		final var result = service.findByChannelsDestination(MUNICIPALITY_ID, destination);
+		final var result = service.findByChannelsDestination(MUNICIPALITY_ID, destination, null, Limit.of(10));
 
 		// Assert
-		assertThat(result).hasSize(1);
+		assertThat(result.contactSettings()).hasSize(1);
+		assertThat(result.continuationToken()).isNull();
 
-		verify(contactSettingRepositoryMock).findByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, destination);
+		verify(contactSettingRepositoryMock).findIdsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, destination, 11);
+		verify(contactSettingRepositoryMock).findWithChannelsByIdIn(List.of(ID));
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
 	}
 
 	@Test
-	void findByChannelsDestinationNotFound() {
+	void findByChannelsDestinationWithNextPage() {
 
 		// Arrange
 		final var destination = "0701740605";
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndChannelsDestination(any(), any())).thenReturn(emptyList());
+		final var created = OffsetDateTime.now();
+		final var entity = ContactSettingEntity.create().withId("id-2").withCreated(created);
+		final var continuationToken = new ContinuationToken(created, "id-1").encode();
+
+		when(contactSettingRepositoryMock.findIdsByMunicipalityIdAndChannelsDestinationAfter(MUNICIPALITY_ID, destination, "id-1", 2)).thenReturn(List.of("id-2", "id-3"));
+		when(contactSettingRepositoryMock.findWithChannelsByIdIn(List.of("id-2"))).thenReturn(List.of(entity));
 
 		// Act
-		final var result = service.findByChannelsDestination(MUNICIPALITY_ID, destination);
+		final var result = service.findByChannelsDestination(MUNICIPALITY_ID, destination, continuationToken, Limit.of(1));
 
 		// Assert
-		assertThat(result).isEmpty();
+		assertThat(result.contactSettings()).extracting(ContactSetting::getId).containsExactly("id-2");
+		assertThat(result.continuationToken()).isEqualTo(ContinuationToken.of(entity).encode());
 
-		verify(contactSettingRepositoryMock).findByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, destination);
+		verify(contactSettingRepositoryMock).findIdsByMunicipalityIdAndChannelsDestinationAfter(MUNICIPALITY_ID, destination, "id-1", 2);
+		verify(contactSettingRepositoryMock).findWithChannelsByIdIn(List.of("id-2"));
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
 	}
 
 	@Test
-	void findByPartyIdAndQueryFilter_noQueryProvided() {
+	void findByChannelsDestinationUnlimited() {
 
 		// Arrange
-		final var principalPartyId = randomUUID().toString();
-		final var agentPartyId = randomUUID().toString();
+		final var destination = "0701740605";
+		final var ids = IntStream.range(0, 501).mapToObj("id-%03d"::formatted).toList();
+		when(contactSettingRepositoryMock.findIdsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, destination, Integer.MAX_VALUE)).thenReturn(ids);
+		when(contactSettingRepositoryMock.findWithChannelsByIdIn(any())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+			.map(id -> ContactSettingEntity.create().withId(id))
+			.toList());
 
-		final var principal = ContactSettingEntity.create()
-			.withAlias("Principal")
-			.withChannels(List.of(Channel.create().withContactMethod(SMS.toString()).withDestination("070111111111")))
-			.withPartyId(principalPartyId)
-			.withId(randomUUID().toString());
+		// Act
+		final var result = service.findByChannelsDestination(MUNICIPALITY_ID, destination, null, Limit.unlimited());
 
-		final var agent = ContactSettingEntity.create()
-			.withAlias("Agent")
-			.withChannels(List.of(Channel.create().withContactMethod(SMS.toString()).withDestination("070222222222")))
-			.withPartyId(agentPartyId)
-			.withId(randomUUID().toString());
+		// Assert
+		assertThat(result.contactSettings()).extracting(ContactSetting::getId).isEqualTo(ids);
+		assertThat(result.continuationToken()).isNull();
 
-		final var delegate = DelegateEntity.create()
-			.withAgent(agent)
-			.withPrincipal(principal);
+		verify(contactSettingRepositoryMock).findIdsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, destination, Integer.MAX_VALUE);
+		verify(contactSettingRepositoryMock).findWithChannelsByIdIn(ids.subList(0, 500));
+		verify(contactSettingRepositoryMock).findWithChannelsByIdIn(ids.subList(500, 501));
+		verifyNoMoreInteractions(contactSettingRepositoryMock);
+	}
 
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principal.getPartyId())).thenReturn(Optional.of(principal));
-		when(delegateRepositoryMock.findByPrincipalId(principal.getId())).thenReturn(List.of(delegate));
+	@Test
+	void findByChannelsDestinationNotFound() {
+
+		// Arrange
+		final var destination = "0701740605";
+		when(contactSettingRepositoryMock.findIdsByMunicipalityIdAndChannelsDestination(any(), any(), anyInt())).thenReturn(emptyList());
 
 		// Act
-		final var result = service.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, principalPartyId, null);
+		final var result = service.findByChannelsDestination(MUNICIPALITY_ID, destination, null, Limit.of(10));
 
 		// Assert
-		assertThat(result)
-			.extracting(ContactSetting::getId, ContactSetting::getPartyId, ContactSetting::getAlias, ContactSetting::getContactChannels)
-			.containsExactlyInAnyOrder(
-				tuple(principal.getId(), principalPartyId, "Principal", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070111111111"))),
-				tuple(agent.getId(), agentPartyId, "Agent", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070222222222"))));
+		assertThat(result.contactSettings()).isEmpty();
+		assertThat(result.continuationToken()).isNull();
 
-		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principalPartyId);
-		verify(delegateRepositoryMock).findByPrincipalId(principal.getId());
-		verify(delegateRepositoryMock).findByPrincipalId(agent.getId());
-		verifyNoMoreInteractions(delegateRepositoryMock);
+		verify(contactSettingRepositoryMock).findIdsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, destination, 11);
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
 	}
 
 	@Test
-	void findByPartyIdAndQueryFilter_queryWithWithFilterEqualsOperatorMatch() {
+	void findByPartyIdAndQueryFilter() {
 
 		// Arrange
 		final var inputQuery = new LinkedMultiValueMap<String, String>();
 		inputQuery.put("key1", List.of("value1", "value2"));
-		inputQuery.put("key2", List.of("value3", "value4", "value5"));
 
 		final var principalPartyId = randomUUID().toString();
 		final var agentPartyId = randomUUID().toString();
@@ -279,23 +431,22 @@ class ContactSettingsServiceTest {
 			.withMunicipalityId(MUNICIPALITY_ID)
 			.withId(randomUUID().toString());
 
-		final var agent = ContactSettingEntity.create()
-			.withAlias("Agent")
+		final var agent1 = ContactSettingEntity.create()
+			.withAlias("Agent1")
 			.withChannels(List.of(Channel.create().withContactMethod(SMS.toString()).withDestination("070222222222")))
 			.withPartyId(agentPartyId)
 			.withMunicipalityId(MUNICIPALITY_ID)
 			.withId(randomUUID().toString());
 
-		final var delegate = DelegateEntity.create()
-			.withAgent(agent)
-			.withPrincipal(principal)
-			.withFilters(List.of(
-				DelegateFilterEntity.create().withFilterRules(List.of(
-					DelegateFilterRule.create().withAttributeName("key1").withOperator("EQUALS").withAttributeValue("value2"),
-					DelegateFilterRule.create().withAttributeName("key2").withOperator("EQUALS").withAttributeValue("value4")))));
+		final var agent2 = ContactSettingEntity.create()
+			.withAlias("Agent2")
+			.withChannels(List.of(Channel.create().withContactMethod(EMAIL.toString()).withDestination("agent2@example.com")))
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withId(randomUUID().toString());
 
 		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principal.getPartyId())).thenReturn(Optional.of(principal));
-		when(delegateRepositoryMock.findByPrincipalId(principal.getId())).thenReturn(List.of(delegate));
+		when(delegateChainResolverMock.resolveChain(MUNICIPALITY_ID, principal.getId(), inputQuery)).thenReturn(new DelegateChain(List.of(principal.getId(), agent1.getId(), agent2.getId()), Set.of()));
+		when(contactSettingRepositoryMock.findWithChannelsByIdIn(List.of(agent1.getId(), agent2.getId()))).thenReturn(List.of(agent2, agent1)); // Order from DB is not guaranteed.
 
 		// Act
 		final var result = service.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, principalPartyId, inputQuery);
@@ -303,27 +454,69 @@ class ContactSettingsServiceTest {
 		// Assert
 		assertThat(result)
 			.extracting(ContactSetting::getId, ContactSetting::getMunicipalityId, ContactSetting::getPartyId, ContactSetting::getAlias, ContactSetting::getContactChannels)
-			.containsExactlyInAnyOrder(
-				tuple(principal.getId(), "2281", principalPartyId, "Principal", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070111111111"))),
-				tuple(agent.getId(), "2281", agentPartyId, "Agent", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070222222222"))));
+			.containsExactly(
+				tuple(principal.getId(), MUNICIPALITY_ID, principalPartyId, "Principal", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070111111111"))),
+				tuple(agent1.getId(), MUNICIPALITY_ID, agentPartyId, "Agent1", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070222222222"))),
+				tuple(agent2.getId(), MUNICIPALITY_ID, null, "Agent2", List.of(ContactChannel.create().withContactMethod(EMAIL).withDestination("agent2@example.com"))));
 
 		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principalPartyId);
-		verify(delegateRepositoryMock).findByPrincipalId(principal.getId());
-		verify(delegateRepositoryMock).findByPrincipalId(agent.getId());
-		verifyNoMoreInteractions(delegateRepositoryMock);
+		verify(delegateChainResolverMock).resolveChain(MUNICIPALITY_ID, principal.getId(), inputQuery);
+		verify(contactSettingRepositoryMock).findWithChannelsByIdIn(List.of(agent1.getId(), agent2.getId()));
+		verifyNoMoreInteractions(contactSettingRepositoryMock, delegateChainResolverMock);
+		verifyNoInteractions(delegateRepositoryMock);
+	}
+
+	@Test
+	void findByPartyIdAndQueryFilterWithCache() {
+
+		// Arrange
+		final var principalPartyId = randomUUID().toString();
+		final var principal = ContactSetting.create().withId(randomUUID().toString()).withPartyId(principalPartyId);
+		final var agent = ContactSettingEntity.create().withId(randomUUID().toString()).withMunicipalityId(MUNICIPALITY_ID);
+		final var cachedService = new ContactSettingsService(contactSettingRepositoryMock, delegateRepositoryMock, delegateChainResolverMock, entityManagerMock, applicationEventPublisherMock, changeLogServiceMock, Optional.of(contactSettingCacheMock), Optional.empty(), Optional.empty());
+
+		when(contactSettingCacheMock.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principalPartyId)).thenReturn(Optional.of(principal));
+		when(delegateChainResolverMock.resolveChain(MUNICIPALITY_ID, principal.getId(), Map.of())).thenReturn(new DelegateChain(List.of(principal.getId(), agent.getId()), Set.of()));
+		when(contactSettingRepositoryMock.findWithChannelsByIdIn(List.of(agent.getId()))).thenReturn(List.of(agent));
+
+		// Act
+		final var result = cachedService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, principalPartyId, Map.of());
+
+		// Assert
+		assertThat(result).extracting(ContactSetting::getId).containsExactly(principal.getId(), agent.getId());
+		assertThat(result.getFirst()).isSameAs(principal);
+
+		verify(contactSettingCacheMock).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principalPartyId);
+		verify(delegateChainResolverMock).resolveChain(MUNICIPALITY_ID, principal.getId(), Map.of());
+		verify(contactSettingRepositoryMock).findWithChannelsByIdIn(List.of(agent.getId()));
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
 	}
 
 	@Test
-	void findByPartyIdAndQueryFilter_queryWithWithFilterNotEqualsOperatorMatch() {
+	void findByPartyIdAndQueryFilterWithDelegateChainCache() {
 
 		// Arrange
-		final var inputQuery = new LinkedMultiValueMap<String, String>();
-		inputQuery.put("key1", List.of("value1", "value2"));
-		inputQuery.put("key2", List.of("value3", "value4", "value5"));
+		final var partyId = randomUUID().toString();
+		final var inputQuery = Map.of("key1", List.of("value1"));
+		final var contactSettings = List.of(ContactSetting.create().withPartyId(partyId));
+		final var cachedService = new ContactSettingsService(contactSettingRepositoryMock, delegateRepositoryMock, delegateChainResolverMock, entityManagerMock, applicationEventPublisherMock, changeLogServiceMock, Optional.empty(), Optional.of(delegateChainCacheMock), Optional.empty());
+
+		when(delegateChainCacheMock.get(eq(MUNICIPALITY_ID), eq(partyId), eq(inputQuery), any())).thenReturn(contactSettings);
+
+		// Act
+		final var result = cachedService.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, partyId, inputQuery);
 
+		// Assert
+		assertThat(result).isSameAs(contactSettings);
+		verify(delegateChainCacheMock).get(eq(MUNICIPALITY_ID), eq(partyId), eq(inputQuery), any());
+		verifyNoInteractions(contactSettingRepositoryMock, delegateChainResolverMock);
+	}
+
+	@Test
+	void findByPartyIdAndQueryFilter_noDelegatesInChain() {
+
+		// Arrange
 		final var principalPartyId = randomUUID().toString();
-		final var agentPartyId = randomUUID().toString();
 
 		final var principal = ContactSettingEntity.create()
 			.withAlias("Principal")
@@ -332,156 +525,229 @@ class ContactSettingsServiceTest {
 			.withMunicipalityId(MUNICIPALITY_ID)
 			.withId(randomUUID().toString());
 
-		final var agent = ContactSettingEntity.create()
-			.withAlias("Agent")
-			.withChannels(List.of(Channel.create().withContactMethod(SMS.toString()).withDestination("070222222222")))
-			.withPartyId(agentPartyId)
-			.withMunicipalityId(MUNICIPALITY_ID)
-			.withId(randomUUID().toString());
-
-		final var delegate = DelegateEntity.create()
-			.withAgent(agent)
-			.withPrincipal(principal)
-			.withFilters(List.of(
-				DelegateFilterEntity.create().withFilterRules(List.of(
-					DelegateFilterRule.create().withAttributeName("key1").withOperator("NOT_EQUALS").withAttributeValue("theForbiddenValue")))));
-
 		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principal.getPartyId())).thenReturn(Optional.of(principal));
-		when(delegateRepositoryMock.findByPrincipalId(principal.getId())).thenReturn(List.of(delegate));
+		when(delegateChainResolverMock.resolveChain(MUNICIPALITY_ID, principal.getId(), null)).thenReturn(new DelegateChain(List.of(principal.getId()), Set.of()));
 
 		// Act
-		final var result = service.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, principalPartyId, inputQuery);
+		final var result = service.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, principalPartyId, null);
 
 		// Assert
 		assertThat(result)
 			.extracting(ContactSetting::getId, ContactSetting::getMunicipalityId, ContactSetting::getPartyId, ContactSetting::getAlias, ContactSetting::getContactChannels)
-			.containsExactlyInAnyOrder(
-				tuple(principal.getId(), MUNICIPALITY_ID, principalPartyId, "Principal", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070111111111"))),
-				tuple(agent.getId(), MUNICIPALITY_ID, agentPartyId, "Agent", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070222222222"))));
+			.containsExactly(
+				tuple(principal.getId(), MUNICIPALITY_ID, principalPartyId, "Principal", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070111111111"))));
 
 		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principalPartyId);
-		verify(delegateRepositoryMock).findByPrincipalId(principal.getId());
-		verify(delegateRepositoryMock).findByPrincipalId(agent.getId());
-		verifyNoMoreInteractions(delegateRepositoryMock);
+		verify(delegateChainResolverMock).resolveChain(MUNICIPALITY_ID, principal.getId(), null);
+		verifyNoMoreInteractions(contactSettingRepositoryMock, delegateChainResolverMock);
+		verifyNoInteractions(delegateRepositoryMock);
+	}
+
+	@Test
+	void findByPartyIdAndQueryFilterNotFound() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(any(), any())).thenReturn(empty());
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> service.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, partyId, null));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(NOT_FOUND);
+		assertThat(exception.getTitle()).isEqualTo(NOT_FOUND.getReasonPhrase());
+		assertThat(exception.getDetail()).isEqualTo(ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ID_NOT_FOUND.formatted(partyId));
+		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, partyId);
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
 	}
 
 	@Test
-	void findByPartyIdAndQueryFilter_queryWithNoFilterMatch() {
+	void findByPartyIdsAndQueryFilter() {
 
 		// Arrange
-		final var inputQuery = new LinkedMultiValueMap<String, String>();
-		inputQuery.put("unknown-key", List.of("unknown-value"));
+		final var inputQuery = Map.of("key1", List.of("value1"));
 
-		final var principalPartyId = randomUUID().toString();
-		final var agentPartyId = randomUUID().toString();
+		final var principal1PartyId = randomUUID().toString();
+		final var principal2PartyId = randomUUID().toString();
+		final var unknownPartyId = randomUUID().toString();
 
-		final var principal = ContactSettingEntity.create()
-			.withAlias("Principal")
-			.withChannels(List.of(Channel.create().withContactMethod(SMS.toString()).withDestination("070111111111")))
-			.withPartyId(principalPartyId)
+		final var principal1 = ContactSettingEntity.create()
+			.withAlias("Principal1")
+			.withPartyId(principal1PartyId)
 			.withMunicipalityId(MUNICIPALITY_ID)
 			.withId(randomUUID().toString());
 
-		final var agent = ContactSettingEntity.create()
+		final var principal2 = ContactSettingEntity.create()
+			.withAlias("Principal2")
+			.withPartyId(principal2PartyId)
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withId(randomUUID().toString());
+
+		final var sharedAgent = ContactSettingEntity.create()
 			.withAlias("Agent")
-			.withChannels(List.of(Channel.create().withContactMethod(SMS.toString()).withDestination("070222222222")))
-			.withPartyId(agentPartyId)
+			.withChannels(List.of(Channel.create().withContactMethod(EMAIL.toString()).withDestination("agent@example.com")))
 			.withMunicipalityId(MUNICIPALITY_ID)
 			.withId(randomUUID().toString());
 
-		final var delegate = DelegateEntity.create()
-			.withAgent(agent)
-			.withPrincipal(principal)
-			.withFilters(List.of(
-				DelegateFilterEntity.create().withFilterRules(List.of(
-					DelegateFilterRule.create().withAttributeName("key1").withOperator("EQUALS").withAttributeValue("value1"),
-					DelegateFilterRule.create().withAttributeName("key2").withOperator("EQUALS").withAttributeValue("value2")))));
+		when(contactSettingRepositoryMock.findWithChannelsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), any())).thenReturn(List.of(principal1, principal2));
+		when(delegateChainResolverMock.resolveAll(eq(MUNICIPALITY_ID), any(), eq(inputQuery))).thenReturn(Map.of(
+			principal1.getId(), List.of(principal1.getId(), sharedAgent.getId()),
+			principal2.getId(), List.of(principal2.getId(), sharedAgent.getId(), principal1.getId())));
+		when(contactSettingRepositoryMock.findWithChannelsByIdIn(List.of(sharedAgent.getId()))).thenReturn(List.of(sharedAgent));
 
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principal.getPartyId())).thenReturn(Optional.of(principal));
-		when(delegateRepositoryMock.findByPrincipalId(principal.getId())).thenReturn(List.of(delegate));
+		// Act
+		final var result = service.findByPartyIdsAndQueryFilter(MUNICIPALITY_ID, List.of(principal2PartyId, unknownPartyId, principal1PartyId, principal2PartyId), inputQuery);
+
+		// Assert
+		assertThat(result).extracting(PartyContactSettings::getPartyId).containsExactly(principal2PartyId, unknownPartyId, principal1PartyId);
+		assertThat(result.get(0).getContactSettings()).extracting(ContactSetting::getAlias).containsExactly("Principal2", "Agent", "Principal1");
+		assertThat(result.get(1).getContactSettings()).isEmpty();
+		assertThat(result.get(2).getContactSettings()).extracting(ContactSetting::getAlias).containsExactly("Principal1", "Agent");
+
+		verify(contactSettingRepositoryMock).findWithChannelsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), partyIdsCaptor.capture());
+		verify(delegateChainResolverMock).resolveAll(eq(MUNICIPALITY_ID), rootIdsCaptor.capture(), eq(inputQuery));
+		verify(contactSettingRepositoryMock).findWithChannelsByIdIn(List.of(sharedAgent.getId()));
+		verifyNoMoreInteractions(contactSettingRepositoryMock, delegateChainResolverMock);
+		verifyNoInteractions(delegateRepositoryMock);
+
+		assertThat(partyIdsCaptor.getValue()).containsExactly(principal2PartyId, unknownPartyId, principal1PartyId);
+		assertThat(rootIdsCaptor.getValue()).containsExactlyInAnyOrder(principal1.getId(), principal2.getId());
+	}
+
+	@Test
+	void findByPartyIdsAndQueryFilterNoneFound() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		when(contactSettingRepositoryMock.findWithChannelsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), any())).thenReturn(emptyList());
+		when(delegateChainResolverMock.resolveAll(eq(MUNICIPALITY_ID), any(), isNull())).thenReturn(Map.of());
 
 		// Act
-		final var result = service.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, principalPartyId, inputQuery);
+		final var result = service.findByPartyIdsAndQueryFilter(MUNICIPALITY_ID, List.of(partyId), null);
 
 		// Assert
-		assertThat(result)
-			.extracting(ContactSetting::getId, ContactSetting::getMunicipalityId, ContactSetting::getPartyId, ContactSetting::getAlias, ContactSetting::getContactChannels)
-			.containsExactlyInAnyOrder(
-				tuple(principal.getId(), MUNICIPALITY_ID, principalPartyId, "Principal", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070111111111"))));
+		assertThat(result).containsExactly(PartyContactSettings.create().withPartyId(partyId).withContactSettings(emptyList()));
+		verify(contactSettingRepositoryMock).findWithChannelsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), any());
+		verify(delegateChainResolverMock).resolveAll(eq(MUNICIPALITY_ID), any(), isNull());
+		verifyNoMoreInteractions(contactSettingRepositoryMock, delegateChainResolverMock);
+	}
 
-		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principalPartyId);
-		verify(delegateRepositoryMock).findByPrincipalId(principal.getId());
-		verifyNoMoreInteractions(delegateRepositoryMock);
+	@Test
+	void streamContactSettingChildren() {
+
+		// Arrange
+		final var child1 = ContactSettingEntity.create().withCreatedById(ID).withAlias("Child-1");
+		final var child2 = ContactSettingEntity.create().withCreatedById(ID).withAlias("Child-2");
+		final var result = new ArrayList<ContactSetting>();
+
+		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(true);
+		when(contactSettingRepositoryMock.streamWithChannelsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID)).thenReturn(Stream.of(child1, child2));
+
+		// Act
+		service.streamContactSettingChildren(MUNICIPALITY_ID, ID, result::add);
+
+		// Assert
+		assertThat(result).isEqualTo(List.of(
+			ContactSetting.create().withCreatedById(ID).withAlias("Child-1").withVirtual(true).withContactChannels(emptyList()),
+			ContactSetting.create().withCreatedById(ID).withAlias("Child-2").withVirtual(true).withContactChannels(emptyList())));
+
+		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		verify(contactSettingRepositoryMock).streamWithChannelsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID);
+		verify(entityManagerMock).detach(child1);
+		verify(entityManagerMock).detach(child2);
+		verifyNoMoreInteractions(contactSettingRepositoryMock, entityManagerMock);
+	}
+
+	@Test
+	void streamContactSettingChildrenNotFoundParent() {
+
+		// Arrange
+		final var result = new ArrayList<ContactSetting>();
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> service.streamContactSettingChildren(MUNICIPALITY_ID, ID, result::add));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(NOT_FOUND);
+		assertThat(exception.getDetail()).isEqualTo(ERROR_MESSAGE_CONTACT_SETTING_NOT_FOUND.formatted(ID));
+		assertThat(result).isEmpty();
+		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
+		verifyNoInteractions(entityManagerMock);
 	}
 
 	@Test
-	void findByPartyIdAndQueryFilter_circularReferences() {
+	void streamByChannelsDestination() {
 
 		// Arrange
-		final var principalPartyId = randomUUID().toString();
-		final var agentPartyId = randomUUID().toString();
+		final var destination = "0701740605";
+		final var entity = ContactSettingEntity.create().withChannels(List.of(Channel.create().withDestination(destination).withContactMethod("SMS")));
+		final var result = new ArrayList<ContactSetting>();
 
-		final var principal = ContactSettingEntity.create()
-			.withAlias("Principal")
-			.withChannels(List.of(Channel.create().withContactMethod(SMS.toString()).withDestination("070111111111")))
-			.withPartyId(principalPartyId)
-			.withMunicipalityId(MUNICIPALITY_ID)
-			.withId(randomUUID().toString());
+		when(contactSettingRepositoryMock.streamWithChannelsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, destination)).thenReturn(Stream.of(entity));
 
-		final var agent = ContactSettingEntity.create()
-			.withAlias("Agent")
-			.withChannels(List.of(Channel.create().withContactMethod(SMS.toString()).withDestination("070222222222")))
-			.withPartyId(agentPartyId)
-			.withMunicipalityId(MUNICIPALITY_ID)
-			.withId(randomUUID().toString());
+		// Act
+		service.streamByChannelsDestination(MUNICIPALITY_ID, destination, result::add);
 
-		final var delegate1 = DelegateEntity.create()
-			.withAgent(agent)
-			.withPrincipal(principal);
+		// Assert
+		assertThat(result).hasSize(1);
+		assertThat(result.getFirst().getContactChannels()).containsExactly(ContactChannel.create().withContactMethod(SMS).withDestination(destination));
 
-		final var delegate2 = DelegateEntity.create() // This delegate will cause the agent to delegate back to the principal.
-			.withAgent(principal)
-			.withPrincipal(agent);
+		verify(contactSettingRepositoryMock).streamWithChannelsByMunicipalityIdAndChannelsDestination(MUNICIPALITY_ID, destination);
+		verify(entityManagerMock).detach(entity);
+		verifyNoMoreInteractions(contactSettingRepositoryMock, entityManagerMock);
+	}
+
+	@Test
+	void streamByPartyIdAndQueryFilter() {
+
+		// Arrange
+		final var inputQuery = new LinkedMultiValueMap<String, String>();
+		inputQuery.put("key1", List.of("value1"));
+
+		final var principal = ContactSettingEntity.create().withAlias("Principal").withPartyId(randomUUID().toString()).withMunicipalityId(MUNICIPALITY_ID).withId(randomUUID().toString());
+		final var agent1 = ContactSettingEntity.create().withAlias("Agent1").withMunicipalityId(MUNICIPALITY_ID).withId(randomUUID().toString());
+		final var agent2 = ContactSettingEntity.create().withAlias("Agent2").withMunicipalityId(MUNICIPALITY_ID).withId(randomUUID().toString());
+		final var result = new ArrayList<ContactSetting>();
 
 		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principal.getPartyId())).thenReturn(Optional.of(principal));
-		when(delegateRepositoryMock.findByPrincipalId(principal.getId())).thenReturn(List.of(delegate1));
-		when(delegateRepositoryMock.findByPrincipalId(agent.getId())).thenReturn(List.of(delegate2));
+		when(delegateChainResolverMock.resolve(MUNICIPALITY_ID, principal.getId(), inputQuery)).thenReturn(List.of(principal.getId(), agent1.getId(), agent2.getId()));
+		when(contactSettingRepositoryMock.findWithChannelsByIdIn(List.of(agent1.getId(), agent2.getId()))).thenReturn(List.of(agent2, agent1)); // Order from DB is not guaranteed.
 
 		// Act
-		final var result = service.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, principalPartyId, null);
+		service.streamByPartyIdAndQueryFilter(MUNICIPALITY_ID, principal.getPartyId(), inputQuery, result::add);
 
 		// Assert
-		assertThat(result)
-			.extracting(ContactSetting::getId, ContactSetting::getMunicipalityId, ContactSetting::getPartyId, ContactSetting::getAlias, ContactSetting::getContactChannels)
-			.containsExactlyInAnyOrder(
-				tuple(principal.getId(), "2281", principalPartyId, "Principal", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070111111111"))),
-				tuple(agent.getId(), "2281", agentPartyId, "Agent", List.of(ContactChannel.create().withContactMethod(SMS).withDestination("070222222222"))));
-
-		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principalPartyId);
-		verify(delegateRepositoryMock).findByPrincipalId(principal.getId());
-		verify(delegateRepositoryMock).findByPrincipalId(agent.getId());
-		verifyNoMoreInteractions(delegateRepositoryMock);
-		verifyNoMoreInteractions(contactSettingRepositoryMock);
+		assertThat(result).extracting(ContactSetting::getAlias).containsExactly("Principal", "Agent1", "Agent2");
+
+		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, principal.getPartyId());
+		verify(delegateChainResolverMock).resolve(MUNICIPALITY_ID, principal.getId(), inputQuery);
+		verify(contactSettingRepositoryMock).findWithChannelsByIdIn(List.of(agent1.getId(), agent2.getId()));
+		verify(entityManagerMock).detach(principal);
+		verify(entityManagerMock).detach(agent1);
+		verify(entityManagerMock).detach(agent2);
+		verifyNoMoreInteractions(contactSettingRepositoryMock, delegateChainResolverMock, entityManagerMock);
+		verifyNoInteractions(delegateRepositoryMock);
 	}
 
 	@Test
-	void findByPartyIdAndQueryFilterNotFound() {
+	void streamByPartyIdAndQueryFilterNotFound() {
 
 		// Arrange
 		final var partyId = randomUUID().toString();
+		final var result = new ArrayList<ContactSetting>();
 		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(any(), any())).thenReturn(empty());
 
 		// Act
-		final var exception = assertThrows(ThrowableProblem.class, () -> service.findByPartyIdAndQueryFilter(MUNICIPALITY_ID, partyId, null));
+		final var exception = assertThrows(ThrowableProblem.class, () -> service.streamByPartyIdAndQueryFilter(MUNICIPALITY_ID, partyId, null, result::add));
 
 		// Assert
 		assertThat(exception.getStatus()).isEqualTo(NOT_FOUND);
-		assertThat(exception.getTitle()).isEqualTo(NOT_FOUND.getReasonPhrase());
 		assertThat(exception.getDetail()).isEqualTo(ERROR_MESSAGE_CONTACT_SETTING_BY_PARTY_ID_NOT_FOUND.formatted(partyId));
+		assertThat(result).isEmpty();
 		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, partyId);
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
+		verifyNoInteractions(delegateChainResolverMock, entityManagerMock);
 	}
 
 	@Test
@@ -501,7 +767,8 @@ class ContactSettingsServiceTest {
 
 		verify(contactSettingRepositoryMock).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
 		verify(contactSettingRepositoryMock).save(contactSettingEntity);
-		verifyNoMoreInteractions(contactSettingRepositoryMock);
+		verify(changeLogServiceMock).recordContactSettingChanges(List.of(ID), UPDATED);
+		verifyNoMoreInteractions(contactSettingRepositoryMock, changeLogServiceMock);
 	}
 
 	@Test
@@ -521,6 +788,7 @@ class ContactSettingsServiceTest {
 		assertThat(exception.getDetail()).isEqualTo(ERROR_MESSAGE_CONTACT_SETTING_NOT_FOUND.formatted(ID));
 		verify(contactSettingRepositoryMock).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
+		verifyNoInteractions(changeLogServiceMock);
 	}
 
 	@Test
@@ -534,38 +802,83 @@ class ContactSettingsServiceTest {
 			.withId(ID)
 			.withMunicipalityId(MUNICIPALITY_ID)
 			.withPartyId("partyId")));
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, CHILD_ENTITY_ID_1)).thenReturn(Optional.of(ContactSettingEntity.create().withId(CHILD_ENTITY_ID_1)));
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, CHILD_ENTITY_ID_2)).thenReturn(Optional.of(ContactSettingEntity.create().withId(CHILD_ENTITY_ID_2)));
-		when(contactSettingRepositoryMock.findByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID)).thenReturn(List.of(
-			ContactSettingEntity.create().withId(CHILD_ENTITY_ID_1).withMunicipalityId(MUNICIPALITY_ID),
-			ContactSettingEntity.create().withId(CHILD_ENTITY_ID_2).withMunicipalityId(MUNICIPALITY_ID)));
-		when(delegateRepositoryMock.findByAgentId(ID)).thenReturn(List.of(
-			DelegateEntity.create().withId("1")));
-		when(delegateRepositoryMock.findByPrincipalId(ID)).thenReturn(List.of(
-			DelegateEntity.create().withId("2"),
-			DelegateEntity.create().withId("3")));
+		when(contactSettingRepositoryMock.findVirtualIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID)).thenReturn(List.of(CHILD_ENTITY_ID_1, CHILD_ENTITY_ID_2));
+
+		// Act
+		final var result = service.deleteContactSetting(MUNICIPALITY_ID, ID);
+
+		// Assert
+		assertThat(result).isTrue();
+		final var inOrder = inOrder(contactSettingRepositoryMock, delegateRepositoryMock, changeLogServiceMock);
+		inOrder.verify(contactSettingRepositoryMock).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		inOrder.verify(contactSettingRepositoryMock).findVirtualIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID);
+		// Record the deletions of the delegates and the entities while they still exist.
+		inOrder.verify(changeLogServiceMock).recordDelegateChangesOfContactSettings(List.of(ID, CHILD_ENTITY_ID_1, CHILD_ENTITY_ID_2), DELETED);
+		inOrder.verify(changeLogServiceMock).recordContactSettingChanges(List.of(ID, CHILD_ENTITY_ID_1, CHILD_ENTITY_ID_2), DELETED);
+		// Delete delegates for main and child entities, before the entities.
+		inOrder.verify(delegateRepositoryMock).deleteByPrincipalIdInOrAgentIdIn(List.of(ID, CHILD_ENTITY_ID_1, CHILD_ENTITY_ID_2));
+		inOrder.verify(contactSettingRepositoryMock).deleteByIdIn(List.of(ID, CHILD_ENTITY_ID_1, CHILD_ENTITY_ID_2));
+
+		verify(applicationEventPublisherMock).publishEvent(new ContactSettingChangedEvent(MUNICIPALITY_ID, ID, "partyId"));
+		verify(applicationEventPublisherMock).publishEvent(new ContactSettingChangedEvent(MUNICIPALITY_ID, CHILD_ENTITY_ID_1, null));
+		verify(applicationEventPublisherMock).publishEvent(new ContactSettingChangedEvent(MUNICIPALITY_ID, CHILD_ENTITY_ID_2, null));
+		verify(applicationEventPublisherMock).publishEvent(new DelegateGraphChangedEvent(MUNICIPALITY_ID));
+		verifyNoMoreInteractions(contactSettingRepositoryMock, delegateRepositoryMock, applicationEventPublisherMock, changeLogServiceMock);
+	}
+
+	@Test
+	void deleteVirtualContactSetting() {
+
+		// Arrange
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(Optional.of(ContactSettingEntity.create()
+			.withId(ID)
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withCreatedById("createdById")));
 
 		// Act
 		service.deleteContactSetting(MUNICIPALITY_ID, ID);
 
 		// Assert
 		verify(contactSettingRepositoryMock).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
-		verify(contactSettingRepositoryMock).findByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID);
-		verify(contactSettingRepositoryMock).deleteById(ID);
-		verify(contactSettingRepositoryMock).deleteById(CHILD_ENTITY_ID_1);
-		verify(contactSettingRepositoryMock).deleteById(CHILD_ENTITY_ID_2);
-		// Delete delegates for main entity.
-		verify(delegateRepositoryMock).findByPrincipalId(ID);
-		verify(delegateRepositoryMock).findByAgentId(ID);
-		verify(delegateRepositoryMock).deleteAllById(List.of("1", "2", "3"));
-		// Delete delegates for child entities
-		verify(delegateRepositoryMock).findByPrincipalId(CHILD_ENTITY_ID_1);
-		verify(delegateRepositoryMock).findByAgentId(CHILD_ENTITY_ID_1);
-		verify(delegateRepositoryMock).findByPrincipalId(CHILD_ENTITY_ID_2);
-		verify(delegateRepositoryMock).findByAgentId(CHILD_ENTITY_ID_2);
+		verify(contactSettingRepositoryMock, never()).findVirtualIdsByMunicipalityIdAndCreatedById(any(), any());
+		verify(changeLogServiceMock).recordDelegateChangesOfContactSettings(List.of(ID), DELETED);
+		verify(changeLogServiceMock).recordContactSettingChanges(List.of(ID), DELETED);
+		verify(delegateRepositoryMock).deleteByPrincipalIdInOrAgentIdIn(List.of(ID));
+		verify(contactSettingRepositoryMock).deleteByIdIn(List.of(ID));
+		verify(applicationEventPublisherMock).publishEvent(new ContactSettingChangedEvent(MUNICIPALITY_ID, ID, null));
+		verify(applicationEventPublisherMock).publishEvent(new DelegateGraphChangedEvent(MUNICIPALITY_ID));
+	}
 
-		verifyNoMoreInteractions(contactSettingRepositoryMock);
-		verifyNoMoreInteractions(delegateRepositoryMock);
+	@Test
+	void deleteContactSettingWithPurger() {
+
+		// Arrange
+		final var CHILD_ENTITY_ID = randomUUID().toString();
+		final var purgingService = new ContactSettingsService(contactSettingRepositoryMock, delegateRepositoryMock, delegateChainResolverMock, entityManagerMock, applicationEventPublisherMock, changeLogServiceMock, Optional.empty(),
+			Optional.empty(), Optional.of(contactSettingPurgerMock));
+
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(Optional.of(ContactSettingEntity.create()
+			.withId(ID)
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withPartyId("partyId")));
+		when(contactSettingRepositoryMock.findVirtualIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID)).thenReturn(List.of(CHILD_ENTITY_ID));
+
+		// Act
+		final var result = purgingService.deleteContactSetting(MUNICIPALITY_ID, ID);
+
+		// Assert
+		assertThat(result).isFalse();
+		verify(contactSettingRepositoryMock).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		verify(contactSettingRepositoryMock).findVirtualIdsByMunicipalityIdAndCreatedById(MUNICIPALITY_ID, ID);
+		final var inOrder = inOrder(contactSettingRepositoryMock, changeLogServiceMock);
+		inOrder.verify(changeLogServiceMock).recordDelegateChangesOfContactSettings(List.of(ID, CHILD_ENTITY_ID), DELETED);
+		inOrder.verify(changeLogServiceMock).recordContactSettingChanges(List.of(ID, CHILD_ENTITY_ID), DELETED);
+		inOrder.verify(contactSettingRepositoryMock).tombstoneByIdIn(eq(List.of(ID, CHILD_ENTITY_ID)), any(OffsetDateTime.class));
+		verify(applicationEventPublisherMock).publishEvent(new ContactSettingChangedEvent(MUNICIPALITY_ID, ID, "partyId"));
+		verify(applicationEventPublisherMock).publishEvent(new ContactSettingChangedEvent(MUNICIPALITY_ID, CHILD_ENTITY_ID, null));
+		verify(applicationEventPublisherMock).publishEvent(new DelegateGraphChangedEvent(MUNICIPALITY_ID));
+		verifyNoMoreInteractions(contactSettingRepositoryMock, applicationEventPublisherMock);
+		verifyNoInteractions(delegateRepositoryMock, contactSettingPurgerMock);
 	}
 
 	@Test
@@ -583,7 +896,7 @@ class ContactSettingsServiceTest {
 		assertThat(exception.getDetail()).isEqualTo(ERROR_MESSAGE_CONTACT_SETTING_NOT_FOUND.formatted(ID));
 		verify(contactSettingRepositoryMock).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
 		verifyNoMoreInteractions(contactSettingRepositoryMock);
-		verifyNoInteractions(delegateRepositoryMock);
+		verifyNoInteractions(delegateRepositoryMock, applicationEventPublisherMock, changeLogServiceMock);
 	}
 
 	private ContactSettingCreateRequest buildContactSettingCreateRequest() {
@@ -26,11 +26,15 @@ import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.UPDATED;
 
 @ExtendWith(MockitoExtension.class)
 class DelegateFilterServiceTest {
@@ -41,6 +45,9 @@ class DelegateFilterServiceTest {
 	@Mock
 	private DelegateFilterRepository delegateFilterRepositoryMock;
 
+	@Mock
+	private ChangeLogService changeLogServiceMock;
+
 	@Captor
 	private ArgumentCaptor<DelegateEntity> delegateEntityCaptor;
 
@@ -68,14 +75,21 @@ class DelegateFilterServiceTest {
 				.withOperator(Operator.EQUALS.toString())
 				.withAttributeValue("value2")));
 
+		final var delegateId = randomUUID().toString();
+		final var delegateFilterId = randomUUID().toString();
 		final var delegateFilterEntity3 = DelegateFilterEntity.create()
+			.withDelegateId(delegateId)
 			.withAlias("Filter3")
 			.withFilterRules(List.of(DelegateFilterRule.create()
 				.withAttributeName("key3")
 				.withOperator(Operator.EQUALS.toString())
 				.withAttributeValue("value3")));
+		final var savedDelegateFilterEntity = DelegateFilterEntity.create()
+			.withId(delegateFilterId)
+			.withDelegateId(delegateId)
+			.withAlias("Filter3")
+			.withFilterRules(delegateFilterEntity3.getFilterRules());
 
-		final var delegateId = randomUUID().toString();
 		final var agentId = randomUUID().toString();
 		final var principalId = randomUUID().toString();
 		final var delegateEntity = DelegateEntity.create()
@@ -88,18 +102,20 @@ class DelegateFilterServiceTest {
 			.withAlias("Filter3")
 			.withRules(List.of(Rule.create().withAttributeName("key3").withAttributeValue("value3").withOperator(Operator.EQUALS)));
 
-		when(delegateRepositoryMock.findById(delegateId)).thenReturn(Optional.of(delegateEntity));
-		when(delegateFilterRepositoryMock.save(any())).thenReturn(delegateFilterEntity3);
+		when(delegateRepositoryMock.findWithFiltersById(delegateId)).thenReturn(Optional.of(delegateEntity));
+		when(delegateFilterRepositoryMock.save(any())).thenReturn(savedDelegateFilterEntity);
 
 		// Act
 		final var result = service.create(delegateId, filterToCreate);
 
 		// Assert.
-		assertThat(result).isEqualTo(filterToCreate);
+		assertThat(result.getId()).isEqualTo(delegateFilterId);
+		assertThat(result).usingRecursiveComparison().ignoringFields("id").isEqualTo(filterToCreate);
 
-		verify(delegateRepositoryMock).findById(delegateId);
+		verify(delegateRepositoryMock).findWithFiltersById(delegateId);
 		verify(delegateRepositoryMock).save(delegateEntityCaptor.capture());
 		verify(delegateFilterRepositoryMock).save(delegateFilterEntityCaptor.capture());
+		verify(changeLogServiceMock).recordDelegateFilterChanges(List.of(delegateFilterId), CREATED);
 		verifyNoMoreInteractions(delegateRepositoryMock);
 		verifyNoMoreInteractions(delegateFilterRepositoryMock);
 
@@ -110,7 +126,7 @@ class DelegateFilterServiceTest {
 		assertThat(capturedDelegateEntity).isNotNull();
 		assertThat(capturedDelegateEntity.getAgent()).isEqualTo(ContactSettingEntity.create().withId(agentId));
 		assertThat(capturedDelegateEntity.getPrincipal()).isEqualTo(ContactSettingEntity.create().withId(principalId));
-		assertThat(capturedDelegateEntity.getFilters()).containsExactlyInAnyOrder(delegateFilterEntity1, delegateFilterEntity2, delegateFilterEntity3);
+		assertThat(capturedDelegateEntity.getFilters()).containsExactlyInAnyOrder(delegateFilterEntity1, delegateFilterEntity2, savedDelegateFilterEntity);
 	}
 
 	@Test
@@ -120,7 +136,7 @@ class DelegateFilterServiceTest {
 		final var delegateId = randomUUID().toString();
 		final var filter = Filter.create();
 
-		when(delegateRepositoryMock.findById(delegateId)).thenReturn(empty());
+		when(delegateRepositoryMock.findWithFiltersById(delegateId)).thenReturn(empty());
 
 		// Act
 		final var exception = assertThrows(ThrowableProblem.class, () -> service.create(delegateId, filter));
@@ -131,7 +147,7 @@ class DelegateFilterServiceTest {
 		assertThat(exception.getDetail()).isEqualTo("No delegate with id: '" + delegateId + "' could be found for this municipality!");
 		assertThat(exception.getMessage()).isEqualTo("Not Found: No delegate with id: '" + delegateId + "' could be found for this municipality!");
 
-		verify(delegateRepositoryMock).findById(delegateId);
+		verify(delegateRepositoryMock).findWithFiltersById(delegateId);
 		verifyNoInteractions(delegateFilterRepositoryMock);
 		verifyNoMoreInteractions(delegateRepositoryMock);
 	}
@@ -222,6 +238,7 @@ class DelegateFilterServiceTest {
 
 		verify(delegateFilterRepositoryMock).findByIdAndDelegateId(delegateFilterId, delegateId);
 		verify(delegateFilterRepositoryMock).save(delegateFilterEntityCaptor.capture());
+		verify(changeLogServiceMock).recordDelegateFilterChanges(List.of(delegateFilterId), UPDATED);
 		verifyNoMoreInteractions(delegateRepositoryMock);
 		verifyNoMoreInteractions(delegateFilterRepositoryMock);
 
@@ -273,9 +290,14 @@ class DelegateFilterServiceTest {
 		// Arrange
 		final var delegateId = randomUUID().toString();
 		final var delegateFilterId = randomUUID().toString();
+		final var delegateFilterToKeep = DelegateFilterEntity.create().withId(randomUUID().toString());
+		final var delegateEntity = DelegateEntity.create()
+			.withId(delegateId)
+			.withFilters(new ArrayList<>(List.of(DelegateFilterEntity.create().withId(delegateFilterId), delegateFilterToKeep)));
 
 		when(delegateFilterRepositoryMock.countByDelegateId(delegateId)).thenReturn(2);
 		when(delegateFilterRepositoryMock.existsByIdAndDelegateId(delegateFilterId, delegateId)).thenReturn(true);
+		when(delegateRepositoryMock.findWithFiltersById(delegateId)).thenReturn(Optional.of(delegateEntity));
 
 		// Act
 		service.delete(delegateId, delegateFilterId);
@@ -283,9 +305,11 @@ class DelegateFilterServiceTest {
 		// Assert.
 		verify(delegateFilterRepositoryMock).countByDelegateId(delegateId);
 		verify(delegateFilterRepositoryMock).existsByIdAndDelegateId(delegateFilterId, delegateId);
-		verify(delegateFilterRepositoryMock).deleteById(delegateFilterId);
-		verifyNoInteractions(delegateRepositoryMock);
-		verifyNoMoreInteractions(delegateFilterRepositoryMock);
+		verify(delegateRepositoryMock).findWithFiltersById(delegateId);
+		verify(delegateRepositoryMock).save(delegateEntityCaptor.capture());
+		verify(changeLogServiceMock).recordDelegateFilterChanges(List.of(delegateFilterId), DELETED);
+		assertThat(delegateEntityCaptor.getValue().getFilters()).containsExactly(delegateFilterToKeep);
+		verifyNoMoreInteractions(delegateRepositoryMock, delegateFilterRepositoryMock);
 	}
 
 	@Test
@@ -304,7 +328,9 @@ class DelegateFilterServiceTest {
 		// Assert.
 		verify(delegateFilterRepositoryMock).countByDelegateId(delegateId);
 		verify(delegateFilterRepositoryMock).existsByIdAndDelegateId(delegateFilterId, delegateId);
-		verify(delegateRepositoryMock).deleteById(delegateId);
+		final var inOrder = inOrder(changeLogServiceMock, delegateRepositoryMock);
+		inOrder.verify(changeLogServiceMock).recordDelegateChanges(List.of(delegateId), DELETED);
+		inOrder.verify(delegateRepositoryMock).deleteById(delegateId);
 		verifyNoMoreInteractions(delegateRepositoryMock);
 		verifyNoMoreInteractions(delegateFilterRepositoryMock);
 	}
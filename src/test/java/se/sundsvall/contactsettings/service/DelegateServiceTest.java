@@ -1,14 +1,17 @@
 package se.sundsvall.contactsettings.service;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
 import se.sundsvall.contactsettings.api.model.Delegate;
 import se.sundsvall.contactsettings.api.model.DelegateCreateRequest;
 import se.sundsvall.contactsettings.api.model.Filter;
@@ -16,41 +19,66 @@ import se.sundsvall.contactsettings.api.model.FindDelegatesParameters;
 import se.sundsvall.contactsettings.api.model.Rule;
 import se.sundsvall.contactsettings.api.model.enums.Operator;
 import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateFilterRepository;
 import se.sundsvall.contactsettings.integration.db.DelegateRepository;
 import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
 import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.contactsettings.integration.db.model.DelegateSummary;
+import se.sundsvall.contactsettings.integration.db.model.listener.DelegateChangedEvent;
+import se.sundsvall.contactsettings.integration.db.model.listener.DelegateGraphChangedEvent;
+import se.sundsvall.contactsettings.service.cache.ContactSettingCache;
 import se.sundsvall.dept44.problem.ThrowableProblem;
 
-import static java.util.Collections.emptyList;
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
 
 @ExtendWith(MockitoExtension.class)
 class DelegateServiceTest {
 
+	private static final String DELEGATE_ID = "4d6adb65-172a-4671-a667-5e142bfc353e";
+
 	@Mock
 	private DelegateRepository delegateRepositoryMock;
 
+	@Mock
+	private DelegateFilterRepository delegateFilterRepositoryMock;
+
 	@Mock
 	private ContactSettingRepository contactSettingRepositoryMock;
 
+	@Mock
+	private ApplicationEventPublisher applicationEventPublisherMock;
+
+	@Mock
+	private ChangeLogService changeLogServiceMock;
+
+	@Mock
+	private ContactSettingCache contactSettingCacheMock;
+
 	@Captor
 	private ArgumentCaptor<DelegateEntity> delegateEntityCaptor;
 
-	@InjectMocks
 	private DelegateService service;
 
+	@BeforeEach
+	void setUp() {
+		service = new DelegateService(delegateRepositoryMock, delegateFilterRepositoryMock, contactSettingRepositoryMock, applicationEventPublisherMock, changeLogServiceMock, Optional.empty());
+	}
+
 	@Test
 	void create() {
 
@@ -76,8 +104,8 @@ class DelegateServiceTest {
 						.withAttributeValue("value2")))));
 
 		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(any(), any())).thenReturn(true);
-		when(delegateRepositoryMock.findByPrincipalIdAndAgentId(any(), any())).thenReturn(emptyList());
-		when(delegateRepositoryMock.save(any())).thenReturn(DelegateEntity.create());
+		when(delegateRepositoryMock.existsByPrincipalIdAndAgentId(any(), any())).thenReturn(false);
+		when(delegateRepositoryMock.save(any())).thenReturn(DelegateEntity.create().withId(DELEGATE_ID));
 
 		// Act
 		final var result = service.create(municipalityId, delegateCreateRequest);
@@ -87,8 +115,9 @@ class DelegateServiceTest {
 
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, agentId);
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, principalId);
-		verify(delegateRepositoryMock).findByPrincipalIdAndAgentId(principalId, agentId);
+		verify(delegateRepositoryMock).existsByPrincipalIdAndAgentId(principalId, agentId);
 		verify(delegateRepositoryMock).save(delegateEntityCaptor.capture());
+		verify(changeLogServiceMock).recordDelegateChanges(List.of(DELEGATE_ID), CREATED);
 
 		final var capturedDelegateEntity = delegateEntityCaptor.getValue();
 		assertThat(capturedDelegateEntity).isNotNull();
@@ -109,6 +138,57 @@ class DelegateServiceTest {
 					.withAttributeValue("value2"))));
 	}
 
+	@Test
+	void createWithCache() {
+
+		// Arrange
+		final var agentId = randomUUID().toString();
+		final var principalId = randomUUID().toString();
+		final var municipalityId = "municipalityId";
+		final var delegateCreateRequest = DelegateCreateRequest.create()
+			.withAgentId(agentId)
+			.withPrincipalId(principalId);
+		final var cachedService = new DelegateService(delegateRepositoryMock, delegateFilterRepositoryMock, contactSettingRepositoryMock, applicationEventPublisherMock, changeLogServiceMock, Optional.of(contactSettingCacheMock));
+
+		when(contactSettingCacheMock.findByMunicipalityIdAndId(municipalityId, agentId)).thenReturn(Optional.of(ContactSetting.create().withId(agentId)));
+		when(contactSettingCacheMock.findByMunicipalityIdAndId(municipalityId, principalId)).thenReturn(Optional.of(ContactSetting.create().withId(principalId)));
+		when(delegateRepositoryMock.existsByPrincipalIdAndAgentId(any(), any())).thenReturn(false);
+		when(delegateRepositoryMock.save(any())).thenReturn(DelegateEntity.create().withId(DELEGATE_ID));
+
+		// Act
+		final var result = cachedService.create(municipalityId, delegateCreateRequest);
+
+		// Assert
+		assertThat(result).isNotNull();
+		verify(contactSettingCacheMock).findByMunicipalityIdAndId(municipalityId, agentId);
+		verify(contactSettingCacheMock).findByMunicipalityIdAndId(municipalityId, principalId);
+		verify(delegateRepositoryMock).existsByPrincipalIdAndAgentId(principalId, agentId);
+		verify(delegateRepositoryMock).save(any());
+		verifyNoInteractions(contactSettingRepositoryMock);
+	}
+
+	@Test
+	void createAgentNotFoundWithCache() {
+
+		// Arrange
+		final var agentId = randomUUID().toString();
+		final var municipalityId = "municipalityId";
+		final var delegateCreateRequest = DelegateCreateRequest.create()
+			.withAgentId(agentId)
+			.withPrincipalId(randomUUID().toString());
+		final var cachedService = new DelegateService(delegateRepositoryMock, delegateFilterRepositoryMock, contactSettingRepositoryMock, applicationEventPublisherMock, changeLogServiceMock, Optional.of(contactSettingCacheMock));
+
+		when(contactSettingCacheMock.findByMunicipalityIdAndId(municipalityId, agentId)).thenReturn(Optional.empty());
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> cachedService.create(municipalityId, delegateCreateRequest));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(NOT_FOUND);
+		assertThat(exception.getDetail()).isEqualTo("No agent with contactSettingsId: '" + agentId + "' could be found for this municipality!");
+		verifyNoInteractions(contactSettingRepositoryMock, delegateRepositoryMock);
+	}
+
 	@Test
 	void createAgentNotFound() {
 
@@ -177,7 +257,7 @@ class DelegateServiceTest {
 
 		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(municipalityId, agentId)).thenReturn(true);
 		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(municipalityId, principalId)).thenReturn(true);
-		when(delegateRepositoryMock.findByPrincipalIdAndAgentId(principalId, agentId)).thenReturn(List.of(DelegateEntity.create()));
+		when(delegateRepositoryMock.existsByPrincipalIdAndAgentId(principalId, agentId)).thenReturn(true);
 
 		// Act
 		final var exception = assertThrows(ThrowableProblem.class, () -> service.create(municipalityId, delegateCreateRequest));
@@ -190,8 +270,9 @@ class DelegateServiceTest {
 
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, agentId);
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, principalId);
-		verify(delegateRepositoryMock).findByPrincipalIdAndAgentId(principalId, agentId);
+		verify(delegateRepositoryMock).existsByPrincipalIdAndAgentId(principalId, agentId);
 		verify(delegateRepositoryMock, never()).save(any());
+		verifyNoInteractions(changeLogServiceMock);
 	}
 
 	@Test
@@ -220,7 +301,7 @@ class DelegateServiceTest {
 			.withId(delegateId)
 			.withPrincipal(ContactSettingEntity.create().withId(principalId).withMunicipalityId(municipalityId));
 
-		when(delegateRepositoryMock.findById(any())).thenReturn(Optional.of(delgateEntity));
+		when(delegateRepositoryMock.findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(any(), any(), any())).thenReturn(Optional.of(delgateEntity));
 
 		// Act
 		final var result = service.read(municipalityId, delegateId);
@@ -244,7 +325,7 @@ class DelegateServiceTest {
 					.withOperator(Operator.NOT_EQUALS)
 					.withAttributeValue("value2"))));
 
-		verify(delegateRepositoryMock).findById(delegateId);
+		verify(delegateRepositoryMock).findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(delegateId, municipalityId, municipalityId);
 	}
 
 	@Test
@@ -254,87 +335,7 @@ class DelegateServiceTest {
 		final var delegateId = randomUUID().toString();
 		final var municipalityId = "2281";
 
-		when(delegateRepositoryMock.findById(any())).thenReturn(Optional.empty());
-
-		// Act
-		final var exception = assertThrows(ThrowableProblem.class, () -> service.read(municipalityId, delegateId));
-
-		// Assert.
-		assertThat(exception).isNotNull();
-		assertThat(exception.getStatus()).isEqualTo(NOT_FOUND);
-		assertThat(exception.getDetail()).isEqualTo("No delegate with id: '" + delegateId + "' could be found for this municipality!");
-		assertThat(exception.getMessage()).isEqualTo("Not Found: No delegate with id: '" + delegateId + "' could be found for this municipality!");
-
-		verify(delegateRepositoryMock).findById(delegateId);
-	}
-
-	@Test
-	void readWhenWrongMunicipalityOnAgent() {
-
-		// Arrange
-		final var delegateId = randomUUID().toString();
-		final var agentId = randomUUID().toString();
-		final var principalId = randomUUID().toString();
-		final var municipalityId = "2281";
-		final var delgateEntity = DelegateEntity.create()
-			.withAgent(ContactSettingEntity.create().withId(agentId).withMunicipalityId("something-else"))  // Wrong municipality
-			.withFilters(List.of(
-				DelegateFilterEntity.create()
-					.withAlias("Filter1")
-					.withFilterRules(List.of(DelegateFilterRule.create()
-						.withAttributeName("key1")
-						.withOperator(Operator.EQUALS.toString())
-						.withAttributeValue("value1"))),
-				DelegateFilterEntity.create()
-					.withAlias("Filter2")
-					.withFilterRules(List.of(DelegateFilterRule.create()
-						.withAttributeName("key2")
-						.withOperator(Operator.NOT_EQUALS.toString())
-						.withAttributeValue("value2")))))
-			.withId(delegateId)
-			.withPrincipal(ContactSettingEntity.create().withId(principalId).withMunicipalityId(municipalityId));
-
-		when(delegateRepositoryMock.findById(any())).thenReturn(Optional.of(delgateEntity));
-
-		// Act
-		final var exception = assertThrows(ThrowableProblem.class, () -> service.read(municipalityId, delegateId));
-
-		// Assert.
-		assertThat(exception).isNotNull();
-		assertThat(exception.getStatus()).isEqualTo(NOT_FOUND);
-		assertThat(exception.getDetail()).isEqualTo("No delegate with id: '" + delegateId + "' could be found for this municipality!");
-		assertThat(exception.getMessage()).isEqualTo("Not Found: No delegate with id: '" + delegateId + "' could be found for this municipality!");
-
-		verify(delegateRepositoryMock).findById(delegateId);
-	}
-
-	@Test
-	void readWhenWrongMunicipalityOnPrincipal() {
-
-		// Arrange
-		final var delegateId = randomUUID().toString();
-		final var agentId = randomUUID().toString();
-		final var principalId = randomUUID().toString();
-		final var municipalityId = "2281";
-		final var delgateEntity = DelegateEntity.create()
-			.withAgent(ContactSettingEntity.create().withId(agentId).withMunicipalityId(municipalityId))
-			.withFilters(List.of(
-				DelegateFilterEntity.create()
-					.withAlias("Filter1")
-					.withFilterRules(List.of(DelegateFilterRule.create()
-						.withAttributeName("key1")
-						.withOperator(Operator.EQUALS.toString())
-						.withAttributeValue("value1"))),
-				DelegateFilterEntity.create()
-					.withAlias("Filter2")
-					.withFilterRules(List.of(DelegateFilterRule.create()
-						.withAttributeName("key2")
-						.withOperator(Operator.NOT_EQUALS.toString())
-						.withAttributeValue("value2")))))
-			.withId(delegateId)
-			.withPrincipal(ContactSettingEntity.create().withId(principalId).withMunicipalityId("something-else")); // Wrong municipality
-
-		when(delegateRepositoryMock.findById(any())).thenReturn(Optional.of(delgateEntity));
+		when(delegateRepositoryMock.findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(any(), any(), any())).thenReturn(Optional.empty());
 
 		// Act
 		final var exception = assertThrows(ThrowableProblem.class, () -> service.read(municipalityId, delegateId));
@@ -345,7 +346,7 @@ class DelegateServiceTest {
 		assertThat(exception.getDetail()).isEqualTo("No delegate with id: '" + delegateId + "' could be found for this municipality!");
 		assertThat(exception.getMessage()).isEqualTo("Not Found: No delegate with id: '" + delegateId + "' could be found for this municipality!");
 
-		verify(delegateRepositoryMock).findById(delegateId);
+		verify(delegateRepositoryMock).findByIdAndPrincipalMunicipalityIdAndAgentMunicipalityId(delegateId, municipalityId, municipalityId);
 	}
 
 	@Test
@@ -353,51 +354,19 @@ class DelegateServiceTest {
 
 		// Arrange
 		final var delegateId = randomUUID().toString();
-		final var agentId = randomUUID().toString();
-		final var principalId = randomUUID().toString();
 		final var municipalityId = "2281";
-		final var delgateEntity = DelegateEntity.create()
-			.withId(delegateId)
-			.withAgent(ContactSettingEntity.create().withId(agentId).withMunicipalityId(municipalityId))
-			.withPrincipal(ContactSettingEntity.create().withId(principalId).withMunicipalityId(municipalityId));
 
-		when(delegateRepositoryMock.findById(any())).thenReturn(Optional.of(delgateEntity));
+		when(delegateRepositoryMock.deleteByIdAndMunicipalityId(any(), any())).thenReturn(1);
 
 		// Act
 		service.delete(municipalityId, delegateId);
 
 		// Assert.
-		verify(delegateRepositoryMock).findById(delegateId);
-		verify(delegateRepositoryMock).delete(delgateEntity);
-	}
-
-	@Test
-	void deleteWhenWrongMunicipality() {
-
-		// Arrange
-		final var delegateId = randomUUID().toString();
-		final var agentId = randomUUID().toString();
-		final var principalId = randomUUID().toString();
-		final var municipalityId = "2281";
-		final var delgateEntity = DelegateEntity.create()
-			.withId(delegateId)
-			.withAgent(ContactSettingEntity.create().withId(agentId).withMunicipalityId(municipalityId))
-			.withPrincipal(ContactSettingEntity.create().withId(principalId).withMunicipalityId("something-else")); // Wrong municipality
-
-		when(delegateRepositoryMock.findById(any())).thenReturn(Optional.of(delgateEntity));
-
-		// Act
-		final var exception = assertThrows(ThrowableProblem.class, () -> service.delete(municipalityId, delegateId));
-
-		// Assert.
-		assertThat(exception).isNotNull();
-		assertThat(exception.getStatus()).isEqualTo(NOT_FOUND);
-		assertThat(exception.getDetail()).isEqualTo("No delegate with id: '" + delegateId + "' could be found for this municipality!");
-		assertThat(exception.getMessage()).isEqualTo("Not Found: No delegate with id: '" + delegateId + "' could be found for this municipality!");
-
-		// Assert.
-		verify(delegateRepositoryMock).findById(delegateId);
-		verify(delegateRepositoryMock, never()).delete(delgateEntity);
+		final var inOrder = inOrder(changeLogServiceMock, delegateRepositoryMock);
+		inOrder.verify(changeLogServiceMock).recordDelegateChanges(List.of(delegateId), DELETED);
+		inOrder.verify(delegateRepositoryMock).deleteByIdAndMunicipalityId(delegateId, municipalityId);
+		verify(applicationEventPublisherMock).publishEvent(new DelegateChangedEvent(delegateId, null));
+		verify(applicationEventPublisherMock).publishEvent(new DelegateGraphChangedEvent(municipalityId));
 	}
 
 	@Test
@@ -407,7 +376,7 @@ class DelegateServiceTest {
 		final var delegateId = randomUUID().toString();
 		final var municipalityId = "2281";
 
-		when(delegateRepositoryMock.findById(any())).thenReturn(Optional.empty());
+		when(delegateRepositoryMock.deleteByIdAndMunicipalityId(any(), any())).thenReturn(0);
 
 		// Act
 		final var exception = assertThrows(ThrowableProblem.class, () -> service.delete(municipalityId, delegateId));
@@ -419,8 +388,8 @@ class DelegateServiceTest {
 		assertThat(exception.getMessage()).isEqualTo("Not Found: No delegate with id: '" + delegateId + "' could be found for this municipality!");
 
 		// Assert.
-		verify(delegateRepositoryMock).findById(delegateId);
-		verify(delegateRepositoryMock, never()).delete(any());
+		verify(delegateRepositoryMock).deleteByIdAndMunicipalityId(delegateId, municipalityId);
+		verifyNoInteractions(applicationEventPublisherMock);
 	}
 
 	@Test
@@ -430,26 +399,27 @@ class DelegateServiceTest {
 		final var id = randomUUID().toString();
 		final var agentId = randomUUID().toString();
 		final var municipalityId = "2281";
-		final var delgateEntity = DelegateEntity.create()
-			.withAgent(ContactSettingEntity.create().withId(agentId).withMunicipalityId(municipalityId))
-			.withFilters(List.of(
-				DelegateFilterEntity.create()
-					.withAlias("Filter1")
-					.withFilterRules(List.of(DelegateFilterRule.create()
-						.withAttributeName("key1")
-						.withOperator(Operator.EQUALS.toString())
-						.withAttributeValue("value1"))),
-				DelegateFilterEntity.create()
-					.withAlias("Filter2")
-					.withFilterRules(List.of(DelegateFilterRule.create()
-						.withAttributeName("key2")
-						.withOperator(Operator.NOT_EQUALS.toString())
-						.withAttributeValue("value2")))))
-			.withId(id);
+		final var delegateSummary = delegateSummary(id, null, agentId);
+		final var delegateFilterEntities = List.of(
+			DelegateFilterEntity.create()
+				.withAlias("Filter1")
+				.withDelegateId(id)
+				.withFilterRules(List.of(DelegateFilterRule.create()
+					.withAttributeName("key1")
+					.withOperator(Operator.EQUALS.toString())
+					.withAttributeValue("value1"))),
+			DelegateFilterEntity.create()
+				.withAlias("Filter2")
+				.withDelegateId(id)
+				.withFilterRules(List.of(DelegateFilterRule.create()
+					.withAttributeName("key2")
+					.withOperator(Operator.NOT_EQUALS.toString())
+					.withAttributeValue("value2"))));
 		final var parameters = FindDelegatesParameters.create().withAgentId(agentId);
 
 		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(any(), any())).thenReturn(true);
-		when(delegateRepositoryMock.findByAgentId(any())).thenReturn(List.of(delgateEntity));
+		when(delegateRepositoryMock.findSummariesByAgentId(any())).thenReturn(List.of(delegateSummary));
+		when(delegateFilterRepositoryMock.findWithRulesByDelegateIdIn(any())).thenReturn(delegateFilterEntities);
 
 		// Act
 		final var result = service.find(municipalityId, parameters);
@@ -472,9 +442,10 @@ class DelegateServiceTest {
 						.withAttributeValue("value2"))))));
 
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, agentId);
-		verify(delegateRepositoryMock).findByAgentId(agentId);
-		verify(delegateRepositoryMock, never()).findByPrincipalId(any());
-		verify(delegateRepositoryMock, never()).findByPrincipalIdAndAgentId(any(), any());
+		verify(delegateRepositoryMock).findSummariesByAgentId(agentId);
+		verify(delegateFilterRepositoryMock).findWithRulesByDelegateIdIn(List.of(id));
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalId(any());
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalIdAndAgentId(any(), any());
 	}
 
 	@Test
@@ -495,9 +466,9 @@ class DelegateServiceTest {
 		assertThat(exception.getMessage()).isEqualTo("Not Found: No agent with contactSettingsId: '" + agentId + "' could be found for this municipality!");
 
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, agentId);
-		verify(delegateRepositoryMock, never()).findByAgentId(agentId);
-		verify(delegateRepositoryMock, never()).findByPrincipalId(any());
-		verify(delegateRepositoryMock, never()).findByPrincipalIdAndAgentId(any(), any());
+		verify(delegateRepositoryMock, never()).findSummariesByAgentId(agentId);
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalId(any());
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalIdAndAgentId(any(), any());
 	}
 
 	@Test
@@ -507,26 +478,27 @@ class DelegateServiceTest {
 		final var id = randomUUID().toString();
 		final var principalId = randomUUID().toString();
 		final var municipalityId = "2281";
-		final var delgateEntity = DelegateEntity.create()
-			.withPrincipal(ContactSettingEntity.create().withId(principalId).withMunicipalityId(municipalityId))
-			.withFilters(List.of(
-				DelegateFilterEntity.create()
-					.withAlias("Filter1")
-					.withFilterRules(List.of(DelegateFilterRule.create()
-						.withAttributeName("key1")
-						.withOperator(Operator.EQUALS.toString())
-						.withAttributeValue("value1"))),
-				DelegateFilterEntity.create()
-					.withAlias("Filter2")
-					.withFilterRules(List.of(DelegateFilterRule.create()
-						.withAttributeName("key2")
-						.withOperator(Operator.NOT_EQUALS.toString())
-						.withAttributeValue("value2")))))
-			.withId(id);
+		final var delegateSummary = delegateSummary(id, principalId, null);
+		final var delegateFilterEntities = List.of(
+			DelegateFilterEntity.create()
+				.withAlias("Filter1")
+				.withDelegateId(id)
+				.withFilterRules(List.of(DelegateFilterRule.create()
+					.withAttributeName("key1")
+					.withOperator(Operator.EQUALS.toString())
+					.withAttributeValue("value1"))),
+			DelegateFilterEntity.create()
+				.withAlias("Filter2")
+				.withDelegateId(id)
+				.withFilterRules(List.of(DelegateFilterRule.create()
+					.withAttributeName("key2")
+					.withOperator(Operator.NOT_EQUALS.toString())
+					.withAttributeValue("value2"))));
 		final var parameters = FindDelegatesParameters.create().withPrincipalId(principalId);
 
 		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(any(), any())).thenReturn(true);
-		when(delegateRepositoryMock.findByPrincipalId(any())).thenReturn(List.of(delgateEntity));
+		when(delegateRepositoryMock.findSummariesByPrincipalId(any())).thenReturn(List.of(delegateSummary));
+		when(delegateFilterRepositoryMock.findWithRulesByDelegateIdIn(any())).thenReturn(delegateFilterEntities);
 
 		// Act
 		final var result = service.find(municipalityId, parameters);
@@ -549,9 +521,31 @@ class DelegateServiceTest {
 						.withAttributeValue("value2"))))));
 
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, principalId);
-		verify(delegateRepositoryMock).findByPrincipalId(principalId);
-		verify(delegateRepositoryMock, never()).findByAgentId(any());
-		verify(delegateRepositoryMock, never()).findByPrincipalIdAndAgentId(any(), any());
+		verify(delegateRepositoryMock).findSummariesByPrincipalId(principalId);
+		verify(delegateFilterRepositoryMock).findWithRulesByDelegateIdIn(List.of(id));
+		verify(delegateRepositoryMock, never()).findSummariesByAgentId(any());
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalIdAndAgentId(any(), any());
+	}
+
+	@Test
+	void findByPrincipalIdWithoutDelegates() {
+
+		// Arrange
+		final var principalId = randomUUID().toString();
+		final var municipalityId = "2281";
+		final var parameters = FindDelegatesParameters.create().withPrincipalId(principalId);
+
+		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(any(), any())).thenReturn(true);
+		when(delegateRepositoryMock.findSummariesByPrincipalId(any())).thenReturn(List.of());
+
+		// Act
+		final var result = service.find(municipalityId, parameters);
+
+		// Assert.
+		assertThat(result).isEmpty();
+
+		verify(delegateRepositoryMock).findSummariesByPrincipalId(principalId);
+		verifyNoInteractions(delegateFilterRepositoryMock);
 	}
 
 	@Test
@@ -572,9 +566,9 @@ class DelegateServiceTest {
 		assertThat(exception.getMessage()).isEqualTo("Not Found: No principal with contactSettingsId: '" + principalId + "' could be found for this municipality!");
 
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, principalId);
-		verify(delegateRepositoryMock, never()).findByAgentId(principalId);
-		verify(delegateRepositoryMock, never()).findByPrincipalId(any());
-		verify(delegateRepositoryMock, never()).findByPrincipalIdAndAgentId(any(), any());
+		verify(delegateRepositoryMock, never()).findSummariesByAgentId(principalId);
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalId(any());
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalIdAndAgentId(any(), any());
 	}
 
 	@Test
@@ -585,27 +579,27 @@ class DelegateServiceTest {
 		final var agentId = randomUUID().toString();
 		final var principalId = randomUUID().toString();
 		final var municipalityId = "2281";
-		final var delgateEntity = DelegateEntity.create()
-			.withAgent(ContactSettingEntity.create().withId(agentId).withMunicipalityId(municipalityId))
-			.withPrincipal(ContactSettingEntity.create().withId(principalId).withMunicipalityId(municipalityId))
-			.withFilters(List.of(
-				DelegateFilterEntity.create()
-					.withAlias("Filter1")
-					.withFilterRules(List.of(DelegateFilterRule.create()
-						.withAttributeName("key1")
-						.withOperator(Operator.EQUALS.toString())
-						.withAttributeValue("value1"))),
-				DelegateFilterEntity.create()
-					.withAlias("Filter2")
-					.withFilterRules(List.of(DelegateFilterRule.create()
-						.withAttributeName("key2")
-						.withOperator(Operator.NOT_EQUALS.toString())
-						.withAttributeValue("value2")))))
-			.withId(id);
+		final var delegateSummary = delegateSummary(id, principalId, agentId);
+		final var delegateFilterEntities = List.of(
+			DelegateFilterEntity.create()
+				.withAlias("Filter1")
+				.withDelegateId(id)
+				.withFilterRules(List.of(DelegateFilterRule.create()
+					.withAttributeName("key1")
+					.withOperator(Operator.EQUALS.toString())
+					.withAttributeValue("value1"))),
+			DelegateFilterEntity.create()
+				.withAlias("Filter2")
+				.withDelegateId(id)
+				.withFilterRules(List.of(DelegateFilterRule.create()
+					.withAttributeName("key2")
+					.withOperator(Operator.NOT_EQUALS.toString())
+					.withAttributeValue("value2"))));
 		final var parameters = FindDelegatesParameters.create().withAgentId(agentId).withPrincipalId(principalId);
 
 		when(contactSettingRepositoryMock.existsByMunicipalityIdAndId(any(), any())).thenReturn(true);
-		when(delegateRepositoryMock.findByPrincipalIdAndAgentId(any(), any())).thenReturn(List.of(delgateEntity));
+		when(delegateRepositoryMock.findSummariesByPrincipalIdAndAgentId(any(), any())).thenReturn(List.of(delegateSummary));
+		when(delegateFilterRepositoryMock.findWithRulesByDelegateIdIn(any())).thenReturn(delegateFilterEntities);
 
 		// Act
 		final var result = service.find(municipalityId, parameters);
@@ -630,9 +624,10 @@ class DelegateServiceTest {
 
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, agentId);
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, principalId);
-		verify(delegateRepositoryMock).findByPrincipalIdAndAgentId(principalId, agentId);
-		verify(delegateRepositoryMock, never()).findByAgentId(any());
-		verify(delegateRepositoryMock, never()).findByPrincipalId(any());
+		verify(delegateRepositoryMock).findSummariesByPrincipalIdAndAgentId(principalId, agentId);
+		verify(delegateFilterRepositoryMock).findWithRulesByDelegateIdIn(List.of(id));
+		verify(delegateRepositoryMock, never()).findSummariesByAgentId(any());
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalId(any());
 	}
 
 	@Test
@@ -655,9 +650,9 @@ class DelegateServiceTest {
 
 		verify(contactSettingRepositoryMock).existsByMunicipalityIdAndId(municipalityId, agentId);
 		verify(contactSettingRepositoryMock, never()).existsByMunicipalityIdAndId(municipalityId, principalId);
-		verify(delegateRepositoryMock, never()).findByAgentId(agentId);
-		verify(delegateRepositoryMock, never()).findByPrincipalId(any());
-		verify(delegateRepositoryMock, never()).findByPrincipalIdAndAgentId(any(), any());
+		verify(delegateRepositoryMock, never()).findSummariesByAgentId(agentId);
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalId(any());
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalIdAndAgentId(any(), any());
 	}
 
 	@Test
@@ -673,8 +668,38 @@ class DelegateServiceTest {
 		assertThat(result).isEmpty();
 
 		verify(contactSettingRepositoryMock, never()).existsByMunicipalityIdAndId(any(), any());
-		verify(delegateRepositoryMock, never()).findByPrincipalIdAndAgentId(any(), any());
-		verify(delegateRepositoryMock, never()).findByAgentId(any());
-		verify(delegateRepositoryMock, never()).findByPrincipalId(any());
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalIdAndAgentId(any(), any());
+		verify(delegateRepositoryMock, never()).findSummariesByAgentId(any());
+		verify(delegateRepositoryMock, never()).findSummariesByPrincipalId(any());
+	}
+
+	private static DelegateSummary delegateSummary(final String id, final String principalId, final String agentId) {
+		return new DelegateSummary() {
+
+			@Override
+			public String getId() {
+				return id;
+			}
+
+			@Override
+			public String getPrincipalId() {
+				return principalId;
+			}
+
+			@Override
+			public String getAgentId() {
+				return agentId;
+			}
+
+			@Override
+			public OffsetDateTime getCreated() {
+				return null;
+			}
+
+			@Override
+			public OffsetDateTime getModified() {
+				return null;
+			}
+		};
 	}
 }
@@ -0,0 +1,177 @@
+package se.sundsvall.contactsettings.service;
+
+import jakarta.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.api.model.Delegate;
+import se.sundsvall.contactsettings.api.model.ExportRecord;
+import se.sundsvall.contactsettings.api.model.Filter;
+import se.sundsvall.contactsettings.api.model.Rule;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateExportRow;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+import static java.time.ZoneId.systemDefault;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.CONTACT_SETTING;
+import static se.sundsvall.contactsettings.api.model.enums.ExportRecordType.DELEGATE;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.NOT_EQUALS;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_EXPORT_LIMIT_REACHED;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final OffsetDateTime CREATED = OffsetDateTime.now(systemDefault());
+	private static final int MAX_CONCURRENT = 1;
+
+	@Mock
+	private ContactSettingRepository contactSettingRepositoryMock;
+
+	@Mock
+	private DelegateRepository delegateRepositoryMock;
+
+	@Mock
+	private EntityManager entityManagerMock;
+
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
+
+	private ExportService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new ExportService(contactSettingRepositoryMock, delegateRepositoryMock, entityManagerMock, transactionManagerMock, MAX_CONCURRENT);
+	}
+
+	@Test
+	void export() {
+
+		// Arrange
+		final var contactSetting1 = ContactSettingEntity.create().withId("contactSetting1").withAlias("Contact setting 1").withPartyId("partyId1");
+		final var contactSetting2 = ContactSettingEntity.create().withId("contactSetting2").withAlias("Contact setting 2").withPartyId("partyId2");
+		final var result = new ArrayList<ExportRecord>();
+
+		when(contactSettingRepositoryMock.streamWithChannelsByMunicipalityId(MUNICIPALITY_ID)).thenReturn(Stream.of(contactSetting1, contactSetting2));
+		when(delegateRepositoryMock.streamExportRowsByMunicipalityId(MUNICIPALITY_ID)).thenReturn(Stream.of(
+			exportRow("delegate1", "contactSetting1", "contactSetting2", "filter1", "attribute1", "EQUALS", "value1"),
+			exportRow("delegate1", "contactSetting1", "contactSetting2", "filter1", "attribute2", "NOT_EQUALS", "value2"),
+			exportRow("delegate1", "contactSetting1", "contactSetting2", "filter2", null, null, null),
+			exportRow("delegate2", "contactSetting2", "contactSetting1", null, null, null, null)));
+
+		// Act
+		service.export(MUNICIPALITY_ID, result::add);
+
+		// Assert
+		assertThat(result).containsExactly(
+			ExportRecord.create().withType(CONTACT_SETTING).withContactSetting(ContactSetting.create()
+				.withId("contactSetting1").withAlias("Contact setting 1").withPartyId("partyId1").withVirtual(false).withContactChannels(emptyList())),
+			ExportRecord.create().withType(CONTACT_SETTING).withContactSetting(ContactSetting.create()
+				.withId("contactSetting2").withAlias("Contact setting 2").withPartyId("partyId2").withVirtual(false).withContactChannels(emptyList())),
+			ExportRecord.create().withType(DELEGATE).withDelegate(Delegate.create()
+				.withId("delegate1").withPrincipalId("contactSetting1").withAgentId("contactSetting2").withCreated(CREATED)
+				.withFilters(List.of(
+					Filter.create().withId("filter1").withAlias("alias").withChannel("channel").withCreated(CREATED).withRules(List.of(
+						Rule.create().withAttributeName("attribute1").withOperator(EQUALS).withAttributeValue("value1"),
+						Rule.create().withAttributeName("attribute2").withOperator(NOT_EQUALS).withAttributeValue("value2"))),
+					Filter.create().withId("filter2").withAlias("alias").withChannel("channel").withCreated(CREATED).withRules(emptyList())))),
+			ExportRecord.create().withType(DELEGATE).withDelegate(Delegate.create()
+				.withId("delegate2").withPrincipalId("contactSetting2").withAgentId("contactSetting1").withCreated(CREATED).withFilters(emptyList())));
+
+		final var inOrder = inOrder(contactSettingRepositoryMock, entityManagerMock, delegateRepositoryMock);
+		inOrder.verify(contactSettingRepositoryMock).streamWithChannelsByMunicipalityId(MUNICIPALITY_ID);
+		inOrder.verify(entityManagerMock).detach(contactSetting1);
+		inOrder.verify(entityManagerMock).detach(contactSetting2);
+		inOrder.verify(delegateRepositoryMock).streamExportRowsByMunicipalityId(MUNICIPALITY_ID);
+		verify(transactionManagerMock).commit(any());
+		verifyNoMoreInteractions(contactSettingRepositoryMock, delegateRepositoryMock, entityManagerMock);
+	}
+
+	@Test
+	void exportWhenEmpty() {
+
+		// Arrange
+		final var result = new ArrayList<ExportRecord>();
+
+		when(contactSettingRepositoryMock.streamWithChannelsByMunicipalityId(MUNICIPALITY_ID)).thenReturn(Stream.empty());
+		when(delegateRepositoryMock.streamExportRowsByMunicipalityId(MUNICIPALITY_ID)).thenReturn(Stream.empty());
+
+		// Act
+		service.export(MUNICIPALITY_ID, result::add);
+
+		// Assert
+		assertThat(result).isEmpty();
+		verify(contactSettingRepositoryMock).streamWithChannelsByMunicipalityId(MUNICIPALITY_ID);
+		verify(delegateRepositoryMock).streamExportRowsByMunicipalityId(MUNICIPALITY_ID);
+		verifyNoMoreInteractions(contactSettingRepositoryMock, delegateRepositoryMock, entityManagerMock);
+	}
+
+	@Test
+	void exportWhenTooManyExportsAreRunning() {
+
+		// Arrange
+		final var rejected = new ArrayList<ThrowableProblem>();
+
+		when(contactSettingRepositoryMock.streamWithChannelsByMunicipalityId(MUNICIPALITY_ID)).thenReturn(Stream.of(ContactSettingEntity.create().withId("contactSetting1")), Stream.empty());
+		when(delegateRepositoryMock.streamExportRowsByMunicipalityId(MUNICIPALITY_ID)).thenReturn(Stream.empty(), Stream.empty());
+
+		// Act (a second export is started while the first one is running, and a third one when it has completed).
+		service.export(MUNICIPALITY_ID, exportRecord -> rejected.add(assertThrows(ThrowableProblem.class, () -> service.export(MUNICIPALITY_ID, result -> {}))));
+		service.export(MUNICIPALITY_ID, exportRecord -> {});
+
+		// Assert
+		assertThat(rejected).singleElement().satisfies(problem -> {
+			assertThat(problem.getStatus()).isEqualTo(TOO_MANY_REQUESTS);
+			assertThat(problem.getDetail()).isEqualTo(ERROR_MESSAGE_EXPORT_LIMIT_REACHED);
+		});
+		verify(contactSettingRepositoryMock, times(2)).streamWithChannelsByMunicipalityId(MUNICIPALITY_ID);
+		verify(delegateRepositoryMock, times(2)).streamExportRowsByMunicipalityId(MUNICIPALITY_ID);
+	}
+
+	@Test
+	void exportReleasesPermitOnFailure() {
+
+		// Arrange
+		when(contactSettingRepositoryMock.streamWithChannelsByMunicipalityId(MUNICIPALITY_ID)).thenThrow(new IllegalStateException("Failure")).thenReturn(Stream.empty());
+		when(delegateRepositoryMock.streamExportRowsByMunicipalityId(MUNICIPALITY_ID)).thenReturn(Stream.empty());
+
+		// Act
+		assertThrows(IllegalStateException.class, () -> service.export(MUNICIPALITY_ID, exportRecord -> {}));
+		service.export(MUNICIPALITY_ID, exportRecord -> {});
+
+		// Assert
+		verify(transactionManagerMock).rollback(any());
+		verify(transactionManagerMock).commit(any());
+	}
+
+	private static DelegateExportRow exportRow(final String delegateId, final String principalId, final String agentId, final String filterId, final String attributeName, final String operator,
+		final String attributeValue) {
+		return new ExportRow(delegateId, principalId, agentId, CREATED, null, filterId, filterId == null ? null : "alias", filterId == null ? null : "channel", filterId == null ? null : CREATED, null,
+			attributeName, attributeValue, operator);
+	}
+
+	private record ExportRow(String getDelegateId, String getPrincipalId, String getAgentId, OffsetDateTime getCreated, OffsetDateTime getModified, String getFilterId, String getFilterAlias,
+		String getFilterChannel, OffsetDateTime getFilterCreated, OffsetDateTime getFilterModified, String getAttributeName, String getAttributeValue, String getOperator) implements DelegateExportRow {
+	}
+}
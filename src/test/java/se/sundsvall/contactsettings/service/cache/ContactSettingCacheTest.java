@@ -0,0 +1,167 @@
+package se.sundsvall.contactsettings.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.listener.ContactSettingChangedEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.contactsettings.service.cache.ContactSettingCache.CACHE_NAME_BY_ID;
+import static se.sundsvall.contactsettings.service.cache.ContactSettingCache.CACHE_NAME_BY_PARTY_ID;
+
+@ExtendWith(MockitoExtension.class)
+class ContactSettingCacheTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String OTHER_MUNICIPALITY_ID = "2262";
+	private static final String ID = "id";
+	private static final String PARTY_ID = "partyId";
+
+	@Mock
+	private ContactSettingRepository contactSettingRepositoryMock;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ContactSettingCache contactSettingCache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		contactSettingCache = new ContactSettingCache(contactSettingRepositoryMock, meterRegistry, 100, Duration.ofMinutes(5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+	}
+
+	@Test
+	void findByMunicipalityIdAndId() {
+
+		// Arrange
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(Optional.of(contactSettingEntity()));
+
+		// Act
+		final var first = contactSettingCache.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		final var second = contactSettingCache.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+
+		// Assert
+		assertThat(first).isPresent();
+		assertThat(first.get().getId()).isEqualTo(ID);
+		assertThat(second.get()).isSameAs(first.get());
+
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CACHE_NAME_BY_ID).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CACHE_NAME_BY_ID).tag("result", "miss").functionCounter().count()).isEqualTo(1);
+
+		verify(contactSettingRepositoryMock).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		verifyNoMoreInteractions(contactSettingRepositoryMock);
+	}
+
+	@Test
+	void findByMunicipalityIdAndIdNotFoundIsNotCached() {
+
+		// Arrange
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(Optional.empty());
+
+		// Act
+		final var first = contactSettingCache.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		final var second = contactSettingCache.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+
+		// Assert
+		assertThat(first).isEmpty();
+		assertThat(second).isEmpty();
+		verify(contactSettingRepositoryMock, times(2)).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+	}
+
+	@Test
+	void findByMunicipalityIdAndPartyId() {
+
+		// Arrange
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID)).thenReturn(Optional.of(contactSettingEntity()));
+
+		// Act
+		contactSettingCache.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID);
+		final var result = contactSettingCache.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID);
+
+		// Assert
+		assertThat(result).isPresent();
+		assertThat(result.get().getPartyId()).isEqualTo(PARTY_ID);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CACHE_NAME_BY_PARTY_ID).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+
+		verify(contactSettingRepositoryMock).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID);
+		verifyNoMoreInteractions(contactSettingRepositoryMock);
+	}
+
+	@Test
+	void findWithinTransactionIsNotStored() {
+
+		// Arrange
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(Optional.of(contactSettingEntity()));
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+
+		// Act
+		contactSettingCache.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		final var result = contactSettingCache.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+
+		// Assert
+		assertThat(result).isPresent();
+		verify(contactSettingRepositoryMock, times(2)).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+	}
+
+	@Test
+	void onContactSettingChanged() {
+
+		// Arrange
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(Optional.of(contactSettingEntity()));
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID)).thenReturn(Optional.of(contactSettingEntity()));
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndId(OTHER_MUNICIPALITY_ID, ID)).thenReturn(Optional.of(contactSettingEntity()));
+		contactSettingCache.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		contactSettingCache.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID);
+		contactSettingCache.findByMunicipalityIdAndId(OTHER_MUNICIPALITY_ID, ID);
+
+		// Act
+		contactSettingCache.onContactSettingChanged(new ContactSettingChangedEvent(MUNICIPALITY_ID, ID, PARTY_ID));
+		contactSettingCache.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		contactSettingCache.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID);
+		contactSettingCache.findByMunicipalityIdAndId(OTHER_MUNICIPALITY_ID, ID);
+
+		// Assert
+		verify(contactSettingRepositoryMock, times(2)).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		verify(contactSettingRepositoryMock, times(2)).findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID);
+		verify(contactSettingRepositoryMock).findByMunicipalityIdAndId(OTHER_MUNICIPALITY_ID, ID);
+		verifyNoMoreInteractions(contactSettingRepositoryMock);
+	}
+
+	@Test
+	void onContactSettingChangedForVirtualContactSetting() {
+
+		// Arrange
+		when(contactSettingRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID)).thenReturn(Optional.of(contactSettingEntity()));
+		contactSettingCache.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+
+		// Act
+		contactSettingCache.onContactSettingChanged(new ContactSettingChangedEvent(MUNICIPALITY_ID, ID, null));
+		contactSettingCache.findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+
+		// Assert
+		verify(contactSettingRepositoryMock, times(2)).findByMunicipalityIdAndId(MUNICIPALITY_ID, ID);
+		verifyNoMoreInteractions(contactSettingRepositoryMock);
+	}
+
+	private static ContactSettingEntity contactSettingEntity() {
+		return ContactSettingEntity.create().withId(ID).withPartyId(PARTY_ID).withMunicipalityId(MUNICIPALITY_ID);
+	}
+}
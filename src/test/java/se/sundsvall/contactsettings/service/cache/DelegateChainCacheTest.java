@@ -0,0 +1,222 @@
+package se.sundsvall.contactsettings.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.sundsvall.contactsettings.api.model.ContactSetting;
+import se.sundsvall.contactsettings.integration.db.model.listener.ContactSettingChangedEvent;
+import se.sundsvall.contactsettings.integration.db.model.listener.DelegateChangedEvent;
+import se.sundsvall.contactsettings.service.chain.DelegateChain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static se.sundsvall.contactsettings.service.cache.DelegateChainCache.CACHE_NAME;
+
+class DelegateChainCacheTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String PARTY_ID = "partyId";
+	private static final String OTHER_PARTY_ID = "otherPartyId";
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private DelegateChainCache delegateChainCache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		delegateChainCache = new DelegateChainCache(meterRegistry, 100, Duration.ofMinutes(5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+	}
+
+	@Test
+	void get() {
+
+		// Arrange
+		final var resolver = new CountingResolver(List.of("root", "agent"), Set.of("delegate"));
+
+		// Act
+		final var first = delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, Map.of("key", List.of("value1", "VALUE2")), resolver);
+		final var second = delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, Map.of("key", List.of("value2", "value1")), resolver);
+
+		// Assert
+		assertThat(first).extracting(ContactSetting::getId).containsExactly("root", "agent");
+		assertThat(second).isSameAs(first);
+		assertThat(resolver.count()).isOne();
+
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss").functionCounter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void getWithDifferentQueries() {
+
+		// Arrange
+		final var resolver = new CountingResolver(List.of("root"), Set.of());
+
+		// Act
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, Map.of("key", List.of("value1")), resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, Map.of("key", List.of("value2")), resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, Map.of(), resolver);
+
+		// Assert
+		assertThat(resolver.count()).isEqualTo(3);
+	}
+
+	@Test
+	void getWhenResolverThrows() {
+
+		// Arrange
+		final Supplier<ResolvedContactSettings> resolver = () -> {
+			throw new IllegalStateException("not found");
+		};
+
+		// Act and assert
+		assertThatThrownBy(() -> delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver)).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver)).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void getWithinTransactionIsNotStored() {
+
+		// Arrange
+		final var resolver = new CountingResolver(List.of("root"), Set.of());
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+
+		// Act
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+
+		// Assert
+		assertThat(resolver.count()).isEqualTo(2);
+	}
+
+	@Test
+	void getIsNotStoredWhenInvalidatedWhileResolving() {
+
+		// Arrange
+		final var resolver = new CountingResolver(List.of("root"), Set.of());
+		final Supplier<ResolvedContactSettings> invalidatingResolver = () -> {
+			delegateChainCache.onContactSettingChanged(new ContactSettingChangedEvent(MUNICIPALITY_ID, "unrelated", null));
+			return resolver.get();
+		};
+
+		// Act
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, invalidatingResolver);
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+
+		// Assert
+		assertThat(resolver.count()).isEqualTo(2);
+	}
+
+	@Test
+	void onContactSettingChanged() {
+
+		// Arrange
+		final var resolver = new CountingResolver(List.of("root", "agent"), Set.of("delegate"));
+		final var otherResolver = new CountingResolver(List.of("otherRoot"), Set.of());
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, OTHER_PARTY_ID, null, otherResolver);
+
+		// Act
+		delegateChainCache.onContactSettingChanged(new ContactSettingChangedEvent(MUNICIPALITY_ID, "agent", null));
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, OTHER_PARTY_ID, null, otherResolver);
+
+		// Assert
+		assertThat(resolver.count()).isEqualTo(2);
+		assertThat(otherResolver.count()).isOne();
+	}
+
+	@Test
+	void onDelegateChangedByDelegateId() {
+
+		// Arrange
+		final var resolver = new CountingResolver(List.of("root"), Set.of("delegate"));
+		final var otherResolver = new CountingResolver(List.of("otherRoot"), Set.of("otherDelegate"));
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, OTHER_PARTY_ID, null, otherResolver);
+
+		// Act
+		delegateChainCache.onDelegateChanged(new DelegateChangedEvent("delegate", null));
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, OTHER_PARTY_ID, null, otherResolver);
+
+		// Assert
+		assertThat(resolver.count()).isEqualTo(2);
+		assertThat(otherResolver.count()).isOne();
+	}
+
+	@Test
+	void onDelegateChangedByPrincipalId() {
+
+		// Arrange
+		final var resolver = new CountingResolver(List.of("root", "agent"), Set.of());
+		final var otherResolver = new CountingResolver(List.of("otherRoot"), Set.of());
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, OTHER_PARTY_ID, null, otherResolver);
+
+		// Act (a new delegate of a contact setting in the chain)
+		delegateChainCache.onDelegateChanged(new DelegateChangedEvent("newDelegate", "agent"));
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, OTHER_PARTY_ID, null, otherResolver);
+
+		// Assert
+		assertThat(resolver.count()).isEqualTo(2);
+		assertThat(otherResolver.count()).isOne();
+	}
+
+	@Test
+	void onDelegateChangedWithUnknownDelegate() {
+
+		// Arrange
+		final var resolver = new CountingResolver(List.of("root"), Set.of());
+		final var otherResolver = new CountingResolver(List.of("otherRoot"), Set.of());
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, OTHER_PARTY_ID, null, otherResolver);
+
+		// Act
+		delegateChainCache.onDelegateChanged(new DelegateChangedEvent(null, null));
+		delegateChainCache.get(MUNICIPALITY_ID, PARTY_ID, null, resolver);
+		delegateChainCache.get(MUNICIPALITY_ID, OTHER_PARTY_ID, null, otherResolver);
+
+		// Assert
+		assertThat(resolver.count()).isEqualTo(2);
+		assertThat(otherResolver.count()).isEqualTo(2);
+	}
+
+	private static final class CountingResolver implements Supplier<ResolvedContactSettings> {
+
+		private final List<String> contactSettingIds;
+		private final Set<String> delegateIds;
+		private final AtomicInteger count = new AtomicInteger();
+
+		private CountingResolver(final List<String> contactSettingIds, final Set<String> delegateIds) {
+			this.contactSettingIds = contactSettingIds;
+			this.delegateIds = delegateIds;
+		}
+
+		@Override
+		public ResolvedContactSettings get() {
+			count.incrementAndGet();
+			return new ResolvedContactSettings(contactSettingIds.stream().map(id -> ContactSetting.create().withId(id)).toList(), new DelegateChain(contactSettingIds, delegateIds));
+		}
+
+		private int count() {
+			return count.get();
+		}
+	}
+}
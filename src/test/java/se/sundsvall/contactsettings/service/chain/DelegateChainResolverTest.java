@@ -0,0 +1,371 @@
+package se.sundsvall.contactsettings.service.chain;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.LinkedMultiValueMap;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.DelegateChainRow;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DelegateChainResolverTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String ROOT_ID = "root";
+
+	@Mock
+	private DelegateRepository delegateRepositoryMock;
+
+	@Mock
+	private DelegateGraphIndex delegateGraphIndexMock;
+
+	@Test
+	void resolveWithRecursiveQuery() {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), true);
+		when(delegateRepositoryMock.findDelegateChainByRootPrincipalId(ROOT_ID)).thenReturn(List.of(
+			delegateChainRow("delegate1", ROOT_ID, "agent1", null, null, null, null),
+			delegateChainRow("delegate2", "agent1", "agent3", null, null, null, null),
+			delegateChainRow("delegate3", ROOT_ID, "agent2", null, null, null, null)));
+
+		// Act
+		final var result = resolver.resolve(MUNICIPALITY_ID, ROOT_ID, null);
+
+		// Assert
+		assertThat(result).containsExactly(ROOT_ID, "agent1", "agent2", "agent3");
+		verify(delegateRepositoryMock).findDelegateChainByRootPrincipalId(ROOT_ID);
+		verifyNoMoreInteractions(delegateRepositoryMock);
+	}
+
+	@Test
+	void resolveWithLevelBatchedQueries() {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), false);
+		when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of(ROOT_ID))).thenReturn(List.of(
+			delegateChainRow("delegate1", ROOT_ID, "agent1", null, null, null, null),
+			delegateChainRow("delegate3", ROOT_ID, "agent2", null, null, null, null)));
+		when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of("agent1", "agent2"))).thenReturn(List.of(
+			delegateChainRow("delegate2", "agent1", "agent3", null, null, null, null)));
+		when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of("agent3"))).thenReturn(emptyList());
+
+		// Act
+		final var result = resolver.resolve(MUNICIPALITY_ID, ROOT_ID, null);
+
+		// Assert
+		assertThat(result).containsExactly(ROOT_ID, "agent1", "agent2", "agent3");
+		verify(delegateRepositoryMock).findDelegateChainByPrincipalIdIn(List.of(ROOT_ID));
+		verify(delegateRepositoryMock).findDelegateChainByPrincipalIdIn(List.of("agent1", "agent2"));
+		verify(delegateRepositoryMock).findDelegateChainByPrincipalIdIn(List.of("agent3"));
+		verifyNoMoreInteractions(delegateRepositoryMock);
+	}
+
+	@Test
+	void resolveWithGraphIndex() {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.of(delegateGraphIndexMock), true);
+		final var edgesByPrincipalId = DelegateEdge.groupByPrincipalId(List.of(
+			delegateChainRow("delegate1", ROOT_ID, "agent1", null, null, null, null),
+			delegateChainRow("delegate2", "agent1", "agent2", null, null, null, null),
+			delegateChainRow("delegate3", "unrelated", "agent3", null, null, null, null)));
+		when(delegateGraphIndexMock.getEdgesByPrincipalId(MUNICIPALITY_ID)).thenReturn(edgesByPrincipalId);
+
+		// Act
+		final var result = resolver.resolve(MUNICIPALITY_ID, ROOT_ID, null);
+
+		// Assert
+		assertThat(result).containsExactly(ROOT_ID, "agent1", "agent2");
+		verify(delegateGraphIndexMock).getEdgesByPrincipalId(MUNICIPALITY_ID);
+		verifyNoMoreInteractions(delegateGraphIndexMock);
+		verifyNoInteractions(delegateRepositoryMock);
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {
+		true, false
+	})
+	void resolveWithFilterEqualsOperatorMatch(final boolean recursiveQueryEnabled) {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), recursiveQueryEnabled);
+		final var inputQuery = new LinkedMultiValueMap<String, String>();
+		inputQuery.put("key1", List.of("value1", "value2"));
+		inputQuery.put("key2", List.of("value3", "value4", "value5"));
+
+		mockDelegates(recursiveQueryEnabled, List.of(
+			delegateChainRow("delegate1", ROOT_ID, "agent", "filter1", "key1", "EQUALS", "value2"),
+			delegateChainRow("delegate1", ROOT_ID, "agent", "filter1", "key2", "EQUALS", "value4")));
+
+		// Act
+		final var result = resolver.resolve(MUNICIPALITY_ID, ROOT_ID, inputQuery);
+
+		// Assert
+		assertThat(result).containsExactly(ROOT_ID, "agent");
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {
+		true, false
+	})
+	void resolveWithFilterNotEqualsOperatorMatch(final boolean recursiveQueryEnabled) {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), recursiveQueryEnabled);
+		final var inputQuery = new LinkedMultiValueMap<String, String>();
+		inputQuery.put("key1", List.of("value1", "value2"));
+
+		mockDelegates(recursiveQueryEnabled, List.of(
+			delegateChainRow("delegate1", ROOT_ID, "agent", "filter1", "key1", "NOT_EQUALS", "theForbiddenValue")));
+
+		// Act
+		final var result = resolver.resolve(MUNICIPALITY_ID, ROOT_ID, inputQuery);
+
+		// Assert
+		assertThat(result).containsExactly(ROOT_ID, "agent");
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {
+		true, false
+	})
+	void resolveWithNoFilterMatch(final boolean recursiveQueryEnabled) {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), recursiveQueryEnabled);
+		final var inputQuery = new LinkedMultiValueMap<String, String>();
+		inputQuery.put("unknown-key", List.of("unknown-value"));
+
+		mockDelegates(recursiveQueryEnabled, List.of(
+			delegateChainRow("delegate1", ROOT_ID, "agent", "filter1", "key1", "EQUALS", "value1"),
+			delegateChainRow("delegate1", ROOT_ID, "agent", "filter1", "key2", "EQUALS", "value2")));
+
+		// Act
+		final var result = resolver.resolve(MUNICIPALITY_ID, ROOT_ID, inputQuery);
+
+		// Assert
+		assertThat(result).containsExactly(ROOT_ID);
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {
+		true, false
+	})
+	void resolveChain(final boolean recursiveQueryEnabled) {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), recursiveQueryEnabled);
+		final var inputQuery = new LinkedMultiValueMap<String, String>();
+		inputQuery.put("key1", List.of("value1"));
+
+		mockDelegates(recursiveQueryEnabled, List.of(
+			delegateChainRow("delegate1", ROOT_ID, "agent1", "filter1", "key1", "EQUALS", "value1"),
+			delegateChainRow("delegate2", ROOT_ID, "agent2", "filter2", "key1", "EQUALS", "value2")));
+
+		// Act
+		final var result = resolver.resolveChain(MUNICIPALITY_ID, ROOT_ID, inputQuery);
+
+		// Assert
+		assertThat(result.contactSettingIds()).containsExactly(ROOT_ID, "agent1");
+		assertThat(result.delegateIds()).containsExactlyInAnyOrder("delegate1", "delegate2"); // Non-matching delegates are dependencies too.
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {
+		true, false
+	})
+	void resolveWithCircularReferences(final boolean recursiveQueryEnabled) {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), recursiveQueryEnabled);
+		final var rows = List.of(
+			delegateChainRow("delegate1", ROOT_ID, "agent", null, null, null, null),
+			delegateChainRow("delegate2", "agent", ROOT_ID, null, null, null, null)); // This delegate will cause the agent to delegate back to the root.
+
+		if (recursiveQueryEnabled) {
+			when(delegateRepositoryMock.findDelegateChainByRootPrincipalId(ROOT_ID)).thenReturn(rows);
+		} else {
+			when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of(ROOT_ID))).thenReturn(List.of(rows.getFirst()));
+			when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of("agent"))).thenReturn(List.of(rows.getLast()));
+		}
+
+		// Act
+		final var result = resolver.resolve(MUNICIPALITY_ID, ROOT_ID, null);
+
+		// Assert
+		assertThat(result).containsExactly(ROOT_ID, "agent");
+	}
+
+	@Test
+	void resolveWithSharedAgentInSameLevel() {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), false);
+		when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of(ROOT_ID))).thenReturn(List.of(
+			delegateChainRow("delegate1", ROOT_ID, "agent1", null, null, null, null),
+			delegateChainRow("delegate2", ROOT_ID, "agent2", null, null, null, null)));
+		when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of("agent1", "agent2"))).thenReturn(List.of(
+			delegateChainRow("delegate3", "agent1", "agent3", null, null, null, null),
+			delegateChainRow("delegate4", "agent2", "agent3", null, null, null, null)));
+		when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of("agent3"))).thenReturn(emptyList());
+
+		// Act
+		final var result = resolver.resolve(MUNICIPALITY_ID, ROOT_ID, null);
+
+		// Assert
+		assertThat(result).containsExactly(ROOT_ID, "agent1", "agent2", "agent3");
+	}
+
+	@Test
+	void resolveAllWithRecursiveQuery() {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), true);
+		final var inputQuery = Map.of("key1", List.of("value1"));
+		when(delegateRepositoryMock.findDelegateChainByRootPrincipalIdIn(List.of("root1", "root2"))).thenReturn(List.of(
+			delegateChainRow("delegate1", "root1", "shared", null, null, null, null),
+			delegateChainRow("delegate2", "root2", "shared", null, null, null, null),
+			delegateChainRow("delegate3", "root2", "other", "filter3", "key1", "EQUALS", "value2"),
+			delegateChainRow("delegate4", "shared", "leaf", "filter4", "key1", "EQUALS", "value1")));
+
+		// Act
+		final var result = resolver.resolveAll(MUNICIPALITY_ID, List.of("root1", "root2"), inputQuery);
+
+		// Assert
+		assertThat(result).containsExactly(
+			entry("root1", List.of("root1", "shared", "leaf")),
+			entry("root2", List.of("root2", "shared", "leaf")));
+		verify(delegateRepositoryMock).findDelegateChainByRootPrincipalIdIn(List.of("root1", "root2"));
+		verifyNoMoreInteractions(delegateRepositoryMock);
+	}
+
+	@Test
+	void resolveAllWithLevelBatchedQueries() {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), false);
+		when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of("root1", "root2"))).thenReturn(List.of(
+			delegateChainRow("delegate1", "root1", "shared", null, null, null, null),
+			delegateChainRow("delegate2", "root2", "shared", null, null, null, null),
+			delegateChainRow("delegate3", "root2", "root1", null, null, null, null)));
+		when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of("shared"))).thenReturn(List.of(
+			delegateChainRow("delegate4", "shared", "leaf", null, null, null, null)));
+		when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of("leaf"))).thenReturn(emptyList());
+
+		// Act
+		final var result = resolver.resolveAll(MUNICIPALITY_ID, List.of("root1", "root2"), null);
+
+		// Assert
+		assertThat(result).containsExactly(
+			entry("root1", List.of("root1", "shared", "leaf")),
+			entry("root2", List.of("root2", "shared", "root1", "leaf")));
+		verify(delegateRepositoryMock).findDelegateChainByPrincipalIdIn(List.of("root1", "root2"));
+		verify(delegateRepositoryMock).findDelegateChainByPrincipalIdIn(List.of("shared")); // The shared sub-tree is only fetched once.
+		verify(delegateRepositoryMock).findDelegateChainByPrincipalIdIn(List.of("leaf"));
+		verifyNoMoreInteractions(delegateRepositoryMock);
+	}
+
+	@Test
+	void resolveAllWithGraphIndex() {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.of(delegateGraphIndexMock), true);
+		when(delegateGraphIndexMock.getEdgesByPrincipalId(MUNICIPALITY_ID)).thenReturn(DelegateEdge.groupByPrincipalId(List.of(
+			delegateChainRow("delegate1", "root1", "agent1", null, null, null, null),
+			delegateChainRow("delegate2", "agent1", "agent2", null, null, null, null))));
+
+		// Act
+		final var result = resolver.resolveAll(MUNICIPALITY_ID, List.of("root1", "agent1", "root3"), null);
+
+		// Assert
+		assertThat(result).containsExactly(
+			entry("root1", List.of("root1", "agent1", "agent2")),
+			entry("agent1", List.of("agent1", "agent2")),
+			entry("root3", List.of("root3")));
+		verify(delegateGraphIndexMock).getEdgesByPrincipalId(MUNICIPALITY_ID);
+		verifyNoMoreInteractions(delegateGraphIndexMock);
+		verifyNoInteractions(delegateRepositoryMock);
+	}
+
+	@Test
+	void resolveAllWithoutRoots() {
+
+		// Arrange
+		final var resolver = new DelegateChainResolver(delegateRepositoryMock, Optional.empty(), true);
+
+		// Act
+		final var result = resolver.resolveAll(MUNICIPALITY_ID, emptyList(), null);
+
+		// Assert
+		assertThat(result).isEmpty();
+		verifyNoInteractions(delegateRepositoryMock);
+	}
+
+	private void mockDelegates(final boolean recursiveQueryEnabled, final List<DelegateChainRow> rootDelegates) {
+		if (recursiveQueryEnabled) {
+			when(delegateRepositoryMock.findDelegateChainByRootPrincipalId(ROOT_ID)).thenReturn(rootDelegates);
+		} else {
+			when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of(ROOT_ID))).thenReturn(rootDelegates);
+			rootDelegates.stream()
+				.map(DelegateChainRow::getAgentId)
+				.distinct()
+				.forEach(agentId -> lenient().when(delegateRepositoryMock.findDelegateChainByPrincipalIdIn(List.of(agentId))).thenReturn(emptyList()));
+		}
+	}
+
+	private static DelegateChainRow delegateChainRow(String delegateId, String principalId, String agentId, String filterId, String attributeName, String operator, String attributeValue) {
+		return new DelegateChainRow() {
+
+			@Override
+			public String getDelegateId() {
+				return delegateId;
+			}
+
+			@Override
+			public String getPrincipalId() {
+				return principalId;
+			}
+
+			@Override
+			public String getAgentId() {
+				return agentId;
+			}
+
+			@Override
+			public String getFilterId() {
+				return filterId;
+			}
+
+			@Override
+			public String getAttributeName() {
+				return attributeName;
+			}
+
+			@Override
+			public String getAttributeValue() {
+				return attributeValue;
+			}
+
+			@Override
+			public String getOperator() {
+				return operator;
+			}
+		};
+	}
+}
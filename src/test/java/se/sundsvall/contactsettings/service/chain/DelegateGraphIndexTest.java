@@ -0,0 +1,168 @@
+package se.sundsvall.contactsettings.service.chain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.DelegateChainRow;
+import se.sundsvall.contactsettings.integration.db.model.listener.DelegateGraphChangedEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.contactsettings.service.chain.DelegateGraphIndex.METRIC_PREFIX;
+
+@ExtendWith(MockitoExtension.class)
+class DelegateGraphIndexTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String OTHER_MUNICIPALITY_ID = "2262";
+
+	@Mock
+	private DelegateRepository delegateRepositoryMock;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private DelegateGraphIndex delegateGraphIndex;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		delegateGraphIndex = new DelegateGraphIndex(delegateRepositoryMock, meterRegistry);
+	}
+
+	@Test
+	void getEdgesByPrincipalId() {
+
+		// Arrange
+		when(delegateRepositoryMock.findDelegateGraphByMunicipalityId(MUNICIPALITY_ID)).thenReturn(List.of(
+			delegateChainRow("delegate1", "principal1", "agent1", "filter1", "key", "EQUALS", "value"),
+			delegateChainRow("delegate2", "principal1", "agent2", null, null, null, null),
+			delegateChainRow("delegate3", "agent1", "agent3", null, null, null, null)));
+
+		// Act
+		final var first = delegateGraphIndex.getEdgesByPrincipalId(MUNICIPALITY_ID);
+		final var second = delegateGraphIndex.getEdgesByPrincipalId(MUNICIPALITY_ID);
+
+		// Assert
+		assertThat(first).isSameAs(second);
+		assertThat(first).containsOnlyKeys("principal1", "agent1");
+		assertThat(first.get("principal1")).extracting(DelegateEdge::delegateId).containsExactly("delegate1", "delegate2");
+		assertThat(first.get("agent1")).extracting(DelegateEdge::delegateId).containsExactly("delegate3");
+
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".requests").tag("result", "hit").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".requests").tag("result", "miss").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".municipalities").gauge().value()).isEqualTo(1);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".edges").gauge().value()).isEqualTo(3);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".rules").gauge().value()).isEqualTo(1);
+
+		verify(delegateRepositoryMock).findDelegateGraphByMunicipalityId(MUNICIPALITY_ID);
+		verifyNoMoreInteractions(delegateRepositoryMock);
+	}
+
+	@Test
+	void onDelegateGraphChangedForMunicipality() {
+
+		// Arrange
+		when(delegateRepositoryMock.findDelegateGraphByMunicipalityId(MUNICIPALITY_ID)).thenReturn(List.of());
+		when(delegateRepositoryMock.findDelegateGraphByMunicipalityId(OTHER_MUNICIPALITY_ID)).thenReturn(List.of());
+		delegateGraphIndex.getEdgesByPrincipalId(MUNICIPALITY_ID);
+		delegateGraphIndex.getEdgesByPrincipalId(OTHER_MUNICIPALITY_ID);
+
+		// Act
+		delegateGraphIndex.onDelegateGraphChanged(new DelegateGraphChangedEvent(MUNICIPALITY_ID));
+		delegateGraphIndex.getEdgesByPrincipalId(MUNICIPALITY_ID);
+		delegateGraphIndex.getEdgesByPrincipalId(OTHER_MUNICIPALITY_ID);
+
+		// Assert
+		verify(delegateRepositoryMock, times(2)).findDelegateGraphByMunicipalityId(MUNICIPALITY_ID);
+		verify(delegateRepositoryMock).findDelegateGraphByMunicipalityId(OTHER_MUNICIPALITY_ID);
+		verifyNoMoreInteractions(delegateRepositoryMock);
+	}
+
+	@Test
+	void onDelegateGraphChangedForUnknownMunicipality() {
+
+		// Arrange
+		when(delegateRepositoryMock.findDelegateGraphByMunicipalityId(MUNICIPALITY_ID)).thenReturn(List.of());
+		when(delegateRepositoryMock.findDelegateGraphByMunicipalityId(OTHER_MUNICIPALITY_ID)).thenReturn(List.of());
+		delegateGraphIndex.getEdgesByPrincipalId(MUNICIPALITY_ID);
+		delegateGraphIndex.getEdgesByPrincipalId(OTHER_MUNICIPALITY_ID);
+
+		// Act
+		delegateGraphIndex.onDelegateGraphChanged(new DelegateGraphChangedEvent(null));
+		delegateGraphIndex.getEdgesByPrincipalId(MUNICIPALITY_ID);
+		delegateGraphIndex.getEdgesByPrincipalId(OTHER_MUNICIPALITY_ID);
+
+		// Assert
+		verify(delegateRepositoryMock, times(2)).findDelegateGraphByMunicipalityId(MUNICIPALITY_ID);
+		verify(delegateRepositoryMock, times(2)).findDelegateGraphByMunicipalityId(OTHER_MUNICIPALITY_ID);
+		verifyNoMoreInteractions(delegateRepositoryMock);
+	}
+
+	@Test
+	void indexBuiltDuringChangeIsNotStored() {
+
+		// Arrange
+		when(delegateRepositoryMock.findDelegateGraphByMunicipalityId(MUNICIPALITY_ID)).thenAnswer(invocation -> {
+			// Simulate a change being committed while the index is built.
+			delegateGraphIndex.onDelegateGraphChanged(new DelegateGraphChangedEvent(MUNICIPALITY_ID));
+			return List.of();
+		});
+
+		// Act
+		delegateGraphIndex.getEdgesByPrincipalId(MUNICIPALITY_ID);
+		delegateGraphIndex.getEdgesByPrincipalId(MUNICIPALITY_ID);
+
+		// Assert
+		verify(delegateRepositoryMock, times(2)).findDelegateGraphByMunicipalityId(MUNICIPALITY_ID);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".requests").tag("result", "miss").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".municipalities").gauge().value()).isZero();
+	}
+
+	private static DelegateChainRow delegateChainRow(String delegateId, String principalId, String agentId, String filterId, String attributeName, String operator, String attributeValue) {
+		return new DelegateChainRow() {
+
+			@Override
+			public String getDelegateId() {
+				return delegateId;
+			}
+
+			@Override
+			public String getPrincipalId() {
+				return principalId;
+			}
+
+			@Override
+			public String getAgentId() {
+				return agentId;
+			}
+
+			@Override
+			public String getFilterId() {
+				return filterId;
+			}
+
+			@Override
+			public String getAttributeName() {
+				return attributeName;
+			}
+
+			@Override
+			public String getAttributeValue() {
+				return attributeValue;
+			}
+
+			@Override
+			public String getOperator() {
+				return operator;
+			}
+		};
+	}
+}
@@ -0,0 +1,99 @@
+package se.sundsvall.contactsettings.service.changelog;
+
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.contactsettings.integration.db.ChangeLogRepository;
+import se.sundsvall.contactsettings.integration.db.ChangeLogSequenceRepository;
+import se.sundsvall.contactsettings.integration.db.model.ChangeLogEntity;
+import se.sundsvall.contactsettings.integration.db.model.ChangeLogSequenceEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.domain.Limit.of;
+import static se.sundsvall.contactsettings.integration.db.model.ChangeLogSequenceEntity.ID;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeLogRelayTest {
+
+	private static final int BATCH_SIZE = 3;
+
+	@Mock
+	private ChangeLogRepository changeLogRepositoryMock;
+
+	@Mock
+	private ChangeLogSequenceRepository changeLogSequenceRepositoryMock;
+
+	private ChangeLogRelay changeLogRelay;
+
+	@BeforeEach
+	void setUp() {
+		changeLogRelay = new ChangeLogRelay(changeLogRepositoryMock, changeLogSequenceRepositoryMock, BATCH_SIZE);
+	}
+
+	@Test
+	void relay() {
+
+		// Arrange
+		final var sequence = ChangeLogSequenceEntity.create().withId(ID).withLastSequence(10L);
+		final var changes = List.of(ChangeLogEntity.create().withId(17L), ChangeLogEntity.create().withId(15L), ChangeLogEntity.create().withId(16L));
+		when(changeLogSequenceRepositoryMock.findForUpdateById(ID)).thenReturn(Optional.of(sequence));
+		when(changeLogRepositoryMock.findUnsequenced(of(BATCH_SIZE))).thenReturn(changes);
+
+		// Act
+		final var result = changeLogRelay.relay();
+
+		// Assert
+		assertThat(result).isEqualTo(3);
+		assertThat(changes).extracting(ChangeLogEntity::getSequence).containsExactly(11L, 12L, 13L);
+		assertThat(sequence.getLastSequence()).isEqualTo(13L);
+
+		// Lock the sequence before reading the changes.
+		final var inOrder = inOrder(changeLogSequenceRepositoryMock, changeLogRepositoryMock);
+		inOrder.verify(changeLogSequenceRepositoryMock).findForUpdateById(ID);
+		inOrder.verify(changeLogRepositoryMock).findUnsequenced(of(BATCH_SIZE));
+		verifyNoMoreInteractions(changeLogSequenceRepositoryMock, changeLogRepositoryMock);
+	}
+
+	@Test
+	void relayWithoutChanges() {
+
+		// Arrange
+		final var sequence = ChangeLogSequenceEntity.create().withId(ID).withLastSequence(10L);
+		when(changeLogSequenceRepositoryMock.findForUpdateById(ID)).thenReturn(Optional.of(sequence));
+		when(changeLogRepositoryMock.findUnsequenced(of(BATCH_SIZE))).thenReturn(List.of());
+
+		// Act
+		final var result = changeLogRelay.relay();
+
+		// Assert
+		assertThat(result).isZero();
+		assertThat(sequence.getLastSequence()).isEqualTo(10L);
+	}
+
+	@Test
+	void relayCreatesMissingSequence() {
+
+		// Arrange
+		final var changes = List.of(ChangeLogEntity.create().withId(1L));
+		when(changeLogSequenceRepositoryMock.findForUpdateById(ID)).thenReturn(Optional.empty());
+		when(changeLogSequenceRepositoryMock.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(changeLogRepositoryMock.findUnsequenced(of(BATCH_SIZE))).thenReturn(changes);
+
+		// Act
+		final var result = changeLogRelay.relay();
+
+		// Assert
+		assertThat(result).isOne();
+		assertThat(changes.getFirst().getSequence()).isOne();
+		verify(changeLogSequenceRepositoryMock).saveAndFlush(ChangeLogSequenceEntity.create().withId(ID).withLastSequence(1L));
+	}
+}
@@ -0,0 +1,39 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DelegateImportCheckpointTest {
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void of() {
+		assertThat(DelegateImportCheckpoint.of(directory.resolve("delegates.csv"))).isEqualTo(directory.resolve("delegates.csv.checkpoint"));
+	}
+
+	@Test
+	void readNonExisting() {
+		assertThat(DelegateImportCheckpoint.read(directory.resolve("delegates.csv.checkpoint"))).isEqualTo(DelegateImportCheckpoint.START);
+	}
+
+	@Test
+	void writeAndRead() {
+
+		// Arrange
+		final var checkpointFile = directory.resolve("delegates.csv.checkpoint");
+		new DelegateImportCheckpoint(42, false).write(checkpointFile);
+
+		// Act
+		new DelegateImportCheckpoint(1042, true).write(checkpointFile);
+		final var result = DelegateImportCheckpoint.read(checkpointFile);
+
+		// Assert
+		assertThat(result).isEqualTo(new DelegateImportCheckpoint(1042, true));
+		assertThat(directory.resolve("delegates.csv.checkpoint.tmp")).doesNotExist();
+	}
+}
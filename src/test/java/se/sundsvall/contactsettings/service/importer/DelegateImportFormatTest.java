@@ -0,0 +1,31 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportFormat.CSV;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportFormat.NDJSON;
+
+class DelegateImportFormatTest {
+
+	@Test
+	void enums() {
+		assertThat(DelegateImportFormat.values()).containsExactlyInAnyOrder(NDJSON, CSV);
+	}
+
+	@Test
+	void fromPath() {
+		assertThat(DelegateImportFormat.fromPath(Path.of("/import/delegates.CSV"))).isEqualTo(CSV);
+		assertThat(DelegateImportFormat.fromPath(Path.of("/import/delegates.ndjson"))).isEqualTo(NDJSON);
+		assertThat(DelegateImportFormat.fromPath(Path.of("/import/delegates.jsonl"))).isEqualTo(NDJSON);
+	}
+
+	@Test
+	void fromPathUnsupported() {
+		final var exception = assertThrows(IllegalArgumentException.class, () -> DelegateImportFormat.fromPath(Path.of("/import/delegates.xml")));
+
+		assertThat(exception.getMessage()).isEqualTo("Unsupported delegate import file: '/import/delegates.xml' (expected .csv, .ndjson or .jsonl)");
+	}
+}
@@ -0,0 +1,146 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportJob.METRIC_PREFIX;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.DUPLICATE;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.IMPORTED;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.INVALID;
+
+@ExtendWith(MockitoExtension.class)
+class DelegateImportJobTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final int BATCH_SIZE = 2;
+	private static final String LINE = """
+		{"principalPartyId":"62fd9c95-99c0-4874-b0ef-e990aaab03c6","agentId":"07025549-3fbd-4db2-ab40-e1b93034b254","filters":[]}
+		""";
+
+	@Mock
+	private DelegateImporter delegateImporterMock;
+
+	@Captor
+	private ArgumentCaptor<List<DelegateImportRecord>> recordsCaptor;
+
+	@TempDir
+	private Path directory;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private Path file;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		file = directory.resolve("delegates.ndjson");
+	}
+
+	@Test
+	void run() throws IOException {
+
+		// Arrange
+		Files.writeString(file, LINE + LINE + "not json\n" + LINE);
+		when(delegateImporterMock.importDelegates(eq(MUNICIPALITY_ID), anyList(), eq(false)))
+			.thenReturn(List.of(DelegateImportResult.imported(), new DelegateImportResult(DUPLICATE, "duplicate")))
+			.thenReturn(List.of(DelegateImportResult.imported()));
+
+		// Act
+		final var result = delegateImportJob(false).run();
+
+		// Assert
+		assertThat(result).isEqualTo(Map.of(IMPORTED, 2L, DUPLICATE, 1L, INVALID, 1L));
+		assertThat(DelegateImportCheckpoint.read(DelegateImportCheckpoint.of(file))).isEqualTo(new DelegateImportCheckpoint(4, true));
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".records").tag("outcome", "imported").tag("dryRun", "false").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".records").tag("outcome", "invalid").counter().count()).isOne();
+
+		verify(delegateImporterMock, times(2)).importDelegates(eq(MUNICIPALITY_ID), recordsCaptor.capture(), eq(false));
+		assertThat(recordsCaptor.getAllValues()).extracting(List::size).containsExactly(2, 1);
+	}
+
+	@Test
+	void runResumesAfterCheckpoint() throws IOException {
+
+		// Arrange
+		Files.writeString(file, LINE + LINE + LINE);
+		new DelegateImportCheckpoint(2, false).write(DelegateImportCheckpoint.of(file));
+		when(delegateImporterMock.importDelegates(eq(MUNICIPALITY_ID), anyList(), eq(false))).thenReturn(List.of(DelegateImportResult.imported()));
+
+		// Act
+		final var result = delegateImportJob(false).run();
+
+		// Assert
+		assertThat(result).isEqualTo(Map.of(IMPORTED, 1L));
+		assertThat(DelegateImportCheckpoint.read(DelegateImportCheckpoint.of(file))).isEqualTo(new DelegateImportCheckpoint(3, true));
+	}
+
+	@Test
+	void runWhenCompleted() throws IOException {
+
+		// Arrange
+		Files.writeString(file, LINE);
+		new DelegateImportCheckpoint(1, true).write(DelegateImportCheckpoint.of(file));
+
+		// Act
+		final var result = delegateImportJob(false).run();
+
+		// Assert
+		assertThat(result).isEmpty();
+		verifyNoInteractions(delegateImporterMock);
+	}
+
+	@Test
+	void runWithoutFile() {
+
+		// Act
+		final var result = delegateImportJob(false).run();
+
+		// Assert
+		assertThat(result).isEmpty();
+		verifyNoInteractions(delegateImporterMock);
+	}
+
+	@Test
+	void runDryRun() throws IOException {
+
+		// Arrange
+		Files.writeString(file, LINE);
+		when(delegateImporterMock.importDelegates(eq(MUNICIPALITY_ID), anyList(), eq(true))).thenReturn(List.of(DelegateImportResult.imported()));
+		final var delegateImportJob = delegateImportJob(true);
+
+		// Act
+		final var result = delegateImportJob.run();
+		final var secondResult = delegateImportJob.run();
+
+		// Assert
+		assertThat(result).isEqualTo(Map.of(IMPORTED, 1L));
+		assertThat(secondResult).isEmpty();
+		assertThat(DelegateImportCheckpoint.of(file)).doesNotExist();
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".records").tag("outcome", "imported").tag("dryRun", "true").counter().count()).isOne();
+		verify(delegateImporterMock).importDelegates(eq(MUNICIPALITY_ID), anyList(), eq(true));
+	}
+
+	private DelegateImportJob delegateImportJob(final boolean dryRun) {
+		return new DelegateImportJob(delegateImporterMock, JsonMapper.builder().build(), meterRegistry, file, MUNICIPALITY_ID, dryRun, BATCH_SIZE);
+	}
+}
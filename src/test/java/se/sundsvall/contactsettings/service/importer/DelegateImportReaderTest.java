@@ -0,0 +1,187 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.sundsvall.contactsettings.api.model.Filter;
+import se.sundsvall.contactsettings.api.model.Rule;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.NOT_EQUALS;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportFormat.CSV;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportFormat.NDJSON;
+
+class DelegateImportReaderTest {
+
+	private static final String PRINCIPAL_PARTY_ID = "62fd9c95-99c0-4874-b0ef-e990aaab03c6";
+	private static final String AGENT_ID = "07025549-3fbd-4db2-ab40-e1b93034b254";
+	private static final String OTHER_AGENT_ID = "2c94ea99-a1b4-4073-b094-9ff79bad23b0";
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void readNdjson() throws IOException {
+
+		// Arrange
+		final var file = write("delegates.ndjson", """
+			{"principalPartyId":"%s","agentId":"%s","filters":[{"alias":"Summer house","channel":"Energy","rules":[{"attributeName":"facilityId","operator":"EQUALS","attributeValue":"123"}]}]}
+
+			not json
+			""".formatted(PRINCIPAL_PARTY_ID, AGENT_ID));
+
+		// Act
+		final var entries = readAll(file, NDJSON, 0);
+
+		// Assert
+		assertThat(entries).extracting(DelegateImportEntry::firstLine, DelegateImportEntry::lastLine).containsExactly(tuple(1L, 1L), tuple(3L, 3L));
+		assertThat(entries.getFirst().error()).isNull();
+		assertThat(entries.getFirst().record()).isEqualTo(new DelegateImportRecord(null, PRINCIPAL_PARTY_ID, AGENT_ID, null, List.of(Filter.create()
+			.withAlias("Summer house")
+			.withChannel("Energy")
+			.withRules(List.of(Rule.create().withAttributeName("facilityId").withOperator(EQUALS).withAttributeValue("123"))))));
+		assertThat(entries.getLast().record()).isNull();
+		assertThat(entries.getLast().error()).isNotBlank();
+	}
+
+	@Test
+	void readNdjsonAfterCheckpoint() throws IOException {
+
+		// Arrange
+		final var file = write("delegates.ndjson", """
+			{"principalPartyId":"%1$s","agentId":"%2$s","filters":[]}
+			{"principalPartyId":"%1$s","agentId":"%3$s","filters":[]}
+			""".formatted(PRINCIPAL_PARTY_ID, AGENT_ID, OTHER_AGENT_ID));
+
+		// Act
+		final var entries = readAll(file, NDJSON, 1);
+
+		// Assert
+		assertThat(entries).extracting(DelegateImportEntry::firstLine).containsExactly(2L);
+		assertThat(entries.getFirst().record().agentId()).isEqualTo(OTHER_AGENT_ID);
+	}
+
+	@Test
+	void readCsv() throws IOException {
+
+		// Arrange
+		final var file = write("delegates.csv", """
+			principalPartyId,agentId,filterAlias,filterChannel,attributeName,operator,attributeValue
+			%1$s,%2$s,Summer house,Energy,facilityId,EQUALS,123
+			%1$s,%2$s,Summer house,Energy,type,not_equals,"heating, ""district"""
+			%1$s,%2$s,Winter house,Energy,facilityId,EQUALS,456
+			%1$s,%3$s,,,facilityId,EQUALS,789
+			""".formatted(PRINCIPAL_PARTY_ID, AGENT_ID, OTHER_AGENT_ID));
+
+		// Act
+		final var entries = readAll(file, CSV, 0);
+
+		// Assert
+		assertThat(entries).extracting(DelegateImportEntry::firstLine, DelegateImportEntry::lastLine, DelegateImportEntry::error)
+			.containsExactly(tuple(2L, 4L, null), tuple(5L, 5L, null));
+		assertThat(entries.getFirst().record()).isEqualTo(new DelegateImportRecord(null, PRINCIPAL_PARTY_ID, AGENT_ID, null, List.of(
+			Filter.create().withAlias("Summer house").withChannel("Energy").withRules(List.of(
+				Rule.create().withAttributeName("facilityId").withOperator(EQUALS).withAttributeValue("123"),
+				Rule.create().withAttributeName("type").withOperator(NOT_EQUALS).withAttributeValue("heating, \"district\""))),
+			Filter.create().withAlias("Winter house").withChannel("Energy").withRules(List.of(
+				Rule.create().withAttributeName("facilityId").withOperator(EQUALS).withAttributeValue("456"))))));
+		assertThat(entries.getLast().record()).isEqualTo(new DelegateImportRecord(null, PRINCIPAL_PARTY_ID, OTHER_AGENT_ID, null, List.of(
+			Filter.create().withRules(List.of(Rule.create().withAttributeName("facilityId").withOperator(EQUALS).withAttributeValue("789"))))));
+	}
+
+	@Test
+	void readCsvAfterCheckpoint() throws IOException {
+
+		// Arrange
+		final var file = write("delegates.csv", """
+			principalPartyId,agentId,attributeName,operator,attributeValue
+			%1$s,%2$s,facilityId,EQUALS,123
+			%1$s,%2$s,facilityId,EQUALS,456
+			%1$s,%3$s,facilityId,EQUALS,789
+			""".formatted(PRINCIPAL_PARTY_ID, AGENT_ID, OTHER_AGENT_ID));
+
+		// Act
+		final var entries = readAll(file, CSV, 3);
+
+		// Assert
+		assertThat(entries).extracting(DelegateImportEntry::firstLine, DelegateImportEntry::lastLine).containsExactly(tuple(4L, 4L));
+		assertThat(entries.getFirst().record().agentId()).isEqualTo(OTHER_AGENT_ID);
+	}
+
+	@Test
+	void readCsvWithInvalidRows() throws IOException {
+
+		// Arrange
+		final var file = write("delegates.csv", """
+			principalPartyId,agentId,attributeName,operator,attributeValue
+			%1$s,%2$s,facilityId,EQUALS,123
+			%1$s,%2$s,facilityId,LIKE,456
+			%1$s,%3$s,facilityId,EQUALS,"789
+			""".formatted(PRINCIPAL_PARTY_ID, AGENT_ID, OTHER_AGENT_ID));
+
+		// Act
+		final var entries = readAll(file, CSV, 0);
+
+		// Assert
+		assertThat(entries).extracting(DelegateImportEntry::firstLine, DelegateImportEntry::lastLine, DelegateImportEntry::record)
+			.containsExactly(tuple(2L, 3L, null), tuple(4L, 4L, null));
+		assertThat(entries.getFirst().error()).isEqualTo("line 3: Invalid value for enum Operator: LIKE");
+		assertThat(entries.getLast().error()).startsWith("Unterminated quoted field");
+	}
+
+	@Test
+	void readCsvWithInvalidHeader() throws IOException {
+
+		// Arrange
+		final var file = write("delegates.csv", """
+			principalPartyId,attributeName,operator,attributeValue
+			""");
+
+		// Act
+		final var exception = assertThrows(IllegalArgumentException.class, () -> DelegateImportReader.open(file, CSV, jsonMapper, 0));
+
+		// Assert
+		assertThat(exception.getMessage()).isEqualTo("Invalid header of delegate import file: 'principalPartyId,attributeName,operator,attributeValue'");
+	}
+
+	@Test
+	void readEmptyCsv() throws IOException {
+
+		// Arrange
+		final var file = write("delegates.csv", "");
+
+		// Act
+		final var entries = readAll(file, CSV, 0);
+
+		// Assert
+		assertThat(entries).isEmpty();
+	}
+
+	@Test
+	void split() {
+		assertThat(DelegateImportReader.split("a,,\"b,c\",\"d \"\"e\"\"\"")).containsExactly("a", "", "b,c", "d \"e\"");
+		assertThat(DelegateImportReader.split("")).containsExactly("");
+	}
+
+	private List<DelegateImportEntry> readAll(final Path file, final DelegateImportFormat format, final long skipToLine) throws IOException {
+		final var entries = new ArrayList<DelegateImportEntry>();
+		try (final var reader = DelegateImportReader.open(file, format, jsonMapper, skipToLine)) {
+			reader.forEachRemaining(entries::add);
+		}
+		return entries;
+	}
+
+	private Path write(final String fileName, final String content) throws IOException {
+		return Files.writeString(directory.resolve(fileName), content);
+	}
+}
@@ -0,0 +1,282 @@
+package se.sundsvall.contactsettings.service.importer;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.sundsvall.contactsettings.api.model.Filter;
+import se.sundsvall.contactsettings.api.model.Rule;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingIdentity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateSummary;
+import se.sundsvall.contactsettings.service.ChangeLogService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.Operator.EQUALS;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_AGENT_NOT_FOUND;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_DELEGATE_ALREADY_EXIST;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_PRINCIPAL_BY_PARTY_ID_NOT_FOUND;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.DUPLICATE;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.INVALID;
+import static se.sundsvall.contactsettings.service.importer.DelegateImportOutcome.UNRESOLVED;
+
+@ExtendWith(MockitoExtension.class)
+class DelegateImporterTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String PRINCIPAL_ID = "534ba8a0-7484-45b3-b041-ff90f1228c16";
+	private static final String PRINCIPAL_PARTY_ID = "62fd9c95-99c0-4874-b0ef-e990aaab03c6";
+	private static final String AGENT_ID = "07025549-3fbd-4db2-ab40-e1b93034b254";
+	private static final String OTHER_AGENT_ID = "2c94ea99-a1b4-4073-b094-9ff79bad23b0";
+	private static final String UNKNOWN_PARTY_ID = "3189727c-68e9-40f0-b7e4-838aa9752b91";
+	private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+	@Mock
+	private ContactSettingRepository contactSettingRepositoryMock;
+
+	@Mock
+	private DelegateRepository delegateRepositoryMock;
+
+	@Mock
+	private ChangeLogService changeLogServiceMock;
+
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
+
+	@Captor
+	private ArgumentCaptor<Iterable<DelegateEntity>> delegateEntitiesCaptor;
+
+	private DelegateImporter delegateImporter;
+
+	@BeforeEach
+	void setUp() {
+		delegateImporter = new DelegateImporter(contactSettingRepositoryMock, delegateRepositoryMock, changeLogServiceMock, VALIDATOR, transactionManagerMock);
+	}
+
+	@Test
+	void importDelegates() {
+
+		// Arrange
+		final var records = List.of(
+			record(PRINCIPAL_PARTY_ID, AGENT_ID), // Imported.
+			record(PRINCIPAL_PARTY_ID, OTHER_AGENT_ID), // Already exists.
+			record(PRINCIPAL_PARTY_ID, AGENT_ID), // Earlier in the batch.
+			record(UNKNOWN_PARTY_ID, AGENT_ID), // Unknown principal.
+			new DelegateImportRecord(null, PRINCIPAL_PARTY_ID, AGENT_ID, null, List.of())); // No filters.
+
+		when(contactSettingRepositoryMock.findIdentitiesByMunicipalityIdAndIdIn(MUNICIPALITY_ID, Set.of(AGENT_ID, OTHER_AGENT_ID)))
+			.thenReturn(List.of(identity(AGENT_ID, null), identity(OTHER_AGENT_ID, null)));
+		when(contactSettingRepositoryMock.findIdentitiesByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, Set.of(PRINCIPAL_PARTY_ID, UNKNOWN_PARTY_ID)))
+			.thenReturn(List.of(identity(PRINCIPAL_ID, PRINCIPAL_PARTY_ID)));
+		when(delegateRepositoryMock.findSummariesByPrincipalIdIn(Set.of(PRINCIPAL_ID))).thenReturn(List.of(summary(PRINCIPAL_ID, OTHER_AGENT_ID)));
+
+		// Act
+		final var results = delegateImporter.importDelegates(MUNICIPALITY_ID, records, false);
+
+		// Assert
+		assertThat(results).containsExactly(
+			DelegateImportResult.imported(),
+			new DelegateImportResult(DUPLICATE, ERROR_MESSAGE_DELEGATE_ALREADY_EXIST),
+			new DelegateImportResult(DUPLICATE, ERROR_MESSAGE_DELEGATE_ALREADY_EXIST),
+			new DelegateImportResult(UNRESOLVED, ERROR_MESSAGE_PRINCIPAL_BY_PARTY_ID_NOT_FOUND.formatted(UNKNOWN_PARTY_ID)),
+			new DelegateImportResult(INVALID, "filters: must not be empty"));
+
+		verify(delegateRepositoryMock).saveAll(delegateEntitiesCaptor.capture());
+		verify(delegateRepositoryMock).flush();
+		verify(changeLogServiceMock).recordDelegateChanges(anyList(), eq(CREATED));
+		assertThat(delegateEntitiesCaptor.getValue()).singleElement().satisfies(entity -> {
+			assertThat(entity.getPrincipal().getId()).isEqualTo(PRINCIPAL_ID);
+			assertThat(entity.getPrincipal().getMunicipalityId()).isEqualTo(MUNICIPALITY_ID);
+			assertThat(entity.getAgent().getId()).isEqualTo(AGENT_ID);
+			assertThat(entity.getAgent().getMunicipalityId()).isEqualTo(MUNICIPALITY_ID);
+			assertThat(entity.getFilters()).singleElement().satisfies(filter -> assertThat(filter.getFilterRules()).hasSize(1));
+		});
+	}
+
+	@Test
+	void importDelegatesWithInvalidReferences() {
+
+		// Arrange
+		final var records = List.of(
+			new DelegateImportRecord(PRINCIPAL_ID, PRINCIPAL_PARTY_ID, AGENT_ID, null, filters()),
+			new DelegateImportRecord(PRINCIPAL_ID, null, "invalid", null, filters()));
+
+		// Act
+		final var results = delegateImporter.importDelegates(MUNICIPALITY_ID, records, false);
+
+		// Assert
+		assertThat(results).containsExactly(
+			new DelegateImportResult(INVALID, "principalReferenced: exactly one of principalId and principalPartyId must be set"),
+			new DelegateImportResult(INVALID, "agentId: not a valid UUID"));
+
+		verifyNoInteractions(contactSettingRepositoryMock);
+		verify(delegateRepositoryMock).saveAll(List.of());
+	}
+
+	@Test
+	void importDelegatesWithUnknownAgent() {
+
+		// Arrange
+		final var records = List.of(new DelegateImportRecord(PRINCIPAL_ID, null, AGENT_ID, null, filters()));
+
+		when(contactSettingRepositoryMock.findIdentitiesByMunicipalityIdAndIdIn(MUNICIPALITY_ID, Set.of(PRINCIPAL_ID, AGENT_ID))).thenReturn(List.of(identity(PRINCIPAL_ID, PRINCIPAL_PARTY_ID)));
+		when(delegateRepositoryMock.findSummariesByPrincipalIdIn(Set.of(PRINCIPAL_ID))).thenReturn(List.of());
+
+		// Act
+		final var results = delegateImporter.importDelegates(MUNICIPALITY_ID, records, false);
+
+		// Assert
+		assertThat(results).containsExactly(new DelegateImportResult(UNRESOLVED, ERROR_MESSAGE_AGENT_NOT_FOUND.formatted(AGENT_ID)));
+	}
+
+	@Test
+	void importDelegatesDryRun() {
+
+		// Arrange
+		final var records = List.of(record(PRINCIPAL_PARTY_ID, AGENT_ID));
+
+		when(contactSettingRepositoryMock.findIdentitiesByMunicipalityIdAndIdIn(MUNICIPALITY_ID, Set.of(AGENT_ID))).thenReturn(List.of(identity(AGENT_ID, null)));
+		when(contactSettingRepositoryMock.findIdentitiesByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, Set.of(PRINCIPAL_PARTY_ID))).thenReturn(List.of(identity(PRINCIPAL_ID, PRINCIPAL_PARTY_ID)));
+		when(delegateRepositoryMock.findSummariesByPrincipalIdIn(Set.of(PRINCIPAL_ID))).thenReturn(List.of());
+
+		// Act
+		final var results = delegateImporter.importDelegates(MUNICIPALITY_ID, records, true);
+
+		// Assert
+		assertThat(results).containsExactly(DelegateImportResult.imported());
+
+		verify(delegateRepositoryMock, never()).saveAll(anyIterable());
+		verify(delegateRepositoryMock, never()).flush();
+		verifyNoInteractions(changeLogServiceMock);
+	}
+
+	@Test
+	void importDelegatesConcurrentlyCreated() {
+
+		// Arrange
+		final var records = List.of(record(PRINCIPAL_PARTY_ID, AGENT_ID), record(PRINCIPAL_PARTY_ID, OTHER_AGENT_ID));
+		final var uniqueViolation = new DataIntegrityViolationException("could not execute statement",
+			new SQLIntegrityConstraintViolationException("Duplicate entry for key 'uq_delegate_principal_id_agent_id'"));
+
+		when(contactSettingRepositoryMock.findIdentitiesByMunicipalityIdAndIdIn(eq(MUNICIPALITY_ID), anyCollection()))
+			.thenReturn(List.of(identity(AGENT_ID, null), identity(OTHER_AGENT_ID, null)));
+		when(contactSettingRepositoryMock.findIdentitiesByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, Set.of(PRINCIPAL_PARTY_ID))).thenReturn(List.of(identity(PRINCIPAL_ID, PRINCIPAL_PARTY_ID)));
+		when(delegateRepositoryMock.findSummariesByPrincipalIdIn(Set.of(PRINCIPAL_ID))).thenReturn(List.of());
+		// The batch fails, then the first delegate is imported and the second fails on its own.
+		when(delegateRepositoryMock.saveAll(anyIterable()))
+			.thenThrow(uniqueViolation)
+			.thenReturn(List.of())
+			.thenThrow(uniqueViolation);
+
+		// Act
+		final var results = delegateImporter.importDelegates(MUNICIPALITY_ID, records, false);
+
+		// Assert
+		assertThat(results).containsExactly(
+			DelegateImportResult.imported(),
+			new DelegateImportResult(DUPLICATE, ERROR_MESSAGE_DELEGATE_ALREADY_EXIST));
+
+		verify(delegateRepositoryMock, times(3)).saveAll(anyIterable());
+		verify(transactionManagerMock, times(2)).rollback(any());
+	}
+
+	@Test
+	void importDelegatesOtherDataIntegrityViolation() {
+
+		// Arrange
+		final var records = List.of(record(PRINCIPAL_PARTY_ID, AGENT_ID));
+		final var dataIntegrityViolationException = new DataIntegrityViolationException("could not execute statement", new SQLIntegrityConstraintViolationException("Column 'id' cannot be null"));
+
+		when(contactSettingRepositoryMock.findIdentitiesByMunicipalityIdAndIdIn(MUNICIPALITY_ID, Set.of(AGENT_ID))).thenReturn(List.of(identity(AGENT_ID, null)));
+		when(contactSettingRepositoryMock.findIdentitiesByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, Set.of(PRINCIPAL_PARTY_ID))).thenReturn(List.of(identity(PRINCIPAL_ID, PRINCIPAL_PARTY_ID)));
+		when(delegateRepositoryMock.findSummariesByPrincipalIdIn(Set.of(PRINCIPAL_ID))).thenReturn(List.of());
+		when(delegateRepositoryMock.saveAll(anyIterable())).thenThrow(dataIntegrityViolationException);
+
+		// Act
+		final var exception = assertThrows(DataIntegrityViolationException.class, () -> delegateImporter.importDelegates(MUNICIPALITY_ID, records, false));
+
+		// Assert
+		assertThat(exception).isSameAs(dataIntegrityViolationException);
+		verify(delegateRepositoryMock).saveAll(anyIterable());
+	}
+
+	private static DelegateImportRecord record(final String principalPartyId, final String agentId) {
+		return new DelegateImportRecord(null, principalPartyId, agentId, null, filters());
+	}
+
+	private static List<Filter> filters() {
+		return List.of(Filter.create()
+			.withAlias("Summer house")
+			.withRules(List.of(Rule.create().withAttributeName("facilityId").withOperator(EQUALS).withAttributeValue("123"))));
+	}
+
+	private static ContactSettingIdentity identity(final String id, final String partyId) {
+		return new ContactSettingIdentity() {
+
+			@Override
+			public String getId() {
+				return id;
+			}
+
+			@Override
+			public String getPartyId() {
+				return partyId;
+			}
+		};
+	}
+
+	private static DelegateSummary summary(final String principalId, final String agentId) {
+		return new DelegateSummary() {
+
+			@Override
+			public String getId() {
+				return "delegateId";
+			}
+
+			@Override
+			public String getPrincipalId() {
+				return principalId;
+			}
+
+			@Override
+			public String getAgentId() {
+				return agentId;
+			}
+
+			@Override
+			public OffsetDateTime getCreated() {
+				return null;
+			}
+
+			@Override
+			public OffsetDateTime getModified() {
+				return null;
+			}
+		};
+	}
+}
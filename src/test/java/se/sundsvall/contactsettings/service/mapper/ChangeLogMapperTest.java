@@ -0,0 +1,72 @@
+package se.sundsvall.contactsettings.service.mapper;
+
+import java.time.ZoneId;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.contactsettings.api.model.Change;
+import se.sundsvall.contactsettings.integration.db.model.ChangeLogEntity;
+
+import static java.time.OffsetDateTime.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.CONTACT_SETTING;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeEntityType.DELEGATE_FILTER;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.CREATED;
+import static se.sundsvall.contactsettings.api.model.enums.ChangeOperation.DELETED;
+
+class ChangeLogMapperTest {
+
+	@Test
+	void toChange() {
+
+		// Arrange
+		final var created = now(ZoneId.systemDefault());
+		final var changeLogEntity = ChangeLogEntity.create()
+			.withId(1L)
+			.withSequence(4711L)
+			.withMunicipalityId("2281")
+			.withEntityType("DELEGATE_FILTER")
+			.withEntityId("entityId")
+			.withDelegateId("delegateId")
+			.withOperation("DELETED")
+			.withCreated(created);
+
+		// Act
+		final var result = ChangeLogMapper.toChange(changeLogEntity);
+
+		// Assert
+		assertThat(result).isEqualTo(Change.create()
+			.withSequence(4711L)
+			.withEntityType(DELEGATE_FILTER)
+			.withEntityId("entityId")
+			.withDelegateId("delegateId")
+			.withOperation(DELETED)
+			.withCreated(created));
+	}
+
+	@Test
+	void toChangeFromNull() {
+		assertThat(ChangeLogMapper.toChange(null)).isNull();
+	}
+
+	@Test
+	void toChanges() {
+
+		// Arrange
+		final var changeLogEntities = List.of(
+			ChangeLogEntity.create().withId(11L).withSequence(1L).withEntityType("CONTACT_SETTING").withEntityId("id1").withOperation("CREATED"),
+			ChangeLogEntity.create().withId(12L).withSequence(2L).withEntityType("CONTACT_SETTING").withEntityId("id1").withOperation("DELETED"));
+
+		// Act
+		final var result = ChangeLogMapper.toChanges(changeLogEntities);
+
+		// Assert
+		assertThat(result).containsExactly(
+			Change.create().withSequence(1L).withEntityType(CONTACT_SETTING).withEntityId("id1").withOperation(CREATED),
+			Change.create().withSequence(2L).withEntityType(CONTACT_SETTING).withEntityId("id1").withOperation(DELETED));
+	}
+
+	@Test
+	void toChangesFromNull() {
+		assertThat(ChangeLogMapper.toChanges(null)).isEmpty();
+	}
+}
@@ -1,20 +1,25 @@
 package se.sundsvall.contactsettings.service.mapper;
 
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import se.sundsvall.contactsettings.api.model.Delegate;
 import se.sundsvall.contactsettings.api.model.DelegateCreateRequest;
 import se.sundsvall.contactsettings.api.model.Filter;
 import se.sundsvall.contactsettings.api.model.Rule;
 import se.sundsvall.contactsettings.api.model.enums.Operator;
 import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateChainRow;
 import se.sundsvall.contactsettings.integration.db.model.DelegateEntity;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
 import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.contactsettings.integration.db.model.DelegateSummary;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.ZoneId.systemDefault;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 class DelegateMapperTest {
 
@@ -166,6 +171,60 @@ class DelegateMapperTest {
 			.isEmpty();
 	}
 
+	@Test
+	void toDelegateListFromSummaries() {
+
+		// Arrange
+		final var created = now(ZoneId.systemDefault());
+		final var modified = now(ZoneId.systemDefault()).plusDays(1);
+		final var delegateSummaries = List.of(
+			delegateSummary("id1", "principalId", "agentId1", created, modified),
+			delegateSummary("id2", "principalId", "agentId2", created, modified));
+		final var delegateFilterEntities = List.of(
+			DelegateFilterEntity.create()
+				.withAlias("alias1")
+				.withDelegateId("id2")
+				.withFilterRules(List.of(DelegateFilterRule.create().withAttributeName("attribute1").withOperator("EQUALS").withAttributeValue("value1")))
+				.withId("filterId1"),
+			DelegateFilterEntity.create()
+				.withAlias("alias2")
+				.withDelegateId("id2")
+				.withFilterRules(List.of(DelegateFilterRule.create().withAttributeName("attribute2").withOperator("NOT_EQUALS").withAttributeValue("value2")))
+				.withId("filterId2"));
+
+		// Act
+		final var result = DelegateMapper.toDelegateList(delegateSummaries, delegateFilterEntities);
+
+		// Assert
+		assertThat(result)
+			.extracting(Delegate::getId, Delegate::getPrincipalId, Delegate::getAgentId, Delegate::getCreated, Delegate::getModified)
+			.containsExactly(
+				tuple("id1", "principalId", "agentId1", created, modified),
+				tuple("id2", "principalId", "agentId2", created, modified));
+		assertThat(result.getFirst().getFilters()).isEmpty();
+		assertThat(result.getLast().getFilters()).containsExactly(
+			Filter.create()
+				.withAlias("alias1")
+				.withId("filterId1")
+				.withRules(List.of(Rule.create().withAttributeName("attribute1").withAttributeValue("value1").withOperator(Operator.EQUALS))),
+			Filter.create()
+				.withAlias("alias2")
+				.withId("filterId2")
+				.withRules(List.of(Rule.create().withAttributeName("attribute2").withAttributeValue("value2").withOperator(Operator.NOT_EQUALS))));
+	}
+
+	@Test
+	void toDelegateListFromSummariesWhenNull() {
+
+		// Act
+		final var result = DelegateMapper.toDelegateList(null, null);
+
+		// Assert
+		assertThat(result)
+			.isNotNull()
+			.isEmpty();
+	}
+
 	@Test
 	void toDelegateEntityFromDelegateCreateRequest() {
 
@@ -283,4 +342,115 @@ class DelegateMapperTest {
 		// Assert
 		assertThat(result).isNull();
 	}
+
+	@Test
+	void toDelegateEntityList() {
+
+		// Arrange
+		final var rows = List.of(
+			delegateChainRow("delegate1", "principal1", "agent1", "filter1", "attribute1", "EQUALS", "value1"),
+			delegateChainRow("delegate1", "principal1", "agent1", "filter1", "attribute2", "NOT_EQUALS", "value2"),
+			delegateChainRow("delegate1", "principal1", "agent1", "filter2", null, null, null),
+			delegateChainRow("delegate2", "agent1", "agent2", null, null, null, null));
+
+		// Act
+		final var result = DelegateMapper.toDelegateEntityList(rows);
+
+		// Assert
+		assertThat(result).hasSize(2);
+		assertThat(result.getFirst().getId()).isEqualTo("delegate1");
+		assertThat(result.getFirst().getPrincipal().getId()).isEqualTo("principal1");
+		assertThat(result.getFirst().getAgent().getId()).isEqualTo("agent1");
+		assertThat(result.getFirst().getFilters()).extracting(DelegateFilterEntity::getId, DelegateFilterEntity::getDelegateId).containsExactly(
+			tuple("filter1", "delegate1"),
+			tuple("filter2", "delegate1"));
+		assertThat(result.getFirst().getFilters().getFirst().getFilterRules()).containsExactly(
+			DelegateFilterRule.create().withAttributeName("attribute1").withOperator("EQUALS").withAttributeValue("value1"),
+			DelegateFilterRule.create().withAttributeName("attribute2").withOperator("NOT_EQUALS").withAttributeValue("value2"));
+		assertThat(result.getFirst().getFilters().getLast().getFilterRules()).isEmpty();
+		assertThat(result.getLast().getId()).isEqualTo("delegate2");
+		assertThat(result.getLast().getPrincipal().getId()).isEqualTo("agent1");
+		assertThat(result.getLast().getAgent().getId()).isEqualTo("agent2");
+		assertThat(result.getLast().getFilters()).isEmpty();
+	}
+
+	@Test
+	void toDelegateEntityListWhenNull() {
+
+		// Act
+		final var result = DelegateMapper.toDelegateEntityList(null);
+
+		// Assert
+		assertThat(result).isEmpty();
+	}
+
+	private static DelegateChainRow delegateChainRow(String delegateId, String principalId, String agentId, String filterId, String attributeName, String operator, String attributeValue) {
+		return new DelegateChainRow() {
+
+			@Override
+			public String getDelegateId() {
+				return delegateId;
+			}
+
+			@Override
+			public String getPrincipalId() {
+				return principalId;
+			}
+
+			@Override
+			public String getAgentId() {
+				return agentId;
+			}
+
+			@Override
+			public String getFilterId() {
+				return filterId;
+			}
+
+			@Override
+			public String getAttributeName() {
+				return attributeName;
+			}
+
+			@Override
+			public String getAttributeValue() {
+				return attributeValue;
+			}
+
+			@Override
+			public String getOperator() {
+				return operator;
+			}
+		};
+	}
+
+	private static DelegateSummary delegateSummary(String id, String principalId, String agentId, OffsetDateTime created, OffsetDateTime modified) {
+		return new DelegateSummary() {
+
+			@Override
+			public String getId() {
+				return id;
+			}
+
+			@Override
+			public String getPrincipalId() {
+				return principalId;
+			}
+
+			@Override
+			public String getAgentId() {
+				return agentId;
+			}
+
+			@Override
+			public OffsetDateTime getCreated() {
+				return created;
+			}
+
+			@Override
+			public OffsetDateTime getModified() {
+				return modified;
+			}
+		};
+	}
 }
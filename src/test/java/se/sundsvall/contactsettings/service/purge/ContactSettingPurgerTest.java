@@ -0,0 +1,90 @@
+package se.sundsvall.contactsettings.service.purge;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.contactsettings.integration.db.ContactSettingRepository;
+import se.sundsvall.contactsettings.integration.db.DelegateRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.contactsettings.service.purge.ContactSettingPurger.METRIC_PREFIX;
+
+@ExtendWith(MockitoExtension.class)
+class ContactSettingPurgerTest {
+
+	private static final int BATCH_SIZE = 2;
+	private static final int DELEGATE_BATCH_SIZE = 10;
+
+	@Mock
+	private ContactSettingRepository contactSettingRepositoryMock;
+
+	@Mock
+	private DelegateRepository delegateRepositoryMock;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ContactSettingPurger contactSettingPurger;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		contactSettingPurger = new ContactSettingPurger(contactSettingRepositoryMock, delegateRepositoryMock, meterRegistry, BATCH_SIZE, DELEGATE_BATCH_SIZE);
+	}
+
+	@Test
+	void purge() {
+
+		// Arrange
+		final var ids = List.of("id1", "id2");
+		when(contactSettingRepositoryMock.findTombstonedIds(BATCH_SIZE)).thenReturn(ids);
+		when(delegateRepositoryMock.deleteByPrincipalIdInOrAgentIdIn(ids, DELEGATE_BATCH_SIZE)).thenReturn(DELEGATE_BATCH_SIZE, DELEGATE_BATCH_SIZE, 3);
+		when(contactSettingRepositoryMock.deleteTombstonedByIdIn(ids)).thenReturn(2);
+		when(contactSettingRepositoryMock.countTombstoned()).thenReturn(5L);
+
+		// Act
+		final var result = contactSettingPurger.purge();
+
+		// Assert
+		assertThat(result).isEqualTo(2);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".purged").tag("type", "contactSetting").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".purged").tag("type", "delegate").counter().count()).isEqualTo(23);
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".pending").gauge().value()).isEqualTo(5);
+
+		// Delete the delegates (in bounded batches) before the contact settings.
+		final var inOrder = inOrder(contactSettingRepositoryMock, delegateRepositoryMock);
+		inOrder.verify(contactSettingRepositoryMock).findTombstonedIds(BATCH_SIZE);
+		inOrder.verify(delegateRepositoryMock, times(3)).deleteByPrincipalIdInOrAgentIdIn(ids, DELEGATE_BATCH_SIZE);
+		inOrder.verify(contactSettingRepositoryMock).deleteTombstonedByIdIn(ids);
+		inOrder.verify(contactSettingRepositoryMock).countTombstoned();
+		verifyNoMoreInteractions(contactSettingRepositoryMock, delegateRepositoryMock);
+	}
+
+	@Test
+	void purgeWithoutTombstonedContactSettings() {
+
+		// Arrange
+		when(contactSettingRepositoryMock.findTombstonedIds(BATCH_SIZE)).thenReturn(List.of());
+
+		// Act
+		final var result = contactSettingPurger.purge();
+
+		// Assert
+		assertThat(result).isZero();
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".purged").tag("type", "contactSetting").counter().count()).isZero();
+		assertThat(meterRegistry.get(METRIC_PREFIX + ".pending").gauge().value()).isZero();
+
+		verify(contactSettingRepositoryMock).findTombstonedIds(BATCH_SIZE);
+		verifyNoMoreInteractions(contactSettingRepositoryMock);
+		verifyNoInteractions(delegateRepositoryMock);
+	}
+}
@@ -0,0 +1,73 @@
+package se.sundsvall.contactsettings.service.util;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterEntity;
+import se.sundsvall.contactsettings.integration.db.model.DelegateFilterRule;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+class CompiledDelegateFiltersTest {
+
+	@Test
+	void compileWhenNull() {
+
+		// Act
+		final var result = CompiledDelegateFilters.compile(null);
+
+		// Assert
+		assertThat(result.matches(NormalizedQuery.of(Map.of()))).isTrue();
+		assertThat(result.ruleCount()).isZero();
+	}
+
+	@Test
+	void matchesIsReusable() {
+
+		// Arrange
+		final var compiledFilters = CompiledDelegateFilters.compile(List.of(
+			DelegateFilterEntity.create().withFilterRules(List.of(
+				DelegateFilterRule.create().withAttributeName("key1").withOperator("equals").withAttributeValue("value1"),
+				DelegateFilterRule.create().withAttributeName("key2").withOperator("NOT_EQUALS").withAttributeValue("value2")))));
+
+		// Act and assert
+		assertThat(compiledFilters.ruleCount()).isEqualTo(2);
+		assertThat(compiledFilters.matches(NormalizedQuery.of(Map.of("key1", List.of("VALUE1"))))).isTrue();
+		assertThat(compiledFilters.matches(NormalizedQuery.of(Map.of("key1", List.of("value1"), "key2", List.of("value2"))))).isFalse();
+		assertThat(compiledFilters.matches(NormalizedQuery.of(Map.of("key2", List.of("value3"))))).isFalse();
+		assertThat(compiledFilters.matches(NormalizedQuery.of(Map.of("key1", List.of("value1"))))).isTrue();
+	}
+
+	@Test
+	void matchesWithMatchAllRule() {
+
+		// Arrange
+		final var compiledFilters = CompiledDelegateFilters.compile(List.of(
+			DelegateFilterEntity.create().withFilterRules(List.of(
+				DelegateFilterRule.create().withAttributeName("*").withOperator("EQUALS").withAttributeValue("*")))));
+
+		// Act and assert
+		assertThat(compiledFilters.matches(NormalizedQuery.of(Map.of()))).isTrue();
+		assertThat(compiledFilters.matches(NormalizedQuery.of(Map.of("key", List.of("value"))))).isTrue();
+	}
+
+	@Test
+	void matchesWithInvalidOperator() {
+
+		// Arrange
+		final var compiledFilters = CompiledDelegateFilters.compile(List.of(
+			DelegateFilterEntity.create().withFilterRules(List.of(
+				DelegateFilterRule.create().withAttributeName("key").withOperator("EQUALS").withAttributeValue("value"),
+				DelegateFilterRule.create().withAttributeName("key").withOperator("INVALID").withAttributeValue("value")))));
+
+		// Act and assert
+		assertThat(compiledFilters.matches(NormalizedQuery.of(Map.of("key", List.of("other-value"))))).isFalse(); // Invalid rule is never reached.
+
+		final var exception = assertThrows(ThrowableProblem.class, () -> compiledFilters.matches(NormalizedQuery.of(Map.of("key", List.of("value")))));
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getDetail()).isEqualTo("Invalid value for enum Operator: INVALID");
+	}
+}
@@ -0,0 +1,77 @@
+package se.sundsvall.contactsettings.service.util;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+import se.sundsvall.contactsettings.integration.db.model.ContactSettingEntity;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Base64.getUrlEncoder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static se.sundsvall.contactsettings.service.Constants.ERROR_MESSAGE_INVALID_CONTINUATION_TOKEN;
+
+class ContinuationTokenTest {
+
+	@Test
+	void encodeAndDecode() {
+
+		// Arrange
+		final var created = OffsetDateTime.of(2023, 5, 23, 12, 1, 0, 123456000, ZoneOffset.ofHours(2));
+		final var id = "c2d0a7f8-e0d1-444d-9a7b-3cf6e7b46ad0";
+
+		// Act
+		final var encoded = ContinuationToken.of(ContactSettingEntity.create().withCreated(created).withId(id)).encode();
+		final var decoded = ContinuationToken.decode(encoded);
+
+		// Assert
+		assertThat(encoded).doesNotContain(id).matches("[A-Za-z0-9_-]+"); // Opaque and URL-safe.
+		assertThat(decoded.id()).isEqualTo(id);
+		assertThat(decoded.created().toInstant()).isEqualTo(created.toInstant());
+	}
+
+	@Test
+	void encodeWithoutCreated() {
+		assertThat(new ContinuationToken(null, "id").encode()).isNull();
+	}
+
+	@ParameterizedTest
+	@NullAndEmptySource
+	@ValueSource(strings = " ")
+	void decodeWithoutToken(final String token) {
+		assertThat(ContinuationToken.decode(token)).isNull();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"not base64!", "bm8tc2VwYXJhdG9y", "MjAyMy0wNS0yM3xpZA", "MjAyMy0wNS0yM1QxMDowMTowMFp8"
+	})
+	void decodeInvalidToken(final String token) {
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> ContinuationToken.decode(token));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getDetail()).isEqualTo(ERROR_MESSAGE_INVALID_CONTINUATION_TOKEN.formatted(token));
+	}
+
+	@Test
+	void decodeCraftedToken() {
+
+		// Arrange
+		final var token = getUrlEncoder().encodeToString("2023-05-23T10:01:00Z|some-id".getBytes(UTF_8));
+
+		// Act
+		final var result = ContinuationToken.decode(token);
+
+		// Assert
+		assertThat(result.id()).isEqualTo("some-id");
+		assertThat(result.created().toInstant()).hasToString("2023-05-23T10:01:00Z");
+	}
+}
@@ -0,0 +1,98 @@
+package se.sundsvall.contactsettings.service.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.util.LinkedMultiValueMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NormalizedQueryTest {
+
+	@Test
+	void contains() {
+
+		// Arrange
+		final var inputQuery = new LinkedMultiValueMap<String, String>();
+		inputQuery.put("key1", List.of("Value1", "VALUE2"));
+		inputQuery.put("key2", List.of("value3"));
+
+		// Act
+		final var result = NormalizedQuery.of(inputQuery);
+
+		// Assert
+		assertThat(result.contains("key1", NormalizedQuery.fold("value1"))).isTrue();
+		assertThat(result.contains("key1", NormalizedQuery.fold("vAlUe2"))).isTrue();
+		assertThat(result.contains("key1", NormalizedQuery.fold("value3"))).isFalse();
+		assertThat(result.contains("KEY1", NormalizedQuery.fold("value1"))).isFalse(); // Attribute names are case-sensitive.
+		assertThat(result.contains("key2", NormalizedQuery.fold("VALUE3"))).isTrue();
+		assertThat(result.contains("key3", NormalizedQuery.fold("value3"))).isFalse();
+	}
+
+	@Test
+	void containsWithNullValues() {
+
+		// Arrange
+		final var inputQuery = new HashMap<String, List<String>>();
+		inputQuery.put("key1", Arrays.asList("value1", null));
+		inputQuery.put("key2", null);
+
+		// Act
+		final var result = NormalizedQuery.of(inputQuery);
+
+		// Assert
+		assertThat(result.contains("key1", null)).isTrue();
+		assertThat(result.contains("key2", null)).isFalse();
+	}
+
+	@Test
+	void ofNullAndEmpty() {
+		assertThat(NormalizedQuery.of(null).contains("key", "value")).isFalse();
+		assertThat(NormalizedQuery.of(Map.of()).contains("key", "value")).isFalse();
+	}
+
+	@Test
+	void equalsAndHashCode() {
+
+		// Arrange
+		final var inputQuery1 = new LinkedMultiValueMap<String, String>();
+		inputQuery1.put("key1", List.of("Value1", "VALUE2"));
+		inputQuery1.put("key2", List.of("value3"));
+		final var inputQuery2 = new LinkedMultiValueMap<String, String>();
+		inputQuery2.put("key2", List.of("VALUE3"));
+		inputQuery2.put("key1", List.of("value2", "value1", "VALUE1"));
+		final var inputQuery3 = new LinkedMultiValueMap<String, String>();
+		inputQuery3.put("key1", List.of("value1"));
+
+		// Act
+		final var result1 = NormalizedQuery.of(inputQuery1);
+		final var result2 = NormalizedQuery.of(inputQuery2);
+		final var result3 = NormalizedQuery.of(inputQuery3);
+
+		// Assert
+		assertThat(result1).isEqualTo(result2).hasSameHashCodeAs(result2).isNotEqualTo(result3);
+		assertThat(NormalizedQuery.of(null)).isEqualTo(NormalizedQuery.of(Map.of()));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+		"abc, ABC",
+		"Straße, STRASSE",
+		"ǅ, ǆ",
+		"ς, Σ",
+		"İ, i",
+		"𐐀, 𐐨"
+	})
+	void foldIsConsistentWithEqualsIgnoreCase(final String value1, final String value2) {
+		assertThat(NormalizedQuery.fold(value1).equals(NormalizedQuery.fold(value2))).isEqualTo(value1.equalsIgnoreCase(value2));
+	}
+
+	@Test
+	void foldNull() {
+		assertThat(NormalizedQuery.fold(null)).isNull();
+	}
+}
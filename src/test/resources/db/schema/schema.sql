@@ -1,10 +1,29 @@
 
+    create table change_log (
+        created datetime(6),
+        id bigint not null auto_increment,
+        sequence bigint,
+        delegate_id uuid,
+        entity_id uuid,
+        entity_type varchar(255),
+        municipality_id varchar(255),
+        operation varchar(255),
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table change_log_sequence (
+        id bigint not null,
+        last_sequence bigint not null,
+        primary key (id)
+    ) engine=InnoDB;
+
     create table contact_setting (
         created datetime(6),
+        deleted datetime(6),
         modified datetime(6),
         alias varchar(255),
-        created_by_id varchar(255),
-        id varchar(255) not null,
+        created_by_id uuid,
+        id uuid not null,
         municipality_id varchar(255),
         party_id varchar(255),
         primary key (id)
@@ -14,16 +33,16 @@
         disabled bit,
         alias varchar(255),
         contact_method varchar(255),
-        contact_setting_id varchar(255) not null,
+        contact_setting_id uuid not null,
         destination varchar(255)
     ) engine=InnoDB;
 
     create table delegate (
         created datetime(6),
         modified datetime(6),
-        agent_id varchar(255) not null,
-        id varchar(255) not null,
-        principal_id varchar(255) not null,
+        agent_id uuid not null,
+        id uuid not null,
+        principal_id uuid not null,
         primary key (id)
     ) engine=InnoDB;
 
@@ -32,34 +51,44 @@
         modified datetime(6),
         alias varchar(255),
         channel varchar(255),
-        delegate_id varchar(255),
-        id varchar(255) not null,
+        delegate_id uuid,
+        id uuid not null,
         primary key (id)
     ) engine=InnoDB;
 
     create table delegate_filter_rule (
         attribute_name varchar(255),
         attribute_value varchar(255),
-        delegate_filter_id varchar(255) not null,
+        delegate_filter_id uuid not null,
         operator varchar(255)
     ) engine=InnoDB;
 
-    create index contact_setting_party_id_index 
-       on contact_setting (party_id);
+    create index change_log_municipality_id_sequence_index 
+       on change_log (municipality_id, sequence);
+
+    create index contact_setting_municipality_id_created_by_id_created_index 
+       on contact_setting (municipality_id, created_by_id, created);
+
+    create index contact_setting_deleted_index 
+       on contact_setting (deleted);
 
-    create index contact_setting_created_by_id_index 
-       on contact_setting (created_by_id);
+    create index contact_setting_channel_destination_contact_setting_id_index 
+       on contact_setting_channel (destination, contact_setting_id);
 
-    create index contact_setting_municipality_id_index 
-       on contact_setting (municipality_id);
+    alter table if exists change_log 
+       add constraint uq_change_log_sequence unique (sequence);
 
-    create index contact_setting_channel_destination_index 
-       on contact_setting_channel (destination);
+    alter table if exists contact_setting 
+       add constraint uq_contact_setting_municipality_id_party_id unique (municipality_id, party_id);
+
+    alter table if exists delegate 
+       add constraint uq_delegate_principal_id_agent_id unique (principal_id, agent_id);
 
     alter table if exists contact_setting_channel 
        add constraint fk_contact_setting_contact_setting_channel 
        foreign key (contact_setting_id) 
-       references contact_setting (id);
+       references contact_setting (id) 
+       on delete cascade;
 
     alter table if exists delegate 
        add constraint fk_delegate_agent_id_contact_setting_id 
@@ -74,9 +103,11 @@
     alter table if exists delegate_filter 
        add constraint fk_delegate_id_delegate_filter_delegate_id 
        foreign key (delegate_id) 
-       references delegate (id);
+       references delegate (id) 
+       on delete cascade;
 
     alter table if exists delegate_filter_rule 
        add constraint fk_delegate_filter_delegate_filter_rule 
        foreign key (delegate_filter_id) 
-       references delegate_filter (id);
+       references delegate_filter (id) 
+       on delete cascade;
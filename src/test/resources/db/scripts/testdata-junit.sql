@@ -26,3 +26,10 @@ INSERT INTO delegate_filter (id, delegate_id, alias) VALUES
 	('4327dae1-a00b-462d-885a-417628ea3114', '4d6adb65-172a-4671-a667-5e142bfc353e', 'Jane will only see messages for summer house'); 
 INSERT INTO delegate_filter_rule (delegate_filter_id, attribute_name, operator, attribute_value) VALUES 
     ('4327dae1-a00b-462d-885a-417628ea3114', 'facilityId', 'EQUALS', '12345678');
+INSERT INTO change_log (id, sequence, municipality_id, entity_type, entity_id, delegate_id, operation, created) VALUES
+    (1, 1, '2281', 'CONTACT_SETTING', 'a42bfd69-ab22-443c-bdef-1cc6a70bcab3', null, 'CREATED', '2023-04-28 12:01:00'),
+    (2, 2, '1984', 'CONTACT_SETTING', '951dacb1-645a-41fd-952a-6089abdce481', null, 'CREATED', '2023-04-28 12:03:00'), -- Other municipality
+    (3, 4, '2281', 'DELEGATE', '4d6adb65-172a-4671-a667-5e142bfc353e', null, 'CREATED', '2023-04-28 12:05:00'), -- Committed after id 4
+    (4, 3, '2281', 'DELEGATE_FILTER', '4327dae1-a00b-462d-885a-417628ea3114', '4d6adb65-172a-4671-a667-5e142bfc353e', 'CREATED', '2023-04-28 12:05:00'),
+    (5, 5, '2281', 'CONTACT_SETTING', 'a42bfd69-ab22-443c-bdef-1cc6a70bcab3', null, 'UPDATED', '2023-05-28 12:00:00'),
+    (6, null, '2281', 'CONTACT_SETTING', 'a42bfd69-ab22-443c-bdef-1cc6a70bcab3', null, 'UPDATED', '2023-05-28 12:01:00'); -- Not relayed yet
@@ -0,0 +1,42 @@
+-- Generated dataset for the query plan tests: 2000 contact settings (with one virtual contact setting each) in ten
+-- municipalities, with channels, and a delegate (with a filter and a rule) from each contact setting to its virtual
+-- contact setting. The seq_1_to_N tables are provided by the MariaDB sequence engine.
+INSERT INTO contact_setting (id, municipality_id, alias, created, modified, created_by_id, party_id)
+	SELECT uuid(), CONCAT('22', seq % 10), CONCAT('Person ', seq), NOW(6) - INTERVAL seq MINUTE, NOW(6), null, uuid()
+	FROM seq_1_to_2000;
+
+INSERT INTO contact_setting (id, municipality_id, alias, created, modified, created_by_id, party_id)
+	SELECT uuid(), municipality_id, CONCAT('Virtual friend of ', alias), created, modified, id, null
+	FROM contact_setting;
+
+INSERT INTO contact_setting_channel (contact_setting_id, alias, contact_method, destination, disabled)
+	SELECT id, 'Email', 'EMAIL', CONCAT(REPLACE(LOWER(alias), ' ', '.'), '@example.com'), 0
+	FROM contact_setting;
+
+INSERT INTO contact_setting_channel (contact_setting_id, alias, contact_method, destination, disabled)
+	SELECT id, 'SMS', 'SMS', CONCAT('4670', LPAD(SUBSTRING(alias, 8), 7, '0')), 0
+	FROM contact_setting
+	WHERE party_id IS NOT NULL;
+
+INSERT INTO delegate (id, principal_id, agent_id, created, modified)
+	SELECT uuid(), created_by_id, id, created, modified
+	FROM contact_setting
+	WHERE created_by_id IS NOT NULL;
+
+INSERT INTO delegate_filter (id, delegate_id, alias, channel, created, modified)
+	SELECT uuid(), id, 'Filter', 'EMAIL', created, modified
+	FROM delegate;
+
+INSERT INTO delegate_filter_rule (delegate_filter_id, attribute_name, operator, attribute_value)
+	SELECT id, 'facilityId', 'EQUALS', '12345678'
+	FROM delegate_filter;
+
+INSERT INTO change_log (municipality_id, entity_type, entity_id, operation, created)
+	SELECT municipality_id, 'CONTACT_SETTING', id, 'CREATED', created
+	FROM contact_setting
+	ORDER BY created;
+
+-- All but the latest changes have been relayed.
+UPDATE change_log SET sequence = id WHERE id <= 3900;
+
+ANALYZE TABLE change_log, contact_setting, contact_setting_channel, delegate, delegate_filter, delegate_filter_rule;
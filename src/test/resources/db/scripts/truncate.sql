@@ -1,4 +1,5 @@
 SET FOREIGN_KEY_CHECKS = 0;
+TRUNCATE table change_log;
 TRUNCATE table contact_setting;
 TRUNCATE table contact_setting_channel;
 TRUNCATE table delegate;